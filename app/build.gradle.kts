@@ -31,6 +31,13 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    buildFeatures {
+        buildConfig = true
+    }
+    testOptions {
+        // JVM tests touch android.util.Log through AppLog; let it be a no-op there.
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -44,6 +51,7 @@ dependencies {
     implementation(libs.cardview)
     implementation(libs.navigation.fragment)
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
 
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
@@ -0,0 +1,202 @@
+package com.example.smartfarmapp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AlertBatcher
+ * ─────────────
+ * The bookkeeping behind NotificationDispatcher: which alert lines are waiting,
+ * when they may be shown, and how many notifications each channel has used up.
+ * Pure Java with the clock passed in, so it can be tested without Android.
+ *
+ * BATCHING: the first event of a kind opens a window (Config.windowMillis).
+ * Everything of any kind that arrives before the window closes is shown
+ * together – one notification per kind, lines merged, plus a group summary –
+ * instead of one notification per event.
+ *
+ * RATE LIMIT: each channel has a token bucket (burst, then one token per
+ * refillMillis). A flush of a channel costs one token, however many kinds it
+ * contains. Without a token, events keep collecting and the channel flushes as
+ * soon as a token is back – nothing is lost, it just arrives merged.
+ *
+ * Not thread-safe: NotificationDispatcher only touches it on its own thread.
+ */
+public final class AlertBatcher {
+
+    // Kinds, in the order they are listed in the group summary
+    public static final int ALERT      = 0;   // a value left its range
+    public static final int CLEARED    = 1;   // everything is back in range
+    public static final int RULE       = 2;   // a compound rule fired
+    public static final int FORECAST   = 3;   // early warning
+    public static final int ANOMALY    = 4;   // unusual readings
+    public static final int KIND_COUNT = 5;
+
+    /**
+     * Tuning. Immutable; start from defaults() and change what you need with the
+     * with… methods.
+     */
+    public static final class Config {
+        final long windowMillis;
+        final int  burst;
+        final long refillMillis;
+        final int  maxLines;
+
+        private Config(long windowMillis, int burst, long refillMillis, int maxLines) {
+            this.windowMillis = windowMillis;
+            this.burst        = burst;
+            this.refillMillis = refillMillis;
+            this.maxLines     = maxLines;
+        }
+
+        /**
+         * Collect for 10 seconds; per channel a burst of 3 flushes, then one
+         * every 5 minutes; keep the newest 8 lines per kind.
+         */
+        public static Config defaults() {
+            return new Config(10_000L, 3, 5 * 60_000L, 8);
+        }
+
+        // Precondition: windowMillis >= 0
+        public Config withWindow(long windowMillis) {
+            return new Config(windowMillis, burst, refillMillis, maxLines);
+        }
+
+        // Precondition: burst >= 1, refillMillis >= 1
+        public Config withRate(int burst, long refillMillis) {
+            return new Config(windowMillis, burst, refillMillis, maxLines);
+        }
+
+        // Precondition: maxLines >= 1
+        public Config withMaxLines(int maxLines) {
+            return new Config(windowMillis, burst, refillMillis, maxLines);
+        }
+    }
+
+    /** What to show for one kind after a flush. */
+    public static final class Batch {
+        public final String       channel;
+        public final int          kind;
+        public final String       title;        // the newest event's title
+        public final List<String> lines;        // newest maxLines lines, oldest first
+        public final int          events;       // lines offered, including dropped ones
+        public final long         lastMillis;   // when the newest event arrived
+
+        Batch(String channel, int kind, String title, List<String> lines, int events, long lastMillis) {
+            this.channel    = channel;
+            this.kind       = kind;
+            this.title      = title;
+            this.lines      = lines;
+            this.events     = events;
+            this.lastMillis = lastMillis;
+        }
+    }
+
+    private final Config config;
+    private final Map<String, Channel> channels = new HashMap<>();
+
+    // Precondition: config is not null
+    // Postcondition: An empty batcher is created
+    public AlertBatcher(Config config) {
+        this.config = config;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Offer / drain
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: channel and title are not null; kind is one of the kinds above.
+     * Postcondition: line is queued under kind; a window opens if none was open.
+     */
+    public void offer(String channel, int kind, String title, String line, long nowMillis) {
+        Channel c = channels.get(channel);
+        if (c == null) {
+            c = new Channel(config.burst, nowMillis);
+            channels.put(channel, c);
+        }
+        Pending p = c.pending[kind];
+        if (p == null) {
+            p = new Pending();
+            c.pending[kind] = p;
+        }
+        if (c.dueMillis == Long.MAX_VALUE) c.dueMillis = nowMillis + config.windowMillis;
+        p.title      = title;
+        p.lastMillis = nowMillis;
+        p.events++;
+        if (line == null || line.isEmpty()) return;
+        if (p.lines.size() == config.maxLines) p.lines.removeFirst();
+        p.lines.addLast(line);
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the batches of every channel whose window has closed
+     * and that has a token (one token is spent per channel); their events are
+     * removed. Channels without a token keep theirs and become due when a token
+     * is back.
+     */
+    public List<Batch> drain(long nowMillis) {
+        List<Batch> out = new ArrayList<>();
+        for (Map.Entry<String, Channel> e : channels.entrySet()) {
+            Channel c = e.getValue();
+            if (nowMillis < c.dueMillis) continue;
+            if (!c.tryAcquire(nowMillis, config)) {
+                c.dueMillis = c.nextTokenMillis(config);
+                continue;
+            }
+            for (int kind = 0; kind < KIND_COUNT; kind++) {
+                Pending p = c.pending[kind];
+                if (p == null) continue;
+                out.add(new Batch(e.getKey(), kind, p.title, new ArrayList<>(p.lines), p.events, p.lastMillis));
+                c.pending[kind] = null;
+            }
+            c.dueMillis = Long.MAX_VALUE;
+        }
+        return out;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns when drain() will next return something (Long.MAX_VALUE if nothing is queued)
+    public long nextDueMillis() {
+        long next = Long.MAX_VALUE;
+        for (Channel c : channels.values()) next = Math.min(next, c.dueMillis);
+        return next;
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    private static final class Pending {
+        final ArrayDeque<String> lines = new ArrayDeque<>();
+        String title;
+        int    events;
+        long   lastMillis;
+    }
+
+    private static final class Channel {
+        final Pending[] pending = new Pending[KIND_COUNT];
+        long   dueMillis = Long.MAX_VALUE;
+        double tokens;
+        long   refilledAt;
+
+        Channel(int burst, long nowMillis) {
+            this.tokens     = burst;
+            this.refilledAt = nowMillis;
+        }
+
+        boolean tryAcquire(long nowMillis, Config config) {
+            tokens = Math.min(config.burst, tokens + (double) (nowMillis - refilledAt) / config.refillMillis);
+            refilledAt = nowMillis;
+            if (tokens < 1.0) return false;
+            tokens -= 1.0;
+            return true;
+        }
+
+        long nextTokenMillis(Config config) {
+            return refilledAt + (long) Math.ceil((1.0 - tokens) * config.refillMillis);
+        }
+    }
+}
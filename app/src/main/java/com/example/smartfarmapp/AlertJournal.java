@@ -0,0 +1,411 @@
+package com.example.smartfarmapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AlertJournal
+ * ─────────────
+ * Every alert FarmMonitoringService raises, kept after its notification is
+ * gone: what fired (kind, metric or rule), the three readings, the profile,
+ * and when. An append-only file of fixed-size records, so a new alert is one
+ * write at the end and record n is always at the same place.
+ *
+ * QUERIES: "alerts between two times", optionally "for one metric", newest
+ * first, a page at a time. The file is never scanned for them:
+ *   - an in-memory column of record times (8 bytes per alert) is binary
+ *     searched for the time range;
+ *   - per metric, a list of record numbers is binary searched the same way;
+ *   - only the records on the requested page are read from disk.
+ * Both indexes are rebuilt by one sequential read when the journal is opened.
+ *
+ * WRITING: appendAsync() hands a cycle's alerts to one background writer
+ * thread and returns at once, so the monitor loop never waits for the disk.
+ * No fsync per write – a crash can lose the last few alerts, never corrupt
+ * older ones (a half-written last record is dropped on the next open).
+ *
+ * SIZE: at MAX_RECORDS (≈ 11 MB) the oldest quarter is dropped by rewriting
+ * the file once – rare, and on the writer thread.
+ *
+ * File format (big-endian): header int magic 'FAJL', int version 1,
+ * int RECORD_BYTES, int 0; then records (see encode()).
+ *
+ * One instance per file in the process (open() shares it); all methods are
+ * synchronized. Pure Java (no Android classes).
+ */
+public final class AlertJournal {
+
+    /** Entry.metric for alerts that are not about a single metric (compound rules). */
+    public static final int NO_METRIC  = -1;
+    /** Query filter meaning "every metric, and entries with none". */
+    public static final int ANY_METRIC = -2;
+    public static final long NO_PROFILE = Long.MIN_VALUE;
+
+    static final int    RECORD_BYTES = 112;
+    static final int    HEADER_BYTES = 16;
+    static final int    MAX_RECORDS  = 100_000;
+    private static final int MAGIC   = 0x46414A4C;   // "FAJL"
+    private static final int VERSION = 1;
+    private static final int NAME_BYTES = 32;
+
+    /** One alert as stored. Strings longer than 32 UTF-8 bytes are cut. */
+    public static final class Entry {
+        public final long    epochMillis;    // time of the reading that raised it
+        public final long    loggedMillis;   // wall-clock time it was written
+        public final int     kind;           // AlertBatcher.ALERT, CLEARED, RULE, FORECAST or ANOMALY
+        public final int     metric;         // RangeCheck metric, or NO_METRIC
+        public final boolean high;           // above the range (ALERT / FORECAST)
+        public final int     temp;
+        public final int     groundHumid;
+        public final int     airHumid;
+        public final long    profileId;      // NO_PROFILE if none was active
+        public final String  profileName;    // "" if none
+        public final String  label;          // rule name, anomaly type … or ""
+
+        public Entry(long epochMillis, long loggedMillis, int kind, int metric, boolean high,
+                     int temp, int groundHumid, int airHumid,
+                     long profileId, String profileName, String label) {
+            this.epochMillis  = epochMillis;
+            this.loggedMillis = loggedMillis;
+            this.kind         = kind;
+            this.metric       = metric;
+            this.high         = high;
+            this.temp         = temp;
+            this.groundHumid  = groundHumid;
+            this.airHumid     = airHumid;
+            this.profileId    = profileId;
+            this.profileName  = profileName == null ? "" : profileName;
+            this.label        = label == null ? "" : label;
+        }
+    }
+
+    private static final Map<String, AlertJournal> OPEN = new HashMap<>();
+    private static ExecutorService writer;   // one daemon thread, created on first appendAsync
+    private static volatile IOException lastWriteError;
+
+    private final File file;
+    private final int  maxRecords;
+    private FileChannel channel;
+
+    // Indexes (memory only)
+    private long[] sortMillis = new long[1024];   // running max of epochMillis – what is searched
+    private int    size;
+    private final IntList[] byMetric = new IntList[RangeCheck.METRIC_COUNT + 1];   // last = NO_METRIC
+
+    /**
+     * Precondition: Called off the main thread (reads the whole file once on first open).
+     * Postcondition: Returns the process-wide journal for file, creating the file if needed.
+     * Throws IOException if it exists but is not a journal.
+     */
+    public static AlertJournal open(File file) throws IOException {
+        return open(file, MAX_RECORDS);
+    }
+
+    static synchronized AlertJournal open(File file, int maxRecords) throws IOException {
+        String key = file.getAbsolutePath();
+        AlertJournal journal = OPEN.get(key);
+        if (journal == null) {
+            journal = new AlertJournal(file, maxRecords);
+            OPEN.put(key, journal);
+        }
+        return journal;
+    }
+
+    private AlertJournal(File file, int maxRecords) throws IOException {
+        this.file       = file;
+        this.maxRecords = maxRecords;
+        for (int m = 0; m < byMetric.length; m++) byMetric[m] = new IntList();
+        load();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Writing
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * One write() for the whole list.
+     *
+     * Precondition: entries is not null; entries are in time order and not older
+     * than what is already stored (an older one is still kept, but found by
+     * time-range queries as if it had the newest stored time).
+     * Postcondition: entries are at the end of the file and in the indexes.
+     */
+    public synchronized void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) return;
+        if (size + entries.size() > maxRecords) dropOldest(size + entries.size() - maxRecords * 3 / 4);
+        ByteBuffer buf = ByteBuffer.allocate(entries.size() * RECORD_BYTES);
+        for (Entry e : entries) encode(e, buf);
+        buf.flip();
+        long at = HEADER_BYTES + (long) size * RECORD_BYTES;
+        while (buf.hasRemaining()) at += channel.write(buf, at);
+        for (Entry e : entries) index(e.epochMillis, e.metric);
+    }
+
+    /**
+     * For the monitor loop: returns at once. On the journal's background thread
+     * the file is opened (first time only – that reads it once to build the
+     * indexes) and the entries are appended, in the order appendAsync() was called.
+     *
+     * Precondition: file and entries are not null; entries is not changed afterwards.
+     * Postcondition: The entries will be appended; a failure is kept in lastWriteError().
+     */
+    public static void appendAsync(File file, List<Entry> entries) {
+        if (entries.isEmpty()) return;
+        writerThread().execute(() -> {
+            try {
+                open(file).append(entries);
+            } catch (IOException e) {
+                lastWriteError = e;
+            }
+        });
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the last appendAsync() failure (any journal), or null
+    public static IOException lastWriteError() { return lastWriteError; }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Queries
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public synchronized int size() { return size; }
+
+    /**
+     * O(log n), no I/O.
+     *
+     * Precondition: metric is a RangeCheck metric, NO_METRIC or ANY_METRIC.
+     * Postcondition: Returns how many entries have fromMillis <= time < toMillis.
+     */
+    public synchronized int count(long fromMillis, long toMillis, int metric) {
+        int[] range = range(fromMillis, toMillis, metric);
+        return range[1] - range[0];
+    }
+
+    /**
+     * O(log n + limit) – reads only the records on the page.
+     *
+     * Precondition: metric is a RangeCheck metric, NO_METRIC or ANY_METRIC;
+     * skip >= 0, limit >= 0.
+     * Postcondition: Returns up to limit entries with fromMillis <= time < toMillis,
+     * newest first, after skipping the skip newest.
+     */
+    public synchronized List<Entry> newestFirst(long fromMillis, long toMillis, int metric,
+                                                int skip, int limit) throws IOException {
+        int[] range = range(fromMillis, toMillis, metric);
+        List<Entry> page = new ArrayList<>(Math.max(0, Math.min(limit, range[1] - range[0] - skip)));
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_BYTES);
+        for (int k = range[1] - 1 - skip; k >= range[0] && page.size() < limit; k--) {
+            int record = metric == ANY_METRIC ? k : byMetric[bucket(metric)].get(k);
+            buf.clear();
+            long at = HEADER_BYTES + (long) record * RECORD_BYTES;
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, at + buf.position());
+                if (n < 0) throw new IOException("journal truncated at record " + record);
+            }
+            buf.flip();
+            page.add(decode(buf));
+        }
+        return page;
+    }
+
+    // Precondition: None
+    // Postcondition: The file is closed and open() will load it afresh
+    public void close() throws IOException {
+        synchronized (AlertJournal.class) {
+            OPEN.remove(file.getAbsolutePath());
+        }
+        synchronized (this) {
+            channel.close();
+        }
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    // [lo, hi) in the record numbers (ANY_METRIC) or in the metric's list
+    private int[] range(long fromMillis, long toMillis, int metric) {
+        if (metric == ANY_METRIC) {
+            return new int[] {lowerBound(null, fromMillis), lowerBound(null, toMillis)};
+        }
+        IntList list = byMetric[bucket(metric)];
+        return new int[] {lowerBound(list, fromMillis), lowerBound(list, toMillis)};
+    }
+
+    // First position whose time is >= millis, over all records (list == null) or one list
+    private int lowerBound(IntList list, long millis) {
+        int lo = 0, hi = list == null ? size : list.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long t = sortMillis[list == null ? mid : list.get(mid)];
+            if (t < millis) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int bucket(int metric) {
+        return metric >= 0 && metric < RangeCheck.METRIC_COUNT ? metric : RangeCheck.METRIC_COUNT;
+    }
+
+    private void index(long epochMillis, int metric) {
+        if (size == sortMillis.length) sortMillis = Arrays.copyOf(sortMillis, size * 2);
+        sortMillis[size] = size == 0 ? epochMillis : Math.max(epochMillis, sortMillis[size - 1]);
+        byMetric[bucket(metric)].add(size);
+        size++;
+    }
+
+    // Opens the file, checks the header, drops a half-written tail and builds the indexes
+    private void load() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0).flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) { }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("not an alert journal: " + file);
+        }
+        if (header.getInt() != VERSION || header.getInt() != RECORD_BYTES) {
+            channel.close();
+            throw new IOException("unsupported alert journal version: " + file);
+        }
+
+        long records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        channel.truncate(HEADER_BYTES + records * RECORD_BYTES);   // a crash mid-write leaves a partial record
+
+        ByteBuffer chunk = ByteBuffer.allocate(RECORD_BYTES * 512);
+        long at = HEADER_BYTES;
+        for (long done = 0; done < records; ) {
+            chunk.clear();
+            int want = (int) Math.min(512, records - done) * RECORD_BYTES;
+            chunk.limit(want);
+            while (chunk.hasRemaining() && channel.read(chunk, at + chunk.position()) >= 0) { }
+            chunk.flip();
+            for (int i = 0; i < want / RECORD_BYTES; i++) {
+                int base = i * RECORD_BYTES;
+                index(chunk.getLong(base), chunk.get(base + 25));
+            }
+            at   += want;
+            done += want / RECORD_BYTES;
+        }
+    }
+
+    // Rewrites the file without its `count` oldest records
+    private void dropOldest(int count) throws IOException {
+        count = Math.min(count, size);
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long from = HEADER_BYTES + (long) count * RECORD_BYTES;
+            long copied = 0, total = channel.size() - from;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) { }
+            header.flip();
+            out.write(header, 0);
+            while (copied < total) {
+                copied += channel.transferTo(from + copied, total - copied, out.position(HEADER_BYTES + copied));
+            }
+        }
+        channel.close();
+        boolean replaced = tmp.renameTo(file);
+        if (!replaced) tmp.delete();
+        // Reopen whatever is on disk now – the trimmed copy, or the untouched original
+        // if the rename failed – so this instance never keeps a closed channel
+        size = 0;
+        for (IntList list : byMetric) list.size = 0;
+        try {
+            load();
+        } catch (IOException e) {
+            synchronized (AlertJournal.class) {
+                OPEN.remove(file.getAbsolutePath());   // unusable: the next open() starts afresh
+            }
+            throw e;
+        }
+        if (!replaced) throw new IOException("could not replace " + file);
+    }
+
+    /*
+     * Record layout (RECORD_BYTES, big-endian):
+     *   0 long epochMillis    8 long loggedMillis   16 long profileId
+     *  24 byte kind          25 byte metric         26 byte high   27 unused
+     *  28 int temp           32 int groundHumid     36 int airHumid
+     *  40 32 bytes profileName (UTF-8, zero padded)
+     *  72 32 bytes label       (UTF-8, zero padded)
+     * 104 8 bytes unused
+     */
+    private static void encode(Entry e, ByteBuffer buf) {
+        int start = buf.position();
+        buf.putLong(e.epochMillis).putLong(e.loggedMillis).putLong(e.profileId);
+        buf.put((byte) e.kind).put((byte) e.metric).put((byte) (e.high ? 1 : 0)).put((byte) 0);
+        buf.putInt(e.temp).putInt(e.groundHumid).putInt(e.airHumid);
+        putName(buf, e.profileName);
+        putName(buf, e.label);
+        buf.position(start + RECORD_BYTES);
+    }
+
+    private static Entry decode(ByteBuffer buf) {
+        long epoch = buf.getLong(), logged = buf.getLong(), profileId = buf.getLong();
+        int  kind = buf.get(), metric = buf.get();
+        boolean high = buf.get() != 0;
+        buf.get();
+        int temp = buf.getInt(), ground = buf.getInt(), air = buf.getInt();
+        String profileName = getName(buf), label = getName(buf);
+        return new Entry(epoch, logged, kind, metric, high, temp, ground, air, profileId, profileName, label);
+    }
+
+    // Cut at NAME_BYTES without splitting a UTF-8 character
+    private static void putName(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(bytes.length, NAME_BYTES);
+        while (n < bytes.length && n > 0 && (bytes[n] & 0xC0) == 0x80) n--;
+        buf.put(bytes, 0, n);
+        for (int i = n; i < NAME_BYTES; i++) buf.put((byte) 0);
+    }
+
+    private static String getName(ByteBuffer buf) {
+        byte[] bytes = new byte[NAME_BYTES];
+        buf.get(bytes);
+        int n = 0;
+        while (n < NAME_BYTES && bytes[n] != 0) n++;
+        return new String(bytes, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static synchronized ExecutorService writerThread() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "alert-journal");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return writer;
+    }
+
+    /** Growable int array (no boxing). */
+    private static final class IntList {
+        int[] items = new int[256];
+        int   size;
+
+        void add(int v) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = v;
+        }
+
+        int get(int i) { return items[i]; }
+    }
+}
@@ -0,0 +1,552 @@
+package com.example.smartfarmapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * AlertRules
+ * ───────────
+ * Compound alert rules attached to a vegetation profile (Vegetation.rules),
+ * for conditions a min/max band per metric can't express:
+ *
+ *     Fungus risk: airHumid > 85 and temp < 18 for 30m
+ *     Condensation: night and temp - dewPoint < 2 for 1h
+ *     Heat stress: vpd > 2.2 or (day and temp >= 36) for 15m
+ *
+ * THE LANGUAGE – one rule per line (or separated by ';'), '#' starts a comment:
+ *
+ *   rule       := [name ':'] condition ['for' duration]
+ *   condition  := term ('or' term)*
+ *   term       := factor ('and' factor)*
+ *   factor     := 'not' factor | '(' condition ')' | 'day' | 'night'
+ *               | value compare value
+ *   value      := operand (('+' | '-') operand)*
+ *   operand    := number | temp | groundHumid | airHumid | vpd | dewPoint
+ *   compare    := '<' | '<=' | '>' | '>=' | '=' | '!='
+ *   duration   := number ('s' | 'm' | 'min' | 'h')
+ *
+ * Keywords and metric names are not case-sensitive. vpd (kPa) and dewPoint
+ * (°C) are worked out from temp and airHumid, as in DerivedMetrics.
+ *
+ * HOW IT RUNS:
+ * compile() turns every rule into postfix instructions for a tiny stack
+ * machine and puts them one after the other in a single int[] – no syntax
+ * tree is kept. evaluate() runs that array once per reading over a stack
+ * allocated at compile time, so a reading costs a few dozen array steps,
+ * allocates nothing and never looks at older readings.
+ *
+ * The "for" window needs only two numbers per rule: since when the condition
+ * has been true, and whether this stretch has fired. A rule fires once, on the
+ * reading where the condition has held for the duration; it can fire again
+ * after the condition has been false. A gap longer than MAX_GAP_MILLIS between
+ * readings restarts the window – we can't know what happened in between.
+ * toBytes() / restore() keep that state across restarts, so a condition that
+ * holds on doesn't fire again just because the service was restarted.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class AlertRules {
+
+    /** Longest silence between readings that still counts as "held the whole time". */
+    public static final long MAX_GAP_MILLIS = 30 * 60_000L;
+
+    /** evaluate() returns a bit per rule, so an int holds them all. */
+    public static final int MAX_RULES = 32;
+
+    private static final int MAGIC   = 0x4641524C;   // "FARL"
+    private static final int VERSION = 1;
+
+    // ── Inputs (the stack machine's registers) ───────────────────────────────
+    private static final int IN_TEMP         = 0;
+    private static final int IN_GROUND_HUMID = 1;
+    private static final int IN_AIR_HUMID    = 2;
+    private static final int IN_VPD          = 3;
+    private static final int IN_DEW_POINT    = 4;
+    private static final int IN_IS_DAY       = 5;
+    private static final int INPUTS          = 6;
+
+    private static final String[] INPUT_NAMES = {"temp", "groundhumid", "airhumid", "vpd", "dewpoint"};
+
+    // ── Instructions: opcode in the top byte, argument in the low 24 bits ─────
+    private static final int OP_INPUT = 1;    // push inputs[arg]
+    private static final int OP_CONST = 2;    // push constants[arg]
+    private static final int OP_ADD   = 3;
+    private static final int OP_SUB   = 4;
+    private static final int OP_LT    = 5;
+    private static final int OP_LE    = 6;
+    private static final int OP_GT    = 7;
+    private static final int OP_GE    = 8;
+    private static final int OP_EQ    = 9;
+    private static final int OP_NE    = 10;
+    private static final int OP_AND   = 11;
+    private static final int OP_OR    = 12;
+    private static final int OP_NOT   = 13;
+    private static final int OP_NIGHT = 14;   // push 1 − inputs[IN_IS_DAY]
+
+    // ── The compiled program ─────────────────────────────────────────────────
+    private final String[] names;
+    private final String[] sources;
+    private final long[]   durationMillis;
+    private final int[]    start;          // rule r's instructions are code[start[r] .. start[r + 1])
+    private final int[]    code;
+    private final double[] constants;
+    private final boolean  needsDerived;   // skip the exp/log when no rule uses vpd / dewPoint
+    private final int      textHash;       // of the text compiled, so restore() can refuse other rules' state
+
+    // ── Evaluation state, allocated once ─────────────────────────────────────
+    private final double[]  stack;
+    private final double[]  inputs = new double[INPUTS];
+    private final long[]    holdingSince;  // FarmTime.NO_TIME while the condition is false
+    private final boolean[] fired;
+    private long lastEpochMillis = Long.MIN_VALUE;
+
+    private AlertRules(List<String> names, List<String> sources, List<Long> durations,
+                       int[] start, int[] code, double[] constants, int maxDepth, boolean needsDerived,
+                       int textHash) {
+        int n = names.size();
+        this.names          = names.toArray(new String[0]);
+        this.sources        = sources.toArray(new String[0]);
+        this.durationMillis = new long[n];
+        for (int r = 0; r < n; r++) durationMillis[r] = durations.get(r);
+        this.start          = start;
+        this.code           = code;
+        this.constants      = constants;
+        this.needsDerived   = needsDerived;
+        this.textHash       = textHash;
+        this.stack          = new double[Math.max(1, maxDepth)];
+        this.holdingSince   = new long[n];
+        this.fired          = new boolean[n];
+        Arrays.fill(holdingSince, FarmTime.NO_TIME);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Evaluate
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(program length) per reading, no allocation.
+     *
+     * Precondition: Readings arrive oldest first.
+     * Postcondition: Returns a mask with bit (1 << rule) set for each rule that
+     * fires with this reading (0 for a reading not newer than the last one).
+     */
+    public int evaluate(long epochMillis, int temp, int groundHumid, int airHumid, boolean isDay) {
+        if (epochMillis == FarmTime.NO_TIME || epochMillis <= lastEpochMillis) return 0;
+        boolean gap = lastEpochMillis != Long.MIN_VALUE && epochMillis - lastEpochMillis > MAX_GAP_MILLIS;
+        lastEpochMillis = epochMillis;
+
+        inputs[IN_TEMP]         = temp;
+        inputs[IN_GROUND_HUMID] = groundHumid;
+        inputs[IN_AIR_HUMID]    = airHumid;
+        inputs[IN_IS_DAY]       = isDay ? 1 : 0;
+        if (needsDerived) {
+            inputs[IN_VPD]       = DerivedMetrics.vpdKpa(temp, airHumid);
+            inputs[IN_DEW_POINT] = DerivedMetrics.dewPointC(temp, airHumid);
+        }
+
+        int mask = 0;
+        for (int r = 0; r < names.length; r++) {
+            if (!run(start[r], start[r + 1])) {
+                holdingSince[r] = FarmTime.NO_TIME;
+                fired[r]        = false;
+                continue;
+            }
+            if (holdingSince[r] == FarmTime.NO_TIME || gap) holdingSince[r] = epochMillis;
+            if (!fired[r] && epochMillis - holdingSince[r] >= durationMillis[r]) {
+                fired[r] = true;
+                mask |= 1 << r;
+            }
+        }
+        return mask;
+    }
+
+    // The stack machine. Booleans are 1 / 0; a NaN comparison is false.
+    private boolean run(int from, int to) {
+        int sp = 0;
+        for (int pc = from; pc < to; pc++) {
+            int instruction = code[pc];
+            int arg = instruction & 0xFFFFFF;
+            switch (instruction >>> 24) {
+                case OP_INPUT: stack[sp++] = inputs[arg];     break;
+                case OP_CONST: stack[sp++] = constants[arg];  break;
+                case OP_NIGHT: stack[sp++] = 1 - inputs[IN_IS_DAY]; break;
+                case OP_NOT:   stack[sp - 1] = stack[sp - 1] != 0 ? 0 : 1; break;
+                default: {
+                    double b = stack[--sp], a = stack[sp - 1];
+                    stack[sp - 1] = binary(instruction >>> 24, a, b);
+                }
+            }
+        }
+        return stack[0] != 0;
+    }
+
+    private static double binary(int op, double a, double b) {
+        switch (op) {
+            case OP_ADD: return a + b;
+            case OP_SUB: return a - b;
+            case OP_LT:  return a <  b ? 1 : 0;
+            case OP_LE:  return a <= b ? 1 : 0;
+            case OP_GT:  return a >  b ? 1 : 0;
+            case OP_GE:  return a >= b ? 1 : 0;
+            case OP_EQ:  return a == b ? 1 : 0;
+            case OP_NE:  return a != b && !Double.isNaN(a) && !Double.isNaN(b) ? 1 : 0;
+            case OP_AND: return a != 0 && b != 0 ? 1 : 0;
+            default:     return a != 0 || b != 0 ? 1 : 0;   // OP_OR
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public int count() { return names.length; }
+
+    // Precondition: 0 <= rule < count()
+    // Postcondition: Returns the rule's name ("Rule N" if it has none)
+    public String name(int rule) { return names[rule]; }
+
+    // Precondition: 0 <= rule < count()
+    // Postcondition: Returns the rule's text after the name, as written
+    public String source(int rule) { return sources[rule]; }
+
+    // Precondition: 0 <= rule < count()
+    // Postcondition: Returns how long the condition must hold before the rule fires
+    public long durationMillis(int rule) { return durationMillis[rule]; }
+
+    // Precondition: 0 <= rule < count()
+    // Postcondition: Returns true if the rule has fired and its condition is still true
+    public boolean isActive(int rule) { return fired[rule]; }
+
+    // Precondition: None
+    // Postcondition: Returns the newest reading time evaluated (Long.MIN_VALUE if none)
+    public long lastEpochMillis() { return lastEpochMillis; }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the window state as bytes (big-endian):
+     *   int magic 'FARL', int version 1, int hash of the compiled text,
+     *   int rule count, long lastEpochMillis, then per rule: long holdingSince, boolean fired
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + 9 * names.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(textHash);
+            out.writeInt(names.length);
+            out.writeLong(lastEpochMillis);
+            for (int r = 0; r < names.length; r++) {
+                out.writeLong(holdingSince[r]);
+                out.writeBoolean(fired[r]);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory write failed", e);   // cannot happen
+        }
+    }
+
+    /**
+     * Precondition: bytes is not null.
+     * Postcondition: The rules hold the stored window state. On IOException (wrong
+     * magic/version, truncated data, or state saved by different rules text) they
+     * are left with fresh state.
+     */
+    public void restore(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readInt() != MAGIC)    throw new IOException("not a rules state");
+            if (in.readInt() != VERSION)  throw new IOException("unsupported rules state version");
+            if (in.readInt() != textHash || in.readInt() != names.length) {
+                throw new IOException("state of different rules");
+            }
+            lastEpochMillis = in.readLong();
+            for (int r = 0; r < names.length; r++) {
+                holdingSince[r] = in.readLong();
+                fired[r]        = in.readBoolean();
+            }
+        } catch (IOException e) {
+            Arrays.fill(holdingSince, FarmTime.NO_TIME);
+            Arrays.fill(fired, false);
+            lastEpochMillis = Long.MIN_VALUE;
+            throw e;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Compiler
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * What FarmMonitoringService compiles for a profile: its own rules, then one
+     * rule per derived limit it sets (DerivedMetrics.limitRules()). The dialog
+     * checks the same text, so a profile never saves rules the service can't run.
+     *
+     * Precondition: veg may be null.
+     * Postcondition: Returns the rules text, or null if there are no rules at all
+     */
+    public static String textFor(Vegetation veg) {
+        if (veg == null) return null;
+        String own    = veg.getRules() == null ? "" : veg.getRules().trim();
+        String limits = DerivedMetrics.limitRules(veg);
+        String text   = own.isEmpty() || limits.isEmpty() ? own + limits : own + "\n" + limits;
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Precondition: text is not null (may be empty – then there are no rules).
+     * Postcondition: Returns the compiled rules, with fresh state.
+     * Throws ParseException (error offset into text) for a syntax error, an
+     * unknown name, or more than MAX_RULES rules.
+     */
+    public static AlertRules compile(String text) throws ParseException {
+        List<String> names     = new ArrayList<>();
+        List<String> sources   = new ArrayList<>();
+        List<Long>   durations = new ArrayList<>();
+        List<Integer> starts   = new ArrayList<>();
+        Emitter emitter        = new Emitter();
+
+        int lineStart = 0;
+        while (lineStart <= text.length()) {
+            int end = lineEnd(text, lineStart);
+            int comment = text.indexOf('#', lineStart);
+            int stop = comment >= 0 && comment < end ? comment : end;
+
+            if (!text.substring(lineStart, stop).trim().isEmpty()) {
+                if (names.size() == MAX_RULES) {
+                    throw new ParseException("at most " + MAX_RULES + " rules", lineStart);
+                }
+                int colon = text.indexOf(':', lineStart);
+                int body  = colon >= 0 && colon < stop ? colon + 1 : lineStart;
+                String name = body > lineStart ? text.substring(lineStart, colon).trim() : "";
+                names.add(name.isEmpty() ? "Rule " + (names.size() + 1) : name);
+                sources.add(text.substring(body, stop).trim());
+                starts.add(emitter.size);
+                durations.add(new Parser(text, body, stop, emitter).rule());
+            }
+            lineStart = end + 1;
+        }
+        starts.add(emitter.size);
+
+        int[] start = new int[starts.size()];
+        for (int i = 0; i < start.length; i++) start[i] = starts.get(i);
+        return new AlertRules(names, sources, durations, start,
+                Arrays.copyOf(emitter.code, emitter.size), emitter.constants(),
+                emitter.maxDepth, emitter.needsDerived, text.hashCode());
+    }
+
+    private static int lineEnd(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == ';') return i;
+        }
+        return text.length();
+    }
+
+    /** Collects instructions and tracks how deep the stack can get. */
+    private static final class Emitter {
+        int[] code = new int[64];
+        int   size;
+        final List<Double> constants = new ArrayList<>();
+        int depth, maxDepth;
+        boolean needsDerived;
+
+        void emit(int op, int arg, int stackChange) {
+            if (size == code.length) code = Arrays.copyOf(code, size * 2);
+            code[size++] = op << 24 | arg;
+            depth += stackChange;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        void constant(double value) {
+            emit(OP_CONST, constants.size(), +1);
+            constants.add(value);
+        }
+
+        double[] constants() {
+            double[] out = new double[constants.size()];
+            for (int i = 0; i < out.length; i++) out[i] = constants.get(i);
+            return out;
+        }
+    }
+
+    /** Recursive descent over one rule, emitting postfix code as it goes. */
+    private static final class Parser {
+        private final String  text;
+        private final int     end;
+        private final Emitter out;
+        private int pos;
+
+        Parser(String text, int from, int end, Emitter out) {
+            this.text = text;
+            this.pos  = from;
+            this.end  = end;
+            this.out  = out;
+        }
+
+        // Returns the rule's duration in millis (0 if there is no "for")
+        long rule() throws ParseException {
+            int depthBefore = out.depth;
+            condition();
+            long duration = 0;
+            if (keyword("for")) duration = duration();
+            skipSpaces();
+            if (pos < end) throw error("unexpected '" + text.substring(pos, end).trim() + "'");
+            out.depth = depthBefore;   // each rule starts on an empty stack
+            return duration;
+        }
+
+        private void condition() throws ParseException {
+            term();
+            while (keyword("or")) {
+                term();
+                out.emit(OP_OR, 0, -1);
+            }
+        }
+
+        private void term() throws ParseException {
+            factor();
+            while (keyword("and")) {
+                factor();
+                out.emit(OP_AND, 0, -1);
+            }
+        }
+
+        private void factor() throws ParseException {
+            if (keyword("not")) {
+                factor();
+                out.emit(OP_NOT, 0, 0);
+            } else if (symbol("(")) {
+                condition();
+                if (!symbol(")")) throw error("missing ')'");
+            } else if (keyword("day")) {
+                out.emit(OP_INPUT, IN_IS_DAY, +1);
+            } else if (keyword("night")) {
+                out.emit(OP_NIGHT, 0, +1);
+            } else {
+                value();
+                int op = compare();
+                value();
+                out.emit(op, 0, -1);
+            }
+        }
+
+        private void value() throws ParseException {
+            operand();
+            while (true) {
+                if (symbol("+"))      { operand(); out.emit(OP_ADD, 0, -1); }
+                else if (symbol("-")) { operand(); out.emit(OP_SUB, 0, -1); }
+                else return;
+            }
+        }
+
+        private void operand() throws ParseException {
+            skipSpaces();
+            int from = pos;
+            if (pos < end && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.' || text.charAt(pos) == '-')) {
+                out.constant(number());
+                return;
+            }
+            String word = word();
+            if (word.isEmpty()) throw error("expected a number or a metric");
+            for (int i = 0; i < INPUT_NAMES.length; i++) {
+                if (INPUT_NAMES[i].equals(word)) {
+                    out.emit(OP_INPUT, i, +1);
+                    if (i == IN_VPD || i == IN_DEW_POINT) out.needsDerived = true;
+                    return;
+                }
+            }
+            pos = from;
+            throw error("unknown metric '" + word + "' (use temp, groundHumid, airHumid, vpd or dewPoint)");
+        }
+
+        private int compare() throws ParseException {
+            if (symbol("<="))  return OP_LE;
+            if (symbol(">="))  return OP_GE;
+            if (symbol("!="))  return OP_NE;
+            if (symbol("==") || symbol("=")) return OP_EQ;
+            if (symbol("<"))   return OP_LT;
+            if (symbol(">"))   return OP_GT;
+            throw error("expected <, <=, >, >=, = or !=");
+        }
+
+        private long duration() throws ParseException {
+            skipSpaces();
+            int from = pos;
+            double amount = number();
+            String unit = word();
+            long unitMillis;
+            switch (unit) {
+                case "s":   unitMillis = 1_000L;     break;
+                case "m":
+                case "min": unitMillis = 60_000L;    break;
+                case "h":   unitMillis = 3_600_000L; break;
+                default:
+                    pos = from;
+                    throw error("duration needs a unit: s, m or h");
+            }
+            if (amount < 0) { pos = from; throw error("duration can't be negative"); }
+            return Math.round(amount * unitMillis);
+        }
+
+        // ── Tokens ───────────────────────────────────────────────────────────
+
+        private double number() throws ParseException {
+            skipSpaces();
+            int from = pos;
+            if (pos < end && text.charAt(pos) == '-') pos++;
+            while (pos < end && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) pos++;
+            try {
+                return Double.parseDouble(text.substring(from, pos));
+            } catch (NumberFormatException e) {
+                pos = from;
+                throw error("bad number");
+            }
+        }
+
+        // Lower-cased run of letters (empty if none)
+        private String word() {
+            skipSpaces();
+            int from = pos;
+            while (pos < end && Character.isLetter(text.charAt(pos))) pos++;
+            return text.substring(from, pos).toLowerCase(Locale.ROOT);
+        }
+
+        private boolean keyword(String keyword) {
+            int from = pos;
+            if (word().equals(keyword)) return true;
+            pos = from;
+            return false;
+        }
+
+        private boolean symbol(String symbol) {
+            skipSpaces();
+            if (text.startsWith(symbol, pos) && pos + symbol.length() <= end) {
+                pos += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (pos < end && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        private ParseException error(String message) {
+            return new ParseException(message, pos);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.smartfarmapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * AlertStateMachine
+ * ──────────────────
+ * Decides WHEN an out-of-range reading becomes a notification, one small state
+ * machine per metric (temperature, ground humidity, air humidity):
+ *
+ *                 out of range                    dwell reached
+ *     NORMAL ───────────────────▶ PENDING ──────────────────────▶ ALERT
+ *       ▲   ◀───────────────────                                  │  ▲
+ *       │     back in range                    back inside the    │  │ out of
+ *       │                                      hysteresis band    ▼  │ range again
+ *       └───────────────────────────────────────────────────── CLEARING
+ *                           dwell reached
+ *
+ *   hysteresis – to clear, a value must come back inside [min + h, max − h],
+ *                not just inside [min, max], so a reading hovering on the
+ *                threshold does not flip in and out.
+ *   dwell      – a condition must hold this long (by reading time) before the
+ *                state changes, so one odd reading does nothing.
+ *   cooldown   – after an alert is raised, another one for the same metric
+ *                within this time still updates the state but is not reported.
+ *
+ * Readings are identified by their time: one at or before the newest time
+ * already seen is ignored, so feeding the same fetched rows again is harmless.
+ * A gap longer than maxGap restarts any dwell in progress.
+ *
+ * evaluate() is O(1) – a few comparisons per metric, no allocation. The whole
+ * state is a few dozen bytes; toBytes()/restore() let FarmMonitoringService
+ * keep it across restarts so an alert that was already shown is not shown
+ * again.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class AlertStateMachine {
+
+    // ── States ───────────────────────────────────────────────────────────────
+    public static final int NORMAL   = 0;
+    public static final int PENDING  = 1;   // out of range, waiting for the dwell
+    public static final int ALERT    = 2;
+    public static final int CLEARING = 3;   // back in range, waiting for the dwell
+
+    /** Told about each reported transition, during evaluate(). */
+    public interface Listener {
+        // high is true when the value is above the range, false when below
+        void onRaised(int metric, boolean high, int value, long epochMillis);
+        void onCleared(int metric, int value, long epochMillis);
+    }
+
+    /**
+     * Tuning, per metric where it matters. Immutable; start from defaults() and
+     * change what you need with the with… methods.
+     */
+    public static final class Config {
+        final float[] hysteresis;
+        final long    raiseDwellMillis;
+        final long    clearDwellMillis;
+        final long    cooldownMillis;
+        final long    maxGapMillis;
+
+        private Config(float[] hysteresis, long raiseDwellMillis, long clearDwellMillis,
+                       long cooldownMillis, long maxGapMillis) {
+            this.hysteresis       = hysteresis;
+            this.raiseDwellMillis = raiseDwellMillis;
+            this.clearDwellMillis = clearDwellMillis;
+            this.cooldownMillis   = cooldownMillis;
+            this.maxGapMillis     = maxGapMillis;
+        }
+
+        /**
+         * 1 °C / 3 % hysteresis, 5 minutes out of range before alerting, 10 minutes
+         * back in range before clearing, at most one alert per metric per 30 minutes,
+         * and dwell restarts after a 30 minute gap in readings.
+         */
+        public static Config defaults() {
+            return new Config(new float[] {1f, 3f, 3f},
+                    5 * 60_000L, 10 * 60_000L, 30 * 60_000L, 30 * 60_000L);
+        }
+
+        // Precondition: metric is a RangeCheck metric, band >= 0
+        public Config withHysteresis(int metric, float band) {
+            float[] h = hysteresis.clone();
+            h[metric] = band;
+            return new Config(h, raiseDwellMillis, clearDwellMillis, cooldownMillis, maxGapMillis);
+        }
+
+        // Precondition: both >= 0 (0 = change state on the first reading)
+        public Config withDwell(long raiseMillis, long clearMillis) {
+            return new Config(hysteresis, raiseMillis, clearMillis, cooldownMillis, maxGapMillis);
+        }
+
+        // Precondition: cooldownMillis >= 0
+        public Config withCooldown(long cooldownMillis) {
+            return new Config(hysteresis, raiseDwellMillis, clearDwellMillis, cooldownMillis, maxGapMillis);
+        }
+
+        // Precondition: maxGapMillis > 0
+        public Config withMaxGap(long maxGapMillis) {
+            return new Config(hysteresis, raiseDwellMillis, clearDwellMillis, cooldownMillis, maxGapMillis);
+        }
+    }
+
+    private static final int  METRICS  = RangeCheck.METRIC_COUNT;
+    private static final int  MAGIC    = 0x46415342;   // "FASB"
+    private static final int  VERSION  = 1;
+    private static final long NO_PROFILE = Long.MIN_VALUE;
+
+    private final Config config;
+
+    // Per metric
+    private final int[]     state       = new int[METRICS];
+    private final boolean[] high        = new boolean[METRICS];   // direction of the (pending) alert
+    private final long[]    since       = new long[METRICS];      // when PENDING / CLEARING began
+    private final long[]    lastRaised  = new long[METRICS];      // last reported raise
+    private final boolean[] reported    = new boolean[METRICS];   // current ALERT was reported (not in cooldown)
+
+    private long lastEpochMillis = Long.MIN_VALUE;
+    private long profileId       = NO_PROFILE;
+
+    // Precondition: config is not null
+    // Postcondition: Every metric starts NORMAL
+    public AlertStateMachine(Config config) {
+        this.config = config;
+        reset();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Evaluate
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Feeds one reading through all three metric machines.
+     *
+     * Precondition: veg is not null; readings arrive oldest first.
+     * Postcondition: Returns false (and changes nothing) if the reading is not newer
+     * than the last one evaluated. Otherwise the states advance, the listener (may be
+     * null) hears about reported transitions, and true is returned.
+     * A different vegetation profile than last time resets every metric to NORMAL first.
+     */
+    public boolean evaluate(long epochMillis, int temp, int groundHumid, int airHumid,
+                            Vegetation veg, boolean isDay, Listener listener) {
+        if (epochMillis == FarmTime.NO_TIME || epochMillis <= lastEpochMillis) return false;
+
+        long vegId = veg.getId() == null ? NO_PROFILE : veg.getId();
+        if (vegId != profileId) {
+            reset();
+            profileId = vegId;
+        }
+        boolean gap = lastEpochMillis != Long.MIN_VALUE && epochMillis - lastEpochMillis > config.maxGapMillis;
+        lastEpochMillis = epochMillis;
+
+        step(RangeCheck.TEMP,         temp,        veg, isDay, gap, epochMillis, listener);
+        step(RangeCheck.GROUND_HUMID, groundHumid, veg, isDay, gap, epochMillis, listener);
+        step(RangeCheck.AIR_HUMID,    airHumid,    veg, isDay, gap, epochMillis, listener);
+        return true;
+    }
+
+    // Precondition: farm and veg are not null
+    // Postcondition: As evaluate(epoch, …) with the farm's values and day/night by its time
+    public boolean evaluate(Farm farm, Vegetation veg, Listener listener) {
+        long epoch = FarmTime.toEpochMillis(farm.getDateTime());
+        if (epoch == FarmTime.NO_TIME) return false;
+        return evaluate(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(),
+                veg, FarmTime.isDayTime(epoch), listener);
+    }
+
+    private void step(int m, int value, Vegetation veg, boolean isDay, boolean gap,
+                      long now, Listener listener) {
+        float min = RangeCheck.min(veg, m, isDay);
+        float max = RangeCheck.max(veg, m, isDay);
+        boolean below = value < min, above = value > max;
+        boolean out   = below || above;
+
+        // The clear band is the range shrunk by the hysteresis (never past its middle)
+        float h = Math.min(config.hysteresis[m], Math.max(0f, (max - min) / 2f));
+        boolean settled = value >= min + h && value <= max - h;
+
+        switch (state[m]) {
+            case NORMAL:
+                if (out) {
+                    state[m] = PENDING;
+                    high[m]  = above;
+                    since[m] = now;
+                    maybeRaise(m, value, now, listener);
+                }
+                break;
+
+            case PENDING:
+                if (!out) {
+                    state[m] = NORMAL;
+                } else {
+                    if (gap || high[m] != above) {   // restart the dwell
+                        high[m]  = above;
+                        since[m] = now;
+                    }
+                    maybeRaise(m, value, now, listener);
+                }
+                break;
+
+            case ALERT:
+                if (out && high[m] != above) {
+                    // Jumped straight across the range: a new alert in the other direction
+                    high[m] = above;
+                    raise(m, value, now, listener);
+                } else if (out && !reported[m]) {
+                    raise(m, value, now, listener);   // raised during a cooldown: report once it ends
+                } else if (settled) {
+                    state[m] = CLEARING;
+                    since[m] = now;
+                    maybeClear(m, value, now, listener);
+                }
+                break;
+
+            case CLEARING:
+                if (out || !settled) {
+                    state[m] = ALERT;
+                    if (out && high[m] != above) {
+                        high[m] = above;
+                        raise(m, value, now, listener);
+                    }
+                } else {
+                    if (gap) since[m] = now;
+                    maybeClear(m, value, now, listener);
+                }
+                break;
+        }
+    }
+
+    private void maybeRaise(int m, int value, long now, Listener listener) {
+        if (now - since[m] >= config.raiseDwellMillis) raise(m, value, now, listener);
+    }
+
+    private void raise(int m, int value, long now, Listener listener) {
+        state[m] = ALERT;
+        boolean cooling = lastRaised[m] != Long.MIN_VALUE && now - lastRaised[m] < config.cooldownMillis;
+        reported[m] = !cooling;
+        if (cooling) return;
+        lastRaised[m] = now;
+        if (listener != null) listener.onRaised(m, high[m], value, now);
+    }
+
+    private void maybeClear(int m, int value, long now, Listener listener) {
+        if (now - since[m] < config.clearDwellMillis) return;
+        state[m] = NORMAL;
+        if (reported[m] && listener != null) listener.onCleared(m, value, now);
+        reported[m] = false;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns NORMAL, PENDING, ALERT or CLEARING
+    public int state(int metric) { return state[metric]; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns true while the metric is alerting above its range (false = below)
+    public boolean isHigh(int metric) { return high[metric]; }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns a mask with bit (1 << metric) set for every metric in
+     * ALERT or CLEARING – i.e. an alert that has been raised and not yet cleared.
+     */
+    public int activeMask() {
+        int mask = 0;
+        for (int m = 0; m < METRICS; m++) {
+            if (state[m] == ALERT || state[m] == CLEARING) mask |= 1 << m;
+        }
+        return mask;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the newest reading time evaluated (Long.MIN_VALUE if none)
+    public long lastEpochMillis() { return lastEpochMillis; }
+
+    /**
+     * Used by ProfileBacktest to check a replay that started part-way through the
+     * history: two machines that "behave alike" report exactly the same
+     * transitions for any readings that follow. Fields that no longer matter are
+     * ignored – e.g. when a metric's last raise was, once its cooldown is over.
+     *
+     * Precondition: other was made with the same Config.
+     * Postcondition: Returns true if both machines will act identically from now on
+     */
+    public boolean behavesLike(AlertStateMachine other) {
+        if (lastEpochMillis != other.lastEpochMillis || profileId != other.profileId) return false;
+        for (int m = 0; m < METRICS; m++) {
+            int s = state[m];
+            if (s != other.state[m]) return false;
+            if (s != NORMAL && high[m] != other.high[m]) return false;
+            if ((s == PENDING || s == CLEARING) && since[m] != other.since[m]) return false;
+            if ((s == ALERT || s == CLEARING) && reported[m] != other.reported[m]) return false;
+            if (coolingSince(m) != other.coolingSince(m)) return false;
+        }
+        return true;
+    }
+
+    // lastRaised while its cooldown can still matter, else Long.MIN_VALUE
+    private long coolingSince(int m) {
+        long raised = lastRaised[m];
+        return raised != Long.MIN_VALUE && lastEpochMillis - raised < config.cooldownMillis ? raised : Long.MIN_VALUE;
+    }
+
+    // Precondition: None
+    // Postcondition: Every metric is NORMAL with no cooldown; the reading watermark is kept
+    public void reset() {
+        for (int m = 0; m < METRICS; m++) {
+            state[m]      = NORMAL;
+            high[m]       = false;
+            since[m]      = 0;
+            lastRaised[m] = Long.MIN_VALUE;
+            reported[m]   = false;
+        }
+        profileId = NO_PROFILE;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the state as bytes (big-endian):
+     *   int magic 'FASB', int version 1, long lastEpochMillis, long profileId,
+     *   then per metric: byte state, boolean high, boolean reported, long since, long lastRaised
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lastEpochMillis);
+            out.writeLong(profileId);
+            for (int m = 0; m < METRICS; m++) {
+                out.writeByte(state[m]);
+                out.writeBoolean(high[m]);
+                out.writeBoolean(reported[m]);
+                out.writeLong(since[m]);
+                out.writeLong(lastRaised[m]);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory write failed", e);   // cannot happen
+        }
+    }
+
+    /**
+     * Precondition: bytes is not null.
+     * Postcondition: This machine holds the stored state. On IOException (wrong
+     * magic/version, truncated data) it is left reset with no reading watermark.
+     */
+    public void restore(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readInt() != MAGIC)   throw new IOException("not an alert state");
+            if (in.readInt() != VERSION) throw new IOException("unsupported alert state version");
+            long storedEpoch   = in.readLong();
+            long storedProfile = in.readLong();
+            for (int m = 0; m < METRICS; m++) {
+                int s = in.readByte();
+                if (s < NORMAL || s > CLEARING) throw new IOException("bad state " + s);
+                state[m]      = s;
+                high[m]       = in.readBoolean();
+                reported[m]   = in.readBoolean();
+                since[m]      = in.readLong();
+                lastRaised[m] = in.readLong();
+            }
+            lastEpochMillis = storedEpoch;
+            profileId       = storedProfile;
+        } catch (IOException e) {
+            reset();
+            lastEpochMillis = Long.MIN_VALUE;
+            throw e;
+        }
+    }
+}
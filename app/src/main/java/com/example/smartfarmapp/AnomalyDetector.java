@@ -0,0 +1,243 @@
+package com.example.smartfarmapp;
+
+/**
+ * AnomalyDetector
+ * ────────────────
+ * Spots readings that are odd even when they are inside the vegetation's
+ * min/max – the things a range check can't see:
+ *
+ *   SPIKE     – far from the recent average, measured in standard deviations
+ *               (a z-score against an exponentially weighted mean / variance)
+ *   RATE      – changed faster than physically plausible since the previous
+ *               reading (e.g. +8 °C in a minute)
+ *   FLATLINE  – exactly the same value for hours: the sensor is probably stuck.
+ *               Reported once, when it starts; again only after it moves.
+ *
+ * ONLINE, CONSTANT MEMORY:
+ * Each reading updates a handful of numbers per metric and is then forgotten –
+ * no history is kept or rescanned. The exponentially weighted statistics
+ * "forget" old readings gradually (alpha 0.05 ≈ the last ~20 readings), so the
+ * baseline follows the daily temperature curve. A spike is folded in clipped to
+ * the spike limit, so one bad reading can't drag the baseline with it; only the
+ * first reading of a run of spikes is reported, and after LEVEL_SHIFT_RUN in a
+ * row the baseline jumps to the new level (irrigation, a moved sensor).
+ *
+ * Statistics need warmUp readings before SPIKE is reported; after a gap longer
+ * than maxGap RATE is not checked (the step covers too long a time).
+ *
+ * evaluate() returns a bit mask: bit (metric * KINDS + kind) per anomaly, test
+ * it with has(). Readings at or before the newest time seen are ignored.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class AnomalyDetector {
+
+    // ── Anomaly kinds ────────────────────────────────────────────────────────
+    public static final int SPIKE    = 0;
+    public static final int RATE     = 1;
+    public static final int FLATLINE = 2;
+    public static final int KINDS    = 3;
+
+    /**
+     * Tuning. Immutable; start from defaults() and change what you need with the
+     * with… methods.
+     */
+    public static final class Config {
+        final double  alpha;
+        final double  zLimit;
+        final float[] minDeviation;        // per metric: smaller distances are never a spike
+        final float[] maxRatePerMinute;    // per metric
+        final long    flatlineMillis;
+        final int     warmUp;
+        final long    maxGapMillis;
+
+        private Config(double alpha, double zLimit, float[] minDeviation, float[] maxRatePerMinute,
+                       long flatlineMillis, int warmUp, long maxGapMillis) {
+            this.alpha            = alpha;
+            this.zLimit           = zLimit;
+            this.minDeviation     = minDeviation;
+            this.maxRatePerMinute = maxRatePerMinute;
+            this.flatlineMillis   = flatlineMillis;
+            this.warmUp           = warmUp;
+            this.maxGapMillis     = maxGapMillis;
+        }
+
+        /**
+         * alpha 0.05, spike at 4 standard deviations and at least 3 °C / 10 %,
+         * rate limit 2 °C / 10 % per minute, flatline after 3 hours unchanged,
+         * 30 readings of warm-up, rate not checked across gaps over 15 minutes.
+         */
+        public static Config defaults() {
+            return new Config(0.05, 4.0, new float[] {3f, 10f, 10f}, new float[] {2f, 10f, 10f},
+                    3 * 60 * 60_000L, 30, 15 * 60_000L);
+        }
+
+        // Precondition: 0 < alpha <= 1, zLimit > 0
+        public Config withSpike(double alpha, double zLimit) {
+            return new Config(alpha, zLimit, minDeviation, maxRatePerMinute, flatlineMillis, warmUp, maxGapMillis);
+        }
+
+        // Precondition: metric is a RangeCheck metric, perMinute > 0
+        public Config withMaxRate(int metric, float perMinute) {
+            float[] r = maxRatePerMinute.clone();
+            r[metric] = perMinute;
+            return new Config(alpha, zLimit, minDeviation, r, flatlineMillis, warmUp, maxGapMillis);
+        }
+
+        // Precondition: flatlineMillis > 0
+        public Config withFlatline(long flatlineMillis) {
+            return new Config(alpha, zLimit, minDeviation, maxRatePerMinute, flatlineMillis, warmUp, maxGapMillis);
+        }
+
+        // Precondition: warmUp >= 1
+        public Config withWarmUp(int warmUp) {
+            return new Config(alpha, zLimit, minDeviation, maxRatePerMinute, flatlineMillis, warmUp, maxGapMillis);
+        }
+    }
+
+    private static final int METRICS         = RangeCheck.METRIC_COUNT;
+    private static final int LEVEL_SHIFT_RUN = 3;
+
+    private final Config config;
+
+    // Per metric
+    private final double[]  mean      = new double[METRICS];
+    private final double[]  variance  = new double[METRICS];
+    private final int[]     previous  = new int[METRICS];
+    private final int[]     change    = new int[METRICS];    // value − previous, last reading
+    private final long[]    flatSince = new long[METRICS];   // when the current value first appeared
+    private final boolean[] flatFlagged = new boolean[METRICS];
+    private final int[]     spikeRun  = new int[METRICS];    // spikes in a row
+
+    private int  count;
+    private long lastEpochMillis = Long.MIN_VALUE;
+    private long lastStepMillis;
+
+    // Precondition: config is not null
+    // Postcondition: An empty detector (nothing learnt yet) is created
+    public AnomalyDetector(Config config) {
+        this.config = config;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Evaluate
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1) per reading, no allocation.
+     *
+     * Precondition: Readings arrive oldest first.
+     * Postcondition: Returns the anomaly bit mask for this reading (0 = nothing odd,
+     * also 0 for a reading not newer than the last one); the statistics now include it.
+     */
+    public int evaluate(long epochMillis, int temp, int groundHumid, int airHumid) {
+        if (epochMillis == FarmTime.NO_TIME || epochMillis <= lastEpochMillis) return 0;
+        boolean first = count == 0;
+        lastStepMillis  = first ? 0 : epochMillis - lastEpochMillis;
+        lastEpochMillis = epochMillis;
+        boolean checkRate = !first && lastStepMillis <= config.maxGapMillis;
+        boolean warm      = count >= config.warmUp;
+        count++;
+
+        int flags = 0;
+        flags |= step(RangeCheck.TEMP,         temp,        epochMillis, first, checkRate, warm);
+        flags |= step(RangeCheck.GROUND_HUMID, groundHumid, epochMillis, first, checkRate, warm);
+        flags |= step(RangeCheck.AIR_HUMID,    airHumid,    epochMillis, first, checkRate, warm);
+        return flags;
+    }
+
+    private int step(int m, int value, long now, boolean first, boolean checkRate, boolean warm) {
+        if (first) {
+            mean[m]      = value;
+            variance[m]  = 0;
+            previous[m]  = value;
+            change[m]    = 0;
+            flatSince[m] = now;
+            flatFlagged[m] = false;
+            spikeRun[m]  = 0;
+            return 0;
+        }
+        int flags = 0;
+
+        // RATE – per minute, so a 2-minute step may change twice as much
+        change[m] = value - previous[m];
+        previous[m] = value;
+        if (checkRate && Math.abs(change[m]) * 60_000.0 > config.maxRatePerMinute[m] * Math.max(lastStepMillis, 60_000L)) {
+            flags |= bit(m, RATE);
+        }
+
+        // SPIKE – z-score against the running mean / standard deviation
+        double sd    = Math.sqrt(variance[m]);
+        double limit = Math.max(config.zLimit * sd, config.minDeviation[m]);
+        double diff  = value - mean[m];
+        boolean spike = warm && Math.abs(diff) > limit;
+        if (!spike) {
+            spikeRun[m] = 0;
+        } else if (spikeRun[m]++ == 0) {
+            flags |= bit(m, SPIKE);
+        }
+
+        if (spikeRun[m] >= LEVEL_SHIFT_RUN) {
+            mean[m]     = value;   // not a spike any more – the level has moved
+            spikeRun[m] = 0;
+        } else {
+            // Fold the reading in (clipped to the limit) – incremental EWMA mean / variance
+            double clipped = Math.max(-limit, Math.min(limit, diff));
+            double a = config.alpha;
+            mean[m]     += a * clipped;
+            variance[m]  = (1 - a) * (variance[m] + a * clipped * clipped);
+        }
+
+        // FLATLINE – reported once per stuck stretch
+        if (change[m] != 0) {
+            flatSince[m]   = now;
+            flatFlagged[m] = false;
+        } else if (!flatFlagged[m] && now - flatSince[m] >= config.flatlineMillis) {
+            flatFlagged[m] = true;
+            flags |= bit(m, FLATLINE);
+        }
+        return flags;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: metric is a RangeCheck metric, kind is SPIKE, RATE or FLATLINE
+    // Postcondition: Returns true if flags (from evaluate) contains that anomaly
+    public static boolean has(int flags, int metric, int kind) {
+        return (flags & bit(metric, kind)) != 0;
+    }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the running (exponentially weighted) mean
+    public double mean(int metric)   { return mean[metric]; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the running standard deviation
+    public double stdDev(int metric) { return Math.sqrt(variance[metric]); }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns value − previous value for the last reading evaluated
+    public int lastChange(int metric) { return change[metric]; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the epoch millis since which the value hasn't changed
+    public long flatSince(int metric) { return flatSince[metric]; }
+
+    // Precondition: None
+    // Postcondition: Returns the time between the last two readings evaluated (0 after the first)
+    public long lastStepMillis() { return lastStepMillis; }
+
+    // Precondition: None
+    // Postcondition: Returns the newest reading time evaluated (Long.MIN_VALUE if none)
+    public long lastEpochMillis() { return lastEpochMillis; }
+
+    // Precondition: None
+    // Postcondition: Returns how many readings have been evaluated
+    public int count() { return count; }
+
+    private static int bit(int metric, int kind) {
+        return 1 << (metric * KINDS + kind);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.smartfarmapp;
+
+import android.util.Log;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * AppLog
+ * ───────
+ * Thin logging facade in front of android.util.Log for code on the request
+ * path (repos, BaseRepo, the refresh loop).
+ *
+ * WHY NOT JUST Log.d?
+ *   {@code Log.d(TAG, "GET response: " + json)} builds the full string BEFORE
+ *   Log.d even gets to decide whether to print it – on every poll, in release
+ *   builds too. With a Farm table of a few MB that is megabytes of garbage per
+ *   minute for nothing.
+ *
+ * HOW THIS AVOIDS IT:
+ *   • Level gate – {@link #MIN_LEVEL} is a compile-time constant derived from
+ *     BuildConfig.DEBUG (DEBUG in debug builds, WARN in release), and can be
+ *     raised/lowered at runtime with {@link #setMinLevel}.
+ *   • No eager concatenation – use the (tag, prefix, value) overloads or a
+ *     Supplier; the string is only built if the level is enabled.
+ *   • Bodies – {@link #dBody} truncates payloads to {@link #MAX_BODY_CHARS} and
+ *     {@link #redact} masks passwords and keys, so a debug build never dumps a
+ *     whole table or a credential into logcat.
+ *
+ * Warnings and errors are rare (failure paths only) and always logged, but are
+ * redacted too because failure messages often contain the request URL.
+ */
+public final class AppLog {
+
+    /** Lowest level printed by default: DEBUG in debug builds, WARN in release. */
+    public static final int MIN_LEVEL = BuildConfig.DEBUG ? Log.DEBUG : Log.WARN;
+
+    /** Longest body excerpt ever written to logcat. */
+    public static final int MAX_BODY_CHARS = 512;
+
+    private static volatile int minLevel = MIN_LEVEL;
+
+    // password=eq.secret  |  "password":"secret"  |  apikey / Authorization values
+    private static final Pattern SECRET_QUERY = Pattern.compile("(?i)(password=eq\\.)[^&\\s]*");
+    private static final Pattern SECRET_JSON  = Pattern.compile("(?i)(\"password\"\\s*:\\s*\")[^\"]*");
+    private static final Pattern BEARER       = Pattern.compile("(?i)(Bearer\\s+)[\\w.-]+");
+
+    private AppLog() {}
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Level gate
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: level is one of the android.util.Log level constants
+    // Postcondition: Messages below level are suppressed from now on
+    public static void setMinLevel(int level) { minLevel = level; }
+
+    // Precondition: None
+    // Postcondition: Returns true if messages at the given level are printed
+    public static boolean isLoggable(int level) { return level >= minLevel; }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  DEBUG
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: message is a constant or already-built string
+    // Postcondition: message is logged at DEBUG if enabled
+    public static void d(String tag, String message) {
+        if (isLoggable(Log.DEBUG)) Log.d(tag, message);
+    }
+
+    // Precondition: None
+    // Postcondition: prefix + value is built and logged only if DEBUG is enabled
+    public static void d(String tag, String prefix, Object value) {
+        if (isLoggable(Log.DEBUG)) Log.d(tag, prefix + value);
+    }
+
+    // Precondition: None
+    // Postcondition: Like d(tag, prefix, Object) but without boxing counts and ids
+    public static void d(String tag, String prefix, long value) {
+        if (isLoggable(Log.DEBUG)) Log.d(tag, prefix + value);
+    }
+
+    // Precondition: message is not null
+    // Postcondition: message.get() is called and logged only if DEBUG is enabled
+    public static void d(String tag, Supplier<String> message) {
+        if (isLoggable(Log.DEBUG)) Log.d(tag, message.get());
+    }
+
+    /**
+     * Logs a request/response payload: truncated to MAX_BODY_CHARS and redacted.
+     * Nothing is copied or scanned when DEBUG is disabled.
+     *
+     * Precondition: None
+     * Postcondition: prefix + a safe excerpt of body is logged if DEBUG is enabled.
+     */
+    public static void dBody(String tag, String prefix, String body) {
+        if (isLoggable(Log.DEBUG)) Log.d(tag, prefix + excerpt(body));
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  WARN / ERROR (always redacted)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: The redacted message is logged at WARN if enabled
+    public static void w(String tag, String message) {
+        if (isLoggable(Log.WARN)) Log.w(tag, redact(message));
+    }
+
+    // Precondition: None
+    // Postcondition: The redacted message is logged at ERROR if enabled
+    public static void e(String tag, String message) {
+        if (isLoggable(Log.ERROR)) Log.e(tag, redact(message));
+    }
+
+    // Precondition: None
+    // Postcondition: The redacted message and the throwable's stack trace are logged at ERROR if enabled
+    public static void e(String tag, String message, Throwable error) {
+        if (isLoggable(Log.ERROR)) Log.e(tag, redact(message), error);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Payload helpers
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns body redacted and cut to MAX_BODY_CHARS, with the
+     * number of omitted characters appended; "null" for null.
+     */
+    public static String excerpt(String body) {
+        if (body == null) return "null";
+        if (body.length() <= MAX_BODY_CHARS) return redact(body);
+        return redact(body.substring(0, MAX_BODY_CHARS))
+                + "…(+" + (body.length() - MAX_BODY_CHARS) + " chars)";
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns text with password values and bearer tokens replaced by "***".
+     */
+    public static String redact(String text) {
+        if (text == null) return "null";
+        if (text.indexOf('p') < 0 && text.indexOf('P') < 0 && text.indexOf('B') < 0) return text;
+        String out = SECRET_QUERY.matcher(text).replaceAll("$1***");
+        out = SECRET_JSON.matcher(out).replaceAll("$1***");
+        return BEARER.matcher(out).replaceAll("$1***");
+    }
+}
@@ -2,16 +2,25 @@ package com.example.smartfarmapp;
 
 import android.os.Handler;
 import android.os.Looper;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.google.gson.Gson;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -25,7 +34,7 @@ import okhttp3.ResponseBody;
  * The single source of truth for all HTTP communication with Supabase.
  *
  * Child repos (UserRepo, VegetationRepo, SupabaseService, …) inherit:
- *   • Shared config  – SUPABASE_URL, SUPABASE_KEY, httpClient, gson, mainHandler
+ *   • Shared config  – SUPABASE_URL, SUPABASE_KEY, httpClient, gson
  *   • buildGetRequest()   – creates an authenticated GET Request
  *   • executeGet()        – sends a GET and delivers the raw JSON string to a callback
  *   • executePost()       – sends a POST with a JSON body
@@ -34,8 +43,14 @@ import okhttp3.ResponseBody;
  *
  * All execute* methods handle:
  *   - background execution via OkHttp's async enqueue
- *   - posting results back to the main thread via mainHandler
+ *   - posting results back to the main thread via deliver()
  *   - consistent error reporting through RepoCallBack<String>
+ *   - bounded retries with jittered exponential back-off for idempotent
+ *     verbs (GET / PATCH / DELETE – never POST), see RetryPolicy
+ *   - a per-endpoint CircuitBreaker that stops calling a failing table and,
+ *     for GETs, serves the last good response for the same URL meanwhile
+ *   - a per-endpoint request budget (RateLimiter): identical in-flight GETs
+ *     are merged, and GETs over budget are answered from cache or dropped
  *
  * Child repos only need to parse the JSON string they receive – no HTTP
  * boilerplate required.
@@ -55,13 +70,48 @@ public abstract class BaseRepo {
                     ".d0UCxvHeMxLurzJULgYrYyLdWqrCo4zqaOWW0Ptt1aM";
 
     // ── Shared singletons ─────────────────────────────────────────────────────
-    protected static final OkHttpClient httpClient = new OkHttpClient();
-    protected static final Gson         gson        = new Gson();
-    protected static final Handler      mainHandler = new Handler(Looper.getMainLooper());
+    protected static final OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addInterceptor(BaseRepo::redirectToBaseUrlOverride) // no-op unless a test set one
+            .addInterceptor(new MetricsInterceptor())   // per-endpoint latency / size / status stats
+            .build();
+    protected static final Gson         gson        = ModelJson.GSON;
 
     protected static final MediaType JSON_MEDIA_TYPE =
             MediaType.get("application/json; charset=utf-8"); // to tell the server: "The data I am sending is in JSON format."
 
+    // ── Resilience state (shared by every repo) ───────────────────────────────
+    protected static final RetryPolicy retryPolicy = RetryPolicy.defaults();
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /** Callbacks waiting on a GET that is already in flight, keyed by full URL. */
+    private static final Map<String, List<RawCallback>> inFlightGets = new HashMap<>();
+
+    /**
+     * Last good GET body per URL, served while that endpoint's breaker is open or its budget is spent.
+     * A successful write to a table drops that table's entries (evictCachedGets), so
+     * an outage never replays rows from before the user's own change.
+     */
+    private static final int RESPONSE_CACHE_SIZE = 32;
+    private static final Map<String, String> lastGoodResponses = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > RESPONSE_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Successful writes per endpoint. A GET only caches its body if no write to the
+     * endpoint succeeded while it was in flight – otherwise it may predate the write.
+     */
+    private static final Map<String, AtomicLong> writeCounts = new ConcurrentHashMap<>();
+
+    // ── Test seams (JVM tests have no Looper and no network) ──────────────────
+    /** Runs repo callbacks; null means "the main thread", created on first use. */
+    private static volatile CallbackDispatcher dispatcher;
+    /** When set, every request is sent to this scheme/host/port instead of Supabase. */
+    private static volatile HttpUrl baseUrlOverride;
+
     // Precondition: None
     // Postcondition: A new BaseRepo object is created
     protected BaseRepo() {}
@@ -85,6 +135,23 @@ public abstract class BaseRepo {
         void onFailure(Exception e);
     }
 
+    /**
+     * Where callbacks are run. The app always uses the main thread; JVM tests
+     * plug in an executor via {@link #useCallbackDispatcher}.
+     */
+    interface CallbackDispatcher {
+        void post(Runnable task);
+        void postDelayed(Runnable task, long delayMs);
+    }
+
+    /** Default dispatcher: posts to the main Looper, exactly like the old mainHandler. */
+    private static final class MainThreadDispatcher implements CallbackDispatcher {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override public void post(Runnable task)                     { handler.post(task); }
+        @Override public void postDelayed(Runnable task, long delayMs) { handler.postDelayed(task, delayMs); }
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     //  Request builders
     // ═════════════════════════════════════════════════════════════════════════
@@ -168,6 +235,14 @@ public abstract class BaseRepo {
      * Executes a GET request asynchronously.
      * Delivers the raw JSON response body string to {@code callback.onSuccess}.
      *
+     * Transient failures (network errors, 408/429/5xx) are retried with jittered
+     * exponential back-off. While the endpoint's circuit breaker is open, or its
+     * request budget is spent, the last good response for this exact URL is
+     * delivered instead without any network traffic (unless a write to the same
+     * table has succeeded since – see evictCachedGets); if nothing is cached a
+     * {@link CircuitOpenException} / {@link RateLimitedException} is. A GET for a
+     * URL that is already in flight is merged into that call.
+     *
      * @param tag     log tag identifying the calling repo/method
      * @param url     full Supabase REST URL (with any query parameters)
      * @param callback receives the raw JSON string or an exception
@@ -176,37 +251,66 @@ public abstract class BaseRepo {
      * Postcondition: Executes GET request asynchronously, delivers raw JSON to callback on main thread.
      */
     protected void executeGet(String tag, String url, RawCallback callback) {
-        Request request = buildGetRequest(url);
-        httpClient.newCall(request).enqueue(new Callback() {
+        String endpoint = endpointOf(url);
+
+        // Same URL already on the wire (e.g. the UI timer and the monitoring
+        // service polling together)? Piggy-back on that response.
+        synchronized (inFlightGets) {
+            List<RawCallback> waiters = inFlightGets.get(url);
+            if (waiters != null) {
+                waiters.add(callback);
+                RateLimiter.countersFor(endpoint).merged.incrementAndGet();
+                return;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlightGets.put(url, waiters);
+        }
+
+        CircuitBreaker breaker = breakerFor(url);
+        long writesBefore = writeCount(endpoint).get();
+        RawCallback fanOut = new RawCallback() {
             @Override
-            public void onFailure(@NonNull Call call, @NonNull IOException e) {
-                Log.e(tag, "GET failed: " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure(e));
+            public void onSuccess(String json) {
+                if (writeCount(endpoint).get() == writesBefore) lastGoodResponses.put(url, json);
+                for (RawCallback waiter : takeWaiters(url)) waiter.onSuccess(json);
             }
 
             @Override
-            public void onResponse(@NonNull Call call, @NonNull Response response) {
-                try (ResponseBody body = response.body()) {
-                    if (!response.isSuccessful() || body == null) {
-                        String msg = "HTTP " + response.code() + " on GET " + url;
-                        Log.e(tag, msg);
-                        mainHandler.post(() -> callback.onFailure(new IOException(msg)));
-                        return;
-                    }
-                    String json = body.string();
-                    Log.d(tag, "GET response: " + json);
-                    mainHandler.post(() -> callback.onSuccess(json));
-                } catch (Exception e) {
-                    Log.e(tag, "GET parse error", e);
-                    mainHandler.post(() -> callback.onFailure(e));
+            public void onFailure(Exception e) {
+                boolean rejectedLocally = e instanceof CircuitOpenException
+                        || e instanceof RateLimitedException;
+                String cached = rejectedLocally ? lastGoodResponses.get(url) : null;
+                if (cached != null) {
+                    AppLog.w(tag, e.getMessage() + " – serving cached response");
+                    RateLimiter.countersFor(endpoint).servedFromCache.incrementAndGet();
+                    RequestMetrics.recordCacheHit(endpoint);
+                    for (RawCallback waiter : takeWaiters(url)) waiter.onSuccess(cached);
+                    return;
                 }
+                if (e instanceof RateLimitedException) {
+                    RateLimiter.countersFor(endpoint).dropped.incrementAndGet();
+                }
+                for (RawCallback waiter : takeWaiters(url)) waiter.onFailure(e);
             }
-        });
+        };
+
+        if (!breaker.allowRequest()) {
+            deliver(() -> fanOut.onFailure(new CircuitOpenException(endpoint)));
+            return;
+        }
+        if (!RateLimiter.tryAcquire(endpoint)) {
+            breaker.releaseTrial();   // nothing was sent, so no success/failure will be recorded
+            deliver(() -> fanOut.onFailure(new RateLimitedException(endpoint)));
+            return;
+        }
+        send(tag, "GET", buildGetRequest(url), breaker, true, 1, fanOut);
     }
 
     /**
      * Executes a POST request asynchronously.
      * Calls {@code callback.onSuccess(null)} on HTTP 2xx, {@code onFailure} otherwise.
+     * POST is not idempotent, so it is never retried.
      *
      * @param tag           log tag
      * @param url           target URL
@@ -220,36 +324,15 @@ public abstract class BaseRepo {
     protected void executePost(String tag, String url, String jsonBody,
                                boolean preferMinimal, RepoCallBack<Void> callback) {
         Request request = buildPostRequest(url, jsonBody, preferMinimal);
-        Log.d(tag, "POST to " + url + " body: " + jsonBody);
-        httpClient.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(@NonNull Call call, @NonNull IOException e) {
-                Log.e(tag, "POST failed: " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure(e));
-            }
-
-            @Override
-            public void onResponse(@NonNull Call call, @NonNull Response response) {
-                try {
-                    if (response.isSuccessful()) {
-                        Log.d(tag, "POST success. Code: " + response.code());
-                        mainHandler.post(() -> callback.onSuccess(null));
-                    } else {
-                        String err = readErrorBody(response);
-                        Log.e(tag, "POST failed. Code: " + response.code() + ", Error: " + err);
-                        mainHandler.post(() -> callback.onFailure(
-                                new IOException("HTTP " + response.code() + ": " + err)));
-                    }
-                } finally {
-                    response.close();
-                }
-            }
-        });
+        AppLog.d(tag, "POST to ", url);
+        AppLog.dBody(tag, "POST body: ", jsonBody);
+        executeWrite(tag, "POST", url, request, false, callback);
     }
 
     /**
      * Executes a PATCH request asynchronously.
      * Calls {@code callback.onSuccess(null)} on HTTP 2xx, {@code onFailure} otherwise.
+     * Our PATCH bodies always set absolute values, so the request is retried like a GET.
      *
      * @param tag      log tag
      * @param url      target URL (must already include the row filter, e.g. {@code ?id=eq.5})
@@ -262,31 +345,9 @@ public abstract class BaseRepo {
     protected void executePatch(String tag, String url, String jsonBody,
                                 RepoCallBack<Void> callback) {
         Request request = buildPatchRequest(url, jsonBody);
-        Log.d(tag, "PATCH to " + url + " body: " + jsonBody);
-        httpClient.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(@NonNull Call call, @NonNull IOException e) {
-                Log.e(tag, "PATCH failed: " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure(e));
-            }
-
-            @Override
-            public void onResponse(@NonNull Call call, @NonNull Response response) {
-                try {
-                    if (response.isSuccessful()) {
-                        Log.d(tag, "PATCH success. Code: " + response.code());
-                        mainHandler.post(() -> callback.onSuccess(null));
-                    } else {
-                        String err = readErrorBody(response);
-                        Log.e(tag, "PATCH failed. Code: " + response.code() + ", Error: " + err);
-                        mainHandler.post(() -> callback.onFailure(
-                                new IOException("HTTP " + response.code() + ": " + err)));
-                    }
-                } finally {
-                    response.close();
-                }
-            }
-        });
+        AppLog.d(tag, "PATCH to ", url);
+        AppLog.dBody(tag, "PATCH body: ", jsonBody);
+        executeWrite(tag, "PATCH", url, request, true, callback);
     }
 
     /**
@@ -302,33 +363,277 @@ public abstract class BaseRepo {
      */
     protected void executeDelete(String tag, String url, RepoCallBack<Void> callback) {
         Request request = buildDeleteRequest(url);
-        Log.d(tag, "DELETE to " + url);
+        AppLog.d(tag, "DELETE to ", url);
+        executeWrite(tag, "DELETE", url, request, true, callback);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Resilience – retries, back-off and circuit breaking
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Shared path for POST / PATCH / DELETE: fails fast while the circuit is
+     * open (there is nothing sensible to serve from cache for a write).
+     *
+     * Precondition: request was built by one of the build*Request helpers; callback is not null.
+     * Postcondition: Sends the request (with retries if idempotent) and calls callback on the main thread.
+     */
+    private void executeWrite(String tag, String verb, String url, Request request,
+                              boolean idempotent, RepoCallBack<Void> callback) {
+        CircuitBreaker breaker = breakerFor(url);
+        if (!breaker.allowRequest()) {
+            AppLog.w(tag, verb + " short-circuited – " + breaker.getEndpoint() + " is failing");
+            deliver(() -> callback.onFailure(new CircuitOpenException(breaker.getEndpoint())));
+            return;
+        }
+        RateLimiter.tryAcquire(breaker.getEndpoint()); // writes count against the budget but are never dropped
+        send(tag, verb, request, breaker, idempotent, 1, new RawCallback() {
+            @Override
+            public void onSuccess(String ignored) {
+                evictCachedGets(endpointOf(url));
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Called after a successful POST/PATCH/DELETE: the table has changed, so none
+     * of its cached GET bodies may be served again.
+     *
+     * Precondition: endpoint is a path as returned by endpointOf().
+     * Postcondition: lastGoodResponses holds no URL of endpoint, and GETs of it
+     * already in flight will not cache their (possibly older) bodies.
+     */
+    private static void evictCachedGets(String endpoint) {
+        writeCount(endpoint).incrementAndGet();
+        synchronized (lastGoodResponses) {
+            lastGoodResponses.keySet().removeIf(cachedUrl -> endpoint.equals(endpointOf(cachedUrl)));
+        }
+    }
+
+    private static AtomicLong writeCount(String endpoint) {
+        return writeCounts.computeIfAbsent(endpoint, e -> new AtomicLong());
+    }
+
+    /**
+     * Sends one attempt of a request and decides what happens next:
+     *   • 2xx                       → breaker success, body delivered
+     *   • network error (also while reading the body) / 408 / 429 / 5xx
+     *                               → breaker failure, retried if allowed
+     *   • any other 4xx             → the server is healthy but refused the
+     *                                 request; delivered as a failure, no retry
+     *
+     * Precondition: attempt >= 1; breaker guards the request's endpoint.
+     * Postcondition: callback is called exactly once on the main thread, possibly
+     * after further attempts scheduled with back-off.
+     */
+    private void send(String tag, String verb, Request request, CircuitBreaker breaker,
+                      boolean idempotent, int attempt, RawCallback callback) {
         httpClient.newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(@NonNull Call call, @NonNull IOException e) {
-                Log.e(tag, "DELETE failed: " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure(e));
+                AppLog.e(tag, verb + " failed (attempt " + attempt + "): " + e.getMessage());
+                breaker.recordFailure();
+                retryOrFail(tag, verb, request, breaker, idempotent, attempt, -1, e, callback);
             }
 
             @Override
             public void onResponse(@NonNull Call call, @NonNull Response response) {
-                try {
-                    if (response.isSuccessful()) {
-                        Log.d(tag, "DELETE success. Code: " + response.code());
-                        mainHandler.post(() -> callback.onSuccess(null));
+                try (ResponseBody body = response.body()) {
+                    int code = response.code();
+                    if (response.isSuccessful() && (body != null || !"GET".equals(verb))) {
+                        String text = body != null ? body.string() : "";
+                        breaker.recordSuccess();
+                        if ("GET".equals(verb)) {
+                            AppLog.dBody(tag, "GET response: ", text);
+                        } else {
+                            AppLog.d(tag, () -> verb + " success. Code: " + code);
+                        }
+                        deliver(() -> callback.onSuccess(text));
+                        return;
+                    }
+
+                    IOException httpError;
+                    if ("GET".equals(verb)) {
+                        httpError = new IOException("HTTP " + code + " on GET " + request.url());
+                        AppLog.e(tag, httpError.getMessage());
                     } else {
                         String err = readErrorBody(response);
-                        Log.e(tag, "DELETE failed. Code: " + response.code() + ", Error: " + err);
-                        mainHandler.post(() -> callback.onFailure(
-                                new IOException("HTTP " + response.code() + ": " + err)));
+                        AppLog.e(tag, verb + " failed. Code: " + code + ", Error: " + AppLog.excerpt(err));
+                        httpError = new IOException("HTTP " + code + ": " + err);
+                    }
+
+                    if (RetryPolicy.isRetryableStatus(code)) {
+                        breaker.recordFailure();
+                        long retryAfterMs = RetryPolicy.parseRetryAfterMs(response.header("Retry-After"));
+                        retryOrFail(tag, verb, request, breaker, idempotent, attempt,
+                                retryAfterMs, httpError, callback);
+                    } else {
+                        breaker.recordSuccess();
+                        deliver(() -> callback.onFailure(httpError));
                     }
-                } finally {
-                    response.close();
+                } catch (Exception e) {
+                    // Headers arrived but the body didn't (e.g. connection reset
+                    // mid-body): a transport failure like onFailure() – it must
+                    // still settle the breaker, or a HALF_OPEN trial never ends
+                    AppLog.e(tag, verb + " read error (attempt " + attempt + ")", e);
+                    breaker.recordFailure();
+                    retryOrFail(tag, verb, request, breaker, idempotent, attempt, -1, e, callback);
                 }
             }
         });
     }
 
+    /**
+     * Precondition: attempt number {@code attempt} just failed with {@code error}.
+     * Postcondition: Either a new attempt is scheduled via deliverDelayed() after a jittered
+     * back-off, or callback.onFailure is posted (non-idempotent verb, attempts used up,
+     * or the breaker opened in the meantime).
+     */
+    private void retryOrFail(String tag, String verb, Request request, CircuitBreaker breaker,
+                             boolean idempotent, int attempt, long retryAfterMs,
+                             Exception error, RawCallback callback) {
+        if (!idempotent || !retryPolicy.canRetry(attempt)) {
+            deliver(() -> callback.onFailure(error));
+            return;
+        }
+        long delayMs = retryPolicy.nextDelayMs(attempt, retryAfterMs);
+        RequestMetrics.recordRetry(breaker.getEndpoint());
+        AppLog.w(tag, verb + " retry " + (attempt + 1) + "/" + retryPolicy.getMaxAttempts()
+                + " in " + delayMs + " ms");
+        deliverDelayed(() -> {
+            if (!breaker.allowRequest()) {
+                callback.onFailure(new CircuitOpenException(breaker.getEndpoint()));
+                return;
+            }
+            if ("GET".equals(verb) && !RateLimiter.tryAcquire(breaker.getEndpoint())) {
+                breaker.releaseTrial();
+                callback.onFailure(new RateLimitedException(breaker.getEndpoint()));
+                return;
+            }
+            send(tag, verb, request, breaker, true, attempt + 1, callback);
+        }, delayMs);
+    }
+
+    /**
+     * Precondition: url currently has an entry in inFlightGets.
+     * Postcondition: Removes and returns every callback waiting on url.
+     */
+    private static List<RawCallback> takeWaiters(String url) {
+        synchronized (inFlightGets) {
+            List<RawCallback> waiters = inFlightGets.remove(url);
+            return waiters != null ? waiters : Collections.emptyList();
+        }
+    }
+
+    /**
+     * Breakers are keyed by the URL path (e.g. /rest/v1/Farm) so one failing
+     * table does not block the others.
+     *
+     * Precondition: url is not null.
+     * Postcondition: Returns the (possibly newly created) breaker for the url's endpoint.
+     */
+    protected static CircuitBreaker breakerFor(String url) {
+        return breakers.computeIfAbsent(endpointOf(url), CircuitBreaker::withDefaults);
+    }
+
+    /**
+     * Precondition: url is not null.
+     * Postcondition: Returns the path part of url, or url itself if it cannot be parsed.
+     */
+    protected static String endpointOf(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        return parsed != null ? parsed.encodedPath() : url;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Callback delivery and test seams
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: task is not null
+    // Postcondition: task runs on the callback thread (the main thread in the app)
+    protected static void deliver(Runnable task) {
+        dispatcher().post(task);
+    }
+
+    // Precondition: task is not null, delayMs >= 0
+    // Postcondition: task runs on the callback thread after delayMs
+    protected static void deliverDelayed(Runnable task, long delayMs) {
+        dispatcher().postDelayed(task, delayMs);
+    }
+
+    private static CallbackDispatcher dispatcher() {
+        CallbackDispatcher current = dispatcher;
+        if (current == null) {
+            synchronized (BaseRepo.class) {
+                if (dispatcher == null) dispatcher = new MainThreadDispatcher();
+                current = dispatcher;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * For JVM tests only.
+     *
+     * Precondition: None
+     * Postcondition: Callbacks run on the given dispatcher; null goes back to the main thread.
+     */
+    static void useCallbackDispatcher(CallbackDispatcher replacement) {
+        dispatcher = replacement;
+    }
+
+    /**
+     * For JVM tests only: points every repo at a local stand-in server.
+     *
+     * Precondition: baseUrl is null or an absolute http(s) URL such as "http://127.0.0.1:54321".
+     * Postcondition: Requests keep their path and query but go to baseUrl's scheme/host/port;
+     * null restores the real Supabase project.
+     */
+    static void useBaseUrl(String baseUrl) {
+        baseUrlOverride = baseUrl == null ? null : HttpUrl.get(baseUrl);
+    }
+
+    /**
+     * For JVM tests only: e.g. a breaker with a short cool-down.
+     *
+     * Precondition: breaker is not null; no request to its endpoint is in flight.
+     * Postcondition: Requests to breaker.getEndpoint() are guarded by breaker.
+     */
+    static void useBreaker(CircuitBreaker breaker) {
+        breakers.put(breaker.getEndpoint(), breaker);
+    }
+
+    /**
+     * For JVM tests only.
+     *
+     * Precondition: No request is in flight.
+     * Postcondition: All circuit breakers, merged GETs and cached GET bodies are forgotten.
+     */
+    static void resetResilienceState() {
+        breakers.clear();
+        synchronized (inFlightGets) { inFlightGets.clear(); }
+        lastGoodResponses.clear();
+        writeCounts.clear();
+    }
+
+    private static Response redirectToBaseUrlOverride(Interceptor.Chain chain) throws IOException {
+        HttpUrl target  = baseUrlOverride;
+        Request request = chain.request();
+        if (target == null) return chain.proceed(request);
+        HttpUrl redirected = request.url().newBuilder()
+                .scheme(target.scheme())
+                .host(target.host())
+                .port(target.port())
+                .build();
+        return chain.proceed(request.newBuilder().url(redirected).build());
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     //  Internal utilities
     // ═════════════════════════════════════════════════════════════════════════
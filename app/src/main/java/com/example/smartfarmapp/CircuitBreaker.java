@@ -0,0 +1,136 @@
+package com.example.smartfarmapp;
+
+/**
+ * CircuitBreaker
+ * ───────────────
+ * One breaker guards one Supabase endpoint (e.g. /rest/v1/Farm).
+ *
+ * Think of it like the fuse box in a greenhouse:
+ *   • CLOSED    – everything normal, requests flow through.
+ *   • OPEN      – the endpoint failed too many times in a row. Requests are
+ *                 refused immediately (no network traffic at all) until a
+ *                 cool-down expires. BaseRepo serves the last good response
+ *                 for GETs while the breaker is open.
+ *   • HALF_OPEN – the cool-down expired. Exactly ONE trial request is let
+ *                 through. Success closes the breaker, failure opens it again
+ *                 with a longer cool-down (doubling, up to maxOpenMs).
+ *
+ * All methods are synchronized: OkHttp delivers results on its own worker
+ * threads while new requests are started from the main thread.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final int    failureThreshold;
+    private final long   baseOpenMs;
+    private final long   maxOpenMs;
+
+    private State   state               = State.CLOSED;
+    private int     consecutiveFailures = 0;
+    private long    openUntilMs         = 0;
+    private long    currentOpenMs;
+    private boolean trialInFlight       = false;
+
+    // Precondition: endpoint is not null, failureThreshold >= 1, 0 < baseOpenMs <= maxOpenMs
+    // Postcondition: A new CLOSED breaker for the endpoint is created
+    public CircuitBreaker(String endpoint, int failureThreshold, long baseOpenMs, long maxOpenMs) {
+        this.endpoint         = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.baseOpenMs       = baseOpenMs;
+        this.maxOpenMs        = maxOpenMs;
+        this.currentOpenMs    = baseOpenMs;
+    }
+
+    // Precondition: endpoint is not null
+    // Postcondition: Returns a breaker that opens after 5 straight failures for 30 s (up to 5 min)
+    public static CircuitBreaker withDefaults(String endpoint) {
+        return new CircuitBreaker(endpoint, 5, 30_000, 5 * 60_000);
+    }
+
+    /**
+     * Asks the breaker whether a request may go out right now.
+     *
+     * Precondition: None
+     * Postcondition: Returns true when CLOSED, or when the cool-down has expired
+     * and no trial is running yet (the breaker moves to HALF_OPEN and this caller
+     * becomes the trial). Returns false otherwise.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now() < openUntilMs) return false;
+                state         = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Precondition: A request allowed by allowRequest() reached the server and got a usable answer.
+     * Postcondition: The breaker is CLOSED and the failure streak and cool-down are reset.
+     */
+    public synchronized void recordSuccess() {
+        state               = State.CLOSED;
+        consecutiveFailures = 0;
+        currentOpenMs       = baseOpenMs;
+        trialInFlight       = false;
+    }
+
+    /**
+     * Precondition: A request allowed by allowRequest() failed (network error or retryable HTTP code).
+     * Postcondition: A failed HALF_OPEN trial re-opens the breaker with a doubled cool-down;
+     * in CLOSED state the breaker opens once failureThreshold failures happened in a row.
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            currentOpenMs = Math.min(currentOpenMs * 2, maxOpenMs);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The caller was allowed through by allowRequest() but gave up before sending
+     * (e.g. RateLimiter had no token). Without this, a HALF_OPEN trial that never
+     * reports back would keep trialInFlight set and refuse every later request.
+     *
+     * Precondition: The caller's allowRequest() returned true and nothing was sent.
+     * Postcondition: In HALF_OPEN the trial slot is free again (the next
+     * allowRequest() becomes the trial); otherwise nothing changes.
+     */
+    public synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN) trialInFlight = false;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the current state (an expired OPEN still reads as OPEN until the next allowRequest())
+    public synchronized State getState() { return state; }
+
+    // Precondition: None
+    // Postcondition: Returns the endpoint this breaker guards
+    public String getEndpoint() { return endpoint; }
+
+    // Precondition: None
+    // Postcondition: state is OPEN until now + currentOpenMs
+    private void open() {
+        state         = State.OPEN;
+        openUntilMs   = now() + currentOpenMs;
+        trialInFlight = false;
+    }
+
+    // Monotonic clock – unaffected by the user changing the wall-clock time
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
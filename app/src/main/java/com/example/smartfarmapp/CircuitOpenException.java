@@ -0,0 +1,18 @@
+package com.example.smartfarmapp;
+
+import java.io.IOException;
+
+/**
+ * Delivered to onFailure when a request was refused locally because the
+ * endpoint's CircuitBreaker is OPEN and there was no cached response to serve.
+ * No network traffic happened, so callers polling on a timer can stay quiet
+ * instead of showing the same error every second.
+ */
+public class CircuitOpenException extends IOException {
+
+    // Precondition: endpoint is not null
+    // Postcondition: A new exception naming the short-circuited endpoint is created
+    public CircuitOpenException(String endpoint) {
+        super("Endpoint temporarily unavailable (circuit open): " + endpoint);
+    }
+}
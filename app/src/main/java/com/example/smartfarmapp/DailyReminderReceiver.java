@@ -52,7 +52,15 @@ public class DailyReminderReceiver extends BroadcastReceiver {
     // it replaces the old one instead of creating a new one in the list.
     // This prevents the user's phone from being filled with 50 "Morning Check" messages.
     // Android uses this integer to keep track of active notifications for your app.
-    private static final int NOTIFICATION_ID = 1001;
+    // It comes from NotificationDispatcher's id table: it used to be 1001, the same id as
+    // the monitoring service's "always on" notification, so the reminder replaced it.
+    private static final int NOTIFICATION_ID = NotificationDispatcher.ID_DAILY_REMINDER;
+
+    // Sent by SimpleAlarmManager's second alarm, in the MorningDigestJob.PREPARE_MINUTES before 8:00.
+    // It means "get the overnight digest ready", not "show the reminder".
+    public static final String ACTION_PREPARE_DIGEST = "com.example.smartfarmapp.PREPARE_MORNING_DIGEST";
+    // Extra of ACTION_PREPARE_DIGEST: when the reminder it prepares for goes off (epoch millis)
+    public static final String EXTRA_REMINDER_AT = "reminder_at";
 
     /**
      * onReceive() - THE BRAIN OF THE RECEIVER.
@@ -67,7 +75,13 @@ public class DailyReminderReceiver extends BroadcastReceiver {
      */
     @Override
     public void onReceive(Context context, Intent intent) {
-        
+
+        // 0. SHARE THE WAKE-UP: the alarm has woken the phone anyway, so any periodic
+        // job of the app that is nearly due (e.g. the monitoring service's fetch)
+        // runs now, instead of waking the phone and the radio again a minute later.
+        // onReceive() runs on the main thread, where WakeupScheduler lives.
+        WakeupScheduler.get().onExternalWake();
+
         // 1. SAFETY CHECK: Check if the user actually wants reminders.
         // We use SimpleAlarmManager to check our "Saved Settings" (SharedPreferences).
         // Why? Because even if the alarm triggers, we should check if the user 
@@ -91,7 +105,29 @@ public class DailyReminderReceiver extends BroadcastReceiver {
             // We call our helper to set the 8:00 AM timer again.
             SimpleAlarmManager.scheduleDailyAlarm(context);
             Log.d(TAG, "Alarm re-scheduled after boot");
-        } 
+        }
+        // 3. THE EARLY ALARM: prepare the overnight digest, show nothing yet.
+        // goAsync() tells Android "I'm not done when onReceive() returns" – reading the
+        // saved rollups is file work that doesn't belong on the main thread.
+        // finish() hands the receiver back to the system once the work is done.
+        // The alarm is inexact: if Doze held it back past 8:00 the reminder has
+        // already gone out, so there is nothing left to prepare for.
+        else if (ACTION_PREPARE_DIGEST.equals(intent.getAction())) {
+            long reminderAt = intent.getLongExtra(EXTRA_REMINDER_AT, Long.MAX_VALUE);
+            if (System.currentTimeMillis() >= reminderAt) {
+                Log.d(TAG, "Digest alarm came after the reminder; skipping");
+                return;
+            }
+            PendingResult pending = goAsync();
+            Context appContext = context.getApplicationContext();
+            new Thread(() -> {
+                try {
+                    MorningDigestJob.prepare(appContext, System.currentTimeMillis());
+                } finally {
+                    pending.finish();
+                }
+            }, "morning-digest").start();
+        }
         // Otherwise, it was triggered by the AlarmManager (meaning it's 8:00 AM right now).
         else {
             Log.d(TAG, "Daily alarm triggered! Showing notification...");
@@ -138,7 +174,13 @@ public class DailyReminderReceiver extends BroadcastReceiver {
                 PendingIntent.FLAG_IMMUTABLE 
         );
 
-        // STEP 3: Build the visual notification.
+        // STEP 3: Pick the text. If the early alarm prepared last night's digest,
+        // show it (it is already stored on the phone – no waiting, no network).
+        // Otherwise fall back to the plain reminder.
+        String[] digest = MorningDigestJob.preparedFor(context, System.currentTimeMillis());
+        String text = digest != null ? digest[0] : "Time to check your crop conditions!";
+
+        // STEP 4: Build the visual notification.
         // We use NotificationCompat.Builder because it handles different Android versions automatically.
         // It's like a "Lego Set" where we add pieces (icon, title, text) one by one.
         // We connect it to "FarmMonitoringService.CHANNEL_ID_ALERTS" so it follows the same "High Importance" rules.
@@ -149,7 +191,7 @@ public class DailyReminderReceiver extends BroadcastReceiver {
                 // The big bold text at the top of the notification.
                 .setContentTitle("🌱 Morning Farm Check")
                 // The smaller descriptive text below the title.
-                .setContentText("Time to check your crop conditions!")
+                .setContentText(text)
                 // PRIORITY_HIGH makes it "pop up" or "peek" at the top of the screen (Heads-up).
                 // Without this, it might just hide quietly in the notification tray without a sound.
                 .setPriority(NotificationCompat.PRIORITY_HIGH)
@@ -159,7 +201,13 @@ public class DailyReminderReceiver extends BroadcastReceiver {
                 // Attach the "permission slip" (PendingIntent) we created in Step 2.
                 .setContentIntent(pendingIntent);
 
-        // STEP 4: Send the notification to the Android System.
+        // BigTextStyle: when the user expands the notification, the full digest
+        // (one line per metric, the latest values) is shown instead of one line.
+        if (digest != null) {
+            builder.setStyle(new NotificationCompat.BigTextStyle().bigText(digest[1]));
+        }
+
+        // STEP 5: Send the notification to the Android System.
         // NotificationManager is the system's "Post Office". 
         // We "check out" this service from the System using getSystemService.
         NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
@@ -167,7 +215,7 @@ public class DailyReminderReceiver extends BroadcastReceiver {
         if (notificationManager != null) {
             // Deliver the notification. 
             // notify() takes the ID and the finished "Package" (builder.build()).
-            // The NOTIFICATION_ID (1001) ensures that if we send this again tomorrow, 
+            // The NOTIFICATION_ID (3001) ensures that if we send this again tomorrow, 
             // it replaces the old one instead of making a long list of identical reminders.
             notificationManager.notify(NOTIFICATION_ID, builder.build());
         }
@@ -0,0 +1,41 @@
+package com.example.smartfarmapp;
+
+/**
+ * DerivedMetric
+ * ──────────────
+ * A value worked out from one reading's raw columns (temp, ground humidity,
+ * air humidity) – e.g. vapour pressure deficit or dew point.
+ *
+ * DerivedMetrics runs every registered metric once per reading as it enters
+ * FarmReadingBuffer and stores the result in a column next to the raw ones,
+ * so nothing has to be recomputed when rows are drawn or checked.
+ *
+ * To add a metric: implement this interface and pass it to
+ * DerivedMetrics.of(…) together with the built-in ones.
+ */
+public interface DerivedMetric {
+
+    // Precondition: None
+    // Postcondition: Returns a short label for the UI, e.g. "VPD"
+    String name();
+
+    // Precondition: None
+    // Postcondition: Returns the unit the value is in, e.g. "kPa"
+    String unit();
+
+    /**
+     * Must be cheap and have no side effects – it runs for every reading.
+     *
+     * Precondition: None
+     * Postcondition: Returns the metric for the reading (NaN if it can't be worked out)
+     */
+    float compute(int temp, int groundHumid, int airHumid);
+
+    // Precondition: veg is not null
+    // Postcondition: Returns the lowest allowed value, or NaN if the vegetation sets none
+    default float min(Vegetation veg) { return Float.NaN; }
+
+    // Precondition: veg is not null
+    // Postcondition: Returns the highest allowed value, or NaN if the vegetation sets none
+    default float max(Vegetation veg) { return Float.NaN; }
+}
@@ -0,0 +1,158 @@
+package com.example.smartfarmapp;
+
+/**
+ * DerivedMetrics
+ * ───────────────
+ * The set of DerivedMetric columns FarmReadingBuffer computes for each reading
+ * as it is appended, plus the two built-in ones:
+ *
+ *   VPD        – vapour pressure deficit, kPa. How strongly the air pulls water
+ *                out of the leaves: below ~0.4 growth stalls and fungus thrives,
+ *                above ~1.6 plants close their stomata.
+ *   DEW_POINT  – °C. The temperature at which the air's moisture condenses;
+ *                when night temperatures fall to it, leaves get wet.
+ *
+ * Both come straight from temp and air humidity (Tetens / Magnus formulas) –
+ * no history is needed, so they cost one exp / log per reading, paid once.
+ *
+ * Thresholds live on Vegetation (vpdMin, vpdMax, dewPointMax); a metric whose
+ * limits are not set there is never reported out of range. FarmAdapter colours
+ * the line with inRange(); FarmMonitoringService alerts on them through
+ * AlertRules, using limitRules() next to the profile's own rules.
+ *
+ * Immutable, so one instance can be shared by every buffer. Pure Java (no
+ * Android classes).
+ */
+public final class DerivedMetrics {
+
+    // ── Built-in metrics ─────────────────────────────────────────────────────
+
+    public static final DerivedMetric VPD = new DerivedMetric() {
+        @Override public String name() { return "VPD"; }
+        @Override public String unit() { return "kPa"; }
+        @Override public float compute(int temp, int groundHumid, int airHumid) {
+            return (float) vpdKpa(temp, airHumid);
+        }
+        @Override public float min(Vegetation veg) { return orNaN(veg.getVpdMin()); }
+        @Override public float max(Vegetation veg) { return orNaN(veg.getVpdMax()); }
+    };
+
+    public static final DerivedMetric DEW_POINT = new DerivedMetric() {
+        @Override public String name() { return "Dew point"; }
+        @Override public String unit() { return "°C"; }
+        @Override public float compute(int temp, int groundHumid, int airHumid) {
+            return (float) dewPointC(temp, airHumid);
+        }
+        @Override public float max(Vegetation veg) { return orNaN(veg.getDewPointMax()); }
+    };
+
+    /** Column indexes of the built-ins in standard(). */
+    public static final int VPD_COLUMN       = 0;
+    public static final int DEW_POINT_COLUMN = 1;
+
+    /** How long a derived limit must be crossed before limitRules() fire. */
+    static final String LIMIT_DWELL = "5m";
+
+    private static final DerivedMetrics STANDARD = new DerivedMetrics(new DerivedMetric[] {VPD, DEW_POINT});
+
+    private final DerivedMetric[] metrics;
+
+    private DerivedMetrics(DerivedMetric[] metrics) {
+        this.metrics = metrics;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the shared VPD + dew point set (what FarmReadingBuffer uses by default)
+    public static DerivedMetrics standard() {
+        return STANDARD;
+    }
+
+    // Precondition: metrics is not null and has no null entries
+    // Postcondition: Returns a set computing the given metrics, in that column order
+    public static DerivedMetrics of(DerivedMetric... metrics) {
+        for (DerivedMetric m : metrics) {
+            if (m == null) throw new IllegalArgumentException("null metric");
+        }
+        return new DerivedMetrics(metrics.clone());
+    }
+
+    public int count() { return metrics.length; }
+
+    // Precondition: 0 <= column < count()
+    public DerivedMetric get(int column) { return metrics[column]; }
+
+    // Precondition: None
+    // Postcondition: Returns the metric's column, or -1 if it isn't in this set
+    public int indexOf(DerivedMetric metric) {
+        for (int i = 0; i < metrics.length; i++) {
+            if (metrics[i] == metric) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * A NaN value or a NaN limit is "don't know / no limit" and never counts
+     * as out of range.
+     *
+     * Precondition: 0 <= column < count(), veg is not null.
+     * Postcondition: Returns false only if value is below the metric's min or above its max
+     */
+    public boolean inRange(int column, float value, Vegetation veg) {
+        DerivedMetric m = metrics[column];
+        return !(value < m.min(veg)) && !(value > m.max(veg));   // comparisons with NaN are false
+    }
+
+    /**
+     * The profile's derived limits as AlertRules lines, e.g.
+     * "VPD too high: vpd > 1.6 for 5m" – one per limit that is set. They hold for
+     * LIMIT_DWELL like a range alert (AlertStateMachine's raise dwell) before firing.
+     *
+     * Precondition: veg is not null.
+     * Postcondition: Returns the lines joined by '\n', or "" if no limit is set
+     */
+    public static String limitRules(Vegetation veg) {
+        StringBuilder sb = new StringBuilder();
+        limitRule(sb, "VPD too low",        "vpd <",      veg.getVpdMin());
+        limitRule(sb, "VPD too high",       "vpd >",      veg.getVpdMax());
+        limitRule(sb, "Dew point too high", "dewPoint >", veg.getDewPointMax());
+        return sb.toString();
+    }
+
+    private static void limitRule(StringBuilder sb, String name, String condition, Float limit) {
+        if (limit == null || limit.isNaN()) return;
+        if (sb.length() > 0) sb.append('\n');
+        sb.append(name).append(": ").append(condition).append(' ')
+          .append(new java.math.BigDecimal(limit.toString()).stripTrailingZeros().toPlainString())
+          .append(" for ").append(LIMIT_DWELL);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Formulas
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns the saturation vapour pressure in kPa at tempC (Tetens)
+    public static double saturationKpa(double tempC) {
+        return 0.6108 * Math.exp(17.27 * tempC / (tempC + 237.3));
+    }
+
+    // Precondition: None (humidity is clamped to 0–100 %)
+    // Postcondition: Returns the vapour pressure deficit in kPa
+    public static double vpdKpa(double tempC, double relativeHumidity) {
+        double rh = Math.max(0, Math.min(100, relativeHumidity));
+        return saturationKpa(tempC) * (1 - rh / 100);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the dew point in °C (Magnus), or NaN if the humidity is 0 % or less
+    public static double dewPointC(double tempC, double relativeHumidity) {
+        if (relativeHumidity <= 0) return Double.NaN;
+        double rh    = Math.min(100, relativeHumidity);
+        double gamma = Math.log(rh / 100) + 17.62 * tempC / (243.12 + tempC);
+        return 243.12 * gamma / (17.62 - gamma);
+    }
+
+    private static float orNaN(Float value) {
+        return value == null ? Float.NaN : value;
+    }
+}
@@ -9,11 +9,6 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -32,12 +27,19 @@ import java.util.Locale;
 public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder> {
 
     // --- MEMBER VARIABLES ---
-    // This holds the actual data we want to show. It's a list of 'Farm' objects.
-    private List<Farm> farmList; 
+    // This holds the actual data we want to show: the recent readings, stored column by
+    // column in a FarmReadingBuffer (oldest at index 0). The list shows them newest first.
+    private final FarmReadingBuffer readings;
     
     // This profile contains the "ideal" temperature and humidity ranges. 
     // We use it to color the text red if a value is too high or too low.
     private Vegetation activeVegetation; 
+
+    // Which profile was active when (built from the UserVegetation history). Each row is
+    // coloured against the profile of ITS time, so last season's readings aren't shown as
+    // violations of this season's crop. Null until the history has loaded – then every
+    // row uses activeVegetation, as before.
+    private ProfileTimeline profileTimeline;
     
     // We store the default text color (usually black or white depending on the theme)
     // so we can change the text back to normal if a sensor value returns to a safe range.
@@ -46,14 +48,14 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
     /**
      * --- CONSTRUCTOR ---
      * This is the "Setup" method. When we create this adapter in our Activity or Fragment,
-     * we give it the list of farm data we want it to manage.
-     * @param farmList The list of Farm objects to be displayed.
+     * we give it the buffer of farm readings we want it to manage.
+     * @param readings The readings to be displayed (the fragment keeps filling it).
      *
-     * Precondition: farmList is a valid List of Farm objects (can be empty).
-     * Postcondition: A new FarmAdapter is created with the provided list.
+     * Precondition: readings is not null (can be empty).
+     * Postcondition: A new FarmAdapter is created over the provided buffer.
      */
-    public FarmAdapter(List<Farm> farmList) {
-        this.farmList = farmList;
+    public FarmAdapter(FarmReadingBuffer readings) {
+        this.readings = readings;
     }
 
     /**
@@ -72,6 +74,19 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
         notifyDataSetChanged(); 
     }
 
+    /**
+     * Gives the adapter the user's profile history so each row is checked against the
+     * profile that was active when it was recorded.
+     * @param timeline The history, or null to check every row against the active profile.
+     *
+     * Precondition: None
+     * Postcondition: profileTimeline is updated and the UI is notified to refresh.
+     */
+    public void setProfileTimeline(ProfileTimeline timeline) {
+        this.profileTimeline = timeline;
+        notifyDataSetChanged();
+    }
+
     /**
      * Returns the currently active vegetation profile.
      * @return The active Vegetation object.
@@ -88,13 +103,12 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
      * Useful when logging out or refreshing the whole app state.
      * 
      * Precondition: None
-     * Postcondition: farmList is cleared, activeVegetation is set to null, and the UI is notified to refresh.
+     * Postcondition: readings is cleared, activeVegetation and profileTimeline are set to null, and the UI is notified to refresh.
      */
     public void clearData() {
-        if (farmList != null) {
-            farmList.clear();
-        }
+        readings.clear();
         activeVegetation = null;
+        profileTimeline  = null;
         notifyDataSetChanged(); // Refresh the UI to show an empty list.
     }
 
@@ -138,82 +152,118 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
      * @param holder The ViewHolder (the box) we are filling.
      * @param position The index of the item in our list (0, 1, 2...).
      *
-     * Precondition: holder is not null and position is within the bounds of farmList.
-     * Postcondition: The UI elements in the holder are updated with data from the Farm object at the given position, and colors are applied based on activeVegetation.
+     * Precondition: holder is not null and 0 <= position < readings.size().
+     * Postcondition: The UI elements in the holder are updated with the reading shown at the given position (newest first), and colors are applied based on the profile that was active when the reading was taken.
      */
     @Override
     public void onBindViewHolder(@NonNull FarmViewHolder holder, int position) {
-        // Step 1: Get the data object for the current position.
-        Farm farm = farmList.get(position);
+        // Step 1: Find the reading for this row. Row 0 is the newest reading, which is
+        // the last one in the buffer. Reading the values straight from the buffer's
+        // arrays means no Farm object is created while scrolling.
+        int index       = readings.size() - 1 - position;
+        int temp        = readings.temp(index);
+        int groundHumid = readings.groundHumid(index);
+        int airHumid    = readings.airHumid(index);
+        long time       = readings.epochMillis(index);
 
-        // Step 2: Set the text for each TextView using the data from the Farm object.
-        holder.tvTemp.setText("Temp: " + farm.getTemp() + "°C");
-        holder.tvGroundHumid.setText("Ground Humidity: " + farm.getGroundHumid() + "%");
-        holder.tvAirHumid.setText("Air Humidity: " + farm.getAirHumid() + "%");
+        // Step 2: Set the text for each TextView using the reading's values.
+        holder.tvTemp.setText("Temp: " + temp + "°C");
+        holder.tvGroundHumid.setText("Ground Humidity: " + groundHumid + "%");
+        holder.tvAirHumid.setText("Air Humidity: " + airHumid + "%");
         // We use a helper method 'formatDate' to make the computer-style date look pretty for humans.
-        holder.tvDateTime.setText("Updated: " + formatDate(farm.getDateTime()));
+        holder.tvDateTime.setText("Updated: " + formatDate(time));
+        // Derived metrics (VPD, dew point…) were computed once when the reading
+        // entered the buffer – here we only format them.
+        holder.tvDerived.setText(formatDerived(index));
 
         // --- DYNAMIC COLORING (RANGE CHECKING) LOGIC ---
-        // If the user hasn't selected a crop (Vegetation profile), we just use default colors.
-        if (activeVegetation == null) {
+        // Which crop was growing when this reading was taken?
+        Vegetation vegetation = profileAt(time);
+        // If no crop (Vegetation profile) was selected back then, we just use default colors.
+        if (vegetation == null) {
             holder.tvTemp.setTextColor(defaultTextColor);
             holder.tvGroundHumid.setTextColor(defaultTextColor);
             holder.tvAirHumid.setTextColor(defaultTextColor);
+            holder.tvDerived.setTextColor(defaultTextColor);
             return; // Stop here and don't do any range checking.
         }
 
         // Determine if the reading was taken during Day or Night. 
         // Plants often have different temperature needs at night!
-        boolean isDay = isDayTime(farm.getDateTime());
+        // The time was parsed once when the reading entered the buffer.
+        boolean isDay = FarmTime.isDayTime(time);
 
         // --- Check Temperature Range ---
         float tempMin, tempMax;
         if (isDay) {
             // Get daytime safety ranges
-            tempMin = activeVegetation.getDayTempMin();
-            tempMax = activeVegetation.getDayTempMax();
+            tempMin = vegetation.getDayTempMin();
+            tempMax = vegetation.getDayTempMax();
         } else {
             // Get nighttime safety ranges
-            tempMin = activeVegetation.getNightTempMin();
-            tempMax = activeVegetation.getNightTempMax();
+            tempMin = vegetation.getNightTempMin();
+            tempMax = vegetation.getNightTempMax();
         }
         // Use our helper to compare the actual value vs the min/max and set the color.
-        checkValue(holder.tvTemp, (double) farm.getTemp(), (double) tempMin, (double) tempMax);
+        checkValue(holder.tvTemp, (double) temp, (double) tempMin, (double) tempMax);
 
         // --- Check Ground Humidity Range ---
         float groundHumidMin, groundHumidMax;
         if (isDay) {
-            groundHumidMin = activeVegetation.getDayGroundHumidMin();
-            groundHumidMax = activeVegetation.getDayGroundHumidMax();
+            groundHumidMin = vegetation.getDayGroundHumidMin();
+            groundHumidMax = vegetation.getDayGroundHumidMax();
         } else {
-            groundHumidMin = activeVegetation.getNightGroundHumidMin();
-            groundHumidMax = activeVegetation.getNightGroundHumidMax();
+            groundHumidMin = vegetation.getNightGroundHumidMin();
+            groundHumidMax = vegetation.getNightGroundHumidMax();
         }
-        checkValue(holder.tvGroundHumid, (double) farm.getGroundHumid(), (double) groundHumidMin, (double) groundHumidMax);
+        checkValue(holder.tvGroundHumid, (double) groundHumid, (double) groundHumidMin, (double) groundHumidMax);
 
         // --- Check Air Humidity Range ---
         float airHumidMin, airHumidMax;
         if (isDay) {
-            airHumidMin = activeVegetation.getDayAirHumidMin();
-            airHumidMax = activeVegetation.getDayAirHumidMax();
+            airHumidMin = vegetation.getDayAirHumidMin();
+            airHumidMax = vegetation.getDayAirHumidMax();
         } else {
-            airHumidMin = activeVegetation.getNightAirHumidMin();
-            airHumidMax = activeVegetation.getNightAirHumidMax();
+            airHumidMin = vegetation.getNightAirHumidMin();
+            airHumidMax = vegetation.getNightAirHumidMax();
         }
-        checkValue(holder.tvAirHumid, (double) farm.getAirHumid(), (double) airHumidMin, (double) airHumidMax);
+        checkValue(holder.tvAirHumid, (double) airHumid, (double) airHumidMin, (double) airHumidMax);
+
+        // --- Check Derived Metrics ---
+        // Only limits the profile actually sets are checked (e.g. vpdMin / vpdMax).
+        holder.tvDerived.setTextColor(readings.derivedOutOfRangeMask(index, vegetation) != 0
+                ? Color.RED : defaultTextColor);
+    }
+
+    /**
+     * Finds the profile to check a reading against.
+     * @param time The reading's time.
+     * @return The profile active at that time, or null if none was.
+     *
+     * Precondition: None
+     * Postcondition: Without a timeline returns activeVegetation. With one, returns
+     * activeVegetation for the current period (so unsaved edits show at once), the
+     * historical profile for older periods, and null before the first activation.
+     * O(1) while scrolling (the timeline remembers the last period), O(log n) otherwise.
+     */
+    private Vegetation profileAt(long time) {
+        if (profileTimeline == null || time == FarmTime.NO_TIME) return activeVegetation;
+        int period = profileTimeline.indexAt(time);
+        if (period < 0) return null;
+        return profileTimeline.isCurrent(period) ? activeVegetation : profileTimeline.profile(period);
     }
 
     /**
      * --- 3. GET-ITEM-COUNT ---
      * This tells the RecyclerView how many total rows it needs to prepare for.
-     * @return The size of our data list.
+     * @return The number of readings in the buffer.
      *
-     * Precondition: farmList is not null.
-     * Postcondition: Returns the size of farmList.
+     * Precondition: None
+     * Postcondition: Returns readings.size().
      */
     @Override
     public int getItemCount() {
-        return farmList.size();
+        return readings.size();
     }
 
     /**
@@ -244,59 +294,60 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
     }
 
     /**
-     * A helper method to determine if a given timestamp is during the day (6:00 AM to 5:59 PM).
+     * Builds the derived-metrics line, e.g. "VPD: 1.45 kPa · Dew point: 15.3°C".
+     * @param index The reading's index in the buffer.
+     * @return The text for tvDerived ("–" for a value that couldn't be worked out).
+     *
+     * Precondition: 0 <= index < readings.size()
+     * Postcondition: Returns one "name: value unit" part per derived metric
+     */
+    private String formatDerived(int index) {
+        DerivedMetrics metrics = readings.derivedMetrics();
+        StringBuilder text = new StringBuilder();
+        for (int c = 0; c < metrics.count(); c++) {
+            DerivedMetric metric = metrics.get(c);
+            float value = readings.derived(index, c);
+            if (c > 0) text.append(" · ");
+            text.append(metric.name()).append(": ");
+            if (Float.isNaN(value)) {
+                text.append('–');
+            } else {
+                // Degrees get one decimal ("15.3°C"); kPa values are small and get two ("1.45 kPa")
+                boolean degrees = metric.unit().startsWith("°");
+                text.append(String.format(Locale.US, degrees ? "%.1f" : "%.2f ", value)).append(metric.unit());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * A helper method to determine if a given timestamp is during the day (between
+     * sunrise and sunset at the farm).
      * We need this because many crops have different requirements for Day vs Night.
      * 
      * @param isoDate The date string (e.g., "2024-07-15T14:30:00").
      * @return `true` if it's daytime, `false` otherwise.
      *
      * Precondition: isoDate is a String in ISO 8601 format or null.
-     * Postcondition: Returns true if the hour in isoDate is between 6 and 17 inclusive, false otherwise. Defaults to true.
+     * Postcondition: Returns true if the sun is up at isoDate, false otherwise. Defaults to true.
      */
     public boolean isDayTime(String isoDate) {
-        if (isoDate == null || isoDate.length() < 19) return true; // Safety check for bad data.
-        try {
-            // Create a parser that understands the "Year-Month-Day T Hour:Minute:Second" format.
-            SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            Date date = parser.parse(isoDate.substring(0, 19));
-            
-            // Use a Calendar to look at the specific 'Hour' of that date.
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(date);
-            int hour = cal.get(Calendar.HOUR_OF_DAY); // Returns 0-23
-            
-            // We define Day as 6 AM to 6 PM (hour 6 to 17).
-            return hour >= 6 && hour < 18;
-        } catch (ParseException e) {
-            e.printStackTrace(); 
-            return true; // Default to daytime if we can't figure it out.
-        }
+        // The parsing lives in FarmTime so the service and the benchmarks share it.
+        return FarmTime.isDayTime(isoDate);
     }
 
     /**
      * Formats the computer-friendly date from the database into something pretty for the user.
-     * Converts "2024-07-15T14:30:00" -> "15 Jul 2024, 14:30"
+     * Converts the reading's time -> "15 Jul 2024, 14:30"
      * 
-     * @param isoDate The raw date string.
+     * @param epochMillis The reading's time as stored in the buffer.
      * @return A readable date string.
      *
-     * Precondition: isoDate is a String in ISO 8601 format or null.
-     * Postcondition: Returns a formatted date string or the original isoDate if parsing fails.
+     * Precondition: None
+     * Postcondition: Returns a formatted date string, or "N/A" if the reading had no usable time.
      */
-    private String formatDate(String isoDate) {
-        if (isoDate == null) return "N/A";
-        if (isoDate.length() < 19) return isoDate; 
-        try {
-            // 1. Parse the raw string into a Date object.
-            SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            Date date = parser.parse(isoDate.substring(0, 19));
-            
-            // 2. Format that Date object into our desired style.
-            SimpleDateFormat formatter = new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.US);
-            return formatter.format(date);
-        } catch (Exception e) {
-            return isoDate; // Return raw data if formatting fails.
-        }
+    private String formatDate(long epochMillis) {
+        return FarmTime.formatDate(epochMillis);
     }
 
     /**
@@ -307,7 +358,7 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
      */
     static class FarmViewHolder extends RecyclerView.ViewHolder {
         // These variables hold the actual UI components for one row.
-        TextView tvTemp, tvGroundHumid, tvAirHumid, tvDateTime;
+        TextView tvTemp, tvGroundHumid, tvAirHumid, tvDerived, tvDateTime;
 
         /**
          * The constructor for the ViewHolder.
@@ -319,6 +370,7 @@ public class FarmAdapter extends RecyclerView.Adapter<FarmAdapter.FarmViewHolder
             tvTemp = itemView.findViewById(R.id.tvTemp);
             tvGroundHumid = itemView.findViewById(R.id.tvGroundHumid);
             tvAirHumid = itemView.findViewById(R.id.tvAirHumid);
+            tvDerived = itemView.findViewById(R.id.tvDerived);
             tvDateTime = itemView.findViewById(R.id.tvDateTime);
         }
     }
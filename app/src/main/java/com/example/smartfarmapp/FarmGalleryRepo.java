@@ -2,15 +2,11 @@ package com.example.smartfarmapp;
 
 import android.content.Context;
 import android.net.Uri;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.reflect.TypeToken;
-
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Type;
 import java.util.List;
 import java.util.UUID;
 
@@ -71,43 +67,56 @@ public class FarmGalleryRepo extends BaseRepo {
                 // 1. Read file bytes
                 InputStream is = context.getContentResolver().openInputStream(fileUri);
                 if (is == null) {
-                    mainHandler.post(() -> callback.onFailure(
+                    deliver(() -> callback.onFailure(
                             new IOException("Cannot open file: " + fileUri)));
                     return;
                 }
                 byte[] bytes = is.readAllBytes();
                 is.close();
 
-                // 2. Upload binary to Supabase Storage
-                String extension   = mimeType.startsWith("video") ? ".mp4" : ".jpg";
-                String storagePath = UUID.randomUUID().toString() + extension;
-
-                uploadBinaryToStorage(bytes, mimeType, storagePath, new UploadCallback() {
-                    @Override
-                    public void onSuccess(String publicUrl) {
-                        // 3. Insert a row in the FarmGallery table
-                        insertGalleryRow(publicUrl, userId, new AddGalleryCallback() {
-                            @Override public void onSuccess(Void r) {
-                                mainHandler.post(() -> callback.onSuccess(publicUrl));
-                            }
-                            @Override public void onFailure(Exception e) {
-                                mainHandler.post(() -> callback.onFailure(e));
-                            }
-                        });
-                    }
-                    @Override
-                    public void onFailure(Exception e) {
-                        mainHandler.post(() -> callback.onFailure(e));
-                    }
-                });
+                // 2 + 3. Upload the bytes and insert the gallery row
+                uploadBytesAndSave(bytes, mimeType, userId, callback);
 
             } catch (Exception e) {
-                Log.e(TAG, "uploadAndSave error", e);
-                mainHandler.post(() -> callback.onFailure(e));
+                AppLog.e(TAG, "uploadAndSave error", e);
+                deliver(() -> callback.onFailure(e));
             }
         }).start();
     }
 
+    /**
+     * Steps 2 and 3 of uploadAndSave() for bytes that are already in memory:
+     * upload to Storage under a random name, then insert the FarmGallery row.
+     * Split out so the JVM tests can drive it without a Context or content Uri.
+     *
+     * Precondition: Called on a background thread; bytes, mimeType and callback are not null.
+     * Postcondition: callback.onSuccess(publicUrl) or callback.onFailure(e) is delivered on the main thread.
+     */
+    public void uploadBytesAndSave(byte[] bytes, String mimeType, long userId, UploadCallback callback) {
+        // 2. Upload binary to Supabase Storage
+        String extension   = mimeType.startsWith("video") ? ".mp4" : ".jpg";
+        String storagePath = UUID.randomUUID().toString() + extension;
+
+        uploadBinaryToStorage(bytes, mimeType, storagePath, new UploadCallback() {
+            @Override
+            public void onSuccess(String publicUrl) {
+                // 3. Insert a row in the FarmGallery table
+                insertGalleryRow(publicUrl, userId, new AddGalleryCallback() {
+                    @Override public void onSuccess(Void r) {
+                        deliver(() -> callback.onSuccess(publicUrl));
+                    }
+                    @Override public void onFailure(Exception e) {
+                        deliver(() -> callback.onFailure(e));
+                    }
+                });
+            }
+            @Override
+            public void onFailure(Exception e) {
+                deliver(() -> callback.onFailure(e));
+            }
+        });
+    }
+
     /**
      * Fetches all FarmGallery rows for a user, newest first.
      *
@@ -115,19 +124,21 @@ public class FarmGalleryRepo extends BaseRepo {
      * Postcondition: Calls callback.onSuccess with the list of gallery items for the user, or callback.onFailure on error.
      */
     public void fetchGalleryForUser(long userId, FetchGalleryCallback callback) {
-        String url = GALLERY_TABLE_URL + "?UserID=eq." + userId + "&order=date.desc";
+        String url = PostgrestQuery.from(GALLERY_TABLE_URL)
+                .select("id", "URI", "date")
+                .eq("UserID", userId)
+                .order("date", false)
+                .build();
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Log.d(TAG, "Gallery JSON: " + json);
-                Type listType = new TypeToken<List<FarmGallery>>() {}.getType();
-                List<FarmGallery> items = gson.fromJson(json, listType);
+                List<FarmGallery> items = gson.fromJson(json, ModelJson.GALLERY_LIST);
                 callback.onSuccess(items);
             }
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "fetchGalleryForUser failed", e);
+                AppLog.e(TAG, "fetchGalleryForUser failed", e);
                 callback.onFailure(e);
             }
         });
@@ -148,7 +159,7 @@ public class FarmGalleryRepo extends BaseRepo {
     private void uploadBinaryToStorage(byte[] bytes, String mimeType,
                                        String path, UploadCallback callback) {
         String uploadUrl = STORAGE_UPLOAD_BASE + path;
-        Log.d(TAG, "Uploading binary to: " + uploadUrl);
+        AppLog.d(TAG, "Uploading binary to: ", uploadUrl);
 
         RequestBody body    = RequestBody.create(bytes, MediaType.parse(mimeType));
         Request     request = new Request.Builder()
@@ -164,16 +175,16 @@ public class FarmGalleryRepo extends BaseRepo {
             Response response = httpClient.newCall(request).execute();   // synchronous
             if (response.isSuccessful()) {
                 String publicUrl = STORAGE_PUBLIC_BASE + path;
-                Log.d(TAG, "Upload OK. URL: " + publicUrl);
+                AppLog.d(TAG, "Upload OK. URL: ", publicUrl);
                 callback.onSuccess(publicUrl);
             } else {
                 String err = response.body() != null ? response.body().string() : "";
-                Log.e(TAG, "Upload failed: " + response.code() + " " + err);
+                AppLog.e(TAG, "Upload failed: " + response.code() + " " + AppLog.excerpt(err));
                 callback.onFailure(new IOException("Storage HTTP " + response.code() + ": " + err));
             }
             response.close();
         } catch (IOException e) {
-            Log.e(TAG, "Upload IO error", e);
+            AppLog.e(TAG, "Upload IO error", e);
             callback.onFailure(e);
         }
     }
@@ -187,7 +198,7 @@ public class FarmGalleryRepo extends BaseRepo {
     private void insertGalleryRow(String publicUrl, long userId, AddGalleryCallback callback) {
         FarmGallery item   = new FarmGallery(userId, publicUrl);
         String      json   = gson.toJson(item);
-        Log.d(TAG, "Inserting gallery row: " + json);
+        AppLog.dBody(TAG, "Inserting gallery row: ", json);
         // preferMinimal = true → we only need a 201 confirmation
         executePost(TAG, GALLERY_TABLE_URL, json, true, callback);
     }
@@ -0,0 +1,51 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * FarmGalleryTypeAdapter
+ * ───────────────────────
+ * Streaming Gson adapter for FarmGallery rows (columns id, UserID, URI, date).
+ * Null fields are not written, so insertGalleryRow() still lets Supabase
+ * generate id and date.
+ */
+public class FarmGalleryTypeAdapter extends TypeAdapter<FarmGallery> {
+
+    // Precondition: out is a valid JsonWriter
+    // Postcondition: Writes the item as a JSON object without its null fields (or JSON null)
+    @Override
+    public void write(JsonWriter out, FarmGallery item) throws IOException {
+        if (item == null) { out.nullValue(); return; }
+        out.beginObject();
+        if (item.getId() != null)     out.name("id").value(item.getId());
+        if (item.getUserID() != null) out.name("UserID").value(item.getUserID());
+        if (item.getURI() != null)    out.name("URI").value(item.getURI());
+        if (item.getDate() != null)   out.name("date").value(item.getDate());
+        out.endObject();
+    }
+
+    // Precondition: in is positioned at a JSON object or null
+    // Postcondition: Returns the parsed FarmGallery, or null for JSON null
+    @Override
+    public FarmGallery read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        FarmGallery item = new FarmGallery();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":     item.setId(JsonValues.nextLongOrNull(in));       break;
+                case "UserID": item.setUserID(JsonValues.nextLongOrNull(in));   break;
+                case "URI":    item.setURI(JsonValues.nextStringOrNull(in));    break;
+                case "date":   item.setDate(JsonValues.nextStringOrNull(in));   break;
+                default:       in.skipValue();
+            }
+        }
+        in.endObject();
+        return item;
+    }
+}
@@ -9,14 +9,15 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Build;
-import android.os.Handler;
 import android.os.IBinder;
-import android.os.Looper;
+import android.util.Base64;
 import android.util.Log;
 
 import androidx.core.app.NotificationCompat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
 public class FarmMonitoringService extends Service {
@@ -25,6 +26,8 @@ public class FarmMonitoringService extends Service {
     // CONFIGURATION CONSTANTS - EASY TO CHANGE!
     // ═══════════════════════════════════════════════════════════════════════
 
+    private static final String TAG = "FarmMonitoringService";
+
     /**
      * HOW OFTEN TO CHECK FOR NEW DATA (in milliseconds)
      *
@@ -38,6 +41,12 @@ public class FarmMonitoringService extends Service {
      */
     private static final long REFRESH_INTERVAL_MS =120000; // 2 minutes
 
+    /**
+     * How much earlier than REFRESH_INTERVAL_MS a check may run, to share a
+     * timer tick with MainFragment's refresh or an alarm's wake-up (see WakeupScheduler)
+     */
+    private static final long REFRESH_FLEX_MS = 30000; // 30 seconds
+
     /**
      * Notification channel IDs - these are required by Android for notifications
      */
@@ -47,11 +56,10 @@ public class FarmMonitoringService extends Service {
     /**
      * Unique IDs for different types of notifications
      */
-    private static final int NOTIFICATION_ID_FOREGROUND = 1001;
+    private static final int NOTIFICATION_ID_FOREGROUND = NotificationDispatcher.ID_FOREGROUND;
     // This is a System Requirement. It’s the notification that tells the user the service is currently running.
     // It is Ongoing. You cannot swipe it away.
-    private static final int NOTIFICATION_ID_ALERT = 2001;
-    // This is the Emergency Notification. It only pops up when something is actually wrong.
+    // Alerts themselves go through NotificationDispatcher, which owns their ids (see its table).
 
     /**
      * Action name for broadcasting updates to the UI
@@ -62,16 +70,12 @@ public class FarmMonitoringService extends Service {
     // ═══════════════════════════════════════════════════════════════════════
 
     /**
-     * Handler - Think of this as a "task scheduler"
-     * It allows us to run code repeatedly at specific intervals
+     * Our job's id in WakeupScheduler – the app-wide "task scheduler" that runs
+     * the check every REFRESH_INTERVAL_MS, lined up with the app's other
+     * periodic work. NO_JOB while not monitoring.
      */
-    private Handler monitoringHandler;
-
-    /**
-     * Runnable - Think of this as a "task" that can be run
-     * This specific task will fetch and check farm data
-     */
-    private Runnable monitoringRunnable;
+    private static final int NO_JOB = 0;
+    private int monitoringJob = NO_JOB;
 
     /**
      * Repository for fetching farm data from the database
@@ -89,14 +93,98 @@ public class FarmMonitoringService extends Service {
     private Vegetation activeVegetation;
 
     /**
-     * Flag to track if we've already sent an alert (to avoid spam)
+     * Whose readings the state below belongs to. Everything that is saved is
+     * saved per user (userKey()), and switchUser() starts afresh when another
+     * account logs in – so a second account never inherits the first one's
+     * alerts, watermark or overnight digest.
+     */
+    private int stateUserId = -1;
+
+    /**
+     * The newest reading already evaluated, saved under INGEST_WATERMARK_KEY after
+     * every check – with or without an active profile – so a restart (START_STICKY
+     * or the next app open) never replays and re-notifies readings it has seen.
+     * Long.MIN_VALUE until the first check.
+     */
+    private long ingestWatermark = Long.MIN_VALUE;
+    private static final String INGEST_WATERMARK_KEY = "ingest_watermark";
+
+    /**
+     * How far back from the newest reading a check ever goes. fetchFarms()
+     * returns the user's whole history: on the first run, or after the service
+     * was off for a long time, older readings are history, not news, and must
+     * not raise notifications. Same as the state machine's max gap – older
+     * readings would restart its dwell times anyway.
+     */
+    static final long MAX_REPLAY_MILLIS = 30 * 60_000L;
+
+    /**
+     * Decides when a reading becomes an alert (and when the alert is over):
+     * hysteresis, dwell times and cooldown per metric. Its state is saved in
+     * SharedPreferences under ALERT_STATE_KEY, so a restart doesn't re-alert.
+     */
+    private AlertStateMachine alertMachine =
+            new AlertStateMachine(AlertStateMachine.Config.defaults());
+
+    private static final String ALERT_STATE_KEY = "alert_state";
+
+    /**
+     * Raised / cleared lines collected while one fetch is evaluated, sent as a
+     * single notification afterwards
+     */
+    private final StringBuilder raisedMessage  = new StringBuilder();
+    private final StringBuilder clearedMessage = new StringBuilder();
+
+    /**
+     * Flags spikes, too-fast changes and stuck sensors from running statistics
+     * (nothing is rescanned). Works with or without an active vegetation.
+     * Not saved: after a restart it re-learns from the next ~30 readings.
+     */
+    private AnomalyDetector anomalyDetector =
+            new AnomalyDetector(AnomalyDetector.Config.defaults());
+    private final StringBuilder anomalyMessage = new StringBuilder();
+
+    /**
+     * Extrapolates each metric's recent trend (Holt smoothing) and warns when it
+     * will leave the active vegetation's range within the next few hours.
+     * Not saved either: it warms up again from the next ~30 readings.
+     */
+    private TrendForecaster forecaster =
+            new TrendForecaster(TrendForecaster.Config.defaults());
+    private final StringBuilder forecastMessage = new StringBuilder();
+
+    /**
+     * The active vegetation's compound rules – and its VPD / dew point limits,
+     * which run as rules too (AlertRules.textFor()) – compiled once when the
+     * profile is loaded (null if it has none or they don't compile). Evaluated per reading
+     * with constant work, however long the service has been running.
+     *
+     * Their "for" windows must survive the service being started again (every
+     * app open) and restarted: useRules() keeps the compiled rules while the
+     * profile and text stay the same (alertRulesKey), and their state is saved
+     * per user under RULES_STATE_KEY next to the alert state – otherwise a
+     * condition that holds on would fire again after every app open.
+     */
+    private AlertRules alertRules;
+    private String     alertRulesKey;   // profile id + rules text alertRules came from (null = none)
+    private static final String RULES_STATE_KEY   = "rules_state";
+    private static final String RULES_PROFILE_KEY = "rules_profile";   // whose rules RULES_STATE_KEY holds
+    private final StringBuilder ruleMessage = new StringBuilder();
+
+    /**
+     * Every alert of one check, for the alert history (AlertJournal). Handed to
+     * the journal's own thread once per check, so the loop never waits for the
+     * file; a fresh list is started for the next check.
      */
-    private boolean hasNotifiedOutOfRange = false;
+    private List<AlertJournal.Entry> journalBatch = new ArrayList<>();
 
     /**
-     * The timestamp of the last data we checked (to avoid duplicate alerts)
+     * Tonight's min / max / time out of range, for the morning reminder
+     * (MorningDigestJob). Saved in SharedPreferences after every check, under
+     * userKey(MorningDigestJob.DIGEST_STATE_KEY, user).
      */
-    private String lastCheckedDateTime = "";
+    private MorningDigest morningDigest = new MorningDigest();
+    private Farm journalFarm;                       // the reading being evaluated
 
     // ═══════════════════════════════════════════════════════════════════════
     // SERVICE LIFECYCLE METHODS
@@ -121,6 +209,12 @@ public class FarmMonitoringService extends Service {
 
         // Create the notification channels (required for Android 8.0+)
         createNotificationChannels();
+
+        // Day/night = sunrise/sunset at the farm (the service may start without MainActivity)
+        MainActivity.applyFarmLocation(getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE));
+
+        // The saved state (which alerts are already showing…) is loaded per user
+        // by switchUser() on the first check
     }
 
     /**
@@ -183,8 +277,9 @@ public class FarmMonitoringService extends Service {
         Log.d("FarmMonitoringService", "🛑 Service destroyed!");
 
         // Stop the monitoring loop
-        if (monitoringHandler != null && monitoringRunnable != null) {
-            monitoringHandler.removeCallbacks(monitoringRunnable);
+        if (monitoringJob != NO_JOB) {
+            WakeupScheduler.get().unregister(monitoringJob);
+            monitoringJob = NO_JOB;
         }
     }
 
@@ -196,34 +291,24 @@ public class FarmMonitoringService extends Service {
      * Starts the monitoring loop that repeatedly checks farm data
      *
      * HOW IT WORKS:
-     * 1. Creates a Handler (task scheduler) on the main thread
-     * 2. Creates a Runnable (the task to repeat)
-     * 3. Schedules the task to run immediately
-     * 4. The task reschedules itself to run again after REFRESH_INTERVAL_MS
+     * 1. Checks once right away
+     * 2. Registers the check with WakeupScheduler, which runs it again every
+     *    REFRESH_INTERVAL_MS on the main thread – up to REFRESH_FLEX_MS early
+     *    when the phone is awake anyway (MainFragment's refresh, an alarm), so
+     *    the fetches share one radio burst instead of waking the radio twice
+     * 3. onStartCommand() runs again every time MainFragment resumes: the old
+     *    registration is dropped first, so there is only ever one loop
      *
      * Precondition: REFRESH_INTERVAL_MS is defined.
      * Postcondition: A repeating monitoring task is started.
      */
     private void startMonitoring() {
-        // Create a Handler tied to the main thread's message queue
-        monitoringHandler = new Handler(Looper.getMainLooper());
-
-        // Create the task that will fetch and check data
-        monitoringRunnable = new Runnable() {
-            @Override
-            public void run() {
-                Log.d("FarmMonitoringService", "🔄 Fetching farm data...");
-
-                // Fetch the latest farm data
-                fetchAndCheckFarmData();
+        WakeupScheduler scheduler = WakeupScheduler.get();
+        if (monitoringJob != NO_JOB) scheduler.unregister(monitoringJob);
 
-                // Schedule this task to run again after REFRESH_INTERVAL_MS
-                monitoringHandler.postDelayed(this, REFRESH_INTERVAL_MS);
-            }
-        };
-
-        // Start the loop immediately
-        monitoringHandler.post(monitoringRunnable);
+        fetchAndCheckFarmData();
+        monitoringJob = scheduler.register("farm-monitor", REFRESH_INTERVAL_MS, REFRESH_FLEX_MS, true,
+                this::fetchAndCheckFarmData);
     }
 
     /**
@@ -240,6 +325,7 @@ public class FarmMonitoringService extends Service {
      * Postcondition: Latest farm data is fetched, checked for alerts, and a broadcast is sent to the UI.
      */
     private void fetchAndCheckFarmData() {
+        AppLog.d(TAG, "Fetching farm data");
         // Get the logged-in user's ID from SharedPreferences
         SharedPreferences prefs = getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
         int userId = prefs.getInt("user_id", -1);
@@ -248,27 +334,21 @@ public class FarmMonitoringService extends Service {
             Log.e("FarmMonitoringService", "❌ No user ID found - cannot fetch data");
             return;
         }
+        if (userId != stateUserId) switchUser(userId);
 
         // Fetch farm data from the database
 
         supabaseService.fetchFarms(userId, new SupabaseService.FarmCallback() {
             @Override
             public void onSuccess(List<Farm> farms) {
-                Log.d("FarmMonitoringService", "✅ Fetched " + farms.size() + " farm records");
-
-                if (!farms.isEmpty()) {
-                    Farm latestFarm = farms.get(0);
-
-                    // Check if this is new data
-                    if (!latestFarm.getDateTime().equals(lastCheckedDateTime)) {
-                        lastCheckedDateTime = latestFarm.getDateTime();
-                        hasNotifiedOutOfRange = false;
-                    }
-
-                    // Check for out-of-range values
-                    checkAndNotifyIfOutOfRange(latestFarm);
-
-
+                AppLog.d(TAG, "Fetched farm records: ", farms.size());
+                if (userId != stateUserId) return;   // logged out / switched account meanwhile
+
+                // Check every new reading (not just the latest) for out-of-range and unusual values
+                checkNewReadings(farms);
+                if (!journalBatch.isEmpty()) {
+                    AlertJournal.appendAsync(journalFile(userId), journalBatch);
+                    journalBatch = new ArrayList<>();
                 }
 
 
@@ -286,117 +366,355 @@ public class FarmMonitoringService extends Service {
     }
 
     /**
-     * Checks if farm sensor values are out of the acceptable range
-     * and sends a notification if they are
+     * Runs every reading newer than the last one checked (ingestWatermark, and
+     * never more than MAX_REPLAY_MILLIS before the newest) through alertMachine
+     * (range alerts) and anomalyDetector (unusual values), then sends at most one
+     * notification of each kind for what changed.
+     *
+     * WHY NOT JUST CHECK THE LATEST READING?
+     * A value hovering on a threshold would alert on every new row. The state
+     * machine only alerts after a value has been out of range for a while, and
+     * only says "back in range" once it is comfortably inside again. The anomaly
+     * detector needs every reading to keep its running statistics.
      *
-     * @param farm The latest farm reading to check
+     * @param farms Readings as fetchFarms() returns them (newest first)
      *
-     * Precondition: activeVegetation may be null.
-     * Postcondition: If activeVegetation is set and sensor values are out of range, an alert notification is sent and hasNotifiedOutOfRange is set to true.
+     * Precondition: activeVegetation may be null (then only anomalies are checked).
+     * Postcondition: New readings are evaluated; raised alerts produce an alert
+     * notification, cleared ones (with nothing still active) a "back in range"
+     * notification, anomalies an anomaly notification; the watermark, digest and
+     * alert state are saved.
      */
-    private void checkAndNotifyIfOutOfRange(Farm farm) {
+    private void checkNewReadings(List<Farm> farms) {
+        if (farms.isEmpty()) return;
+        long newest = FarmTime.toEpochMillis(farms.get(0).getDateTime());
+        if (newest == FarmTime.NO_TIME) return;
+
+        // Walk back from the newest row to the first one already evaluated...
+        long watermark = Math.max(ingestWatermark, newest - MAX_REPLAY_MILLIS);
+        int newRows = 0;
+        while (newRows < farms.size()
+                && FarmTime.toEpochMillis(farms.get(newRows).getDateTime()) > watermark) {
+            newRows++;
+        }
+        if (newRows == 0) return;
+
+        // ...then evaluate the new ones oldest first
+        raisedMessage.setLength(0);
+        clearedMessage.setLength(0);
+        anomalyMessage.setLength(0);
+        forecastMessage.setLength(0);
+        ruleMessage.setLength(0);
+        for (int i = newRows - 1; i >= 0; i--) {
+            Farm farm  = farms.get(i);
+            long epoch = FarmTime.toEpochMillis(farm.getDateTime());
+            journalFarm = farm;
+            morningDigest.add(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(), activeVegetation);
+            if (activeVegetation != null) {
+                alertMachine.evaluate(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(),
+                        activeVegetation, FarmTime.isDayTime(epoch), alertListener);
+                int early = forecaster.evaluate(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(),
+                        activeVegetation);
+                if (early != 0) appendForecasts(early, farm);
+                if (alertRules != null) {
+                    int fired = alertRules.evaluate(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(),
+                            FarmTime.isDayTime(epoch));
+                    if (fired != 0) appendRules(fired, farm);
+                }
+            }
+            int anomalies = anomalyDetector.evaluate(epoch, farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid());
+            if (anomalies != 0) appendAnomalies(anomalies, farm);
+        }
+
+        ingestWatermark = Math.max(ingestWatermark, newest);
+        saveState();
+
+        if (anomalyMessage.length() > 0) {
+            sendAlertNotification(AlertBatcher.ANOMALY,
+                    "🔎 Unusual Sensor Readings",
+                    anomalyMessage.toString().trim());
+            Log.w("FarmMonitoringService", "🔎 Anomalies detected");
+        }
+
         // If no vegetation profile is set, we can't check ranges
         if (activeVegetation == null) {
             Log.d("FarmMonitoringService", "ℹ️ No active vegetation - skipping range check");
             return;
         }
 
-        // If we already sent an alert for this reading, don't spam
-        if (hasNotifiedOutOfRange) {
-            return;
+        if (forecastMessage.length() > 0) {
+            sendAlertNotification(AlertBatcher.FORECAST,
+                    "⏳ Early Warning: " + activeVegetation.getName(),
+                    forecastMessage.toString().trim());
+            Log.w("FarmMonitoringService", "⏳ Breach predicted");
         }
 
-        // Determine if it's daytime or nighttime (affects which ranges to use)
-        boolean isDay = isDayTime(farm.getDateTime());
-
-        // Build a detailed message about what's wrong
-        StringBuilder alertMessage = new StringBuilder();
-        boolean hasIssues = false;
-
-        // --- CHECK TEMPERATURE ---
-        float tempMin = isDay ? activeVegetation.getDayTempMin() : activeVegetation.getNightTempMin();
-        // this is
-        /**float tempMin;
+        if (ruleMessage.length() > 0) {
+            sendAlertNotification(AlertBatcher.RULE,
+                    "📋 Rule Triggered: " + activeVegetation.getName(),
+                    ruleMessage.toString().trim());
+            Log.w("FarmMonitoringService", "📋 Compound rule fired");
+        }
 
-        if (isDay == true) {
-            tempMin = activeVegetation.getDayTempMin();
+        if (raisedMessage.length() > 0) {
+            sendAlertNotification(AlertBatcher.ALERT,
+                    "⚠️ Farm Alert: Values Out of Range!",
+                    raisedMessage.toString().trim());
+            Log.w("FarmMonitoringService", "⚠️ Out of range detected!");
+        } else if (clearedMessage.length() > 0 && alertMachine.activeMask() == 0) {
+            sendAlertNotification(AlertBatcher.CLEARED,
+                    "✅ Farm Back in Range",
+                    clearedMessage.toString().trim());
+            Log.d("FarmMonitoringService", "✅ All values back in range");
         } else {
-            tempMin = activeVegetation.getNightTempMin();
-        }*/
-        float tempMax = isDay ? activeVegetation.getDayTempMax() : activeVegetation.getNightTempMax();
-
-        if (farm.getTemp() < tempMin || farm.getTemp() > tempMax) {
-            alertMessage.append("🌡️ Temperature: ").append(farm.getTemp())
-                    .append("°C (Expected: ").append(tempMin).append("-").append(tempMax).append("°C)\n");
-            hasIssues = true;
+            AppLog.d(TAG, "No alert changes, active mask ", alertMachine.activeMask());
         }
+    }
 
-        // --- CHECK GROUND HUMIDITY ---
-        float groundMin = isDay ? activeVegetation.getDayGroundHumidMin() : activeVegetation.getNightGroundHumidMin();
-        float groundMax = isDay ? activeVegetation.getDayGroundHumidMax() : activeVegetation.getNightGroundHumidMax();
+    // Precondition: mask came from alertRules.evaluate() for this farm reading
+    // Postcondition: One "name – condition (values)" line per fired rule is appended to ruleMessage
+    private void appendRules(int mask, Farm farm) {
+        for (int rule = 0; rule < alertRules.count(); rule++) {
+            if ((mask & (1 << rule)) == 0) continue;
+            journal(AlertBatcher.RULE, AlertJournal.NO_METRIC, false, alertRules.name(rule));
+            ruleMessage.append(alertRules.name(rule)).append(" – ").append(alertRules.source(rule))
+                    .append(" (temp ").append(farm.getTemp()).append("°C, ground ")
+                    .append(farm.getGroundHumid()).append("%, air ").append(farm.getAirHumid()).append("%)\n");
+        }
+    }
 
-        if (farm.getGroundHumid() < groundMin || farm.getGroundHumid() > groundMax) {
-            alertMessage.append("💧 Ground Humidity: ").append(farm.getGroundHumid())
-                    .append("% (Expected: ").append(groundMin).append("-").append(groundMax).append("%)\n");
-            hasIssues = true;
+    // Precondition: mask came from forecaster.evaluate() for this farm reading
+    // Postcondition: One "will go below/above … in about N h" line per metric is appended
+    private void appendForecasts(int mask, Farm farm) {
+        boolean isDay = FarmTime.isDayTime(FarmTime.toEpochMillis(farm.getDateTime()));
+        for (int metric = 0; metric < RangeCheck.METRIC_COUNT; metric++) {
+            if ((mask & (1 << metric)) == 0) continue;
+            String unit   = unit(metric);
+            boolean rising = forecaster.isRising(metric);
+            long minutes  = Math.round(forecaster.minutesToBreach(metric));
+            journal(AlertBatcher.FORECAST, metric, rising, minutes + " min");
+            forecastMessage.append(label(metric)).append(RangeCheck.value(farm, metric)).append(unit)
+                    .append(rising ? ", rising " : ", falling ")
+                    .append(String.format(java.util.Locale.US, "%.1f", Math.abs(forecaster.trendPerHour(metric))))
+                    .append(unit).append("/h – ")
+                    .append(rising ? "above " : "below ")
+                    .append(rising ? RangeCheck.max(activeVegetation, metric, isDay)
+                                   : RangeCheck.min(activeVegetation, metric, isDay))
+                    .append(unit).append(" in about ")
+                    .append(minutes < 90 ? minutes + " min" : Math.round(minutes / 60.0) + " h")
+                    .append("\n");
         }
+    }
 
-        // --- CHECK AIR HUMIDITY ---
-        float airMin = isDay ? activeVegetation.getDayAirHumidMin() : activeVegetation.getNightAirHumidMin();
-        float airMax = isDay ? activeVegetation.getDayAirHumidMax() : activeVegetation.getNightAirHumidMax();
+    // Precondition: flags came from anomalyDetector.evaluate() for this farm reading
+    // Postcondition: One line per anomaly is appended to anomalyMessage
+    private void appendAnomalies(int flags, Farm farm) {
+        for (int metric = 0; metric < RangeCheck.METRIC_COUNT; metric++) {
+            String label = label(metric), unit = unit(metric);
+            int value = RangeCheck.value(farm, metric);
+            if (AnomalyDetector.has(flags, metric, AnomalyDetector.RATE)) {
+                journal(AlertBatcher.ANOMALY, metric, false, "rate");
+                int change = anomalyDetector.lastChange(metric);
+                anomalyMessage.append(label).append(change > 0 ? "+" : "").append(change).append(unit)
+                        .append(" in ").append(Math.max(1, anomalyDetector.lastStepMillis() / 60_000))
+                        .append(" min\n");
+            } else if (AnomalyDetector.has(flags, metric, AnomalyDetector.SPIKE)) {
+                journal(AlertBatcher.ANOMALY, metric, false, "spike");
+                anomalyMessage.append(label).append(value).append(unit).append(" (usually about ")
+                        .append(Math.round(anomalyDetector.mean(metric))).append(unit).append(")\n");
+            }
+            if (AnomalyDetector.has(flags, metric, AnomalyDetector.FLATLINE)) {
+                journal(AlertBatcher.ANOMALY, metric, false, "flatline");
+                long hours = (FarmTime.toEpochMillis(farm.getDateTime()) - anomalyDetector.flatSince(metric)) / 3_600_000;
+                anomalyMessage.append(label).append("stuck at ").append(value).append(unit)
+                        .append(" for ").append(hours).append(" h – check the sensor\n");
+            }
+        }
+    }
 
-        if (farm.getAirHumid() < airMin || farm.getAirHumid() > airMax) {
-            alertMessage.append("💨 Air Humidity: ").append(farm.getAirHumid())
-                    .append("% (Expected: ").append(airMin).append("-").append(airMax).append("%)");
-            hasIssues = true;
+    /**
+     * Turns the state machine's transitions into notification lines
+     */
+    private final AlertStateMachine.Listener alertListener = new AlertStateMachine.Listener() {
+        @Override
+        public void onRaised(int metric, boolean high, int value, long epochMillis) {
+            journal(AlertBatcher.ALERT, metric, high, high ? "above range" : "below range");
+            appendIssue(raisedMessage, metric, value, FarmTime.isDayTime(epochMillis));
         }
 
-        // If any issues were found, send a notification
-        if (hasIssues) {
-            sendAlertNotification(
-                    "⚠️ Farm Alert: Values Out of Range!",
-                    alertMessage.toString(),
-                    activeVegetation.getName()
-            );
-            hasNotifiedOutOfRange = true; // Don't send duplicate alerts
-            Log.w("FarmMonitoringService", "⚠️ Out of range detected!");
-        } else {
-            Log.d("FarmMonitoringService", "✅ All values within range");
+        @Override
+        public void onCleared(int metric, int value, long epochMillis) {
+            journal(AlertBatcher.CLEARED, metric, false, "back in range");
+            clearedMessage.append(label(metric)).append(value).append(unit(metric))
+                    .append(" is back in range\n");
         }
-    }
+    };
 
     // ═══════════════════════════════════════════════════════════════════════
     // HELPER METHODS
     // ═══════════════════════════════════════════════════════════════════════
 
+    // Precondition: Called while journalFarm is being evaluated
+    // Postcondition: An entry with journalFarm's values and the active profile is added to journalBatch
+    private void journal(int kind, int metric, boolean high, String label) {
+        Farm farm = journalFarm;
+        journalBatch.add(new AlertJournal.Entry(FarmTime.toEpochMillis(farm.getDateTime()),
+                System.currentTimeMillis(), kind, metric, high,
+                farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid(),
+                activeVegetation != null && activeVegetation.getId() != null
+                        ? activeVegetation.getId() : AlertJournal.NO_PROFILE,
+                activeVegetation != null ? activeVegetation.getName() : "",
+                label));
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the alert history file of that user (MainFragment reads the same one)
+    static java.io.File journalFile(Context context, int userId) {
+        return new java.io.File(context.getFilesDir(), "alert_journal_" + userId + ".bin");
+    }
+
+    private java.io.File journalFile(int userId) {
+        return journalFile(this, userId);
+    }
+
+    // Precondition: metric is one of the RangeCheck metric indices
+    // Postcondition: Appends "<label><value><unit> (Expected: min-max<unit>)" and a newline to message
+    private void appendIssue(StringBuilder message, int metric, int value, boolean isDay) {
+        String unit = unit(metric);
+        message.append(label(metric)).append(value)
+                .append(unit).append(" (Expected: ")
+                .append(RangeCheck.min(activeVegetation, metric, isDay)).append("-")
+                .append(RangeCheck.max(activeVegetation, metric, isDay))
+                .append(unit).append(")\n");
+    }
+
+    // Precondition: metric is one of the RangeCheck metric indices
+    // Postcondition: Returns the notification label for that metric, e.g. "🌡️ Temperature: "
+    private static String label(int metric) {
+        switch (metric) {
+            case RangeCheck.TEMP:         return "🌡️ Temperature: ";
+            case RangeCheck.GROUND_HUMID: return "💧 Ground Humidity: ";
+            default:                      return "💨 Air Humidity: ";
+        }
+    }
+
+    // Precondition: metric is one of the RangeCheck metric indices
+    // Postcondition: Returns "°C" for temperature, "%" for the humidities
+    private static String unit(int metric) {
+        return metric == RangeCheck.TEMP ? "°C" : "%";
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // SAVED STATE (per user)
+    // ═══════════════════════════════════════════════════════════════════════
+
     /**
-     * Determines if a timestamp represents daytime or nighttime
-     *
-     * Daytime is defined as 6:00 AM to 5:59 PM
-     *
-     * @param isoDate The timestamp in ISO format from the database
-     * @return true if daytime, false if nighttime
+     * Precondition: userId is a logged-in user's id
+     * Postcondition: Returns key for that user's copy, e.g. "alert_state_12"
+     */
+    static String userKey(String key, int userId) {
+        return key + "_" + userId;
+    }
+
+    /**
+     * Starts from userId's saved state: watermark, alert state (Base64 of
+     * alertMachine.toBytes()) and overnight digest. What was in memory belonged
+     * to the previous user and is dropped, including the detectors that are
+     * never saved (they warm up again from the next readings).
      *
-     * Precondition: isoDate is in ISO format.
-     * Postcondition: Returns true if the hour is between 6 and 17 inclusive, false otherwise.
+     * Precondition: userId != -1
+     * Postcondition: stateUserId == userId; every part that is missing or can't
+     * be read starts fresh.
      */
-    private boolean isDayTime(String isoDate) {
-        if (isoDate == null) return true;
+    private void switchUser(int userId) {
+        stateUserId     = userId;
+        alertMachine    = new AlertStateMachine(AlertStateMachine.Config.defaults());
+        anomalyDetector = new AnomalyDetector(AnomalyDetector.Config.defaults());
+        forecaster      = new TrendForecaster(TrendForecaster.Config.defaults());
+        morningDigest   = new MorningDigest();
+
+        SharedPreferences prefs = getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        ingestWatermark = prefs.getLong(userKey(INGEST_WATERMARK_KEY, userId), Long.MIN_VALUE);
+
+        String saved = prefs.getString(userKey(ALERT_STATE_KEY, userId), null);
+        if (saved != null) {
+            try {
+                alertMachine.restore(Base64.decode(saved, Base64.NO_WRAP));
+            } catch (IllegalArgumentException | java.io.IOException e) {
+                Log.w("FarmMonitoringService", "Discarding unreadable alert state", e);
+            }
+        }
+
+        saved = prefs.getString(userKey(MorningDigestJob.DIGEST_STATE_KEY, userId), null);
+        if (saved != null) {
+            try {
+                morningDigest = MorningDigest.fromBytes(Base64.decode(saved, Base64.NO_WRAP));
+            } catch (IllegalArgumentException | java.io.IOException e) {
+                Log.w("FarmMonitoringService", "Discarding unreadable morning digest", e);
+            }
+        }
+
+        alertRulesKey = null;   // the rules' windows are per user as well
+        useRules(activeVegetation);
+    }
+
+    /**
+     * Precondition: veg may be null.
+     * Postcondition: alertRules holds veg's compiled rules and derived limits
+     * (null if none or they don't compile). If they are the ones already in use nothing changes;
+     * otherwise they are compiled and, when stateUserId saved windows for this
+     * profile and text, those are restored.
+     */
+    private void useRules(Vegetation veg) {
+        String text = AlertRules.textFor(veg);   // own rules + derived limits (VPD, dew point)
+        String key  = text == null ? null : veg.getId() + "\n" + text;
+        if (Objects.equals(key, alertRulesKey)) return;   // same rules: keep their windows
+
+        alertRulesKey = key;
+        alertRules    = null;
+        if (text == null) return;
         try {
-            java.text.SimpleDateFormat parser = new java.text.SimpleDateFormat(
-                    "yyyy-MM-dd'T'HH:mm:ss",
-                    java.util.Locale.US
-            );
-            java.util.Date date = parser.parse(isoDate.substring(0, 19));
-            java.util.Calendar cal = java.util.Calendar.getInstance();
-            cal.setTime(date);
-            int hour = cal.get(java.util.Calendar.HOUR_OF_DAY);
-            return hour >= 6 && hour < 18;
-        } catch (Exception e) {
-            return true; // Default to daytime on error
+            alertRules = AlertRules.compile(text);
+        } catch (java.text.ParseException e) {
+            // The edit dialog rejects bad rules, so this is an old or hand-edited row
+            Log.w("FarmMonitoringService", "Ignoring rules that don't compile: " + e.getMessage()
+                    + " at " + e.getErrorOffset());
+            return;
+        }
+        if (stateUserId == -1) return;   // switchUser() comes back here
+
+        SharedPreferences prefs = getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        String saved = prefs.getString(userKey(RULES_STATE_KEY, stateUserId), null);
+        long owner   = prefs.getLong(userKey(RULES_PROFILE_KEY, stateUserId), Long.MIN_VALUE);
+        if (saved == null || veg.getId() == null || owner != veg.getId()) return;
+        try {
+            alertRules.restore(Base64.decode(saved, Base64.NO_WRAP));
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            Log.d("FarmMonitoringService", "Rules start with fresh windows: " + e.getMessage());
         }
     }
 
+    /**
+     * Precondition: stateUserId != -1
+     * Postcondition: The watermark, alertMachine's and alertRules' state and
+     * morningDigest (where MorningDigestJob reads it) are queued for saving –
+     * one apply(), written in the background.
+     */
+    private void saveState() {
+        SharedPreferences.Editor editor = getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE).edit();
+        if (alertRules != null && activeVegetation != null && activeVegetation.getId() != null) {
+            editor.putString(userKey(RULES_STATE_KEY, stateUserId),
+                            Base64.encodeToString(alertRules.toBytes(), Base64.NO_WRAP))
+                    .putLong(userKey(RULES_PROFILE_KEY, stateUserId), activeVegetation.getId());
+        }
+        editor.putLong(userKey(INGEST_WATERMARK_KEY, stateUserId), ingestWatermark)
+                .putString(userKey(ALERT_STATE_KEY, stateUserId),
+                        Base64.encodeToString(alertMachine.toBytes(), Base64.NO_WRAP))
+                .putString(userKey(MorningDigestJob.DIGEST_STATE_KEY, stateUserId),
+                        Base64.encodeToString(morningDigest.toBytes(), Base64.NO_WRAP))
+                .apply();
+    }
+
     /**
      * Loads the active vegetation profile from SharedPreferences
      *
@@ -404,16 +722,19 @@ public class FarmMonitoringService extends Service {
      * to a Vegetation object using Gson.
      *
      * Precondition: active_vegetation JSON is stored in SharedPreferences.
-     * Postcondition: activeVegetation variable is populated with the stored profile.
+     * Postcondition: activeVegetation variable is populated with the stored profile,
+     * and alertRules with its compiled rules (null if none, or if they don't compile;
+     * kept as they are if the profile and its rules haven't changed).
      */
     private void loadActiveVegetation() {
         SharedPreferences prefs = getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
         String json = prefs.getString("active_vegetation", null);
 
         if (json != null) {
-            activeVegetation = new com.google.gson.Gson().fromJson(json, Vegetation.class);
+            activeVegetation = ModelJson.GSON.fromJson(json, Vegetation.class);
             Log.d("FarmMonitoringService", "✅ Loaded active vegetation: " +
                     (activeVegetation != null ? activeVegetation.getName() : "null"));
+            useRules(activeVegetation);
         } else {
             Log.d("FarmMonitoringService", "ℹ️ No active vegetation set");
         }
@@ -508,71 +829,18 @@ public class FarmMonitoringService extends Service {
     }
 
     /**
-     * Sends an alert notification when values are out of range
+     * Hands an alert to NotificationDispatcher, the app's single alert pipeline.
+     * It merges what arrives close together into grouped notifications,
+     * rate-limits them and builds them on its own thread – so this returns at once.
      *
-     * @param title The notification title
-     * @param message The detailed message about what's wrong
-     * @param vegetationName The name of the vegetation being monitored
+     * @param kind    AlertBatcher.ALERT, CLEARED, RULE, FORECAST or ANOMALY
+     * @param title   The notification title
+     * @param message One line per event ("Temperature 35°C – above 30°C")
      *
      * Precondition: CHANNEL_ID_ALERTS is created.
-     * Postcondition: Displays a high-priority alert notification for the user.
-     */
-    /**
-     * Sends a push notification to the user when a sensor threshold is breached.
-     * This method handles the creation of the notification, its visual style,
-     * and the logic for reopening the app when the user taps it.
+     * Postcondition: The alert is queued for display.
      */
-    private void sendAlertNotification(String title, String message, String vegetationName) {
-
-        // 1. Create a standard Intent to define the destination.
-        // We want to open MainActivity when the notification is clicked.
-        Intent intent = new Intent(this, MainActivity.class);
-
-        // Flags to ensure that clicking the notification doesn't create multiple
-        // instances of the app; instead, it brings the existing one to the front.
-        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-
-        /*
-         * 2. Wrap the Intent in a PendingIntent.
-         * A PendingIntent is a "token" we give to the Android System.
-         * Since our Service might be destroyed by the time the user clicks the notification,
-         * the System uses this token to execute the Intent on our behalf.
-         * * FLAG_IMMUTABLE: Required for security in modern Android versions (API 31+).
-         * FLAG_UPDATE_CURRENT: If a PendingIntent already exists, update its data.
-         */
-        PendingIntent pendingIntent = PendingIntent.getActivity(
-                this,
-                0,
-                intent,
-                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT
-        );
-
-        /*
-         * 3. Build the notification using NotificationCompat.Builder.
-         * Using 'Compat' ensures the notification looks and works correctly
-         * across different Android versions.
-         */
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID_ALERTS)
-                .setSmallIcon(android.R.drawable.ic_dialog_alert) // The icon shown in the status bar
-                .setContentTitle(title)                       // e.g., "High Temperature Alert!"
-                .setContentText(message)                      // e.g., "Tomato plant is at 35°C"
-                .setPriority(NotificationCompat.PRIORITY_HIGH) // Enables "Heads-up" (pop-up) behavior
-                .setCategory(NotificationCompat.CATEGORY_ALARM) // Helps the OS prioritize the alert
-                .setAutoCancel(true)                          // Removes notification after user clicks it
-                .setContentIntent(pendingIntent);             // Attach the PendingIntent defined above
-
-        /*
-         * 4. NotificationManager: The system service that manages all notifications.
-         */
-        NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-
-        if (notificationManager != null) {
-            /*
-             * By using a fixed NOTIFICATION_ID, any new alert will replace the old one.
-             * This prevents the user's notification tray from being flooded with
-             * dozens of similar alerts if the temperature stays out of range.
-             */
-            notificationManager.notify(NOTIFICATION_ID_ALERT, builder.build());
-        }
+    private void sendAlertNotification(int kind, String title, String message) {
+        NotificationDispatcher.get(this).post(kind, title, message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,346 @@
+package com.example.smartfarmapp;
+
+import java.util.List;
+
+/**
+ * FarmReadingBuffer
+ * ──────────────────
+ * Fixed-capacity ring buffer of recent Farm readings, stored column by column:
+ *
+ *   int[]  id            int[] temp          float[] derived[0]  (VPD)
+ *   long[] epochMillis   int[] groundHumid   float[] derived[1]  (dew point)
+ *                        int[] airHumid      …one per DerivedMetric
+ *
+ * WHY:
+ *   A {@code List<Farm>} keeps one object per reading plus a String timestamp
+ *   that is parsed again every time a row is drawn or checked. A week of
+ *   per-minute readings is ~10k of each. Here the same week is five primitive
+ *   arrays allocated once: appending never allocates, the timestamp is parsed
+ *   exactly once, and a loop over one metric walks one contiguous array.
+ *
+ * DERIVED COLUMNS: every metric of the buffer's DerivedMetrics is computed
+ * once, in append(), and stored next to the raw values – readers never
+ * recompute them. Consecutive readings are often identical (per-minute
+ * sampling of slow values), so append() copies the previous row's derived
+ * values instead of recomputing when the raw values haven't changed.
+ *
+ * Indexes are logical: 0 is the OLDEST reading still held, size() - 1 the
+ * newest. When the buffer is full, append() overwrites the oldest reading.
+ *
+ * Readers (FarmAdapter, charts, alert evaluation) use the index getters or a
+ * {@link View} – a window onto the same arrays, never a copy.
+ *
+ * Not thread-safe: fill and read it on one thread (the main thread in the app).
+ * Pure Java (no Android classes) so the :benchmark module can measure it.
+ */
+public final class FarmReadingBuffer {
+
+    /** One reading per minute for seven days. */
+    public static final int ONE_WEEK_PER_MINUTE = 7 * 24 * 60;
+
+    private final int    capacity;
+    private final int[]  id;
+    private final long[] epochMillis;
+    private final int[]  temp;
+    private final int[]  groundHumid;
+    private final int[]  airHumid;
+    private final DerivedMetrics derivedMetrics;
+    private final float[][]      derived;   // [column][slot]
+
+    private long appended;   // readings ever appended (lets a View tell if it was overwritten)
+    private int  next;       // slot the next append writes to
+    private int  size;
+    private int  generation; // bumped by clear() so older Views know they are stale
+
+    // Precondition: capacity >= 1
+    // Postcondition: An empty buffer with the standard derived columns (VPD, dew point) is created
+    public FarmReadingBuffer(int capacity) {
+        this(capacity, DerivedMetrics.standard());
+    }
+
+    // Precondition: capacity >= 1, derivedMetrics is not null
+    // Postcondition: An empty buffer with all arrays allocated is created
+    public FarmReadingBuffer(int capacity, DerivedMetrics derivedMetrics) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity    = capacity;
+        this.id          = new int[capacity];
+        this.epochMillis = new long[capacity];
+        this.temp        = new int[capacity];
+        this.groundHumid = new int[capacity];
+        this.airHumid    = new int[capacity];
+        this.derivedMetrics = derivedMetrics;
+        this.derived        = new float[derivedMetrics.count()][capacity];
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Writing
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1), never allocates. Computes the derived columns for the reading.
+     *
+     * Precondition: Readings are appended oldest first (needed by indexAtOrAfter);
+     * epochMillis may be FarmTime.NO_TIME.
+     * Postcondition: The reading is the newest entry; if the buffer was full, the
+     * oldest reading has been dropped.
+     */
+    public void append(int readingId, long epochMillis, int temp, int groundHumid, int airHumid) {
+        int slot = next;
+        this.id[slot]          = readingId;
+        this.epochMillis[slot] = epochMillis;
+        this.temp[slot]        = temp;
+        this.groundHumid[slot] = groundHumid;
+        this.airHumid[slot]    = airHumid;
+        computeDerived(slot, temp, groundHumid, airHumid);
+        next = slot + 1 == capacity ? 0 : slot + 1;
+        appended++;
+        if (size < capacity) size++;
+    }
+
+    // Precondition: farm is not null
+    // Postcondition: The farm's values are appended; its dateTime is parsed once here
+    public void append(Farm farm) {
+        append(farm.getId(), FarmTime.toEpochMillis(farm.getDateTime()),
+                farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid());
+    }
+
+    /**
+     * Supabase returns Farm rows newest first; the buffer wants oldest first.
+     *
+     * Precondition: newestFirst is not null.
+     * Postcondition: The buffer holds the newest min(capacity, newestFirst.size())
+     * rows of newestFirst, and nothing else.
+     */
+    public void replaceWithNewestFirst(List<Farm> newestFirst) {
+        clear();
+        int from = Math.min(newestFirst.size(), capacity) - 1;
+        for (int i = from; i >= 0; i--) append(newestFirst.get(i));
+    }
+
+    /**
+     * Keeps a long history up to date from repeated fetches without re-parsing
+     * every row each time: only rows newer than the newest one held are added.
+     *
+     * Precondition: newestFirst is not null; reading ids grow with time.
+     * Postcondition: Rows with an id above the newest held id are appended oldest
+     * first; returns how many were appended.
+     */
+    public int appendNewerFromNewestFirst(List<Farm> newestFirst) {
+        int newestId = size == 0 ? Integer.MIN_VALUE : id(size - 1);
+        int end = 0;
+        while (end < newestFirst.size() && newestFirst.get(end).getId() > newestId) end++;
+        for (int i = end - 1; i >= 0; i--) append(newestFirst.get(i));
+        return end;
+    }
+
+    // Precondition: None
+    // Postcondition: The buffer is empty (the arrays are kept for reuse)
+    public void clear() {
+        appended = 0;
+        next     = 0;
+        size     = 0;
+        generation++;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading – index 0 = oldest, size() - 1 = newest
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public int  size()      { return size; }
+    public int  capacity()  { return capacity; }
+    public boolean isEmpty() { return size == 0; }
+
+    // Precondition: 0 <= index < size()
+    public int  id(int index)          { return id[slot(index)]; }
+    public long epochMillis(int index) { return epochMillis[slot(index)]; }
+    public int  temp(int index)        { return temp[slot(index)]; }
+    public int  groundHumid(int index) { return groundHumid[slot(index)]; }
+    public int  airHumid(int index)    { return airHumid[slot(index)]; }
+
+    // Precondition: None
+    // Postcondition: Returns the derived metrics this buffer computes
+    public DerivedMetrics derivedMetrics() { return derivedMetrics; }
+
+    // Precondition: 0 <= index < size(), 0 <= column < derivedMetrics().count()
+    // Postcondition: Returns the reading's stored derived value (e.g. DerivedMetrics.VPD_COLUMN)
+    public float derived(int index, int column) { return derived[column][slot(index)]; }
+
+    /**
+     * Precondition: 0 <= index < size(), veg is not null.
+     * Postcondition: Returns a bit mask with bit (1 << column) set for every derived
+     * metric outside the vegetation's limits; 0 if all are fine or have no limits.
+     */
+    public int derivedOutOfRangeMask(int index, Vegetation veg) {
+        int s = slot(index), mask = 0;
+        for (int c = 0; c < derived.length; c++) {
+            if (!derivedMetrics.inRange(c, derived[c][s], veg)) mask |= 1 << c;
+        }
+        return mask;
+    }
+
+    // Precondition: 0 <= index < size(), metric is one of RangeCheck's metrics
+    // Postcondition: Returns the reading's value for that metric
+    public int value(int index, int metric) {
+        int s = slot(index);
+        switch (metric) {
+            case RangeCheck.TEMP:         return temp[s];
+            case RangeCheck.GROUND_HUMID: return groundHumid[s];
+            default:                      return airHumid[s];
+        }
+    }
+
+    /**
+     * Precondition: 0 <= index < size(), veg is not null.
+     * Postcondition: Returns RangeCheck's out-of-range mask for the reading, with
+     * day/night taken from its stored epoch time.
+     */
+    public int outOfRangeMask(int index, Vegetation veg) {
+        int s = slot(index);
+        return RangeCheck.outOfRangeMask(temp[s], groundHumid[s], airHumid[s], veg,
+                FarmTime.isDayTime(epochMillis[s]));
+    }
+
+    /**
+     * Allocates – meant for the rare places that still need a Farm (e.g. a
+     * notification text), not for loops.
+     *
+     * Precondition: 0 <= index < size()
+     * Postcondition: Returns a new Farm with the reading's values and dateTime in ISO
+     * form. UserID is left 0 – the buffer holds one user's readings and doesn't store it.
+     */
+    public Farm toFarm(int index) {
+        int s = slot(index);
+        return new Farm(id[s], 0, temp[s], groundHumid[s], airHumid[s], FarmTime.toIsoDate(epochMillis[s]));
+    }
+
+    /**
+     * Binary search over the stored times.
+     *
+     * Precondition: Readings were appended in time order.
+     * Postcondition: Returns the first index whose time is >= epochMillis, or size()
+     * if every reading is older.
+     */
+    public int indexAtOrAfter(long epochMillis) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.epochMillis[slot(mid)] < epochMillis) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Views
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns a view of every reading currently held
+    public View view() {
+        return new View(appended - size, firstSlot(), size);
+    }
+
+    // Precondition: count >= 0
+    // Postcondition: Returns a view of the newest min(count, size()) readings
+    public View latest(int count) {
+        int n = Math.min(count, size);
+        return new View(appended - n, wrap(firstSlot() + size - n), n);
+    }
+
+    // Precondition: Readings were appended in time order
+    // Postcondition: Returns a view of the readings at or after epochMillis
+    public View since(long epochMillis) {
+        int from = indexAtOrAfter(epochMillis);
+        return new View(appended - size + from, wrap(firstSlot() + from), size - from);
+    }
+
+    /**
+     * A window onto the buffer: {@code size()} readings, index 0 = oldest of the
+     * window. Creating one is a single small object; reading through it touches
+     * only the buffer's arrays.
+     *
+     * The window is pinned to the readings it was made for. It stays valid until
+     * those readings are overwritten – i.e. for (capacity − size()) more appends –
+     * or the buffer is cleared; {@link #isValid()} tells you which.
+     */
+    public final class View {
+        private final long firstSeq;   // sequence number of the oldest reading in the window
+        private final int  firstSlot;  // array slot of that reading
+        private final int  length;
+        private final int  madeInGeneration;
+
+        private View(long firstSeq, int firstSlot, int length) {
+            this.firstSeq         = firstSeq;
+            this.firstSlot        = firstSlot;
+            this.length           = length;
+            this.madeInGeneration = generation;
+        }
+
+        public int size() { return length; }
+
+        // Precondition: None
+        // Postcondition: Returns true while every reading of the window is still in the buffer
+        public boolean isValid() {
+            return madeInGeneration == generation && firstSeq >= appended - size;
+        }
+
+        // Precondition: 0 <= k < size() and isValid()
+        public int  id(int k)          { return id[slotOf(k)]; }
+        public long epochMillis(int k) { return epochMillis[slotOf(k)]; }
+        public int  temp(int k)        { return temp[slotOf(k)]; }
+        public int  groundHumid(int k) { return groundHumid[slotOf(k)]; }
+        public int  airHumid(int k)    { return airHumid[slotOf(k)]; }
+
+        // Precondition: 0 <= k < size() and isValid(), 0 <= column < derivedMetrics().count()
+        public float derived(int k, int column) { return derived[column][slotOf(k)]; }
+
+        // Precondition: 0 <= k < size() and isValid(), metric is one of RangeCheck's metrics
+        public int value(int k, int metric) {
+            int s = slotOf(k);
+            switch (metric) {
+                case RangeCheck.TEMP:         return temp[s];
+                case RangeCheck.GROUND_HUMID: return groundHumid[s];
+                default:                      return airHumid[s];
+            }
+        }
+
+        // Precondition: 0 <= k < size() and isValid(), veg is not null
+        public int outOfRangeMask(int k, Vegetation veg) {
+            int s = slotOf(k);
+            return RangeCheck.outOfRangeMask(temp[s], groundHumid[s], airHumid[s], veg,
+                    FarmTime.isDayTime(epochMillis[s]));
+        }
+
+        private int slotOf(int k) {
+            int s = firstSlot + k;
+            return s < capacity ? s : s - capacity;
+        }
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    // Reuses the previous row's values when its raw values are the same
+    private void computeDerived(int slot, int temp, int groundHumid, int airHumid) {
+        int prev = slot == 0 ? capacity - 1 : slot - 1;
+        boolean same = size > 0 && prev != slot
+                && this.temp[prev] == temp && this.groundHumid[prev] == groundHumid && this.airHumid[prev] == airHumid;
+        for (int c = 0; c < derived.length; c++) {
+            derived[c][slot] = same ? derived[c][prev]
+                    : derivedMetrics.get(c).compute(temp, groundHumid, airHumid);
+        }
+    }
+
+    // No division: both operands are < capacity, so one subtraction wraps
+    private int slot(int index) {
+        return wrap(firstSlot() + index);
+    }
+
+    private int firstSlot() {
+        int first = next - size;
+        return first < 0 ? first + capacity : first;
+    }
+
+    private int wrap(int s) {
+        return s < capacity ? s : s - capacity;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.smartfarmapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * FarmRollups
+ * ────────────
+ * Hourly and daily min/max/avg of one user's Farm readings, kept up to date as
+ * rows arrive and saved to a small file so months of history survive restarts
+ * without re-reading the raw rows.
+ *
+ *   hourly() – the last 90 days, one bucket per local hour   (≤ 2,160 points)
+ *   daily()  – the last 2 years, one bucket per local day    (≤ 730 points)
+ *
+ * Each reading is counted once: rows with an id at or below the newest id
+ * already ingested are skipped, so handing the same refreshed list in every
+ * few seconds (what MainFragment does) costs one comparison per old row.
+ *
+ * Growing degree days are accumulated in the same ingest pass once
+ * trackGrowingDegreeDays() has set a base temperature. They are not stored in
+ * the file: the daily buckets already hold each day's min/max, so the total is
+ * rebuilt from them (not from raw rows) on restore or when the base changes.
+ *
+ * Every reading also goes into a QuantileSketch per metric and per day/night
+ * (six in all, a few KB together). They cover everything ever ingested, so
+ * suggestRanges() can offer the 5th–95th percentile of what the farm actually
+ * sees as a starting point for a new Vegetation profile.
+ *
+ * File format (big-endian, DataOutputStream):
+ *   int magic 'FRLP', int version 2, long lastIngestedId,
+ *   hourly rollup, daily rollup (see TimeBucketRollup.writeTo),
+ *   6 sketches, index metric * 2 + (day ? 0 : 1) (see QuantileSketch.writeTo)
+ * A version 1 file (no sketches) is still read; the sketches then start empty.
+ *
+ * Not thread-safe: ingest and read on one thread. Pure Java (no Android classes).
+ */
+public final class FarmRollups {
+
+    public static final int HOURLY_BUCKETS = 90 * 24;
+    public static final int DAILY_BUCKETS  = 2 * 365;
+
+    private static final int MAGIC   = 0x46524C50;   // "FRLP"
+    private static final int VERSION = 2;
+
+    /** suggestRanges() defaults: the middle 90 % of readings, once each period has an hour's worth. */
+    public static final double SUGGEST_LOW_QUANTILE  = 0.05;
+    public static final double SUGGEST_HIGH_QUANTILE = 0.95;
+    public static final long   SUGGEST_MIN_READINGS  = 60;
+
+    private final TimeBucketRollup hourly = new TimeBucketRollup(TimeBucketRollup.HOUR_MS, HOURLY_BUCKETS);
+    private final TimeBucketRollup daily  = new TimeBucketRollup(TimeBucketRollup.DAY_MS,  DAILY_BUCKETS);
+    private long lastIngestedId = Long.MIN_VALUE;
+    private GrowingDegreeDays growingDegreeDays;   // null until a base temperature is set
+    private final QuantileSketch[] sketches = newSketches();   // [metric * 2 + (day ? 0 : 1)]
+
+    public TimeBucketRollup hourly() { return hourly; }
+    public TimeBucketRollup daily()  { return daily; }
+
+    // Precondition: None
+    // Postcondition: Returns the season's growing degree days, or null if not tracked
+    public GrowingDegreeDays growingDegreeDays() { return growingDegreeDays; }
+
+    /**
+     * Cheap – one pass over the daily buckets. Does nothing if the same base and
+     * season are already tracked, so it can be called on every profile refresh.
+     *
+     * Precondition: None
+     * Postcondition: Growing degree days above baseTemp since seasonStartMillis are
+     * tracked, counted from the daily rollup so far.
+     */
+    public void trackGrowingDegreeDays(float baseTemp, long seasonStartMillis) {
+        GrowingDegreeDays current = growingDegreeDays;
+        if (current != null && current.baseTemp() == baseTemp
+                && current.seasonStartMillis() == seasonStartMillis) return;
+        growingDegreeDays = new GrowingDegreeDays(baseTemp, seasonStartMillis);
+        growingDegreeDays.seedFrom(daily);
+    }
+
+    // Precondition: None
+    // Postcondition: Growing degree days are no longer tracked
+    public void stopGrowingDegreeDays() {
+        growingDegreeDays = null;
+    }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the sketch of every ingested value of metric by day (or by night)
+    public QuantileSketch sketch(int metric, boolean isDay) {
+        return sketches[metric * 2 + (isDay ? 0 : 1)];
+    }
+
+    /**
+     * Reads twelve percentiles from the sketches – no raw history is sorted.
+     * Temperatures are rounded to whole degrees, humidities to whole percent
+     * (the sensors report integers anyway).
+     *
+     * Precondition: 0 <= lowQuantile < highQuantile <= 1
+     * Postcondition: Returns an unsaved Vegetation holding only the twelve
+     * min/max values, or null if any metric has fewer than minReadings by day or
+     * by night.
+     */
+    public Vegetation suggestRanges(double lowQuantile, double highQuantile, long minReadings) {
+        for (QuantileSketch sketch : sketches) {
+            if (sketch.count() < minReadings || sketch.isEmpty()) return null;
+        }
+        Vegetation veg = new Vegetation();
+        veg.setDayTempMin(low(RangeCheck.TEMP, true, lowQuantile));
+        veg.setDayTempMax(high(RangeCheck.TEMP, true, highQuantile));
+        veg.setNightTempMin(low(RangeCheck.TEMP, false, lowQuantile));
+        veg.setNightTempMax(high(RangeCheck.TEMP, false, highQuantile));
+        veg.setDayGroundHumidMin(low(RangeCheck.GROUND_HUMID, true, lowQuantile));
+        veg.setDayGroundHumidMax(high(RangeCheck.GROUND_HUMID, true, highQuantile));
+        veg.setNightGroundHumidMin(low(RangeCheck.GROUND_HUMID, false, lowQuantile));
+        veg.setNightGroundHumidMax(high(RangeCheck.GROUND_HUMID, false, highQuantile));
+        veg.setDayAirHumidMin(low(RangeCheck.AIR_HUMID, true, lowQuantile));
+        veg.setDayAirHumidMax(high(RangeCheck.AIR_HUMID, true, highQuantile));
+        veg.setNightAirHumidMin(low(RangeCheck.AIR_HUMID, false, lowQuantile));
+        veg.setNightAirHumidMax(high(RangeCheck.AIR_HUMID, false, highQuantile));
+        return veg;
+    }
+
+    private static QuantileSketch[] newSketches() {
+        QuantileSketch[] sketches = new QuantileSketch[RangeCheck.METRIC_COUNT * 2];
+        for (int i = 0; i < sketches.length; i++) sketches[i] = new QuantileSketch();
+        return sketches;
+    }
+
+    private float low(int metric, boolean isDay, double q) {
+        return (float) Math.floor(sketch(metric, isDay).quantile(q));
+    }
+
+    private float high(int metric, boolean isDay, double q) {
+        return (float) Math.ceil(sketch(metric, isDay).quantile(q));
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Ingest
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1) per reading.
+     *
+     * Precondition: Readings of one user, in increasing id order.
+     * Postcondition: Returns true if the reading was counted; false if its id was
+     * already ingested or it has no usable time.
+     */
+    public boolean ingest(long id, long epochMillis, int temp, int groundHumid, int airHumid) {
+        if (id <= lastIngestedId) return false;
+        lastIngestedId = id;
+        if (epochMillis == FarmTime.NO_TIME) return false;
+        hourly.add(epochMillis, temp, groundHumid, airHumid);
+        daily.add(epochMillis, temp, groundHumid, airHumid);
+        if (growingDegreeDays != null) growingDegreeDays.add(epochMillis, temp);
+        int period = FarmTime.isDayTime(epochMillis) ? 0 : 1;
+        sketches[RangeCheck.TEMP * 2 + period].add(temp);
+        sketches[RangeCheck.GROUND_HUMID * 2 + period].add(groundHumid);
+        sketches[RangeCheck.AIR_HUMID * 2 + period].add(airHumid);
+        return true;
+    }
+
+    // Precondition: farm is not null
+    // Postcondition: As ingest(id, …); the farm's dateTime is parsed only if the row is new
+    public boolean ingest(Farm farm) {
+        if (farm.getId() <= lastIngestedId) return false;
+        return ingest(farm.getId(), FarmTime.toEpochMillis(farm.getDateTime()),
+                farm.getTemp(), farm.getGroundHumid(), farm.getAirHumid());
+    }
+
+    /**
+     * For the list fetchFarms() returns (newest first). Walks from the newest row
+     * backwards only as far as the first already-ingested id, then ingests the new
+     * rows oldest first.
+     *
+     * Precondition: newestFirst is not null, sorted by id descending.
+     * Postcondition: Returns how many rows were ingested.
+     */
+    public int ingestNewestFirst(List<Farm> newestFirst) {
+        int firstNew = 0;
+        while (firstNew < newestFirst.size() && newestFirst.get(firstNew).getId() > lastIngestedId) firstNew++;
+        int ingested = 0;
+        for (int i = firstNew - 1; i >= 0; i--) {
+            if (ingest(newestFirst.get(i))) ingested++;
+        }
+        return ingested;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the newest id counted so far (Long.MIN_VALUE if none)
+    public long lastIngestedId() { return lastIngestedId; }
+
+    // Precondition: None
+    // Postcondition: All buckets, sketches, growing degree days and the id watermark are dropped
+    public void clear() {
+        hourly.clear();
+        daily.clear();
+        for (QuantileSketch sketch : sketches) sketch.clear();
+        if (growingDegreeDays != null) growingDegreeDays.clear();
+        lastIngestedId = Long.MIN_VALUE;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * No I/O (up to about 170 KB for a full year) – take the snapshot on the
+     * owning thread, then hand the bytes to a background thread for writeAtomically().
+     *
+     * Precondition: None
+     * Postcondition: Returns the rollups in the file format described above
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lastIngestedId);
+            hourly.writeTo(out);
+            daily.writeTo(out);
+            for (QuantileSketch sketch : sketches) sketch.writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory write failed", e);   // cannot happen
+        }
+    }
+
+    /**
+     * Precondition: bytes is not null.
+     * Postcondition: This object holds the stored rollups. On IOException (wrong
+     * magic/version, truncated data) it is left empty.
+     */
+    public void restore(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readInt() != MAGIC)   throw new IOException("not a rollup file");
+            int version = in.readInt();
+            if (version != 1 && version != VERSION) throw new IOException("unsupported rollup file version");
+            long storedId = in.readLong();
+            hourly.readFrom(in);
+            daily.readFrom(in);
+            for (QuantileSketch sketch : sketches) {
+                if (version >= 2) sketch.readFrom(in); else sketch.clear();
+            }
+            lastIngestedId = storedId;
+            if (growingDegreeDays != null) growingDegreeDays.seedFrom(daily);
+        } catch (IOException e) {
+            clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes to a temp file and renames it over the target, so a crash mid-write
+     * never leaves a half-written rollup file behind.
+     *
+     * Precondition: Called off the main thread; file's directory exists.
+     * Postcondition: file contains bytes.
+     */
+    public static void writeAtomically(File file, byte[] bytes) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) throw new IOException("could not replace " + file);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the file's bytes, or null if it doesn't exist
+    public static byte[] readFile(File file) throws IOException {
+        if (!file.exists()) return null;
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(bytes);
+        }
+        return bytes;
+    }
+}
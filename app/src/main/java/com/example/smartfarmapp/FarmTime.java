@@ -0,0 +1,217 @@
+package com.example.smartfarmapp;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * FarmTime
+ * ─────────
+ * Date helpers for the Supabase timestamps ("2024-07-15T14:30:00…"), shared by
+ * FarmAdapter, GalleryAdapter and FarmMonitoringService, which used to each
+ * carry their own copy.
+ *
+ * Pure Java (no Android classes) so the :benchmark module can measure it.
+ *
+ * SimpleDateFormat is slow to create and not thread-safe, so instead of
+ * building two per list row we keep one of each per thread.
+ */
+public final class FarmTime {
+
+    private static final ThreadLocal<SimpleDateFormat> ISO_PARSER = ThreadLocal.withInitial(
+            () -> new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US));
+    private static final ThreadLocal<SimpleDateFormat> UTC_PARSER = ThreadLocal.withInitial(() -> {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    });
+    private static final ThreadLocal<SimpleDateFormat> DISPLAY_FORMAT = ThreadLocal.withInitial(
+            () -> new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.US));
+    // TimeZone.getDefault() returns a fresh clone on every call; keep the same zone the
+    // per-thread parser was created with, so parse() and isDayTime(long) always agree
+    private static final ThreadLocal<TimeZone> ZONE = ThreadLocal.withInitial(
+            () -> ISO_PARSER.get().getTimeZone());
+
+    // Sunrise/sunset table for the farm's location (replaced by useLocation)
+    private static volatile SolarDayClassifier daylight = new SolarDayClassifier(
+            SolarDayClassifier.DEFAULT_LATITUDE, SolarDayClassifier.DEFAULT_LONGITUDE);
+
+    /** Stands for "no usable timestamp" wherever a reading's time is kept as epoch millis. */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long HOUR_MS = 60L * 60 * 1000;
+    private static final long DAY_MS  = 24 * HOUR_MS;
+
+    private FarmTime() {}
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the parsed Date of the first 19 characters of isoDate
+     * (local time zone), or null if isoDate is null, too short or not a timestamp.
+     */
+    public static Date parse(String isoDate) {
+        if (isoDate == null || isoDate.length() < 19) return null;
+        try {
+            return ISO_PARSER.get().parse(isoDate.substring(0, 19));
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Day is sunrise to sunset at the farm (see useLocation()). Many crops have
+     * different needs by day and night.
+     *
+     * Precondition: isoDate is a String in ISO 8601 format or null.
+     * Postcondition: Returns true if the sun is up at isoDate, false otherwise.
+     * Defaults to true if the timestamp can't be read.
+     */
+    public static boolean isDayTime(String isoDate) {
+        return isDayTime(toEpochMillis(isoDate));
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns isoDate as epoch millis (read in the local time zone,
+     * like parse()), or NO_TIME if it can't be parsed.
+     */
+    public static long toEpochMillis(String isoDate) {
+        Date date = parse(isoDate);
+        return date == null ? NO_TIME : date.getTime();
+    }
+
+    /**
+     * For timestamptz columns (e.g. UserVegetationActivation.activatedAt), which
+     * Supabase returns with fractional seconds and an offset:
+     * "2024-09-15T08:00:00.123456+00:00". toEpochMillis() would drop the offset
+     * and read the time in the phone's zone; this one honours it. Accepts "Z",
+     * "+hh", "+hhmm" and "+hh:mm", and any number of fraction digits (the first
+     * three count). Without an offset it reads the local zone, like toEpochMillis().
+     *
+     * Precondition: None
+     * Postcondition: Returns the instant as epoch millis, or NO_TIME if it can't be parsed.
+     */
+    public static long instantToEpochMillis(String isoDate) {
+        if (isoDate == null || isoDate.length() < 19) return NO_TIME;
+        int i = 19;
+        long millis = 0;
+        if (i < isoDate.length() && isoDate.charAt(i) == '.') {
+            int digits = 0;
+            for (i++; i < isoDate.length() && Character.isDigit(isoDate.charAt(i)); i++, digits++) {
+                if (digits < 3) millis = millis * 10 + (isoDate.charAt(i) - '0');
+            }
+            for (; digits < 3; digits++) millis *= 10;
+        }
+        String zone = isoDate.substring(i);
+        if (zone.isEmpty()) {
+            long local = toEpochMillis(isoDate.substring(0, 19));
+            return local == NO_TIME ? NO_TIME : local + millis;
+        }
+        long offsetMillis;
+        if (zone.equals("Z")) {
+            offsetMillis = 0;
+        } else {
+            String hm = zone.substring(1).replace(":", "");
+            if ((zone.charAt(0) != '+' && zone.charAt(0) != '-')
+                    || (hm.length() != 2 && hm.length() != 4) || !hm.chars().allMatch(Character::isDigit)) {
+                return NO_TIME;
+            }
+            int minutes = Integer.parseInt(hm.substring(0, 2)) * 60
+                    + (hm.length() == 4 ? Integer.parseInt(hm.substring(2)) : 0);
+            offsetMillis = (zone.charAt(0) == '-' ? -minutes : minutes) * 60_000L;
+        }
+        try {
+            Date utc = UTC_PARSER.get().parse(isoDate.substring(0, 19).replace(' ', 'T'));
+            return utc.getTime() + millis - offsetMillis;
+        } catch (ParseException e) {
+            return NO_TIME;
+        }
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns epochMillis as "2024-07-15T14:30:00" (local time zone),
+     * or null for NO_TIME.
+     */
+    public static String toIsoDate(long epochMillis) {
+        return epochMillis == NO_TIME ? null : ISO_PARSER.get().format(new Date(epochMillis));
+    }
+
+    /**
+     * Same rule as isDayTime(String), for a time already held as epoch millis.
+     * A table lookup and two comparisons – no parsing, no Calendar, no time zone.
+     *
+     * Precondition: None
+     * Postcondition: Returns true if the sun is up at the farm at epochMillis,
+     * or if epochMillis is NO_TIME.
+     */
+    public static boolean isDayTime(long epochMillis) {
+        if (epochMillis == NO_TIME) return true;
+        return daylight.isDay(epochMillis);
+    }
+
+    /**
+     * Precondition: epochMillis is not NO_TIME
+     * Postcondition: Returns the epoch millis of the next sunrise or sunset strictly
+     * after epochMillis – when isDayTime(long) next changes its answer.
+     */
+    public static long nextDayNightChange(long epochMillis) {
+        return daylight.nextChange(epochMillis);
+    }
+
+    /**
+     * Sets where the farm is, for isDayTime(). Until called, central Israel is used
+     * (SolarDayClassifier.DEFAULT_LATITUDE / DEFAULT_LONGITUDE).
+     *
+     * Precondition: -90 <= latitude <= 90, -180 <= longitude <= 180 (east positive)
+     * Postcondition: isDayTime() and nextDayNightChange() follow sunrise/sunset there
+     */
+    public static void useLocation(double latitude, double longitude) {
+        SolarDayClassifier current = daylight;
+        if (current.latitude() == latitude && current.longitude() == longitude) return;
+        daylight = new SolarDayClassifier(latitude, longitude);
+    }
+
+    /**
+     * "Local millis" count wall-clock time in the farm's zone as if it were UTC, so
+     * {@code localMillis / HOUR} is the local hour number and midnight is a multiple of a day.
+     *
+     * Precondition: epochMillis is not NO_TIME
+     * Postcondition: Returns epochMillis shifted by the zone offset in force at that moment
+     */
+    public static long toLocalMillis(long epochMillis) {
+        return epochMillis + ZONE.get().getOffset(epochMillis);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the epoch millis of a local wall-clock time (the later
+    // reading of an hour that occurs twice at the end of daylight saving time)
+    public static long fromLocalMillis(long localMillis) {
+        TimeZone zone = ZONE.get();
+        long guess = localMillis - zone.getOffset(localMillis);
+        return localMillis - zone.getOffset(guess);
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns epochMillis as "15 Jul 2024, 14:30", or "N/A" for NO_TIME.
+     */
+    public static String formatDate(long epochMillis) {
+        if (epochMillis == NO_TIME) return "N/A";
+        return DISPLAY_FORMAT.get().format(new Date(epochMillis));
+    }
+
+    /**
+     * Converts "2024-07-15T14:30:00" → "15 Jul 2024, 14:30".
+     *
+     * Precondition: None
+     * Postcondition: Returns the formatted date, or isoDate unchanged (possibly null)
+     * if it can't be parsed.
+     */
+    public static String formatDate(String isoDate) {
+        Date date = parse(isoDate);
+        return date == null ? isoDate : DISPLAY_FORMAT.get().format(date);
+    }
+}
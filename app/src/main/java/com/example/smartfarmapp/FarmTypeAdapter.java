@@ -0,0 +1,58 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * FarmTypeAdapter
+ * ────────────────
+ * Streaming (reflection-free) Gson adapter for one Farm row.
+ * Registered on ModelJson.GSON; Farm arrays are by far the largest payloads
+ * the app parses, so this is the adapter that matters most.
+ *
+ * Columns: id, UserID, temp, groundHumid, airHumid, dateTime.
+ * Anything else is skipped; JSON null leaves a field at its default.
+ */
+public class FarmTypeAdapter extends TypeAdapter<Farm> {
+
+    // Precondition: out is a valid JsonWriter
+    // Postcondition: Writes the farm as a JSON object (or JSON null); dateTime is omitted when null
+    @Override
+    public void write(JsonWriter out, Farm farm) throws IOException {
+        if (farm == null) { out.nullValue(); return; }
+        out.beginObject();
+        out.name("id").value(farm.getId());
+        out.name("UserID").value(farm.getUserID());
+        out.name("temp").value(farm.getTemp());
+        out.name("groundHumid").value(farm.getGroundHumid());
+        out.name("airHumid").value(farm.getAirHumid());
+        if (farm.getDateTime() != null) out.name("dateTime").value(farm.getDateTime());
+        out.endObject();
+    }
+
+    // Precondition: in is positioned at a JSON object or null
+    // Postcondition: Returns the parsed Farm, or null for JSON null
+    @Override
+    public Farm read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        Farm farm = new Farm();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":          farm.setId(JsonValues.nextInt(in, 0));               break;
+                case "UserID":      farm.setUserID(JsonValues.nextInt(in, 0));           break;
+                case "temp":        farm.setTemp(JsonValues.nextInt(in, 0));             break;
+                case "groundHumid": farm.setGroundHumid(JsonValues.nextInt(in, 0));      break;
+                case "airHumid":    farm.setAirHumid(JsonValues.nextInt(in, 0));         break;
+                case "dateTime":    farm.setDateTime(JsonValues.nextStringOrNull(in));   break;
+                default:            in.skipValue();
+            }
+        }
+        in.endObject();
+        return farm;
+    }
+}
@@ -8,11 +8,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * GalleryAdapter
@@ -187,17 +183,7 @@ public class GalleryAdapter extends RecyclerView.Adapter<GalleryAdapter.GalleryV
      */
     private String formatDate(String isoDate) {
         if (isoDate == null || isoDate.isEmpty()) return "Unknown date";
-        try {
-            // 1. Tell Java how to read the computer format.
-            SimpleDateFormat parser    = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            Date             date      = parser.parse(isoDate.substring(0, 19));
-            
-            // 2. Tell Java how we want the date to look for the user.
-            SimpleDateFormat formatter = new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.US);
-            return formatter.format(date);
-        } catch (ParseException e) {
-            // If something goes wrong, just show the raw text rather than crashing.
-            return isoDate;
-        }
+        // If something goes wrong, FarmTime just hands back the raw text rather than crashing.
+        return FarmTime.formatDate(isoDate);
     }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.example.smartfarmapp;
+
+/**
+ * GrowingDegreeDays
+ * ──────────────────
+ * Heat accumulated by the crop since the start of the season, in degree-days
+ * above a base temperature (the temperature below which the crop doesn't grow,
+ * e.g. 10 °C for tomatoes and corn). Seed catalogues give "days to harvest" in
+ * the same unit, so the grower can see how far along the crop is.
+ *
+ * Each local day adds  max(0, (dayMax + dayMin) / 2 − base)  – the standard
+ * averaging method.
+ *
+ * INCREMENTAL: only today's min and max are kept while readings come in; when
+ * the first reading of a new day arrives, yesterday's degree-days are added to
+ * the running total once and never looked at again. A reading for an already
+ * closed day is ignored. seedFrom() rebuilds the total from a daily
+ * TimeBucketRollup (≤ 730 buckets, not the raw rows) – used when the base
+ * temperature or season changes, or after the rollups are restored.
+ *
+ * Days are local wall-clock days, the same as TimeBucketRollup's daily buckets.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class GrowingDegreeDays {
+
+    private static final long DAY_MS = TimeBucketRollup.DAY_MS;
+
+    private final float baseTemp;
+    private final long  seasonStartMillis;
+
+    private double closedTotal;               // degree-days of every finished day
+    private int    closedDays;
+    private long   dayKey = Long.MIN_VALUE;   // the open day (local millis / DAY_MS)
+    private int    dayMin;
+    private int    dayMax;
+
+    // Precondition: None
+    // Postcondition: An empty accumulator counting from seasonStartMillis is created
+    public GrowingDegreeDays(float baseTemp, long seasonStartMillis) {
+        this.baseTemp          = baseTemp;
+        this.seasonStartMillis = seasonStartMillis;
+    }
+
+    public float baseTemp()          { return baseTemp; }
+    public long  seasonStartMillis() { return seasonStartMillis; }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Ingest
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1).
+     *
+     * Precondition: Readings arrive oldest first; epochMillis is a real time.
+     * Postcondition: Returns true if the reading was counted; false if it is
+     * before the season or belongs to a day that is already closed.
+     */
+    public boolean add(long epochMillis, int temp) {
+        if (epochMillis < seasonStartMillis) return false;
+        long key = Math.floorDiv(FarmTime.toLocalMillis(epochMillis), DAY_MS);
+        if (key == dayKey) {
+            if (temp < dayMin) dayMin = temp;
+            if (temp > dayMax) dayMax = temp;
+            return true;
+        }
+        if (key < dayKey) return false;
+        closeDay();
+        openDay(key, temp, temp);
+        return true;
+    }
+
+    /**
+     * Precondition: daily is a TimeBucketRollup with DAY_MS buckets.
+     * Postcondition: The total is rebuilt from daily's buckets that start in the
+     * season; the newest bucket is left open so later readings extend it.
+     */
+    public void seedFrom(TimeBucketRollup daily) {
+        if (daily.bucketMillis() != DAY_MS) throw new IllegalArgumentException("needs a daily rollup");
+        clear();
+        for (int i = 0; i < daily.size(); i++) {
+            if (daily.startMillis(i) < seasonStartMillis) continue;
+            closeDay();
+            openDay(daily.key(i), daily.min(i, RangeCheck.TEMP), daily.max(i, RangeCheck.TEMP));
+        }
+    }
+
+    // Precondition: None
+    // Postcondition: Nothing has been counted
+    public void clear() {
+        closedTotal = 0;
+        closedDays  = 0;
+        dayKey      = Long.MIN_VALUE;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns the season's degree-days, including today so far
+    public double total() {
+        return closedTotal + today();
+    }
+
+    // Precondition: None
+    // Postcondition: Returns today's degree-days from its min/max so far (0 if no reading yet)
+    public double today() {
+        return dayKey == Long.MIN_VALUE ? 0 : degreeDays(dayMin, dayMax);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns how many days have readings (finished days plus today)
+    public int days() {
+        return closedDays + (dayKey == Long.MIN_VALUE ? 0 : 1);
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    private void openDay(long key, int min, int max) {
+        dayKey = key;
+        dayMin = min;
+        dayMax = max;
+    }
+
+    private void closeDay() {
+        if (dayKey == Long.MIN_VALUE) return;
+        closedTotal += degreeDays(dayMin, dayMax);
+        closedDays++;
+    }
+
+    private double degreeDays(int min, int max) {
+        return Math.max(0, (max + min) / 2.0 - baseTemp);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * JsonValues
+ * ───────────
+ * Value readers shared by the streaming TypeAdapters (FarmTypeAdapter, …).
+ * Each one mirrors what reflective Gson does for that field type – JSON null
+ * keeps the default, numbers that don't fit become a JsonSyntaxException –
+ * so switching a model to a hand-written adapter can't change what it parses.
+ */
+final class JsonValues {
+
+    private JsonValues() {}
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as int, or fallback for JSON null
+    static int nextInt(JsonReader in, int fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return fallback; }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as float, or fallback for JSON null
+    static float nextFloat(JsonReader in, float fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return fallback; }
+        try {
+            return (float) in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as Float, or null for JSON null
+    static Float nextFloatOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        try {
+            return (float) in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as Long, or null for JSON null
+    static Long nextLongOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as Boolean (accepting "true"/"false" strings), or null for JSON null
+    static Boolean nextBooleanOrNull(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL)   { in.nextNull(); return null; }
+        if (token == JsonToken.STRING) return Boolean.parseBoolean(in.nextString());
+        return in.nextBoolean();
+    }
+
+    // Precondition: reader is positioned at a value
+    // Postcondition: Returns the value as String (numbers and booleans as text), or null for JSON null
+    static String nextStringOrNull(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL)    { in.nextNull(); return null; }
+        if (token == JsonToken.BOOLEAN) return Boolean.toString(in.nextBoolean());
+        return in.nextString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.smartfarmapp;
+
+import java.util.Locale;
+
+/**
+ * LatencyHistogram
+ * ─────────────────
+ * Fixed-size latency histogram with exponentially growing buckets
+ * (≤25 ms, ≤50 ms, ≤100 ms … ≤25.6 s, and one overflow bucket).
+ *
+ * Recording is O(1) and never allocates, so it is cheap enough to run inside
+ * the OkHttp interceptor for every request. Percentiles are estimated by
+ * interpolating inside the bucket that contains them – plenty precise for
+ * "is the Farm endpoint slow in this greenhouse?".
+ */
+public class LatencyHistogram {
+
+    /** Upper bound (inclusive) of each bucket in ms; the last bucket is open-ended. */
+    private static final long[] BOUNDS_MS =
+            {25, 50, 100, 200, 400, 800, 1_600, 3_200, 6_400, 12_800, 25_600};
+
+    private final long[] counts = new long[BOUNDS_MS.length + 1];
+    private long count;
+    private long sumMs;
+    private long minMs = Long.MAX_VALUE;
+    private long maxMs;
+
+    /**
+     * Precondition: latencyMs >= 0
+     * Postcondition: The sample is added to its bucket and to count/sum/min/max.
+     */
+    public synchronized void record(long latencyMs) {
+        int i = 0;
+        while (i < BOUNDS_MS.length && latencyMs > BOUNDS_MS[i]) i++;
+        counts[i]++;
+        count++;
+        sumMs += latencyMs;
+        if (latencyMs < minMs) minMs = latencyMs;
+        if (latencyMs > maxMs) maxMs = latencyMs;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the number of recorded samples
+    public synchronized long getCount() { return count; }
+
+    /**
+     * Precondition: 0 < p <= 1
+     * Postcondition: Returns the estimated p-quantile in ms, or 0 if no samples were recorded.
+     */
+    public synchronized long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(p * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            if (seen + counts[i] >= rank) {
+                long lo = i == 0 ? 0 : BOUNDS_MS[i - 1];
+                long hi = i < BOUNDS_MS.length ? BOUNDS_MS[i] : maxMs;
+                double fraction = (double) (rank - seen) / counts[i];
+                long estimate = lo + Math.round((hi - lo) * fraction);
+                return Math.max(minMs, Math.min(maxMs, estimate));
+            }
+            seen += counts[i];
+        }
+        return maxMs;
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns a one-line summary: count, mean, min, p50/p90/p99, max.
+     */
+    public synchronized String summary() {
+        if (count == 0) return "n=0";
+        return String.format(Locale.US, "n=%d avg=%dms min=%dms p50=%dms p90=%dms p99=%dms max=%dms",
+                count, sumMs / count, minMs, percentile(0.50), percentile(0.90), percentile(0.99), maxMs);
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the raw bucket counts as "≤25ms:3 ≤50ms:10 … >25600ms:0",
+     * skipping empty buckets – the exportable form of the histogram.
+     */
+    public synchronized String buckets() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            if (sb.length() > 0) sb.append(' ');
+            if (i < BOUNDS_MS.length) sb.append("<=").append(BOUNDS_MS[i]).append("ms:");
+            else sb.append('>').append(BOUNDS_MS[BOUNDS_MS.length - 1]).append("ms:");
+            sb.append(counts[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.smartfarmapp;
+
+/**
+ * Lttb
+ * ─────
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013): picks
+ * {@code threshold} of a series' points that keep its visual shape – peaks and
+ * dips survive, flat stretches collapse.
+ *
+ * How it works: the first and last points are always kept. The points in
+ * between are split into (threshold − 2) equal buckets. From each bucket we keep
+ * the point that forms the largest triangle with the point kept from the
+ * previous bucket and the average of the next bucket.
+ *
+ * Used by SensorChartView to turn thousands of readings into one point per
+ * couple of pixels. Works on any indexed series through {@link Source} and
+ * writes the chosen indexes into a caller-owned array, so it never allocates –
+ * safe to run every frame. Pure Java (no Android classes).
+ */
+public final class Lttb {
+
+    /** An indexed series: x must be non-decreasing. */
+    public interface Source {
+        long  x(int index);
+        float y(int index);
+    }
+
+    private Lttb() {}
+
+    /**
+     * Precondition: 0 <= from <= to, threshold >= 0, out.length >= min(threshold, to - from)
+     * (or >= to - from when threshold < 3).
+     * Postcondition: Writes the kept indexes (ascending, always including from and
+     * to - 1 when there are at least 2 points) into out and returns how many there are.
+     */
+    public static int downsample(Source src, int from, int to, int threshold, int[] out) {
+        int n = to - from;
+        if (n <= 0) return 0;
+        if (threshold >= n || threshold < 3) {
+            for (int i = 0; i < n; i++) out[i] = from + i;
+            return n;
+        }
+
+        long   x0    = src.x(from);   // work relative to the first x so doubles keep their precision
+        double every = (double) (n - 2) / (threshold - 2);
+        int    kept  = 0;
+        int    a     = from;
+        out[kept++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the NEXT bucket (the last point stands in after the final bucket)
+            int avgStart = from + (int) ((bucket + 1) * every) + 1;
+            int avgEnd   = Math.min(from + (int) ((bucket + 2) * every) + 1, to);
+            double avgX = 0, avgY = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                avgX += src.x(i) - x0;
+                avgY += src.y(i);
+            }
+            int avgCount = avgEnd - avgStart;
+            if (avgCount > 0) {
+                avgX /= avgCount;
+                avgY /= avgCount;
+            } else {
+                avgX = src.x(to - 1) - x0;
+                avgY = src.y(to - 1);
+            }
+
+            // The point of THIS bucket with the largest triangle (a, candidate, next average)
+            int    rangeStart = from + (int) (bucket * every) + 1;
+            int    rangeEnd   = from + (int) ((bucket + 1) * every) + 1;
+            double ax = src.x(a) - x0;
+            double ay = src.y(a);
+            double maxArea = -1;
+            int    chosen  = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((ax - avgX) * (src.y(i) - ay)
+                                     - (ax - (src.x(i) - x0)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen  = i;
+                }
+            }
+            out[kept++] = chosen;
+            a = chosen;
+        }
+
+        out[kept++] = to - 1;
+        return kept;
+    }
+
+    /**
+     * Precondition: The source's x values are non-decreasing over [from, to).
+     * Postcondition: Returns the first index in [from, to) with x >= value, or to.
+     */
+    public static int lowerBound(Source src, int from, int to, long value) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (src.x(mid) < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
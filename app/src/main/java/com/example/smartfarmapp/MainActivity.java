@@ -25,10 +25,24 @@ public class MainActivity extends AppCompatActivity {
     private static final String PREFS_NAME = "SmartFarmPrefs";
     private static final String KEY_REMEMBER_ME = "remember_me";
     private static final String KEY_USER_ID = "user_id";
+    // Where the farm is (degrees, east/north positive) – for sunrise/sunset. Unset = central Israel.
+    public static final String KEY_FARM_LATITUDE  = "farm_latitude";
+    public static final String KEY_FARM_LONGITUDE = "farm_longitude";
 
     private ConnectivityManager connectivityManager;
     private ConnectivityManager.NetworkCallback networkCallback;
 
+    /**
+     * Precondition: prefs is the app's "SmartFarmPrefs".
+     * Postcondition: FarmTime classifies day/night by the stored farm location
+     * (or the default location if none is stored).
+     */
+    public static void applyFarmLocation(SharedPreferences prefs) {
+        FarmTime.useLocation(
+                prefs.getFloat(KEY_FARM_LATITUDE,  (float) SolarDayClassifier.DEFAULT_LATITUDE),
+                prefs.getFloat(KEY_FARM_LONGITUDE, (float) SolarDayClassifier.DEFAULT_LONGITUDE));
+    }
+
     /**
      * --- ON-CREATE ---
      * This method is called when the Activity is first created. It's where you should do
@@ -49,6 +63,9 @@ public class MainActivity extends AppCompatActivity {
         // In this case, `activity_main.xml` contains the `NavHostFragment` which controls all your other fragments.
         setContentView(R.layout.activity_main);
 
+        // Day/night ranges follow sunrise and sunset at the farm
+        applyFarmLocation(getSharedPreferences(PREFS_NAME, MODE_PRIVATE));
+
         setupConstantMonitoring();
 
         NavHostFragment navHostFragment = (NavHostFragment) getSupportFragmentManager()
@@ -2,7 +2,6 @@ package com.example.smartfarmapp;
 
 import android.app.Activity;
 import android.app.AlertDialog;
-import android.app.Notification;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.content.Context;
@@ -64,8 +63,6 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.stream.Collectors;
 import android.content.BroadcastReceiver;
 
@@ -107,10 +104,15 @@ public class MainFragment extends Fragment {
         tvActiveVegetation = view.findViewById(R.id.tvActiveVegetation);
         Vegetation currentActiveProfile = adapter.getActiveVegetation();
         if (currentActiveProfile != null) {
-            tvActiveVegetation.setText("Monitoring Profile: " + currentActiveProfile.getName());
+            showActiveProfile(currentActiveProfile);
         } else {
             tvActiveVegetation.setText("No active profile set");
         }
+        // Hidden debug screen: long-press the profile title
+        tvActiveVegetation.setOnLongClickListener(v -> {
+            showMetricsDialog();
+            return true;
+        });
 
         // ── Gallery ─────────────────────────────────
         btnGallery = view.findViewById(R.id.btnGallery);
@@ -125,6 +127,24 @@ public class MainFragment extends Fragment {
             });
         }
 
+        // ── Sensor history chart ────────────────────
+        btnChart = view.findViewById(R.id.btnChart);
+        if (btnChart != null) {
+            btnChart.setOnClickListener(v -> showChartDialog());   // works offline: local data only
+        }
+
+        // ── Alert history ───────────────────────────
+        Button btnAlertHistory = view.findViewById(R.id.btnAlertHistory);
+        if (btnAlertHistory != null) {
+            btnAlertHistory.setOnClickListener(v -> showAlertHistoryDialog());   // local file only
+        }
+
+        // ── Farm location (sunrise / sunset) ────────
+        ImageButton btnFarmLocation = view.findViewById(R.id.btnFarmLocation);
+        if (btnFarmLocation != null) {
+            btnFarmLocation.setOnClickListener(v -> showFarmLocationDialog());
+        }
+
         // LiveCameraBtn – UNCHANGED, still opens the WebView camera stream
         LiveCameraBtn = view.findViewById(R.id.LiveCameraBtn);
         LiveCameraBtn.setOnClickListener(v -> {
@@ -157,6 +177,13 @@ public class MainFragment extends Fragment {
         editor.remove("email");
         editor.remove("password");
         editor.remove("user_id");
+        // The service's alert state and overnight digest are kept per user id now;
+        // these are the old shared copies, which nothing reads any more
+        editor.remove("alert_state");
+        editor.remove("morning_digest");
+        editor.remove("morning_digest_night");
+        editor.remove("morning_digest_summary");
+        editor.remove("morning_digest_details");
 
         // apply changes
         editor.apply();
@@ -165,6 +192,12 @@ public class MainFragment extends Fragment {
         if (adapter != null) {
             adapter.clearData();
         }
+        if (farmRollups != null) {
+            farmRollups.clear();   // the file stays – it belongs to that user
+            rollupFile = null;     // a load still running for that user is dropped
+            rollupsReady = true;
+            pendingRollupFarms.clear();
+        }
 
         Toast.makeText(getContext(), "Logged out", Toast.LENGTH_SHORT).show();
 
@@ -222,10 +255,16 @@ public class MainFragment extends Fragment {
     // ─────────────────────────────────────────────────────────────────────────
 
     private Button               btnGallery;      // renamed to "Gallery" at runtime
+    private Button               btnChart;
     public static final String   CHANNEL_ID = "FarmAlerts";
     private RecyclerView         recyclerView;
     private FarmAdapter          adapter;
-    private List<Farm>           farmList;
+    private FarmReadingBuffer    farmReadings;    // the last week of readings, oldest first
+    private FarmRollups          farmRollups;     // hourly / daily min-max-avg, saved to rollupFile
+    private FarmReadingBuffer    farmHistory;     // 90 days of readings for ProfileBacktest, no derived columns
+    private java.io.File         rollupFile;
+    private boolean              rollupsReady;    // false while the saved rollups are being read
+    private final List<List<Farm>> pendingRollupFarms = new ArrayList<>();   // fetched meanwhile
     private FloatingActionButton fabAdd;
     private VegetationRepo       vegetationRepo;
     private TextView             tvActiveVegetation;
@@ -236,13 +275,23 @@ public class MainFragment extends Fragment {
     // ─────────────────────────────────────────────────────────────────────────
 
     private java.util.Map<Long, Long> vegIdToUserVegId = new java.util.HashMap<>();
+    // allVegetations holds id + name only (spinner); full rows are fetched on
+    // selection and kept here for the lifetime of the fragment.
+    private java.util.Map<Long, Vegetation> fullVegetations = new java.util.HashMap<>();
+    private Long             pendingVegetationId = null;
     private List<Vegetation> allVegetations    = new ArrayList<>();
     private Vegetation       selectedVegetation = null;
     private boolean          isEditMode         = false;
+    // Which profile was active when (loadProfileTimeline); null until loaded.
+    // Growing degree days count from the active profile's activation in it.
+    private ProfileTimeline  profileTimeline    = null;
+
+    private static final int BACKTEST_DAYS = 90;
 
+    // Asked-for refresh period; WakeupScheduler runs it on its shared 15 s timer ticks,
+    // so in practice once per window, together with the service's check
     private int FarmTimer = 1000;
-    private Timer refreshTimer;
-    private TimerTask refreshTask;
+    private int refreshJob;          // WakeupScheduler id, 0 while not refreshing
     private FarmGalleryRepo galleryRepo;
     private UserVegetationRepo userVegetationRepo;
 
@@ -260,8 +309,11 @@ public class MainFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        farmList           = new ArrayList<>();
-        adapter            = new FarmAdapter(farmList);
+        farmReadings       = new FarmReadingBuffer(FarmReadingBuffer.ONE_WEEK_PER_MINUTE);
+        adapter            = new FarmAdapter(farmReadings);
+        farmRollups        = new FarmRollups();
+        farmHistory        = new FarmReadingBuffer(BACKTEST_DAYS * 24 * 60, DerivedMetrics.of());
+        restoreRollups();
         vegetationRepo     = new VegetationRepo();
         galleryRepo        = new FarmGalleryRepo();        // NEW
         userVegetationRepo = new UserVegetationRepo();     // NEW
@@ -314,6 +366,7 @@ public class MainFragment extends Fragment {
         super.onPause();
 
         stopPeriodicRefresh();
+        saveRollups();
 
         Log.d("MainFragment", "onPause – unregistering receiver");
         Log.d("MainFragment", "🟡 Fragment paused - Unregistering receiver");
@@ -363,6 +416,7 @@ public class MainFragment extends Fragment {
             Log.w("MainFragment", "loadActiveVegetationFromDB: no user_id saved");
             return;
         }
+        loadProfileTimeline(userId);
 
         userVegetationRepo.fetchActiveVegetation(userId,
                 new UserVegetationRepo.ActiveVegetationCallback() {
@@ -372,9 +426,9 @@ public class MainFragment extends Fragment {
                         if (vegetation != null) {
                             Log.d("MainFragment", "Active veg from DB: " + vegetation.getName());
                             adapter.setActiveVegetation(vegetation);
-                            tvActiveVegetation.setText("Monitoring Profile: " + vegetation.getName());
+                            showActiveProfile(vegetation);
                             // Persist for FarmMonitoringService
-                            Gson gson = new Gson();
+                            Gson gson = ModelJson.GSON;
                             String json = gson.toJson(vegetation);
                             prefs.edit()
                                     .putString("active_vegetation",         json)
@@ -393,6 +447,41 @@ public class MainFragment extends Fragment {
                 });
     }
 
+    /**
+     * Loads the user's activation history (UserVegetationActivation rows) and their full
+     * vegetation rows, and hands FarmAdapter a ProfileTimeline so every reading is
+     * coloured against the profile that was active when it was taken.
+     * Two small requests; on failure the adapter keeps checking against the
+     * active profile only.
+     *
+     * Precondition: userId is a valid user id
+     * Postcondition: adapter has the user's profile timeline once both requests succeed
+     */
+    private void loadProfileTimeline(int userId) {
+        userVegetationRepo.fetchActivations(userId, new UserVegetationRepo.ActivationListCallback() {
+            @Override public void onSuccess(List<UserVegetationRepo.ActivationRow> rows) {
+                vegetationRepo.fetchVegetationsForUser(userId, new VegetationRepo.FetchVegetationsCallback() {
+                    @Override public void onSuccess(List<Vegetation> vegetations) {
+                        if (!isAdded()) return;
+                        java.util.Map<Long, Vegetation> byId = new java.util.HashMap<>();
+                        for (Vegetation veg : vegetations) byId.put(veg.getId(), veg);
+                        ProfileTimeline timeline = UserVegetationRepo.buildTimeline(rows, byId);
+                        profileTimeline = timeline.size() > 0 ? timeline : null;
+                        adapter.setProfileTimeline(profileTimeline);
+                        Vegetation active = adapter.getActiveVegetation();
+                        if (active != null) showActiveProfile(active);   // GDD now knows the planting time
+                    }
+                    @Override public void onFailure(Exception e) {
+                        Log.w("MainFragment", "Profile timeline: vegetations not loaded: " + e.getMessage());
+                    }
+                });
+            }
+            @Override public void onFailure(Exception e) {
+                Log.w("MainFragment", "Profile timeline: history not loaded: " + e.getMessage());
+            }
+        });
+    }
+
     /** Fallback: read from SharedPreferences (old behavior).
      * Precondition: None
      * Postcondition: The active vegetation profile is loaded from SharedPreferences and applied to the adapter and UI if it exists
@@ -402,10 +491,10 @@ public class MainFragment extends Fragment {
                 .getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
         String json = prefs.getString("active_vegetation_profile", null);
         if (json != null) {
-            Vegetation saved = new Gson().fromJson(json, Vegetation.class);
+            Vegetation saved = ModelJson.GSON.fromJson(json, Vegetation.class);
             if (saved != null && isAdded()) {
                 adapter.setActiveVegetation(saved);
-                tvActiveVegetation.setText("Monitoring Profile: " + saved.getName());
+                showActiveProfile(saved);
                 prefs.edit().putString("active_vegetation", json).apply();
                 Log.d("MainFragment", "Loaded active veg from prefs: " + saved.getName());
             }
@@ -639,6 +728,219 @@ public class MainFragment extends Fragment {
         }
     }
 
+    // ─────────────────────────────────────────────────────────────────────────
+    // NEW: NETWORK METRICS DEBUG DIALOG
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * Shows the per-endpoint request metrics (RequestMetrics), request budget
+     * (RateLimiter) and shared-timer / radio counters (WakeupScheduler) collected since
+     * the app started, with buttons to export the report to a text file or to
+     * reset the counters.
+     *
+     * Precondition: Fragment is attached
+     * Postcondition: An AlertDialog with the current metrics report is displayed
+     */
+    private void showMetricsDialog() {
+        View dialogView = LayoutInflater.from(getContext())
+                .inflate(R.layout.dialog_metrics, null);
+        TextView tvReport  = dialogView.findViewById(R.id.tvMetricsReport);
+        Button   btnExport = dialogView.findViewById(R.id.btnMetricsExport);
+        Button   btnReset  = dialogView.findViewById(R.id.btnMetricsReset);
+
+        Runnable refresh = () -> tvReport.setText(RequestMetrics.dump()
+                + "\nRequest budget\n" + RateLimiter.describe()
+                + "\nShared timer (ticks run while the phone is awake; they do not wake it)\n"
+                + WakeupScheduler.get().describe());
+        refresh.run();
+
+        btnExport.setOnClickListener(v -> {
+            // App-specific external dir: readable over USB, no storage permission needed
+            java.io.File dir = requireContext().getExternalFilesDir(null);
+            if (dir == null) dir = requireContext().getFilesDir();
+            try {
+                java.io.File file = RequestMetrics.exportTo(dir);
+                Toast.makeText(getContext(), "Saved to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+            } catch (java.io.IOException e) {
+                Log.e("MainFragment", "Metrics export failed", e);
+                Toast.makeText(getContext(), "Export failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+        btnReset.setOnClickListener(v -> {
+            RequestMetrics.reset();
+            WakeupScheduler.get().resetCounters();
+            refresh.run();
+        });
+
+        new AlertDialog.Builder(requireContext())
+                .setView(dialogView)
+                .setPositiveButton("Close", (d, w) -> d.dismiss())
+                .show();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // SENSOR CHART DIALOG
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * Shows temperature / humidity history in a SensorChartView: the last week
+     * from farmReadings, older history from the hourly / daily farmRollups,
+     * shaded with the active profile's day and night ranges.
+     *
+     * Precondition: Fragment is attached
+     * Postcondition: An AlertDialog with the chart (last 24 hours) is displayed
+     */
+    private void showChartDialog() {
+        View dialogView = LayoutInflater.from(getContext())
+                .inflate(R.layout.dialog_sensor_chart, null);
+        SensorChartView chart = dialogView.findViewById(R.id.sensorChart);
+        RadioGroup      rgMetric = dialogView.findViewById(R.id.rgChartMetric);
+
+        chart.setData(farmReadings, farmRollups);
+        chart.setVegetation(adapter.getActiveVegetation());
+        chart.showLast(TimeBucketRollup.DAY_MS);
+
+        rgMetric.setOnCheckedChangeListener((group, checkedId) -> {
+            if (checkedId == R.id.rbChartGround)   chart.setMetric(RangeCheck.GROUND_HUMID);
+            else if (checkedId == R.id.rbChartAir) chart.setMetric(RangeCheck.AIR_HUMID);
+            else                                   chart.setMetric(RangeCheck.TEMP);
+        });
+        dialogView.findViewById(R.id.btnChartDay) .setOnClickListener(v -> chart.showLast(TimeBucketRollup.DAY_MS));
+        dialogView.findViewById(R.id.btnChartWeek).setOnClickListener(v -> chart.showLast(7 * TimeBucketRollup.DAY_MS));
+        dialogView.findViewById(R.id.btnChartYear).setOnClickListener(v -> chart.showLast(365 * TimeBucketRollup.DAY_MS));
+
+        new AlertDialog.Builder(requireContext())
+                .setView(dialogView)
+                .setPositiveButton("Close", (d, w) -> d.dismiss())
+                .show();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // ALERT HISTORY DIALOG
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static final int HISTORY_PAGE = 50;
+
+    /**
+     * Pages through the alerts FarmMonitoringService has written to the
+     * AlertJournal: filter by metric and time range, newest first, HISTORY_PAGE
+     * per page. Each page is one indexed query on a background thread.
+     *
+     * Precondition: Fragment is attached
+     * Postcondition: An AlertDialog with the newest alerts of the last 7 days is displayed
+     */
+    private void showAlertHistoryDialog() {
+        SharedPreferences prefs = requireContext().getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        int userId = prefs.getInt("user_id", -1);
+        if (userId == -1) {
+            Toast.makeText(getContext(), "Please log in first", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        java.io.File file = FarmMonitoringService.journalFile(requireContext(), userId);
+
+        View dialogView = LayoutInflater.from(getContext())
+                .inflate(R.layout.dialog_alert_history, null);
+        RadioGroup rgMetric  = dialogView.findViewById(R.id.rgHistoryMetric);
+        TextView   tvStatus  = dialogView.findViewById(R.id.tvHistoryStatus);
+        TextView   tvEntries = dialogView.findViewById(R.id.tvHistoryEntries);
+        Button     btnNewer  = dialogView.findViewById(R.id.btnHistoryNewer);
+        Button     btnOlder  = dialogView.findViewById(R.id.btnHistoryOlder);
+
+        // What is shown: [0] metric filter, [1] range in days (0 = all), [2] entries skipped
+        int[] shown = {AlertJournal.ANY_METRIC, 7, 0};
+
+        Runnable load = () -> {
+            int  metric = shown[0], skip = shown[2];
+            long from   = shown[1] == 0 ? Long.MIN_VALUE
+                                       : System.currentTimeMillis() - shown[1] * TimeBucketRollup.DAY_MS;
+            tvStatus.setText("Loading…");
+            btnNewer.setEnabled(false);
+            btnOlder.setEnabled(false);
+            new Thread(() -> {
+                String text, status;
+                int total = 0;
+                try {
+                    if (!file.exists()) {
+                        text   = "";
+                        status = "No alerts recorded yet.";
+                    } else {
+                        AlertJournal journal = AlertJournal.open(file);
+                        total  = journal.count(from, Long.MAX_VALUE, metric);
+                        text   = formatAlertHistory(journal.newestFirst(from, Long.MAX_VALUE, metric, skip, HISTORY_PAGE));
+                        status = total == 0 ? "No alerts in this range."
+                                : (skip + 1) + "–" + Math.min(total, skip + HISTORY_PAGE) + " of " + total + " alerts";
+                    }
+                } catch (java.io.IOException e) {
+                    Log.e("MainFragment", "Alert history unreadable", e);
+                    text   = "";
+                    status = "Could not read the alert history: " + e.getMessage();
+                }
+                String shownText = text, shownStatus = status;
+                int    shownTotal = total;
+                if (getActivity() == null || !isAdded()) return;
+                getActivity().runOnUiThread(() -> {
+                    if (!isAdded()) return;
+                    tvStatus.setText(shownStatus);
+                    tvEntries.setText(shownText);
+                    ((View) tvEntries.getParent()).scrollTo(0, 0);
+                    btnNewer.setEnabled(skip > 0);
+                    btnOlder.setEnabled(skip + HISTORY_PAGE < shownTotal);
+                });
+            }, "alert-history").start();
+        };
+
+        rgMetric.setOnCheckedChangeListener((group, checkedId) -> {
+            if (checkedId == R.id.rbHistoryTemp)        shown[0] = RangeCheck.TEMP;
+            else if (checkedId == R.id.rbHistoryGround) shown[0] = RangeCheck.GROUND_HUMID;
+            else if (checkedId == R.id.rbHistoryAir)    shown[0] = RangeCheck.AIR_HUMID;
+            else                                        shown[0] = AlertJournal.ANY_METRIC;
+            shown[2] = 0;
+            load.run();
+        });
+        int[][] ranges = {{R.id.btnHistoryDay, 1}, {R.id.btnHistoryWeek, 7},
+                          {R.id.btnHistoryMonth, 30}, {R.id.btnHistoryAllTime, 0}};
+        for (int[] range : ranges) {
+            dialogView.findViewById(range[0]).setOnClickListener(v -> {
+                shown[1] = range[1];
+                shown[2] = 0;
+                load.run();
+            });
+        }
+        btnNewer.setOnClickListener(v -> {
+            shown[2] = Math.max(0, shown[2] - HISTORY_PAGE);
+            load.run();
+        });
+        btnOlder.setOnClickListener(v -> {
+            shown[2] += HISTORY_PAGE;
+            load.run();
+        });
+        load.run();
+
+        new AlertDialog.Builder(requireContext())
+                .setView(dialogView)
+                .setPositiveButton("Close", (d, w) -> d.dismiss())
+                .show();
+    }
+
+    // Precondition: entries is not null
+    // Postcondition: Returns two lines per entry: "date  kind  metric" and "profile · values · label"
+    private static String formatAlertHistory(List<AlertJournal.Entry> entries) {
+        String[] kinds   = {"⚠️ Out of range", "✅ Back in range", "📋 Rule", "⏳ Early warning", "🔎 Unusual"};
+        String[] metrics = {"Temperature", "Ground humidity", "Air humidity"};
+        StringBuilder sb = new StringBuilder();
+        for (AlertJournal.Entry e : entries) {
+            sb.append(FarmTime.formatDate(e.epochMillis)).append("  ")
+              .append(e.kind >= 0 && e.kind < kinds.length ? kinds[e.kind] : "Alert");
+            if (e.metric >= 0 && e.metric < metrics.length) sb.append(" · ").append(metrics[e.metric]);
+            sb.append('\n').append("   ");
+            if (!e.profileName.isEmpty()) sb.append(e.profileName).append(" · ");
+            sb.append(e.temp).append("°C, ").append(e.groundHumid).append("%, ").append(e.airHumid).append('%');
+            if (!e.label.isEmpty()) sb.append(" · ").append(e.label);
+            sb.append("\n\n");
+        }
+        return sb.toString();
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     // LIVE CAMERA DIALOG  – PRESERVED EXACTLY FROM ORIGINAL
     // ─────────────────────────────────────────────────────────────────────────
@@ -687,6 +989,78 @@ public class MainFragment extends Fragment {
         }
     }
 
+    // ─────────────────────────────────────────────────────────────────────────
+    // FARM LOCATION (day / night ranges follow sunrise and sunset there)
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * Lets the user enter the farm's latitude and longitude. They are stored under
+     * MainActivity.KEY_FARM_LATITUDE / KEY_FARM_LONGITUDE and applied at once, so
+     * the list, the chart and FarmMonitoringService (same process) all switch to
+     * the new sunrise/sunset times. "Default" removes them again (central Israel).
+     *
+     * Precondition: Fragment is attached
+     * Postcondition: An AlertDialog showing the current location is displayed
+     */
+    private void showFarmLocationDialog() {
+        SharedPreferences prefs = requireContext().getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        View dialogView = LayoutInflater.from(getContext()).inflate(R.layout.dialog_farm_location, null);
+        EditText etLatitude  = dialogView.findViewById(R.id.etFarmLatitude);
+        EditText etLongitude = dialogView.findViewById(R.id.etFarmLongitude);
+        etLatitude.setText(String.valueOf(prefs.getFloat(MainActivity.KEY_FARM_LATITUDE,
+                (float) SolarDayClassifier.DEFAULT_LATITUDE)));
+        etLongitude.setText(String.valueOf(prefs.getFloat(MainActivity.KEY_FARM_LONGITUDE,
+                (float) SolarDayClassifier.DEFAULT_LONGITUDE)));
+
+        AlertDialog dialog = new AlertDialog.Builder(requireContext())
+                .setView(dialogView)
+                .setPositiveButton("Save", null)
+                .setNeutralButton("Default", (d, which) -> {
+                    prefs.edit()
+                            .remove(MainActivity.KEY_FARM_LATITUDE)
+                            .remove(MainActivity.KEY_FARM_LONGITUDE)
+                            .apply();
+                    onFarmLocationChanged(prefs);
+                })
+                .setNegativeButton("Cancel", (d, which) -> d.dismiss())
+                .create();
+
+        // Save is wired after show() so a bad value keeps the dialog open
+        dialog.setOnShowListener(d -> dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            Float latitude, longitude;
+            try {
+                latitude  = optionalFloat(etLatitude);
+                longitude = optionalFloat(etLongitude);
+            } catch (NumberFormatException e) {   // e.g. a lone "-"
+                Toast.makeText(getContext(), "Please enter numbers only", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            if (latitude == null || latitude < -90 || latitude > 90) {
+                etLatitude.setError("Enter a latitude between -90 and 90");
+                return;
+            }
+            if (longitude == null || longitude < -180 || longitude > 180) {
+                etLongitude.setError("Enter a longitude between -180 and 180");
+                return;
+            }
+            prefs.edit()
+                    .putFloat(MainActivity.KEY_FARM_LATITUDE,  latitude)
+                    .putFloat(MainActivity.KEY_FARM_LONGITUDE, longitude)
+                    .apply();
+            onFarmLocationChanged(prefs);
+            dialog.dismiss();
+        }));
+        dialog.show();
+    }
+
+    // Precondition: Main thread; prefs holds the new location (or none)
+    // Postcondition: FarmTime uses it and the list is redrawn with the new day/night ranges
+    private void onFarmLocationChanged(SharedPreferences prefs) {
+        MainActivity.applyFarmLocation(prefs);
+        adapter.notifyDataSetChanged();
+        Toast.makeText(getContext(), "Farm location updated", Toast.LENGTH_SHORT).show();
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     // EVERYTHING BELOW IS UNCHANGED FROM ORIGINAL
     // ─────────────────────────────────────────────────────────────────────────
@@ -712,23 +1086,282 @@ public class MainFragment extends Fragment {
         }
     }
 
+    // ─────────────────────────────────────────────────────────────────────────
+    // ROLLUPS (hourly / daily summaries, kept on disk between sessions)
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * One background thread for every rollup file read and write. A full year
+     * of rollups is about 170 KB – too much to read on the main thread at
+     * startup – and one thread means a save can never overlap the load or
+     * another save (they all go through the same .tmp file).
+     */
+    private static java.util.concurrent.ExecutorService rollupIo;
+
+    private static synchronized java.util.concurrent.ExecutorService rollupIo() {
+        if (rollupIo == null) {
+            rollupIo = java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "rollup-io");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return rollupIo;
+    }
+
+    /**
+     * Precondition: Called from onCreate
+     * Postcondition: rollupFile is set. farmRollups holds this user's saved rollups
+     * at once if MorningDigestJob has them in memory; otherwise they are read on
+     * rollupIo and swapped in on the main thread, and readings fetched meanwhile
+     * wait in pendingRollupFarms (see ingestRollups).
+     */
+    private void restoreRollups() {
+        int userId = requireContext().getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE)
+                .getInt("user_id", -1);
+        if (userId == -1) {
+            rollupsReady = true;
+            return;
+        }
+        java.io.File file = new java.io.File(requireContext().getFilesDir(), "farm_rollups_" + userId + ".bin");
+        rollupFile = file;
+
+        // Opened from the morning reminder: MorningDigestJob has just read the file
+        FarmRollups warm = MorningDigestJob.takeWarmRollups(userId);
+        if (warm != null) {
+            farmRollups = warm;
+            rollupsReady = true;
+            AppLog.d("MainFragment", "Rollups taken pre-loaded, hourly buckets: ", farmRollups.hourly().size());
+            return;
+        }
+        rollupsReady = false;
+        android.os.Handler main = new android.os.Handler(android.os.Looper.getMainLooper());
+        rollupIo().execute(() -> {
+            FarmRollups loaded = new FarmRollups();
+            try {
+                byte[] bytes = FarmRollups.readFile(file);
+                if (bytes != null) loaded.restore(bytes);
+            } catch (java.io.IOException e) {
+                AppLog.w("MainFragment", "Ignoring unreadable rollup file: " + e.getMessage());
+            }
+            main.post(() -> onRollupsLoaded(file, loaded));
+        });
+    }
+
+    // Precondition: Main thread; loaded was read from file
+    // Postcondition: farmRollups is loaded plus every fetch that arrived while reading,
+    // unless the user has logged out since (then loaded is dropped)
+    private void onRollupsLoaded(java.io.File file, FarmRollups loaded) {
+        if (rollupsReady || !file.equals(rollupFile)) return;
+        farmRollups  = loaded;
+        rollupsReady = true;
+        for (List<Farm> farms : pendingRollupFarms) farmRollups.ingestNewestFirst(farms);
+        pendingRollupFarms.clear();
+        AppLog.d("MainFragment", "Rollups restored, hourly buckets: ", farmRollups.hourly().size());
+
+        Vegetation active = adapter.getActiveVegetation();
+        if (active != null && isAdded()) showActiveProfile(active);   // growing degree days from the loaded history
+    }
+
+    // Precondition: Main thread; farms is newest first
+    // Postcondition: farms is in farmRollups, or queued until the saved rollups are loaded
+    private void ingestRollups(List<Farm> farms) {
+        if (!rollupsReady) {
+            pendingRollupFarms.add(farms);
+            return;
+        }
+        farmRollups.ingestNewestFirst(farms);   // only rows newer than last time
+    }
+
+    /**
+     * Growing degree days are shown only for profiles with a gddBase. gddTarget is
+     * "degree-days from planting to harvest", so they are counted from the day the
+     * profile was made active (its activation in profileTimeline, local midnight of
+     * that day) – not from 1 January. Until the timeline has loaded the start is not
+     * known and only the name is shown; loadProfileTimeline() calls this again.
+     *
+     * Precondition: vegetation is not null
+     * Postcondition: The profile label shows the vegetation's name (and its growing
+     * degree days, against gddTarget if set); farmRollups tracks its gddBase
+     */
+    private void showActiveProfile(Vegetation vegetation) {
+        String label = "Monitoring Profile: " + vegetation.getName();
+        long activeSince = activeSince(vegetation);
+        if (vegetation.getGddBase() != null && activeSince != FarmTime.NO_TIME) {
+            long dayMs = TimeBucketRollup.DAY_MS;
+            long plantingDay = FarmTime.fromLocalMillis(
+                    Math.floorDiv(FarmTime.toLocalMillis(activeSince), dayMs) * dayMs);
+            farmRollups.trackGrowingDegreeDays(vegetation.getGddBase(), plantingDay);
+            label += " · " + Math.round(farmRollups.growingDegreeDays().total());
+            if (vegetation.getGddTarget() != null) label += " / " + Math.round(vegetation.getGddTarget());
+            label += " GDD";
+        } else {
+            farmRollups.stopGrowingDegreeDays();
+        }
+        if (tvActiveVegetation != null) tvActiveVegetation.setText(label);
+    }
+
+    /**
+     * When vegetation's current run started: the activation that opened the last
+     * (open-ended) interval of profileTimeline, going back over re-activations of
+     * the same profile, since pressing "Set Active" again doesn't replant.
+     *
+     * Precondition: vegetation is not null
+     * Postcondition: Returns the activation time, or FarmTime.NO_TIME if the timeline
+     * isn't loaded or doesn't end with this profile
+     */
+    private long activeSince(Vegetation vegetation) {
+        ProfileTimeline timeline = profileTimeline;
+        if (timeline == null || vegetation.getId() == null) return FarmTime.NO_TIME;
+        long since = FarmTime.NO_TIME;
+        for (int i = timeline.size() - 1; i >= 0; i--) {
+            Vegetation profile = timeline.profile(i);
+            if (profile == null || !vegetation.getId().equals(profile.getId())) break;
+            since = timeline.startMillis(i);
+        }
+        return since;
+    }
+
+    /**
+     * Fills the twelve range fields from the quantile sketches in farmRollups – the
+     * middle 90 % of what this farm has actually measured, by day and by night. Name
+     * and rules are left alone; nothing is saved until the user presses Save.
+     *
+     * Precondition: fields are the 12 threshold fields in allFields order.
+     * Postcondition: The fields hold the suggested values, or a Toast explains
+     * that there isn't enough history yet.
+     */
+    private void suggestRanges(EditText[] fields) {
+        Vegetation suggested = farmRollups.suggestRanges(FarmRollups.SUGGEST_LOW_QUANTILE,
+                FarmRollups.SUGGEST_HIGH_QUANTILE, FarmRollups.SUGGEST_MIN_READINGS);
+        if (suggested == null) {
+            Toast.makeText(getContext(), "Not enough readings yet – needs at least an hour of day and of night.",
+                    Toast.LENGTH_LONG).show();
+            return;
+        }
+        float[] values = {
+                suggested.getDayTempMin(),         suggested.getDayTempMax(),
+                suggested.getNightTempMin(),       suggested.getNightTempMax(),
+                suggested.getDayGroundHumidMin(),  suggested.getDayGroundHumidMax(),
+                suggested.getNightGroundHumidMin(), suggested.getNightGroundHumidMax(),
+                suggested.getDayAirHumidMin(),     suggested.getDayAirHumidMax(),
+                suggested.getNightAirHumidMin(),   suggested.getNightAirHumidMax()};
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].setText(String.valueOf(values[i]));
+            fields[i].setError(null);
+        }
+        Toast.makeText(getContext(), "Suggested from " + farmRollups.sketch(RangeCheck.TEMP, true).count()
+                + " day and " + farmRollups.sketch(RangeCheck.TEMP, false).count()
+                + " night readings. Review, then Save.", Toast.LENGTH_LONG).show();
+    }
+
+    /**
+     * "What if I had used these thresholds?" – replays the last BACKTEST_DAYS of
+     * readings against the values currently typed into the profile dialog, without
+     * saving anything. Compound rules are not part of the replay, only the ranges.
+     *
+     * Precondition: fields are the 12 threshold fields in allFields order.
+     * Postcondition: If every field holds a number, the result is shown in a dialog
+     * once the replay (on a background thread) is done.
+     */
+    private void runBacktest(EditText[] fields) {
+        float[] v = new float[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                v[i] = Float.parseFloat(fields[i].getText().toString());
+            } catch (NumberFormatException e) {
+                fields[i].setError("A number is needed for the backtest");
+                return;
+            }
+        }
+        Vegetation candidate = new Vegetation();
+        candidate.setDayTempMin(v[0]);          candidate.setDayTempMax(v[1]);
+        candidate.setNightTempMin(v[2]);        candidate.setNightTempMax(v[3]);
+        candidate.setDayGroundHumidMin(v[4]);   candidate.setDayGroundHumidMax(v[5]);
+        candidate.setNightGroundHumidMin(v[6]); candidate.setNightGroundHumidMax(v[7]);
+        candidate.setDayAirHumidMin(v[8]);      candidate.setDayAirHumidMax(v[9]);
+        candidate.setNightAirHumidMin(v[10]);   candidate.setNightAirHumidMax(v[11]);
+
+        // Copied here, on the thread that fills farmHistory; the replay only reads the copy
+        long from = System.currentTimeMillis() - BACKTEST_DAYS * 24 * 60 * 60_000L;
+        ProfileBacktest.History history = ProfileBacktest.History.copyOf(farmHistory, from);
+        if (history.size() == 0) {
+            Toast.makeText(getContext(), "No readings loaded yet to test against.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new Thread(() -> {
+            ProfileBacktest.Result result = ProfileBacktest.run(history, candidate,
+                    AlertStateMachine.Config.defaults(), java.util.concurrent.ForkJoinPool.commonPool());
+            if (getActivity() == null || !isAdded()) return;
+            getActivity().runOnUiThread(() -> {
+                if (!isAdded()) return;
+                new AlertDialog.Builder(requireContext())
+                        .setTitle("🧪 Backtest")
+                        .setMessage(formatBacktest(result))
+                        .setPositiveButton("OK", null)
+                        .show();
+            });
+        }, "profile-backtest").start();
+    }
+
+    // Precondition: result is not null
+    // Postcondition: Returns a short per-metric summary for the backtest dialog
+    private static String formatBacktest(ProfileBacktest.Result result) {
+        String[] names = {"🌡 Temperature", "🌱 Ground humidity", "💧 Air humidity"};
+        StringBuilder sb = new StringBuilder();
+        sb.append(result.readings).append(" readings replayed\n\n");
+        for (int m = 0; m < names.length; m++) {
+            long minutes = result.violationMillis[m] / 60_000L;
+            sb.append(names[m]).append('\n')
+              .append("   out of range: ").append(result.violations[m]).append(" readings, ")
+              .append(minutes / 60).append(" h ").append(minutes % 60).append(" min\n")
+              .append("   alerts: ").append(result.alerts(m)).append('\n');
+        }
+        if (result.alerts() > 0) {
+            sb.append("\nLast alerts:\n");
+            for (int i = Math.max(0, result.alerts() - 5); i < result.alerts(); i++) {
+                sb.append("   ").append(FarmTime.formatDate(result.alertMillis[i]))
+                  .append("  ").append(names[result.alertMetric[i]])
+                  .append(result.alertHigh[i] ? " too high" : " too low").append('\n');
+            }
+        }
+        sb.append("\n(").append(result.elapsedNanos / 1_000_000L).append(" ms)");
+        return sb.toString();
+    }
+
+    // Precondition: Main thread
+    // Postcondition: A snapshot of farmRollups is queued on rollupIo to be written to rollupFile
+    // (nothing is written before the saved rollups have been loaded)
+    private void saveRollups() {
+        if (rollupFile == null || !rollupsReady || farmRollups.lastIngestedId() == Long.MIN_VALUE) return;
+        java.io.File file  = rollupFile;
+        byte[]       bytes = farmRollups.toBytes();
+        rollupIo().execute(() -> {
+            try {
+                FarmRollups.writeAtomically(file, bytes);
+            } catch (java.io.IOException e) {
+                AppLog.e("MainFragment", "Saving rollups failed", e);
+            }
+        });
+    }
+
     /**
      * Precondition: Internet is available and user_id is in SharedPreferences
      * Postcondition: Fetches farm data from Supabase and updates the RecyclerView adapter on the UI thread
      */
     private void loadFarmData() {
         if (!NetworkUtil.isInternetAvailable(requireContext())) {
-            Log.d("MainFragment", "loadFarmData: Skipping periodic load, no internet.");
+            AppLog.d("MainFragment", "loadFarmData: Skipping periodic load, no internet.");
             return;
         }
 
-        Log.d("MainFragment", "─────────────────────────────────────────");
-        Log.d("MainFragment", "🔄 loadFarmData() STARTED");
+        AppLog.d("MainFragment", "─────────────────────────────────────────");
+        AppLog.d("MainFragment", "🔄 loadFarmData() STARTED");
 
         SharedPreferences sharedPreferences = requireActivity()
                 .getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
         int userId = sharedPreferences.getInt("user_id", -1);
-        Log.d("MainFragment", "User ID: " + userId);
+        AppLog.d("MainFragment", "User ID: ", userId);
 
         if (userId == -1) {
             Toast.makeText(getContext(), "Error: No Farm ID found for user.", Toast.LENGTH_LONG).show();
@@ -744,19 +1377,28 @@ public class MainFragment extends Fragment {
                     Log.e("MainFragment", "❌ Cannot update - fragment not attached");
                     return;
                 }
-                Log.d("MainFragment", "✅ Fragment attached - updating UI");
+                AppLog.d("MainFragment", "✅ Fragment attached - updating UI");
                 getActivity().runOnUiThread(() -> {
-                    farmList.clear();
-                    farmList.addAll(farms);
+                    farmReadings.replaceWithNewestFirst(farms);
+                    ingestRollups(farms);
+                    farmHistory.appendNewerFromNewestFirst(farms);
+                    Vegetation active = adapter.getActiveVegetation();
+                    if (active != null) showActiveProfile(active);   // growing degree days moved on
                     adapter.notifyDataSetChanged();
                     recyclerView.post(() -> adapter.notifyDataSetChanged());
                     recyclerView.invalidate();
                     recyclerView.requestLayout();
-                    Log.d("MainFragment", "✅ UI UPDATE COMPLETED!");
+                    AppLog.d("MainFragment", "✅ UI UPDATE COMPLETED!");
                 });
             }
             @Override
             public void onFailure(Exception e) {
+                // Circuit open / budget spent with nothing cached yet: the request was
+                // refused locally, don't repeat the same Toast on every refresh tick.
+                if (e instanceof CircuitOpenException || e instanceof RateLimitedException) {
+                    AppLog.w("MainFragment", "loadFarmData skipped: " + e.getMessage());
+                    return;
+                }
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() ->
                             Toast.makeText(requireContext(),
@@ -803,12 +1445,28 @@ public class MainFragment extends Fragment {
         final EditText[] allFields = {etDayTempMin, etDayTempMax, etNightTempMin, etNightTempMax,
                 etDayGroundMin, etDayGroundMax, etNightGroundMin, etNightGroundMax,
                 etDayAirMin, etDayAirMax, etNightAirMin, etNightAirMax};
+        final EditText  etRules           = dialogView.findViewById(R.id.etRules);   // optional, not in allFields
+        // Optional derived limits (empty = no limit): vpdMin, vpdMax, dewPointMax, gddBase, gddTarget
+        final EditText[] limitFields = {
+                dialogView.findViewById(R.id.etVpdMin), dialogView.findViewById(R.id.etVpdMax),
+                dialogView.findViewById(R.id.etDewPointMax),
+                dialogView.findViewById(R.id.etGddBase), dialogView.findViewById(R.id.etGddTarget)};
+        Button          btnBacktest       = dialogView.findViewById(R.id.btnBacktest);
+        btnBacktest.setOnClickListener(v -> runBacktest(allFields));
+        Button          btnSuggestRanges  = dialogView.findViewById(R.id.btnSuggestRanges);
+        btnSuggestRanges.setOnClickListener(v -> suggestRanges(allFields));
 
         // CHANGED: fetchVegetationsForUser() instead of the old unfiltered
         // fetchVegetations() — this user's vegetations only, not everyone's.
-        vegetationRepo.fetchVegetationsForUser(userId, new VegetationRepo.FetchVegetationsCallback() {
+        // The spinner only needs names, so only id + name are fetched here;
+        // selectVegetation() loads the chosen row's thresholds on demand.
+        vegetationRepo.fetchVegetationSummariesForUser(userId, new VegetationRepo.FetchVegetationsCallback() {
             @Override public void onSuccess(List<Vegetation> vegetations) {
                 allVegetations = vegetations;
+                // A profile deleted since it was cached must not be served from the cache
+                java.util.Set<Long> listed = new java.util.HashSet<>();
+                for (Vegetation v : vegetations) listed.add(v.getId());
+                fullVegetations.keySet().retainAll(listed);
                 List<String> vegetationNames = allVegetations.stream()
                         .map(Vegetation::getName).collect(Collectors.toList());
                 ArrayAdapter<String> spinnerAdapter = new ArrayAdapter<>(requireContext(),
@@ -854,7 +1512,7 @@ public class MainFragment extends Fragment {
                     tilFarmName.setVisibility(View.VISIBLE);
                     spinnerVegetation.setVisibility(View.GONE);
                     btnNeutral.setVisibility(View.GONE);
-                    clearForm(allFields, etFarmName);
+                    clearForm(allFields, limitFields, etFarmName, etRules);
                 } else {
                     isEditMode = true;
                     tilFarmName.setVisibility(View.GONE);
@@ -862,18 +1520,16 @@ public class MainFragment extends Fragment {
                     btnNeutral.setVisibility(View.VISIBLE);
                     if (!allVegetations.isEmpty()) {
                         spinnerVegetation.setSelection(0);
-                        selectedVegetation = allVegetations.get(0);
-                        populateForm(selectedVegetation, allFields);
+                        selectVegetation(allVegetations.get(0), allFields, limitFields, etRules);
                     }
                 }
             });
 
             spinnerVegetation.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    selectedVegetation = allVegetations.get(position);
-                    populateForm(selectedVegetation, allFields);
+                    selectVegetation(allVegetations.get(position), allFields, limitFields, etRules);
                 }
-                @Override public void onNothingSelected(AdapterView<?> parent) { selectedVegetation = null; }
+                @Override public void onNothingSelected(AdapterView<?> parent) { selectedVegetation = null; pendingVegetationId = null; }
             });
 
             // CHANGED: "Set Active" now writes to the database (UserVegetation.isActive)
@@ -902,16 +1558,17 @@ public class MainFragment extends Fragment {
                     return;
                 }
 
-                userVegetationRepo.setActiveVegetation(userId, userVegId,
+                userVegetationRepo.setActiveVegetation(userId, userVegId, selectedVegetation.getId(),
                         new UserVegetationRepo.SetActiveCallback() {
                             @Override public void onSuccess(Void result) {
-                                tvActiveVegetation.setText("Monitoring Profile: " + selectedVegetation.getName());
                                 adapter.setActiveVegetation(selectedVegetation);
+                                showActiveProfile(selectedVegetation);
+                                loadProfileTimeline(userId);   // a new period starts now
 
                                 // Keep a local cache for instant UI on next launch
                                 // before the DB round-trip in loadActiveVegetationFromDB()
                                 // completes; DB remains the source of truth.
-                                Gson gson = new Gson();
+                                Gson gson = ModelJson.GSON;
                                 String vegetationJson = gson.toJson(selectedVegetation);
                                 userPrefs.edit()
                                         .putString("active_vegetation_profile", vegetationJson)
@@ -945,7 +1602,9 @@ public class MainFragment extends Fragment {
                         isNameValid = false;
                     }
                 } else if (selectedVegetation == null) {
-                    Toast.makeText(getContext(), "Please select a vegetation to edit.", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(getContext(), pendingVegetationId != null
+                            ? "Still loading this vegetation, please wait."
+                            : "Please select a vegetation to edit.", Toast.LENGTH_SHORT).show();
                     return;
                 }
 
@@ -994,10 +1653,42 @@ public class MainFragment extends Fragment {
                         }
                     }
 
-                    Vegetation vegetationToSave = isEditMode ? selectedVegetation : new Vegetation();
-                    if (isEditMode) {
-                        vegetationToSave.setId(selectedVegetation.getId());
-                    } else {
+                    // Derived limits are optional; what is filled in must make sense
+                    Float vpdMin      = optionalFloat(limitFields[0]);
+                    Float vpdMax      = optionalFloat(limitFields[1]);
+                    Float dewPointMax = optionalFloat(limitFields[2]);
+                    Float gddBase     = optionalFloat(limitFields[3]);
+                    Float gddTarget   = optionalFloat(limitFields[4]);
+                    if (vpdMin != null && vpdMin < 0) { limitFields[0].setError("VPD cannot be negative"); return; }
+                    if (vpdMax != null && vpdMax < 0) { limitFields[1].setError("VPD cannot be negative"); return; }
+                    if (vpdMin != null && vpdMax != null && vpdMin > vpdMax) { limitFields[0].setError("Min cannot be > Max"); return; }
+                    if (gddTarget != null && gddTarget <= 0) { limitFields[4].setError("Must be above 0"); return; }
+
+                    // Compound rules are optional; if present they must compile – together
+                    // with the derived limits, which the monitoring service runs as rules
+                    // too – so the service never has to skip a profile's rules
+                    String rulesText = etRules.getText().toString().trim();
+                    Vegetation rulesProbe = new Vegetation();
+                    rulesProbe.setRules(rulesText);
+                    rulesProbe.setVpdMin(vpdMin);
+                    rulesProbe.setVpdMax(vpdMax);
+                    rulesProbe.setDewPointMax(dewPointMax);
+                    String allRules = AlertRules.textFor(rulesProbe);
+                    if (allRules != null) {
+                        try {
+                            AlertRules.compile(allRules);
+                        } catch (java.text.ParseException e) {
+                            etRules.setError(e.getMessage() + " (at character " + (e.getErrorOffset() + 1) + ")");
+                            return;
+                        }
+                    }
+
+                    // Edit mode works on a copy: the cached row in fullVegetations must keep
+                    // the server's values until the update is confirmed
+                    Vegetation vegetationToSave = isEditMode
+                            ? ModelJson.GSON.fromJson(ModelJson.GSON.toJson(selectedVegetation), Vegetation.class)
+                            : new Vegetation();
+                    if (!isEditMode) {
                         vegetationToSave.setName(etFarmName.getText().toString());
                         // NEW: stamp ownership before insert, or VegetationRepo.addVegetation()
                         // will now reject the call outright (see its null-check).
@@ -1015,15 +1706,32 @@ public class MainFragment extends Fragment {
                     vegetationToSave.setDayAirHumidMax(dayAMax);
                     vegetationToSave.setNightAirHumidMin(nightAMin);
                     vegetationToSave.setNightAirHumidMax(nightAMax);
+                    vegetationToSave.setVpdMin(vpdMin);
+                    vegetationToSave.setVpdMax(vpdMax);
+                    vegetationToSave.setDewPointMax(dewPointMax);
+                    vegetationToSave.setGddBase(gddBase);
+                    vegetationToSave.setGddTarget(gddTarget);
+                    // null is left out of the JSON; "" is sent so an edit can remove old rules
+                    vegetationToSave.setRules(rulesText.isEmpty() && vegetationToSave.getRules() == null ? null : rulesText);
 
                     if (isEditMode) {
                         vegetationRepo.updateVegetation(vegetationToSave, new VegetationRepo.UpdateVegetationCallback() {
                             @Override public void onSuccess(Void result) {
+                                Long savedId = vegetationToSave.getId();
+                                fullVegetations.put(savedId, vegetationToSave);
+                                if (selectedVegetation != null && savedId.equals(selectedVegetation.getId())) {
+                                    selectedVegetation = vegetationToSave;
+                                }
+                                // The active profile is its own object; reload it so the new limits apply
+                                Vegetation active = adapter.getActiveVegetation();
+                                if (active != null && savedId.equals(active.getId())) loadActiveVegetationFromDB();
                                 Toast.makeText(getContext(), "Vegetation updated!", Toast.LENGTH_SHORT).show();
                                 loadFarmData();
                                 dialog.dismiss();
                             }
                             @Override public void onFailure(Exception e) {
+                                // A timed-out PATCH may still have landed; fetch the row again next time
+                                fullVegetations.remove(vegetationToSave.getId());
                                 Toast.makeText(getContext(), "Update failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
                             }
                         });
@@ -1044,7 +1752,7 @@ public class MainFragment extends Fragment {
                         vegetationRepo.addVegetation(vegetationToSave, new VegetationRepo.AddVegetationCallback() {
                             @Override public void onSuccess(Void result) {
                                 String newName = vegetationToSave.getName();
-                                vegetationRepo.fetchVegetationsForUser(userId,
+                                vegetationRepo.fetchVegetationSummariesForUser(userId,
                                         new VegetationRepo.FetchVegetationsCallback() {
                                             @Override public void onSuccess(List<Vegetation> refreshed) {
                                                 allVegetations = refreshed;
@@ -1098,9 +1806,55 @@ public class MainFragment extends Fragment {
         dialog.show();
     }
 
-    // Precondition: veg is not null, fields array contains exactly 12 EditTexts
-    // Postcondition: UI fields are populated with values from the vegetation object
-    private void populateForm(Vegetation veg, EditText[] fields) {
+    /**
+     * Makes {@code summary} the selected vegetation. The spinner only holds id + name,
+     * so the full row is fetched the first time it is picked (then served from
+     * fullVegetations). selectedVegetation stays null until the full row is here,
+     * so "Save" / "Set Active" can never act on a half-loaded profile.
+     *
+     * Precondition: summary has a non-null id, fields contains exactly 12 EditTexts,
+     * limitFields the 5 derived-limit inputs, rulesField is the compound rules input.
+     * Postcondition: selectedVegetation and the form show the full row once it is available.
+     */
+    private void selectVegetation(Vegetation summary, EditText[] fields, EditText[] limitFields,
+                                  EditText rulesField) {
+        Long id = summary.getId();
+        Vegetation cached = fullVegetations.get(id);
+        if (cached != null) {
+            pendingVegetationId = null;
+            selectedVegetation  = cached;
+            populateForm(cached, fields, limitFields, rulesField);
+            return;
+        }
+
+        selectedVegetation  = null;
+        pendingVegetationId = id;
+        for (EditText field : fields) field.setText("");
+        for (EditText field : limitFields) field.setText("");
+        rulesField.setText("");
+        vegetationRepo.fetchVegetationById(id, new VegetationRepo.FetchVegetationCallback() {
+            @Override public void onSuccess(Vegetation full) {
+                if (full == null) {
+                    Toast.makeText(getContext(), "This vegetation no longer exists.", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                fullVegetations.put(id, full);
+                // The user may have picked another item while this was loading.
+                if (!id.equals(pendingVegetationId) || !isAdded()) return;
+                pendingVegetationId = null;
+                selectedVegetation  = full;
+                populateForm(full, fields, limitFields, rulesField);
+            }
+            @Override public void onFailure(Exception e) {
+                if (id.equals(pendingVegetationId)) pendingVegetationId = null;
+                Toast.makeText(getContext(), "Could not load vegetation: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    // Precondition: veg is not null, fields array contains exactly 12 EditTexts, limitFields 5, rulesField is not null
+    // Postcondition: UI fields are populated with values from the vegetation object (unset limits empty)
+    private void populateForm(Vegetation veg, EditText[] fields, EditText[] limitFields, EditText rulesField) {
         fields[0].setText(String.valueOf(veg.getDayTempMin()));
         fields[1].setText(String.valueOf(veg.getDayTempMax()));
         fields[2].setText(String.valueOf(veg.getNightTempMin()));
@@ -1113,13 +1867,28 @@ public class MainFragment extends Fragment {
         fields[9].setText(String.valueOf(veg.getDayAirHumidMax()));
         fields[10].setText(String.valueOf(veg.getNightAirHumidMin()));
         fields[11].setText(String.valueOf(veg.getNightAirHumidMax()));
+        Float[] limits = {veg.getVpdMin(), veg.getVpdMax(), veg.getDewPointMax(), veg.getGddBase(), veg.getGddTarget()};
+        for (int i = 0; i < limitFields.length; i++) {
+            limitFields[i].setText(limits[i] == null ? "" : String.valueOf(limits[i]));
+        }
+        rulesField.setText(veg.getRules() == null ? "" : veg.getRules());
     }
 
-    // Precondition: fields and nameField are not null
+    // Precondition: fields, limitFields, nameField and rulesField are not null
     // Postcondition: All provided EditText fields are cleared
-    private void clearForm(EditText[] fields, EditText nameField) {
+    private void clearForm(EditText[] fields, EditText[] limitFields, EditText nameField, EditText rulesField) {
         nameField.setText("");
+        rulesField.setText("");
         for (EditText field : fields) field.setText("");
+        for (EditText field : limitFields) field.setText("");
+    }
+
+    // Precondition: field is not null
+    // Postcondition: Returns the field's number, or null if it is empty.
+    // Throws NumberFormatException if it holds something else.
+    private static Float optionalFloat(EditText field) {
+        String text = field.getText().toString().trim();
+        return text.isEmpty() ? null : Float.parseFloat(text);
     }
 
     // Precondition: None
@@ -1137,22 +1906,11 @@ public class MainFragment extends Fragment {
     }
 
     // Precondition: details and activeProfile are not null
-    // Postcondition: Sends a high priority notification with sensor alert details
+    // Postcondition: The alert is queued on NotificationDispatcher, merged with any the
+    // monitoring service raises at the same time (no separate notification id here)
     private void sendOutOfRangeNotification(String details, Vegetation activeProfile) {
-        int icon = R.drawable.ic_launcher_foreground;
-        Notification.Builder builder;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            builder = new Notification.Builder(requireContext(), CHANNEL_ID);
-        } else {
-            builder = new Notification.Builder(requireContext());
-        }
-        builder.setSmallIcon(icon)
-                .setContentTitle("Alert for Profile: " + activeProfile.getName())
-                .setContentText(details)
-                .setStyle(new Notification.BigTextStyle().bigText(details))
-                .setPriority(Notification.PRIORITY_HIGH)
-                .setAutoCancel(true);
-        requireContext().getSystemService(NotificationManager.class).notify(1, builder.build());
+        NotificationDispatcher.get(requireContext()).post(AlertBatcher.ALERT,
+                "Alert for Profile: " + activeProfile.getName(), details.replace(". ", ".\n"));
     }
 
     // Precondition: farm and profile are not null
@@ -1187,13 +1945,13 @@ public class MainFragment extends Fragment {
     }
 
     /**
-     * Precondition: adapter and farmList are not empty
+     * Precondition: adapter and farmReadings are not empty
      * Postcondition: Checks if latest farm data is out of range and sends notification if it is
      */
     private void checkForNotifications() {
         Vegetation activeProfile = adapter.getActiveVegetation();
-        if (activeProfile != null && !farmList.isEmpty()) {
-            String details = getOutOfRangeDetails(farmList.get(0), activeProfile);
+        if (activeProfile != null && !farmReadings.isEmpty()) {
+            String details = getOutOfRangeDetails(farmReadings.toFarm(farmReadings.size() - 1), activeProfile);
             if (!details.isEmpty()) sendOutOfRangeNotification(details, activeProfile);
         }
     }
@@ -1208,30 +1966,22 @@ public class MainFragment extends Fragment {
         Toast.makeText(getContext(), "Background monitoring stopped", Toast.LENGTH_SHORT).show();
     }
 
-    // Precondition: FarmTimer is set
-    // Postcondition: Starts periodic loading of farm data using a Timer
+    // Precondition: FarmTimer is set; main thread
+    // Postcondition: farm data is loaded periodically, on WakeupScheduler's shared timer ticks
+    // (onResume already loads it once right away)
     private void startPeriodicRefresh() {
-        if (refreshTimer != null) { refreshTimer.cancel(); refreshTimer = null; }
-        refreshTimer = new Timer();
-        refreshTask  = new TimerTask() {
-            @Override public void run() {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(new Runnable() {
-                        @Override public void run() { loadFarmData(); }
-                    });
-                }
-            }
-        };
-        refreshTimer.schedule(refreshTask, 0, FarmTimer);
+        stopPeriodicRefresh();
+        refreshJob = WakeupScheduler.get().register("ui-refresh", FarmTimer, 0, true, () -> {
+            if (isAdded()) loadFarmData();
+        });
     }
 
-    // Precondition: None
-    // Postcondition: Stops the periodic refresh Timer
+    // Precondition: main thread
+    // Postcondition: The periodic refresh no longer runs
     private void stopPeriodicRefresh() {
-        if (refreshTimer != null) {
-            refreshTimer.cancel();
-            refreshTimer = null;
-            refreshTask  = null;
+        if (refreshJob != 0) {
+            WakeupScheduler.get().unregister(refreshJob);
+            refreshJob = 0;
         }
     }
 
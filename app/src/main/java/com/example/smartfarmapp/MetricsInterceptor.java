@@ -0,0 +1,92 @@
+package com.example.smartfarmapp;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * MetricsInterceptor
+ * ───────────────────
+ * OkHttp application interceptor installed on BaseRepo.httpClient, so every
+ * call made by any repo (including FarmGalleryRepo's storage uploads) passes
+ * through it exactly once per attempt.
+ *
+ * For each call it records into RequestMetrics:
+ *   • latency until the response headers arrived
+ *   • request body size (bytes out)
+ *   • status code, or an io-error if no response came back
+ *   • response body size (bytes in) – counted while the body is actually read,
+ *     so chunked responses without Content-Length are measured correctly too
+ *
+ * and into WakeupScheduler.radio() the time from sending to the response
+ * headers, for the radio-on estimate.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    // Precondition: chain is provided by OkHttp
+    // Postcondition: Returns the response (with a byte-counting body) after recording its metrics
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestMetrics.EndpointMetrics metrics =
+                RequestMetrics.forEndpoint(RequestMetrics.endpointKey(request.url()));
+
+        if (request.body() != null) {
+            long out = request.body().contentLength();
+            if (out > 0) metrics.bytesOut.addAndGet(out);
+        }
+
+        long startNs = System.nanoTime();
+        long startMs = System.currentTimeMillis();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.failures.incrementAndGet();
+            WakeupScheduler.radio().record(startMs, System.currentTimeMillis());
+            throw e;
+        }
+        metrics.latency.record((System.nanoTime() - startNs) / 1_000_000L);
+        WakeupScheduler.radio().record(startMs, System.currentTimeMillis());
+        metrics.recordStatus(response.code());
+
+        ResponseBody body = response.body();
+        if (body == null) return response;
+        return response.newBuilder()
+                .body(new CountingResponseBody(body, metrics))
+                .build();
+    }
+
+    /** Wraps a ResponseBody and adds every byte read from it to bytesIn. */
+    private static final class CountingResponseBody extends ResponseBody {
+        private final ResponseBody   delegate;
+        private final BufferedSource source;
+
+        CountingResponseBody(ResponseBody delegate, RequestMetrics.EndpointMetrics metrics) {
+            this.delegate = delegate;
+            this.source   = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) metrics.bytesIn.addAndGet(read);
+                    return read;
+                }
+            });
+        }
+
+        @Override public MediaType contentType()  { return delegate.contentType(); }
+        @Override public long contentLength()     { return delegate.contentLength(); }
+        @NonNull @Override public BufferedSource source() { return source; }
+    }
+}
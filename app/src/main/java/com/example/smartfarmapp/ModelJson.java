@@ -0,0 +1,59 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * ModelJson
+ * ──────────
+ * The one Gson instance every repo parses and serialises with (BaseRepo.gson
+ * points here), plus the list Types it is asked for.
+ *
+ * WHY:
+ *   • Plain {@code new Gson()} reads each model by reflection – field lookups
+ *     and Field.set() per value – which dominates parsing a large Farm array.
+ *     The hot models get hand-written streaming TypeAdapters instead:
+ *       Farm                → FarmTypeAdapter
+ *       Vegetation          → VegetationTypeAdapter
+ *       FarmGallery         → FarmGalleryTypeAdapter
+ *       UserVegetationRow   → UserVegetationRowTypeAdapter
+ *   • {@code new TypeToken<List<Farm>>() {}} inside a callback creates an
+ *     anonymous subclass instance and re-resolves its generic type on every
+ *     response; the Types below are built once.
+ *
+ * The adapters produce the same JSON as reflective Gson: unknown columns are
+ * skipped, JSON null leaves the field at its default, null fields are left out
+ * when writing (so a new row without an id still gets one from Supabase).
+ * User and UserVegetationRepo.ActivationRow stay reflective – a user has
+ * one, or a handful, and they are read rarely (login, profile changes).
+ *
+ * Has no Android dependencies, so the JVM unit tests use it directly. The
+ * adapters read values through JsonValues, which mirrors Gson's own rules.
+ */
+public final class ModelJson {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Farm.class,        new FarmTypeAdapter())
+            .registerTypeAdapter(Vegetation.class,  new VegetationTypeAdapter())
+            .registerTypeAdapter(FarmGallery.class, new FarmGalleryTypeAdapter())
+            .registerTypeAdapter(UserVegetationRepo.UserVegetationRow.class,
+                                 new UserVegetationRowTypeAdapter())
+            .create();
+
+    public static final Type FARM_LIST            = listOf(Farm.class);
+    public static final Type VEGETATION_LIST      = listOf(Vegetation.class);
+    public static final Type GALLERY_LIST         = listOf(FarmGallery.class);
+    public static final Type USER_VEGETATION_LIST = listOf(UserVegetationRepo.UserVegetationRow.class);
+    public static final Type USER_LIST            = listOf(User.class);
+    public static final Type ACTIVATION_LIST      = listOf(UserVegetationRepo.ActivationRow.class);
+
+    private ModelJson() {}
+
+    private static Type listOf(Class<?> element) {
+        return TypeToken.getParameterized(List.class, element).getType();
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.smartfarmapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * MorningDigest
+ * ──────────────
+ * What happened overnight (NIGHT_START_HOUR to MORNING_HOUR, local time), for
+ * the morning reminder: per metric the lowest and highest value and how long it
+ * was out of the active profile's range (its day or night limits, by sunrise and
+ * sunset as everywhere else), plus the latest values.
+ *
+ * Built as the readings arrive – add() is O(1) and the whole state is a few
+ * dozen bytes – so FarmMonitoringService keeps it up to date overnight and the
+ * morning job only has to format it. When the service was not running,
+ * fromHourly() builds an approximate one from the saved hourly rollups instead.
+ *
+ * TIME OUT OF RANGE: the time from one reading to the next counts as out of
+ * range if the first reading was; a gap longer than MAX_GAP_MILLIS (sensor or
+ * phone offline) only counts MAX_GAP_MILLIS, so one stale reading can't turn
+ * into hours.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class MorningDigest {
+
+    public static final int  NIGHT_START_HOUR = 20;
+    public static final int  MORNING_HOUR     = 8;    // SimpleAlarmManager's reminder time
+    public static final long MAX_GAP_MILLIS   = 15 * 60_000L;
+
+    private static final int  MAGIC   = 0x46414D44;   // "FAMD"
+    private static final int  VERSION = 1;
+    private static final int  METRICS = RangeCheck.METRIC_COUNT;
+    private static final long HOUR_MS = TimeBucketRollup.HOUR_MS;
+    private static final long NIGHT_MS = (24 - NIGHT_START_HOUR + MORNING_HOUR) * HOUR_MS;
+
+    private long    nightStart = FarmTime.NO_TIME;
+    private int     readings;
+    private boolean ranged;          // a profile was active for at least one reading
+    private boolean approximate;     // built from hourly rollups, not readings
+    private long    latestMillis = FarmTime.NO_TIME;
+    private int     latestMask;      // out-of-range bits of the latest reading
+    private final int[]  min = new int[METRICS];
+    private final int[]  max = new int[METRICS];
+    private final int[]  latest = new int[METRICS];
+    private final long[] outOfRangeMillis = new long[METRICS];
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Nights
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: epochMillis is not FarmTime.NO_TIME
+     * Postcondition: Returns when the night containing epochMillis began
+     * (NIGHT_START_HOUR local time), or FarmTime.NO_TIME if epochMillis is
+     * between MORNING_HOUR and NIGHT_START_HOUR.
+     */
+    public static long nightStart(long epochMillis) {
+        long local = FarmTime.toLocalMillis(epochMillis);
+        long hour  = Math.floorMod(local, TimeBucketRollup.DAY_MS);
+        long day   = local - hour;
+        if (hour >= NIGHT_START_HOUR * HOUR_MS) return FarmTime.fromLocalMillis(day + NIGHT_START_HOUR * HOUR_MS);
+        if (hour <  MORNING_HOUR * HOUR_MS)     return FarmTime.fromLocalMillis(day - (24 - NIGHT_START_HOUR) * HOUR_MS);
+        return FarmTime.NO_TIME;
+    }
+
+    // Precondition: epochMillis is not FarmTime.NO_TIME
+    // Postcondition: Returns the start of the last night that began before epochMillis
+    // (the night that just ended, when called in the morning)
+    public static long lastNightStart(long epochMillis) {
+        long local = FarmTime.toLocalMillis(epochMillis);
+        long hour  = Math.floorMod(local, TimeBucketRollup.DAY_MS);
+        long day   = local - hour;
+        long start = hour >= NIGHT_START_HOUR * HOUR_MS ? day : day - TimeBucketRollup.DAY_MS;
+        return FarmTime.fromLocalMillis(start + NIGHT_START_HOUR * HOUR_MS);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Building
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1). Readings must arrive oldest first; older ones are ignored.
+     *
+     * Precondition: veg may be null (then nothing counts as out of range).
+     * Postcondition: A night-time reading is counted – a reading from a later
+     * night first starts the digest afresh. Day-time readings are ignored.
+     * Returns true if the reading was counted.
+     */
+    public boolean add(long epochMillis, int temp, int groundHumid, int airHumid, Vegetation veg) {
+        if (epochMillis == FarmTime.NO_TIME) return false;
+        long night = nightStart(epochMillis);
+        if (night == FarmTime.NO_TIME || night < nightStart) return false;
+        if (night > nightStart) reset(night);
+        if (readings > 0 && epochMillis <= latestMillis) return false;
+
+        if (readings > 0 && latestMask != 0) {
+            long step = Math.min(epochMillis - latestMillis, MAX_GAP_MILLIS);
+            for (int m = 0; m < METRICS; m++) {
+                if ((latestMask & (1 << m)) != 0) outOfRangeMillis[m] += step;
+            }
+        }
+        int[] values = {temp, groundHumid, airHumid};
+        for (int m = 0; m < METRICS; m++) {
+            if (readings == 0 || values[m] < min[m]) min[m] = values[m];
+            if (readings == 0 || values[m] > max[m]) max[m] = values[m];
+            latest[m] = values[m];
+        }
+        latestMask   = veg == null ? 0 : RangeCheck.outOfRangeMask(temp, groundHumid, airHumid, veg,
+                FarmTime.isDayTime(epochMillis));
+        ranged      |= veg != null;
+        latestMillis = epochMillis;
+        readings++;
+        return true;
+    }
+
+    /**
+     * For when no digest was kept (the service was off): min / max from the hourly
+     * buckets of that night; an hour counts as out of range when its average was.
+     *
+     * Precondition: hourly holds hour buckets; veg may be null.
+     * Postcondition: Returns an approximate digest of the night starting at nightStart
+     * (no readings if hourly has none for it).
+     */
+    public static MorningDigest fromHourly(TimeBucketRollup hourly, long nightStart, Vegetation veg) {
+        MorningDigest digest = new MorningDigest();
+        digest.reset(nightStart);
+        digest.approximate = true;
+        digest.ranged      = veg != null;
+        for (int i = 0; i < hourly.size(); i++) {
+            long start = hourly.startMillis(i);
+            if (start < nightStart || start >= nightStart + NIGHT_MS) continue;
+            for (int m = 0; m < METRICS; m++) {
+                if (digest.readings == 0 || hourly.min(i, m) < digest.min[m]) digest.min[m] = hourly.min(i, m);
+                if (digest.readings == 0 || hourly.max(i, m) > digest.max[m]) digest.max[m] = hourly.max(i, m);
+                digest.latest[m] = Math.round(hourly.avg(i, m));
+                if (veg != null && !RangeCheck.inRange(digest.latest[m], veg, m, FarmTime.isDayTime(start))) {
+                    digest.outOfRangeMillis[m] += hourly.bucketMillis();
+                }
+            }
+            digest.readings    += hourly.count(i);
+            digest.latestMillis = start;
+        }
+        return digest;
+    }
+
+    // Precondition: None
+    // Postcondition: The digest is empty and belongs to the night starting at nightStart
+    private void reset(long nightStart) {
+        this.nightStart = nightStart;
+        readings     = 0;
+        ranged       = false;
+        approximate  = false;
+        latestMillis = FarmTime.NO_TIME;
+        latestMask   = 0;
+        Arrays.fill(outOfRangeMillis, 0);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public long    nightStart()   { return nightStart; }
+    public int     readings()     { return readings; }
+    public boolean isApproximate() { return approximate; }
+    public long    latestMillis() { return latestMillis; }
+
+    // Precondition: readings() > 0, metric is one of RangeCheck's metrics
+    public int min(int metric)    { return min[metric]; }
+    public int max(int metric)    { return max[metric]; }
+    public int latest(int metric) { return latest[metric]; }
+
+    // Precondition: metric is one of RangeCheck's metrics
+    public long outOfRangeMillis(int metric) { return outOfRangeMillis[metric]; }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns one line for the collapsed notification, e.g.
+     * "Out of range overnight: temperature 1 h 20 min" or "All night in range · now 18°C, 45%, 60%"
+     */
+    public String summary() {
+        if (readings == 0) return "No readings overnight – check the sensors";
+        StringBuilder sb = new StringBuilder();
+        for (int m = 0; m < METRICS; m++) {
+            if (outOfRangeMillis[m] == 0) continue;
+            sb.append(sb.length() == 0 ? "Out of range overnight: " : ", ")
+              .append(NAMES[m].toLowerCase(Locale.US)).append(' ').append(duration(outOfRangeMillis[m]));
+        }
+        if (sb.length() > 0) return sb.toString();
+        return (ranged ? "All night in range · now " : "Now ")
+                + latest[RangeCheck.TEMP] + "°C, " + latest[RangeCheck.GROUND_HUMID] + "%, "
+                + latest[RangeCheck.AIR_HUMID] + "%";
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the expanded notification text: one line per metric
+     * (range and time out of range), the latest values, and what it is based on.
+     */
+    public String details() {
+        if (readings == 0) return summary();
+        StringBuilder sb = new StringBuilder();
+        for (int m = 0; m < METRICS; m++) {
+            sb.append(ICONS[m]).append(' ').append(NAMES[m]).append(' ')
+              .append(min[m]).append('–').append(max[m]).append(UNITS[m]);
+            if (ranged) {
+                sb.append(outOfRangeMillis[m] == 0 ? " · in range"
+                        : " · out of range " + (approximate ? "≈ " : "") + duration(outOfRangeMillis[m]));
+            }
+            sb.append('\n');
+        }
+        sb.append(approximate ? "Last hour (" : "Latest (").append(clock(latestMillis)).append("): ")
+          .append(latest[RangeCheck.TEMP]).append("°C · ground ").append(latest[RangeCheck.GROUND_HUMID])
+          .append("% · air ").append(latest[RangeCheck.AIR_HUMID]).append("%\n");
+        sb.append(readings).append(readings == 1 ? " reading" : " readings").append(", ")
+          .append(clock(nightStart)).append('–').append(String.format(Locale.US, "%02d:00", MORNING_HOUR));
+        if (approximate) sb.append(" (from hourly averages)");
+        return sb.toString();
+    }
+
+    private static final String[] NAMES = {"Temperature", "Ground humidity", "Air humidity"};
+    private static final String[] ICONS = {"🌡️", "💧", "💨"};
+    private static final String[] UNITS = {"°C", "%", "%"};
+
+    // "45 min", "1 h 20 min", "3 h"
+    private static String duration(long millis) {
+        long minutes = Math.max(1, Math.round(millis / 60_000.0));
+        if (minutes < 60) return minutes + " min";
+        return minutes % 60 == 0 ? minutes / 60 + " h" : minutes / 60 + " h " + minutes % 60 + " min";
+    }
+
+    // "07:58" in the farm's local time
+    private static String clock(long epochMillis) {
+        long minuteOfDay = Math.floorMod(FarmTime.toLocalMillis(epochMillis), TimeBucketRollup.DAY_MS) / 60_000;
+        return String.format(Locale.US, "%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the state as bytes (big-endian):
+     *   int magic 'FAMD', int version 1, long nightStart, int readings,
+     *   boolean ranged, boolean approximate, long latestMillis, int latestMask,
+     *   then per metric: int min, int max, int latest, long outOfRangeMillis
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nightStart);
+            out.writeInt(readings);
+            out.writeBoolean(ranged);
+            out.writeBoolean(approximate);
+            out.writeLong(latestMillis);
+            out.writeInt(latestMask);
+            for (int m = 0; m < METRICS; m++) {
+                out.writeInt(min[m]);
+                out.writeInt(max[m]);
+                out.writeInt(latest[m]);
+                out.writeLong(outOfRangeMillis[m]);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory write failed", e);   // cannot happen
+        }
+    }
+
+    /**
+     * Precondition: bytes is not null.
+     * Postcondition: Returns the stored digest. Throws IOException for wrong
+     * magic/version or truncated data.
+     */
+    public static MorningDigest fromBytes(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC)   throw new IOException("not a morning digest");
+        if (in.readInt() != VERSION) throw new IOException("unsupported morning digest version");
+        MorningDigest digest = new MorningDigest();
+        digest.nightStart   = in.readLong();
+        digest.readings     = in.readInt();
+        digest.ranged       = in.readBoolean();
+        digest.approximate  = in.readBoolean();
+        digest.latestMillis = in.readLong();
+        digest.latestMask   = in.readInt();
+        for (int m = 0; m < METRICS; m++) {
+            digest.min[m]              = in.readInt();
+            digest.max[m]              = in.readInt();
+            digest.latest[m]           = in.readInt();
+            digest.outOfRangeMillis[m] = in.readLong();
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.smartfarmapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Base64;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════
+ * MORNING DIGEST JOB - GETS THE 8:00 REMINDER READY AHEAD OF TIME
+ * ═══════════════════════════════════════════════════════════════════════════
+ *
+ * WHY?
+ * The morning reminder used to say only "Time to check your crop conditions!",
+ * and tapping it meant waiting for a full fetch. Now it shows what happened
+ * overnight right away – without a network call at 8:00.
+ *
+ * HOW:
+ * 1. All night FarmMonitoringService feeds every reading into a MorningDigest
+ *    and saves it in SharedPreferences (DIGEST_STATE_KEY) – a few dozen bytes.
+ *    Like everything here it is stored per user (FarmMonitoringService.userKey()),
+ *    so after a logout the next account never sees the previous one's night.
+ * 2. In the PREPARE_MINUTES before the reminder (an inexact alarm, so it can
+ *    share a wake-up), SimpleAlarmManager wakes DailyReminderReceiver with
+ *    ACTION_PREPARE_DIGEST, which runs prepare() on a background thread:
+ *      - takes the service's digest if it covers last night, otherwise builds
+ *        an approximate one from the hourly rollups saved on the phone
+ *        (FarmRollups file) – local data only, never the network;
+ *      - stores the finished notification text;
+ *      - keeps the loaded rollups in memory, so MainFragment can take them
+ *        instead of reading the file again when the notification is tapped.
+ * 3. At 8:00 the receiver only reads the stored text (preparedFor()).
+ *
+ * Everything here is best effort: without a prepared digest the reminder shows
+ * its old static text.
+ * ═══════════════════════════════════════════════════════════════════════════
+ */
+public final class MorningDigestJob {
+
+    private static final String TAG = "MorningDigestJob";
+
+    public static final int    PREPARE_MINUTES  = 15;
+    public static final String DIGEST_STATE_KEY = "morning_digest";   // in "SmartFarmPrefs" per user, written by the service
+
+    private static final String KEY_NIGHT   = "morning_digest_night";
+    private static final String KEY_SUMMARY = "morning_digest_summary";
+    private static final String KEY_DETAILS = "morning_digest_details";
+
+    // Rollups loaded by prepare(), handed to MainFragment once (same process).
+    // After WARM_MILLIS the app may have saved newer ones, so they are not used.
+    private static final long  WARM_MILLIS = 60 * 60_000L;
+    private static FarmRollups warmRollups;
+    private static int         warmUserId = -1;
+    private static long        warmAtMillis;
+
+    private MorningDigestJob() {}
+
+    /**
+     * Reads local files: call it on a background thread.
+     *
+     * Precondition: context is not null.
+     * Postcondition: The digest of the night that ended (or is ending) at
+     * nowMillis is stored for preparedFor(), and the user's rollups are kept warm.
+     */
+    public static void prepare(Context context, long nowMillis) {
+        SharedPreferences prefs = context.getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        long night = MorningDigest.lastNightStart(nowMillis);
+        int userId = prefs.getInt("user_id", -1);
+        if (userId == -1) {
+            Log.d(TAG, "Nobody is logged in");
+            return;
+        }
+
+        MorningDigest digest = null;
+        String saved = prefs.getString(key(DIGEST_STATE_KEY, userId), null);
+        if (saved != null) {
+            try {
+                digest = MorningDigest.fromBytes(Base64.decode(saved, Base64.NO_WRAP));
+            } catch (IllegalArgumentException | IOException e) {
+                Log.w(TAG, "Ignoring unreadable digest state", e);
+            }
+        }
+
+        FarmRollups rollups = loadRollups(context, userId);
+        if (digest == null || digest.nightStart() != night || digest.readings() == 0) {
+            Vegetation veg = null;
+            String json = prefs.getString("active_vegetation", null);
+            if (json != null) veg = ModelJson.GSON.fromJson(json, Vegetation.class);
+            digest = rollups == null ? null : MorningDigest.fromHourly(rollups.hourly(), night, veg);
+        }
+
+        synchronized (MorningDigestJob.class) {
+            warmRollups  = rollups;
+            warmUserId   = userId;
+            warmAtMillis = nowMillis;
+        }
+        if (digest == null) {
+            Log.d(TAG, "Nothing stored locally for last night");
+            return;
+        }
+        prefs.edit()
+                .putLong(key(KEY_NIGHT, userId), night)
+                .putString(key(KEY_SUMMARY, userId), digest.summary())
+                .putString(key(KEY_DETAILS, userId), digest.details())
+                .apply();
+        Log.d(TAG, "Digest ready: " + digest.summary());
+    }
+
+    /**
+     * Precondition: context is not null.
+     * Postcondition: Returns {summary, details} prepared for the logged-in user and
+     * the night that ended at nowMillis, or null if prepare() hasn't run for them.
+     */
+    public static String[] preparedFor(Context context, long nowMillis) {
+        SharedPreferences prefs = context.getSharedPreferences("SmartFarmPrefs", Context.MODE_PRIVATE);
+        int userId = prefs.getInt("user_id", -1);
+        if (userId == -1) return null;
+        if (prefs.getLong(key(KEY_NIGHT, userId), FarmTime.NO_TIME) != MorningDigest.lastNightStart(nowMillis)) {
+            return null;
+        }
+        String summary = prefs.getString(key(KEY_SUMMARY, userId), null);
+        String details = prefs.getString(key(KEY_DETAILS, userId), null);
+        return summary == null || details == null ? null : new String[] {summary, details};
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the rollups prepare() loaded for userId within the
+     * last hour (and forgets them), or null – then the caller reads the file itself.
+     */
+    public static synchronized FarmRollups takeWarmRollups(int userId) {
+        boolean fresh = System.currentTimeMillis() - warmAtMillis < WARM_MILLIS;
+        FarmRollups rollups = warmUserId == userId && fresh ? warmRollups : null;
+        warmRollups = null;
+        warmUserId  = -1;
+        return rollups;
+    }
+
+    private static String key(String key, int userId) {
+        return FarmMonitoringService.userKey(key, userId);
+    }
+
+    // Precondition: userId is valid
+    // Postcondition: Returns the user's saved rollups, or null if there are none or they can't be read
+    private static FarmRollups loadRollups(Context context, int userId) {
+        File file = new File(context.getFilesDir(), "farm_rollups_" + userId + ".bin");
+        try {
+            byte[] bytes = FarmRollups.readFile(file);
+            if (bytes == null) return null;
+            FarmRollups rollups = new FarmRollups();
+            rollups.restore(bytes);
+            return rollups;
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring unreadable rollup file: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.smartfarmapp;
+
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import androidx.core.app.NotificationCompat;
+
+import java.util.List;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════
+ * NOTIFICATION DISPATCHER - THE ONE WAY ALERTS REACH THE USER
+ * ═══════════════════════════════════════════════════════════════════════════
+ *
+ * WHY?
+ * Before this class every part of the app built and posted its own alert
+ * notification: the service on one id per kind, MainFragment on id 1. A busy
+ * check posted several notifications in a row, each one overwriting the last,
+ * and every single event went to the system straight away.
+ *
+ * WHAT IT DOES:
+ * - post() only queues the event and returns at once (any thread).
+ * - Events arriving within a few seconds of each other are shown together:
+ *   one notification per kind (alert, back in range, rule, early warning,
+ *   unusual readings) with the lines merged, grouped under one summary.
+ * - Each channel is rate-limited (see AlertBatcher): a burst of flushes, then
+ *   at most one every few minutes; anything held back arrives merged later.
+ * - Notifications are built on a background HandlerThread, never on the
+ *   caller's (usually the main) thread.
+ *
+ * NOTIFICATION IDS (one table for the whole app, so nothing collides):
+ *   1001          FarmMonitoringService's "monitoring active" (foreground)
+ *   2000          group summary of the alerts below
+ *   2001 … 2005   one per AlertBatcher kind (ALERT … ANOMALY)
+ *   3001          DailyReminderReceiver's morning reminder
+ *
+ * The alert channel (FarmMonitoringService.CHANNEL_ID_ALERTS) must already be
+ * created – FarmMonitoringService and MainFragment both do so at startup.
+ * ═══════════════════════════════════════════════════════════════════════════
+ */
+public final class NotificationDispatcher {
+
+    public static final int ID_FOREGROUND     = 1001;
+    public static final int ID_SUMMARY        = 2000;
+    public static final int ID_FIRST_KIND     = 2001;   // + AlertBatcher kind
+    public static final int ID_DAILY_REMINDER = 3001;
+
+    private static final String GROUP_KEY = "com.example.smartfarmapp.FARM_ALERTS";
+    private static final String[] KIND_LABELS = {
+            "⚠️ Out of range", "✅ Back in range", "📋 Rules", "⏳ Early warnings", "🔎 Unusual readings"};
+
+    private static NotificationDispatcher instance;
+
+    private final Context      appContext;
+    private final Handler      handler;       // everything below runs on this thread
+    private final AlertBatcher batcher = new AlertBatcher(AlertBatcher.Config.defaults());
+    private final String[]     shownTitles = new String[AlertBatcher.KIND_COUNT];   // for the summary
+    private final Runnable     flushTask = this::flush;
+
+    /**
+     * Precondition: context is not null.
+     * Postcondition: Returns the app-wide dispatcher, starting its thread on first use.
+     */
+    public static synchronized NotificationDispatcher get(Context context) {
+        if (instance == null) instance = new NotificationDispatcher(context.getApplicationContext());
+        return instance;
+    }
+
+    private NotificationDispatcher(Context appContext) {
+        this.appContext = appContext;
+        HandlerThread thread = new HandlerThread("notification-dispatch");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Cheap on any thread: only hands the event to the dispatcher's thread.
+     * A message with several lines counts as several events of the same kind.
+     *
+     * Precondition: kind is an AlertBatcher kind; title is not null.
+     * Postcondition: The event will be shown, merged with others that arrive
+     * around the same time, once the window closes and the channel has a token.
+     */
+    public void post(int kind, String title, String message) {
+        long now = System.currentTimeMillis();
+        handler.post(() -> {
+            String[] lines = message == null ? new String[] {""} : message.trim().split("\n");
+            for (String line : lines) {
+                batcher.offer(FarmMonitoringService.CHANNEL_ID_ALERTS, kind, title, line.trim(), now);
+            }
+            scheduleFlush();
+        });
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // DISPATCHER THREAD ONLY
+    // ═══════════════════════════════════════════════════════════════════════
+
+    private void scheduleFlush() {
+        handler.removeCallbacks(flushTask);
+        long due = batcher.nextDueMillis();
+        if (due == Long.MAX_VALUE) return;
+        handler.postDelayed(flushTask, Math.max(0, due - System.currentTimeMillis()));
+    }
+
+    private void flush() {
+        List<AlertBatcher.Batch> batches = batcher.drain(System.currentTimeMillis());
+        NotificationManager manager = (NotificationManager) appContext.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager != null && !batches.isEmpty()) {
+            AlertBatcher.Batch alert = null, cleared = null;
+            for (AlertBatcher.Batch batch : batches) {
+                if (batch.kind == AlertBatcher.ALERT)   alert   = batch;
+                if (batch.kind == AlertBatcher.CLEARED) cleared = batch;
+            }
+            // "Out of range" and "back in range" contradict each other: only the newer one stays
+            if (alert != null && cleared != null) {
+                batches.remove(alert.lastMillis > cleared.lastMillis ? cleared : alert);
+            }
+            for (AlertBatcher.Batch batch : batches) {
+                if (batch.kind == AlertBatcher.ALERT)   cancel(manager, AlertBatcher.CLEARED);
+                if (batch.kind == AlertBatcher.CLEARED) cancel(manager, AlertBatcher.ALERT);
+                manager.notify(ID_FIRST_KIND + batch.kind, build(batch));
+                shownTitles[batch.kind] = batch.title;
+            }
+            manager.notify(ID_SUMMARY, buildSummary());
+        }
+        scheduleFlush();
+    }
+
+    private void cancel(NotificationManager manager, int kind) {
+        manager.cancel(ID_FIRST_KIND + kind);
+        shownTitles[kind] = null;
+    }
+
+    private android.app.Notification build(AlertBatcher.Batch batch) {
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(batch.title);
+        for (String line : batch.lines) style.addLine(line);
+        int hidden = batch.events - batch.lines.size();
+        if (hidden > 0) style.setSummaryText("+" + hidden + " earlier");
+
+        String text = batch.lines.isEmpty() ? "" : batch.lines.get(batch.lines.size() - 1);
+        return new NotificationCompat.Builder(appContext, batch.channel)
+                .setSmallIcon(android.R.drawable.ic_dialog_alert)
+                .setContentTitle(batch.title)
+                .setContentText(text)
+                .setStyle(style)
+                .setNumber(batch.events)
+                .setWhen(batch.lastMillis)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setGroup(GROUP_KEY)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setAutoCancel(true)
+                .setContentIntent(openApp())
+                .build();
+    }
+
+    // One line per kind currently showing; the summary is the only one that sounds
+    private android.app.Notification buildSummary() {
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle("🌱 Farm Alerts");
+        int showing = 0;
+        for (int kind = 0; kind < AlertBatcher.KIND_COUNT; kind++) {
+            if (shownTitles[kind] == null) continue;
+            style.addLine(KIND_LABELS[kind] + ": " + shownTitles[kind]);
+            showing++;
+        }
+        return new NotificationCompat.Builder(appContext, FarmMonitoringService.CHANNEL_ID_ALERTS)
+                .setSmallIcon(android.R.drawable.ic_dialog_alert)
+                .setContentTitle("🌱 Farm Alerts")
+                .setContentText(showing + (showing == 1 ? " kind of alert" : " kinds of alert"))
+                .setStyle(style)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setGroup(GROUP_KEY)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setAutoCancel(true)
+                .setContentIntent(openApp())
+                .build();
+    }
+
+    private PendingIntent openApp() {
+        Intent intent = new Intent(appContext, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        return PendingIntent.getActivity(appContext, 0, intent,
+                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT);
+    }
+}
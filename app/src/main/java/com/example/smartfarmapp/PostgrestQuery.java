@@ -0,0 +1,171 @@
+package com.example.smartfarmapp;
+
+import okhttp3.HttpUrl;
+
+/**
+ * PostgrestQuery
+ * ───────────────
+ * Small builder for Supabase (PostgREST) table URLs, used by the BaseRepo
+ * subclasses instead of gluing "?col=eq." + value strings together by hand.
+ *
+ *   String url = PostgrestQuery.from(VEGETATION_URL)
+ *           .select("id", "name")          // → select=id,name   (only these columns come back)
+ *           .eq("UserID", userId)          // → UserID=eq.7
+ *           .order("name", true)           // → order=name.asc
+ *           .limit(50)                     // → limit=50
+ *           .build();
+ *
+ * WHY:
+ *   • Projection – list screens (spinners, the gallery, the farm list) only need
+ *     a few columns; "select=*" ships every column of every row on every poll.
+ *   • Encoding – filter VALUES are URL-encoded by OkHttp, so an email with a "+"
+ *     or a name with "&" no longer corrupts the query string.
+ *   • Column names, operators and order terms are code constants and are added
+ *     unencoded, so the resulting URLs stay readable in logs and remain stable
+ *     keys for BaseRepo's GET cache, rate limiter and circuit breakers.
+ *
+ * Without select(...) PostgREST returns all columns, same as before.
+ */
+public final class PostgrestQuery {
+
+    private final HttpUrl.Builder url;
+    private String              select;
+    private final StringBuilder order = new StringBuilder();
+    private Integer             limit;
+    private Integer             offset;
+
+    private PostgrestQuery(String tableUrl) {
+        this.url = HttpUrl.get(tableUrl).newBuilder();
+    }
+
+    // Precondition: tableUrl is an absolute http(s) URL of a PostgREST table, without a query string
+    // Postcondition: Returns an empty query on that table (all rows, all columns)
+    public static PostgrestQuery from(String tableUrl) {
+        return new PostgrestQuery(tableUrl);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Projection
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Restricts the returned columns. Calling it again replaces the previous list.
+     *
+     * Precondition: columns is not empty and holds column names exactly as in the table.
+     * Postcondition: The built URL contains select=col1,col2,…
+     */
+    public PostgrestQuery select(String... columns) {
+        if (columns.length == 0) throw new IllegalArgumentException("select() needs at least one column");
+        this.select = String.join(",", columns);
+        return this;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Filters (all combined with AND, like PostgREST itself)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column = value are returned
+    public PostgrestQuery eq(String column, Object value)  { return filter(column, "eq", value); }
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column <> value are returned
+    public PostgrestQuery neq(String column, Object value) { return filter(column, "neq", value); }
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column > value are returned
+    public PostgrestQuery gt(String column, Object value)  { return filter(column, "gt", value); }
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column >= value are returned
+    public PostgrestQuery gte(String column, Object value) { return filter(column, "gte", value); }
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column < value are returned
+    public PostgrestQuery lt(String column, Object value)  { return filter(column, "lt", value); }
+
+    // Precondition: column and value are not null
+    // Postcondition: Only rows with column <= value are returned
+    public PostgrestQuery lte(String column, Object value) { return filter(column, "lte", value); }
+
+    // Precondition: column is not null
+    // Postcondition: Only rows where column IS NULL are returned
+    public PostgrestQuery isNull(String column)            { return filter(column, "is", "null"); }
+
+    /**
+     * Precondition: column is not null and values is not empty.
+     * Postcondition: Only rows whose column equals one of values are returned.
+     * Every value is double-quoted, so values containing commas or brackets are safe.
+     */
+    public PostgrestQuery in(String column, Object... values) {
+        if (values.length == 0) throw new IllegalArgumentException("in() needs at least one value");
+        StringBuilder list = new StringBuilder("(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) list.append(',');
+            list.append('"').append(String.valueOf(values[i]).replace("\"", "\\\"")).append('"');
+        }
+        list.append(')');
+        return filter(column, "in", list);
+    }
+
+    private PostgrestQuery filter(String column, String operator, Object value) {
+        // Repeating a column is fine (date=gte.X&date=lt.Y is a range in PostgREST).
+        url.addQueryParameter(column, operator + "." + value);
+        return this;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Ordering and paging
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Adds a sort key; call repeatedly for tie-breakers (first call = primary key).
+     *
+     * Precondition: column is not null.
+     * Postcondition: The built URL contains order=column.asc|desc[,…]
+     */
+    public PostgrestQuery order(String column, boolean ascending) {
+        if (order.length() > 0) order.append(',');
+        order.append(column).append(ascending ? ".asc" : ".desc");
+        return this;
+    }
+
+    // Precondition: count > 0
+    // Postcondition: At most count rows are returned
+    public PostgrestQuery limit(int count) {
+        if (count <= 0) throw new IllegalArgumentException("limit must be > 0");
+        this.limit = count;
+        return this;
+    }
+
+    /**
+     * Row window, inclusive on both ends like the HTTP Range header PostgREST
+     * also accepts – range(0, 49) is the first page of 50. Expressed as
+     * offset/limit query parameters so the whole query lives in the URL.
+     *
+     * Precondition: 0 <= from <= to
+     * Postcondition: Rows from..to (of the ordered result) are returned.
+     */
+    public PostgrestQuery range(int from, int to) {
+        if (from < 0 || to < from) throw new IllegalArgumentException("invalid range " + from + ".." + to);
+        this.offset = from;
+        this.limit  = to - from + 1;
+        return this;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns the full request URL; the builder can still be reused afterwards
+    public String build() {
+        HttpUrl.Builder out = url.build().newBuilder();
+        if (select != null)     out.addEncodedQueryParameter("select", select);
+        if (order.length() > 0) out.addEncodedQueryParameter("order", order.toString());
+        if (limit != null)      out.addEncodedQueryParameter("limit", String.valueOf(limit));
+        if (offset != null)     out.addEncodedQueryParameter("offset", String.valueOf(offset));
+        return out.build().toString();
+    }
+
+    @Override
+    public String toString() { return build(); }
+}
@@ -0,0 +1,323 @@
+package com.example.smartfarmapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ProfileBacktest
+ * ────────────────
+ * "How many alerts would this profile have given over the last 90 days?" –
+ * replays stored readings through RangeCheck and AlertStateMachine for a
+ * candidate Vegetation, before it is saved.
+ *
+ * WHAT IS COUNTED, per metric:
+ *   violations      – readings outside the day/night range
+ *   violationMillis – time spent outside it (each such reading counts until the
+ *                     next one, at most the machine's maxGap)
+ *   alerts          – what the monitoring service would have notified: the
+ *                     raises of a fresh AlertStateMachine, with their times
+ *
+ * HOW IT IS PARALLEL:
+ * The range check is per reading, so any split of the history works. The alert
+ * machine is not – its state at a reading depends on everything before. Each
+ * fork/join chunk therefore replays a lead-in (dwell + cooldown + max gap, at
+ * least 2 h) before its own readings, on the guess that the state has settled
+ * by then; chunks run in parallel on their guesses. Afterwards, in time order,
+ * every chunk's starting state is compared with the previous chunk's real end
+ * state (AlertStateMachine.behavesLike). A chunk whose guess was wrong is
+ * replayed again from the real state. The result is exactly what one
+ * sequential replay gives – re-runs are rare and cost one chunk each.
+ *
+ * History must be copied off the FarmReadingBuffer on its own thread first
+ * (History.copyOf), then run() may be called from any thread.
+ *
+ * Pure Java (no Android classes).
+ */
+public final class ProfileBacktest {
+
+    /** Chunks smaller than this are not split further. */
+    static final int LEAF_READINGS = 16_384;
+
+    private static final int  METRICS       = RangeCheck.METRIC_COUNT;
+    private static final long MIN_LEAD_IN   = 2 * 60 * 60_000L;
+
+    private ProfileBacktest() {}
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Input
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /** An immutable, time-ordered copy of readings – safe to read from many threads. */
+    public static final class History {
+        final long[] epochMillis;
+        final int[]  temp;
+        final int[]  groundHumid;
+        final int[]  airHumid;
+
+        History(long[] epochMillis, int[] temp, int[] groundHumid, int[] airHumid) {
+            this.epochMillis = epochMillis;
+            this.temp        = temp;
+            this.groundHumid = groundHumid;
+            this.airHumid    = airHumid;
+        }
+
+        /**
+         * A plain array copy (≈ 20 bytes per reading) – a few milliseconds for 90
+         * days of per-minute readings.
+         *
+         * Precondition: Called on the thread that fills buffer; readings are in time order.
+         * Postcondition: Returns the readings at or after fromMillis that have a time
+         */
+        public static History copyOf(FarmReadingBuffer buffer, long fromMillis) {
+            FarmReadingBuffer.View view = buffer.since(fromMillis);
+            int n = 0;
+            for (int k = 0; k < view.size(); k++) {
+                if (view.epochMillis(k) != FarmTime.NO_TIME) n++;
+            }
+            long[] t = new long[n];
+            int[]  tp = new int[n], g = new int[n], a = new int[n];
+            int i = 0;
+            for (int k = 0; k < view.size(); k++) {
+                if (view.epochMillis(k) == FarmTime.NO_TIME) continue;
+                t[i]  = view.epochMillis(k);
+                tp[i] = view.temp(k);
+                g[i]  = view.groundHumid(k);
+                a[i]  = view.airHumid(k);
+                i++;
+            }
+            return new History(t, tp, g, a);
+        }
+
+        public int size() { return epochMillis.length; }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Output
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public static final class Result {
+        public final int    readings;
+        public final int[]  violations;        // per metric
+        public final long[] violationMillis;   // per metric
+        public final long[] alertMillis;       // raise times, oldest first
+        public final int[]  alertMetric;       // RangeCheck metric of each raise
+        public final boolean[] alertHigh;      // above (true) or below the range
+        public final int    chunks;
+        public final int    replayedChunks;    // speculative starts that had to be redone
+        public final long   elapsedNanos;
+
+        Result(int readings, int[] violations, long[] violationMillis, Events alerts,
+               int chunks, int replayedChunks, long elapsedNanos) {
+            this.readings        = readings;
+            this.violations      = violations;
+            this.violationMillis = violationMillis;
+            this.alertMillis     = Arrays.copyOf(alerts.millis, alerts.size);
+            this.alertMetric     = Arrays.copyOf(alerts.metric, alerts.size);
+            this.alertHigh       = Arrays.copyOf(alerts.high, alerts.size);
+            this.chunks          = chunks;
+            this.replayedChunks  = replayedChunks;
+            this.elapsedNanos    = elapsedNanos;
+        }
+
+        public int alerts() { return alertMillis.length; }
+
+        // Precondition: metric is a RangeCheck metric
+        // Postcondition: Returns how many alerts were raised for that metric
+        public int alerts(int metric) {
+            int n = 0;
+            for (int m : alertMetric) if (m == metric) n++;
+            return n;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Run
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: history, candidate, config and pool are not null.
+     * Postcondition: Returns the counts and alerts a fresh AlertStateMachine with
+     * config would have produced for candidate over the whole history.
+     */
+    public static Result run(History history, Vegetation candidate,
+                             AlertStateMachine.Config config, ForkJoinPool pool) {
+        long started = System.nanoTime();
+        int n = history.size();
+        long leadIn = Math.max(MIN_LEAD_IN,
+                config.raiseDwellMillis + config.clearDwellMillis + config.cooldownMillis + config.maxGapMillis);
+
+        List<Chunk> chunks = n == 0 ? new ArrayList<>()
+                : pool.invoke(new Split(history, candidate, config, leadIn, 0, n));
+
+        // Stitch in time order: check each chunk's guessed start against the real state
+        int[]  violations      = new int[METRICS];
+        long[] violationMillis = new long[METRICS];
+        Events alerts = new Events();
+        int replayed = 0;
+        AlertStateMachine real = null;
+        for (Chunk chunk : chunks) {
+            if (real != null && !real.behavesLike(chunk.start)) {
+                chunk.replayFrom(real);
+                replayed++;
+            }
+            real = chunk.end;
+            alerts.addAll(chunk.alerts);
+            for (int m = 0; m < METRICS; m++) {
+                violations[m]      += chunk.violations[m];
+                violationMillis[m] += chunk.violationMillis[m];
+            }
+        }
+        return new Result(n, violations, violationMillis, alerts, chunks.size(), replayed,
+                System.nanoTime() - started);
+    }
+
+    /** Halves the range until it is at most LEAF_READINGS, then replays it. */
+    private static final class Split extends RecursiveTask<List<Chunk>> {
+        private final History history;
+        private final Vegetation veg;
+        private final AlertStateMachine.Config config;
+        private final long leadIn;
+        private final int from, to;
+
+        Split(History history, Vegetation veg, AlertStateMachine.Config config, long leadIn, int from, int to) {
+            this.history = history;
+            this.veg     = veg;
+            this.config  = config;
+            this.leadIn  = leadIn;
+            this.from    = from;
+            this.to      = to;
+        }
+
+        @Override
+        protected List<Chunk> compute() {
+            if (to - from <= LEAF_READINGS) {
+                Chunk chunk = new Chunk(history, veg, config, from, to);
+                chunk.replaySpeculatively(leadIn);
+                List<Chunk> one = new ArrayList<>();
+                one.add(chunk);
+                return one;
+            }
+            int mid = (from + to) >>> 1;
+            Split left  = new Split(history, veg, config, leadIn, from, mid);
+            Split right = new Split(history, veg, config, leadIn, mid, to);
+            left.fork();
+            List<Chunk> result = right.compute();
+            List<Chunk> merged = left.join();
+            merged.addAll(result);
+            return merged;
+        }
+    }
+
+    /** One contiguous slice of the history and what replaying it produced. */
+    private static final class Chunk {
+        final History history;
+        final Vegetation veg;
+        final AlertStateMachine.Config config;
+        final int from, to;
+
+        final int[]  violations      = new int[METRICS];
+        final long[] violationMillis = new long[METRICS];
+        final Events alerts          = new Events();
+        AlertStateMachine start;   // state just before `from` (guessed unless from == 0)
+        AlertStateMachine end;     // state after the last reading
+
+        Chunk(History history, Vegetation veg, AlertStateMachine.Config config, int from, int to) {
+            this.history = history;
+            this.veg     = veg;
+            this.config  = config;
+            this.from    = from;
+            this.to      = to;
+        }
+
+        void replaySpeculatively(long leadIn) {
+            AlertStateMachine machine = new AlertStateMachine(config);
+            if (from > 0) {
+                long since = history.epochMillis[from] - leadIn;
+                int first = from;
+                while (first > 0 && history.epochMillis[first - 1] >= since) first--;
+                replay(machine, first, from, null);
+            }
+            start = copy(machine);
+            countViolations();
+            replay(machine, from, to, alerts);
+            end = machine;
+        }
+
+        void replayFrom(AlertStateMachine real) {
+            AlertStateMachine machine = copy(real);
+            start = copy(real);
+            alerts.clear();
+            replay(machine, from, to, alerts);
+            end = machine;
+        }
+
+        private void replay(AlertStateMachine machine, int lo, int hi, Events record) {
+            AlertStateMachine.Listener listener = record == null ? null : new AlertStateMachine.Listener() {
+                @Override public void onRaised(int metric, boolean high, int value, long epochMillis) {
+                    record.add(epochMillis, metric, high);
+                }
+                @Override public void onCleared(int metric, int value, long epochMillis) {}
+            };
+            long[] t = history.epochMillis;
+            for (int i = lo; i < hi; i++) {
+                machine.evaluate(t[i], history.temp[i], history.groundHumid[i], history.airHumid[i],
+                        veg, FarmTime.isDayTime(t[i]), listener);
+            }
+        }
+
+        // Stateless, so this part of the chunk never needs redoing
+        private void countViolations() {
+            long[] t = history.epochMillis;
+            for (int i = from; i < to; i++) {
+                int mask = RangeCheck.outOfRangeMask(history.temp[i], history.groundHumid[i], history.airHumid[i],
+                        veg, FarmTime.isDayTime(t[i]));
+                if (mask == 0) continue;
+                long held = i + 1 < t.length ? Math.min(t[i + 1] - t[i], config.maxGapMillis) : 0;
+                for (int m = 0; m < METRICS; m++) {
+                    if ((mask & (1 << m)) == 0) continue;
+                    violations[m]++;
+                    violationMillis[m] += held;
+                }
+            }
+        }
+
+        private AlertStateMachine copy(AlertStateMachine machine) {
+            AlertStateMachine copy = new AlertStateMachine(config);
+            try {
+                copy.restore(machine.toBytes());
+            } catch (java.io.IOException e) {
+                throw new IllegalStateException("own state did not round-trip", e);   // cannot happen
+            }
+            return copy;
+        }
+    }
+
+    /** Growable parallel arrays of raise events (no boxing). */
+    private static final class Events {
+        long[]    millis = new long[16];
+        int[]     metric = new int[16];
+        boolean[] high   = new boolean[16];
+        int       size;
+
+        void add(long epochMillis, int m, boolean above) {
+            if (size == millis.length) {
+                millis = Arrays.copyOf(millis, size * 2);
+                metric = Arrays.copyOf(metric, size * 2);
+                high   = Arrays.copyOf(high, size * 2);
+            }
+            millis[size] = epochMillis;
+            metric[size] = m;
+            high[size]   = above;
+            size++;
+        }
+
+        void addAll(Events other) {
+            for (int i = 0; i < other.size; i++) add(other.millis[i], other.metric[i], other.high[i]);
+        }
+
+        void clear() { size = 0; }
+    }
+}
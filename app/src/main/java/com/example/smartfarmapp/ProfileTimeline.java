@@ -0,0 +1,140 @@
+package com.example.smartfarmapp;
+
+import java.util.Arrays;
+
+/**
+ * ProfileTimeline
+ * ────────────────
+ * Which vegetation profile was active at any moment, so an old reading is
+ * judged against the crop that was growing when it was recorded – not against
+ * whatever profile happens to be active today.
+ *
+ * The user's activations (UserVegetationActivation rows, see
+ * UserVegetationRepo.buildTimeline) become back-to-back intervals:
+ *
+ *     starts:    t0          t1          t2
+ *     profiles:  [ tomato   )[ lettuce  )[ pepper  →  (now)
+ *
+ * profile i is active from starts[i] up to starts[i + 1]; the last one has no
+ * end. Before t0 no profile was active (at() returns null). A null profile
+ * inside the timeline means "active, but the profile has since been deleted".
+ *
+ * LOOKUP: binary search over the sorted starts – O(log n). The list shows
+ * readings in time order, so neighbouring rows almost always fall in the same
+ * interval as the row before; the last interval found is remembered and
+ * checked first, which makes scrolling O(1) per row.
+ *
+ * Immutable apart from that one remembered index (re-checked before every
+ * use), so it may be shared. Pure Java (no Android classes).
+ */
+public final class ProfileTimeline {
+
+    private final long[]       starts;     // ascending, no duplicates
+    private final Vegetation[] profiles;
+    private int lastHit = -1;              // interval of the previous lookup
+
+    private ProfileTimeline(long[] starts, Vegetation[] profiles) {
+        this.starts   = starts;
+        this.profiles = profiles;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Lookup
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the interval containing epochMillis (0 … size() − 1),
+     * or -1 if it is before the first activation or is FarmTime.NO_TIME.
+     */
+    public int indexAt(long epochMillis) {
+        if (epochMillis == FarmTime.NO_TIME) return -1;
+        int hit = lastHit;
+        if (hit >= 0 && epochMillis >= starts[hit]
+                && (hit + 1 == starts.length || epochMillis < starts[hit + 1])) {
+            return hit;
+        }
+        int i = Arrays.binarySearch(starts, epochMillis);
+        if (i < 0) i = -i - 2;           // the last start before epochMillis
+        if (i >= 0) lastHit = i;
+        return i;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the profile active at epochMillis, or null if none was
+    public Vegetation at(long epochMillis) {
+        int i = indexAt(epochMillis);
+        return i < 0 ? null : profiles[i];
+    }
+
+    public int size() { return starts.length; }
+
+    // Precondition: 0 <= index < size()
+    public long       startMillis(int index) { return starts[index]; }
+    public Vegetation profile(int index)     { return profiles[index]; }
+
+    // Precondition: None
+    // Postcondition: Returns true if index is the open-ended interval (the current profile)
+    public boolean isCurrent(int index) {
+        return index >= 0 && index == starts.length - 1;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Building
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /** Collects activations in any order; build() sorts them. */
+    public static final class Builder {
+        private long[]       starts   = new long[8];
+        private Vegetation[] profiles = new Vegetation[8];
+        private int          size;
+
+        /**
+         * Precondition: activatedAtMillis is a real time (not FarmTime.NO_TIME);
+         * profile may be null (a deleted profile).
+         * Postcondition: The activation is recorded. If two share the same time,
+         * the one added last wins.
+         */
+        public Builder add(long activatedAtMillis, Vegetation profile) {
+            if (activatedAtMillis == FarmTime.NO_TIME) throw new IllegalArgumentException("activation needs a time");
+            if (size == starts.length) {
+                starts   = Arrays.copyOf(starts, size * 2);
+                profiles = Arrays.copyOf(profiles, size * 2);
+            }
+            starts[size]   = activatedAtMillis;
+            profiles[size] = profile;
+            size++;
+            return this;
+        }
+
+        // Precondition: None
+        // Postcondition: Returns the timeline; the builder may be reused
+        public ProfileTimeline build() {
+            // Insertion sort: a user has a handful of activations, already nearly in order.
+            // Stable, so "added last wins" holds for equal times.
+            long[]       s = Arrays.copyOf(starts, size);
+            Vegetation[] p = Arrays.copyOf(profiles, size);
+            for (int i = 1; i < size; i++) {
+                long key = s[i];
+                Vegetation veg = p[i];
+                int j = i - 1;
+                while (j >= 0 && s[j] > key) {
+                    s[j + 1] = s[j];
+                    p[j + 1] = p[j];
+                    j--;
+                }
+                s[j + 1] = key;
+                p[j + 1] = veg;
+            }
+            // Collapse equal times, keeping the later entry
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (n > 0 && s[n - 1] == s[i]) n--;
+                s[n] = s[i];
+                p[n] = p[i];
+                n++;
+            }
+            return new ProfileTimeline(Arrays.copyOf(s, n), Arrays.copyOf(p, n));
+        }
+    }
+}
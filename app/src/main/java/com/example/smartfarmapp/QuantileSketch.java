@@ -0,0 +1,273 @@
+package com.example.smartfarmapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * QuantileSketch
+ * ───────────────
+ * "What value are 95 % of the readings below?" without keeping the readings –
+ * a KLL sketch (Karnin, Lang, Liberty). Memory stays at a few hundred floats
+ * whether it has seen a hundred readings or ten million (about 3k); quantile()
+ * is within about 1 % of the true rank for the default k = 200.
+ *
+ * HOW IT WORKS:
+ * Values are kept in levels. Level 0 takes new values, each worth 1 reading;
+ * a value at level h stands for 2^h readings. When the sketch is full, its
+ * lowest over-full level is sorted and "compacted": every other value (odd or
+ * even positions, by a coin flip) moves up one level with twice the weight,
+ * the rest are dropped. Upper
+ * levels get the most room (k) and lower ones shrink by 2/3 per step, which is
+ * what keeps the total small.
+ *
+ *     level 2  ▪ ▪ ▪ ▪ ▪ ▪ ▪ ▪ ▪ ▪      weight 4 each
+ *     level 1  ▪ ▪ ▪ ▪ ▪ ▪ ▪           weight 2 each
+ *     level 0  ▪ ▪ ▪ ▪ ▪               weight 1 each  ← add()
+ *
+ * Two sketches merge by pooling their levels and compacting again, so one per
+ * day, metric or farm can be combined later without losing accuracy.
+ *
+ * The coin flips come from a seeded generator, so the same input always gives
+ * the same sketch. The exact min and max are kept on the side.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int    MIN_WIDTH = 8;
+    private static final double SHRINK    = 2.0 / 3.0;
+
+    private final int k;
+    private float[][] levels = new float[1][MIN_WIDTH];
+    private int[]     sizes  = new int[1];
+    private int       levelCount = 1;
+    private int       retained;             // values stored over all levels
+    private int       room;                 // sum of capacity(h), updated when a level is added
+    private long      count;
+    private float     min = Float.NaN;
+    private float     max = Float.NaN;
+    private long      random = 0x9E3779B97F4A7C15L;   // xorshift state
+
+    // Precondition: None
+    // Postcondition: An empty sketch with k = DEFAULT_K is created
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    // Precondition: k >= MIN_WIDTH (larger k – more accurate, more memory)
+    // Postcondition: An empty sketch is created
+    public QuantileSketch(int k) {
+        if (k < MIN_WIDTH) throw new IllegalArgumentException("k must be >= " + MIN_WIDTH);
+        this.k    = k;
+        this.room = k;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Adding
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Amortised O(1); a compaction (sorting one level) happens about once every
+     * k / 3 values.
+     *
+     * Precondition: None
+     * Postcondition: value is counted; NaN is ignored
+     */
+    public void add(float value) {
+        if (Float.isNaN(value)) return;
+        if (count == 0 || value < min) min = value;
+        if (count == 0 || value > max) max = value;
+        count++;
+        append(0, value);
+        compress();
+    }
+
+    /**
+     * Precondition: other is not null and was made with the same k.
+     * Postcondition: This sketch describes both inputs; other is unchanged.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) throw new IllegalArgumentException("cannot merge k " + other.k + " into k " + k);
+        if (other.count == 0) return;
+        if (count == 0 || other.min < min) min = other.min;
+        if (count == 0 || other.max > max) max = other.max;
+        count += other.count;
+        for (int h = 0; h < other.levelCount; h++) {
+            while (h >= levelCount) addLevel();
+            for (int i = 0; i < other.sizes[h]; i++) append(h, other.levels[h][i]);
+        }
+        compress();
+    }
+
+    // Precondition: None
+    // Postcondition: The sketch is empty
+    public void clear() {
+        levels     = new float[1][MIN_WIDTH];
+        sizes      = new int[1];
+        levelCount = 1;
+        retained   = 0;
+        room       = k;
+        count      = 0;
+        min        = Float.NaN;
+        max        = Float.NaN;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns how many values were added (including merged ones)
+    public long count() { return count; }
+
+    public boolean isEmpty() { return count == 0; }
+
+    public float min() { return min; }
+    public float max() { return max; }
+
+    // Precondition: None
+    // Postcondition: Returns how many values the sketch currently stores
+    public int retained() { return retained; }
+
+    /**
+     * O(retained × levels) – a few thousand steps, cheap enough for a button press.
+     *
+     * Precondition: 0 <= q <= 1
+     * Postcondition: Returns a stored value whose rank is about q × count()
+     * (min() for 0, max() for 1), or NaN if the sketch is empty.
+     */
+    public float quantile(double q) {
+        if (count == 0) return Float.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+
+        // Walk all levels in value order (each level sorted), adding up weights
+        float[][] sorted = new float[levelCount][];
+        for (int h = 0; h < levelCount; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        int[] next = new int[levelCount];
+        double target = q * count;
+        long   seen   = 0;
+        while (true) {
+            int best = -1;
+            for (int h = 0; h < levelCount; h++) {
+                if (next[h] < sorted[h].length
+                        && (best < 0 || sorted[h][next[h]] < sorted[best][next[best]])) best = h;
+            }
+            if (best < 0) return max;
+            float value = sorted[best][next[best]++];
+            seen += 1L << best;
+            if (seen >= target) return value;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: out is not null.
+     * Postcondition: Writes (big-endian) int k, long count, float min, float max,
+     *   long random, int levelCount, then per level: int size, size × float
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeFloat(min);
+        out.writeFloat(max);
+        out.writeLong(random);
+        out.writeInt(levelCount);
+        for (int h = 0; h < levelCount; h++) {
+            out.writeInt(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++) out.writeFloat(levels[h][i]);
+        }
+    }
+
+    /**
+     * Precondition: in is positioned at data written by writeTo().
+     * Postcondition: This sketch equals the stored one. Throws IOException if the
+     * stored k doesn't match this sketch's or the data is implausible.
+     */
+    void readFrom(DataInputStream in) throws IOException {
+        int storedK = in.readInt();
+        if (storedK != k) throw new IOException("sketch k " + storedK + " != " + k);
+        clear();
+        long  storedCount = in.readLong();
+        float storedMin   = in.readFloat();
+        float storedMax   = in.readFloat();
+        long  storedSeed  = in.readLong();
+        int   stored      = in.readInt();
+        if (stored < 1 || stored > 63) throw new IOException("bad sketch level count " + stored);
+        for (int h = 0; h < stored; h++) {
+            while (h >= levelCount) addLevel();
+            int size = in.readInt();
+            if (size < 0 || size > 4 * k) throw new IOException("bad sketch level size " + size);
+            for (int i = 0; i < size; i++) append(h, in.readFloat());
+        }
+        count  = storedCount;
+        min    = storedMin;
+        max    = storedMax;
+        random = storedSeed;
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    // Room at level h: k at the top, 2/3 of that per level down, never below MIN_WIDTH
+    private int capacity(int h) {
+        int depth = levelCount - 1 - h;
+        return Math.max(MIN_WIDTH, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+    }
+
+    private void append(int h, float value) {
+        if (sizes[h] == levels[h].length) levels[h] = Arrays.copyOf(levels[h], sizes[h] * 2);
+        levels[h][sizes[h]++] = value;
+        retained++;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levelCount + 1);
+        sizes  = Arrays.copyOf(sizes,  levelCount + 1);
+        levels[levelCount] = new float[MIN_WIDTH];
+        levelCount++;
+        room = 0;
+        for (int h = 0; h < levelCount; h++) room += capacity(h);
+    }
+
+    // While the sketch holds more than all levels' room together, compacts the
+    // lowest level that is over its own room (a level may borrow unused room)
+    private void compress() {
+        while (retained >= room) {
+            int h = 0;
+            while (sizes[h] < capacity(h)) h++;
+            if (h + 1 == levelCount) addLevel();
+            compact(h);
+        }
+    }
+
+    // Sorts level h and promotes every other value to h + 1 (odd count: one stays behind)
+    private void compact(int h) {
+        float[] items = levels[h];
+        int size = sizes[h];
+        Arrays.sort(items, 0, size);
+        int start = size & 1;                 // the odd one out stays at index 0 with its weight
+        int offset = nextBit();
+        for (int i = start + offset; i < size; i += 2) append(h + 1, items[i]);
+        retained -= size - start;
+        sizes[h] = start;
+    }
+
+    private int nextBit() {
+        long x = random;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        random = x;
+        return (int) (x >>> 63);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.smartfarmapp;
+
+/**
+ * RangeCheck
+ * ───────────
+ * The "is this reading inside the vegetation's day/night range?" logic that
+ * FarmAdapter (row colours) and FarmMonitoringService (alerts) both need.
+ *
+ * Metrics are addressed by index so callers can loop instead of repeating the
+ * same block three times:
+ *   TEMP          – farm.getTemp()        vs day/nightTempMin..Max
+ *   GROUND_HUMID  – farm.getGroundHumid() vs day/nightGroundHumidMin..Max
+ *   AIR_HUMID     – farm.getAirHumid()    vs day/nightAirHumidMin..Max
+ *
+ * Pure Java (no Android classes) so the :benchmark module can measure it.
+ */
+public final class RangeCheck {
+
+    public static final int TEMP         = 0;
+    public static final int GROUND_HUMID = 1;
+    public static final int AIR_HUMID    = 2;
+    public static final int METRIC_COUNT = 3;
+
+    private RangeCheck() {}
+
+    // Precondition: farm is not null, metric is TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: Returns the farm's reading for that metric
+    public static int value(Farm farm, int metric) {
+        switch (metric) {
+            case TEMP:         return farm.getTemp();
+            case GROUND_HUMID: return farm.getGroundHumid();
+            default:           return farm.getAirHumid();
+        }
+    }
+
+    // Precondition: veg is not null, metric is TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: Returns the lowest allowed value for that metric by day or night
+    public static float min(Vegetation veg, int metric, boolean isDay) {
+        switch (metric) {
+            case TEMP:         return isDay ? veg.getDayTempMin()        : veg.getNightTempMin();
+            case GROUND_HUMID: return isDay ? veg.getDayGroundHumidMin() : veg.getNightGroundHumidMin();
+            default:           return isDay ? veg.getDayAirHumidMin()    : veg.getNightAirHumidMin();
+        }
+    }
+
+    // Precondition: veg is not null, metric is TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: Returns the highest allowed value for that metric by day or night
+    public static float max(Vegetation veg, int metric, boolean isDay) {
+        switch (metric) {
+            case TEMP:         return isDay ? veg.getDayTempMax()        : veg.getNightTempMax();
+            case GROUND_HUMID: return isDay ? veg.getDayGroundHumidMax() : veg.getNightGroundHumidMax();
+            default:           return isDay ? veg.getDayAirHumidMax()    : veg.getNightAirHumidMax();
+        }
+    }
+
+    // Precondition: farm and veg are not null, metric is TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: Returns true if the reading is within [min, max] (inclusive)
+    public static boolean inRange(Farm farm, Vegetation veg, int metric, boolean isDay) {
+        return inRange(value(farm, metric), veg, metric, isDay);
+    }
+
+    // Precondition: veg is not null, metric is TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: Returns true if value is within the metric's [min, max] (inclusive)
+    public static boolean inRange(int value, Vegetation veg, int metric, boolean isDay) {
+        return value >= min(veg, metric, isDay) && value <= max(veg, metric, isDay);
+    }
+
+    /**
+     * Precondition: farm and veg are not null.
+     * Postcondition: Returns a bit mask with bit (1 << metric) set for every metric
+     * that is out of range; 0 means everything is fine.
+     */
+    public static int outOfRangeMask(Farm farm, Vegetation veg, boolean isDay) {
+        int mask = 0;
+        for (int metric = 0; metric < METRIC_COUNT; metric++) {
+            if (!inRange(farm, veg, metric, isDay)) mask |= 1 << metric;
+        }
+        return mask;
+    }
+
+    /**
+     * The same check for readings held as plain ints (FarmReadingBuffer), so no
+     * Farm object is needed.
+     *
+     * Precondition: veg is not null.
+     * Postcondition: Returns the out-of-range bit mask, as outOfRangeMask(Farm, …).
+     */
+    public static int outOfRangeMask(int temp, int groundHumid, int airHumid, Vegetation veg, boolean isDay) {
+        int mask = 0;
+        if (!inRange(temp,        veg, TEMP,         isDay)) mask |= 1 << TEMP;
+        if (!inRange(groundHumid, veg, GROUND_HUMID, isDay)) mask |= 1 << GROUND_HUMID;
+        if (!inRange(airHumid,    veg, AIR_HUMID,    isDay)) mask |= 1 << AIR_HUMID;
+        return mask;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.smartfarmapp;
+
+import java.io.IOException;
+
+/**
+ * Delivered to onFailure when a GET was dropped locally because the endpoint's
+ * request budget (see RateLimiter) is exhausted and there was no cached
+ * response to serve instead. Nothing was sent over the network.
+ */
+public class RateLimitedException extends IOException {
+
+    // Precondition: endpoint is not null
+    // Postcondition: A new exception naming the throttled endpoint is created
+    public RateLimitedException(String endpoint) {
+        super("Request budget exhausted, request dropped: " + endpoint);
+    }
+}
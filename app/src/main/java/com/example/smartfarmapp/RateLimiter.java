@@ -0,0 +1,119 @@
+package com.example.smartfarmapp;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiter
+ * ────────────
+ * Client-side request budget for every Supabase endpoint, shared by all repos
+ * in the process (MainFragment's refresh timer AND FarmMonitoringService).
+ *
+ * Each endpoint (URL path such as /rest/v1/Farm) owns a TokenBucket. Repos
+ * can give their table its own budget with {@link #configure}; any endpoint
+ * that was never configured gets the default budget.
+ *
+ * BaseRepo consults the limiter before every GET:
+ *   • identical GET already in flight  → MERGED (shares that response)
+ *   • token available                  → ALLOWED (goes to the network)
+ *   • no token, cached body exists     → SERVED_FROM_CACHE
+ *   • no token, nothing cached         → DROPPED (RateLimitedException)
+ *
+ * Writes are never dropped – they are user actions – but they still spend a
+ * token when one is available so they count against the same budget.
+ */
+public final class RateLimiter {
+
+    /** Budget for endpoints nobody configured: bursts of 10, 30 requests/minute. */
+    private static final int    DEFAULT_CAPACITY          = 10;
+    private static final double DEFAULT_REFILL_PER_MINUTE = 30;
+
+    private static final Map<String, TokenBucket> buckets  = new ConcurrentHashMap<>();
+    private static final Map<String, Counters>    counters = new ConcurrentHashMap<>();
+
+    private RateLimiter() {}
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Counters
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /** Running totals for one endpoint since the process started. */
+    public static final class Counters {
+        public final AtomicLong allowed         = new AtomicLong();
+        public final AtomicLong merged          = new AtomicLong();
+        public final AtomicLong servedFromCache = new AtomicLong();
+        public final AtomicLong dropped         = new AtomicLong();
+
+        // Precondition: None
+        // Postcondition: Returns a one-line human readable summary of the counters
+        @Override
+        public String toString() {
+            return "allowed=" + allowed.get()
+                    + " merged=" + merged.get()
+                    + " cached=" + servedFromCache.get()
+                    + " dropped=" + dropped.get();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Configuration
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Gives an endpoint its own budget, replacing any previous one.
+     *
+     * Precondition: endpoint is a URL path (e.g. "/rest/v1/Farm"), capacity >= 1, refillPerMinute > 0.
+     * Postcondition: Future requests to the endpoint draw from a new, full bucket.
+     */
+    public static void configure(String endpoint, int capacity, double refillPerMinute) {
+        buckets.put(endpoint, new TokenBucket(capacity, refillPerMinute));
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Used by BaseRepo
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: endpoint is not null.
+     * Postcondition: Returns true and spends a token if the endpoint's budget allows
+     * a request now; the allowed counter is incremented in that case.
+     */
+    public static boolean tryAcquire(String endpoint) {
+        boolean ok = bucketFor(endpoint).tryAcquire();
+        if (ok) countersFor(endpoint).allowed.incrementAndGet();
+        return ok;
+    }
+
+    // Precondition: endpoint is not null
+    // Postcondition: Returns the (possibly new) counters of the endpoint
+    public static Counters countersFor(String endpoint) {
+        return counters.computeIfAbsent(endpoint, e -> new Counters());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reporting
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns one line per endpoint seen so far, sorted by endpoint,
+     * with its counters and the tokens left in its bucket.
+     */
+    public static String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Counters> e : new TreeMap<>(counters).entrySet()) {
+            TokenBucket bucket = bucketFor(e.getKey());
+            sb.append(e.getKey()).append("  ").append(e.getValue())
+                    .append("  tokens=").append(bucket.available())
+                    .append('/').append(bucket.getCapacity()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static TokenBucket bucketFor(String endpoint) {
+        return buckets.computeIfAbsent(endpoint,
+                e -> new TokenBucket(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_MINUTE));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.smartfarmapp;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+
+/**
+ * RequestMetrics
+ * ───────────────
+ * Process-wide, per-endpoint request statistics:
+ *   • latency histogram (time until the response headers arrived)
+ *   • bytes sent / received
+ *   • count per HTTP status code, plus network failures
+ *   • retries and cache hits (reported by BaseRepo, which owns that logic)
+ *
+ * MetricsInterceptor feeds the per-request numbers; the debug dialog in
+ * MainFragment shows {@link #dump()} and can save it with {@link #exportTo}.
+ */
+public final class RequestMetrics {
+
+    private static final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private static volatile long sinceMs = System.currentTimeMillis();
+
+    private RequestMetrics() {}
+
+    /** Everything we know about one endpoint. */
+    public static final class EndpointMetrics {
+        public final LatencyHistogram latency   = new LatencyHistogram();
+        public final AtomicLong       bytesOut  = new AtomicLong();
+        public final AtomicLong       bytesIn   = new AtomicLong();
+        public final AtomicLong       failures  = new AtomicLong();
+        public final AtomicLong       retries   = new AtomicLong();
+        public final AtomicLong       cacheHits = new AtomicLong();
+        private final Map<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<>();
+
+        // Precondition: None
+        // Postcondition: The counter for the given HTTP status code is incremented
+        void recordStatus(int code) {
+            statusCodes.computeIfAbsent(code, c -> new AtomicLong()).incrementAndGet();
+        }
+
+        // Precondition: None
+        // Postcondition: Returns the status counts as "200:57 503:2", ordered by code
+        public String statusSummary() {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<Integer, AtomicLong> e : new TreeMap<>(statusCodes).entrySet()) {
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(e.getKey()).append(':').append(e.getValue().get());
+            }
+            return sb.toString();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Recording
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: endpoint is not null
+    // Postcondition: Returns the (possibly new) metrics for the endpoint
+    public static EndpointMetrics forEndpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+    }
+
+    // Precondition: endpoint is not null
+    // Postcondition: The endpoint's retry counter is incremented
+    public static void recordRetry(String endpoint) {
+        forEndpoint(endpoint).retries.incrementAndGet();
+    }
+
+    // Precondition: endpoint is not null
+    // Postcondition: The endpoint's cache-hit counter is incremented
+    public static void recordCacheHit(String endpoint) {
+        forEndpoint(endpoint).cacheHits.incrementAndGet();
+    }
+
+    /**
+     * Storage uploads use a fresh random object name per file, which would
+     * create a new "endpoint" per upload. Collapse them to the bucket.
+     *
+     * Precondition: url is not null.
+     * Postcondition: Returns the path used as metrics key, e.g. /rest/v1/Farm or
+     * /storage/v1/object/farm-gallery/*.
+     */
+    public static String endpointKey(HttpUrl url) {
+        String path = url.encodedPath();
+        if (path.startsWith("/storage/") && url.pathSize() > 4) {
+            return path.substring(0, path.lastIndexOf('/')) + "/*";
+        }
+        return path;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reporting
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns a multi-line text report of every endpoint, sorted by endpoint.
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Since ").append(formatTime(sinceMs)).append('\n');
+        for (Map.Entry<String, EndpointMetrics> e : new TreeMap<>(endpoints).entrySet()) {
+            EndpointMetrics m = e.getValue();
+            sb.append('\n').append(e.getKey()).append('\n')
+                    .append("  latency  ").append(m.latency.summary()).append('\n')
+                    .append("  buckets  ").append(m.latency.buckets()).append('\n')
+                    .append("  status   ").append(m.statusSummary())
+                    .append("  io-errors:").append(m.failures.get()).append('\n')
+                    .append("  bytes    out=").append(m.bytesOut.get())
+                    .append(" in=").append(m.bytesIn.get()).append('\n')
+                    .append("  retries=").append(m.retries.get())
+                    .append(" cache-hits=").append(m.cacheHits.get()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #dump()} plus the rate-limiter counters to a timestamped
+     * text file inside {@code dir}.
+     *
+     * Precondition: dir is an existing, writable directory.
+     * Postcondition: Returns the file that was written; throws IOException on failure.
+     */
+    public static File exportTo(File dir) throws IOException {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "request-metrics-" + stamp + ".txt");
+        try (Writer out = new FileWriter(file)) {
+            out.write(dump());
+            out.write("\nRequest budget\n");
+            out.write(RateLimiter.describe());
+        }
+        return file;
+    }
+
+    // Precondition: None
+    // Postcondition: All endpoint metrics are discarded and the "since" time is reset
+    public static void reset() {
+        endpoints.clear();
+        sinceMs = System.currentTimeMillis();
+    }
+
+    private static String formatTime(long ms) {
+        return new SimpleDateFormat("dd MMM yyyy, HH:mm:ss", Locale.US).format(new Date(ms));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.smartfarmapp;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy
+ * ────────────
+ * Decides IF a failed request may be retried and HOW LONG to wait first.
+ *
+ * Delays grow exponentially (base, 2×base, 4×base …) up to a ceiling, and
+ * every delay is "jittered": we wait a random time between half the delay
+ * and the full delay. Without jitter, every tablet that lost the network at
+ * the same moment would retry at the same moment too and hit Supabase in a
+ * synchronised wave.
+ *
+ * Only idempotent verbs (GET, PATCH with absolute values, DELETE) are ever
+ * retried – BaseRepo never retries a POST, because a POST that timed out
+ * may still have created the row on the server.
+ */
+public class RetryPolicy {
+
+    private final int  maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    // Precondition: maxAttempts >= 1, 0 < baseDelayMs <= maxDelayMs
+    // Postcondition: A new RetryPolicy with the given limits is created
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs  = maxDelayMs;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the policy used by BaseRepo – 3 attempts, 500 ms base, 8 s ceiling
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 500, 8_000);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the total number of attempts allowed (first try included)
+    public int getMaxAttempts() { return maxAttempts; }
+
+    /**
+     * Precondition: attempt is the number of the attempt that just failed (1 = first try).
+     * Postcondition: Returns true if another attempt is allowed.
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * HTTP status codes worth retrying: the server is overloaded or briefly
+     * unavailable, so the same request may succeed a moment later.
+     * Any other 4xx means the request itself is wrong – retrying won't help.
+     *
+     * Precondition: None
+     * Postcondition: Returns true for 408, 429 and every 5xx code.
+     */
+    public static boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || code >= 500;
+    }
+
+    /**
+     * Computes the jittered back-off delay before the next attempt.
+     * If the server sent a Retry-After hint we never wait less than that.
+     *
+     * @param attempt      the attempt that just failed (1 = first try)
+     * @param retryAfterMs server hint in ms, or -1 if none
+     *
+     * Precondition: attempt >= 1
+     * Postcondition: Returns a delay in [ceiling/2, ceiling], raised to retryAfterMs
+     * when given, where ceiling = min(maxDelayMs, baseDelayMs * 2^(attempt-1)).
+     */
+    public long nextDelayMs(int attempt, long retryAfterMs) {
+        int  shift   = Math.min(attempt - 1, 20); // avoid overflowing the shift
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << shift);
+        long half    = ceiling / 2;
+        long delay   = half + ThreadLocalRandom.current().nextLong(half + 1);
+        return Math.max(delay, Math.min(retryAfterMs, maxDelayMs));
+    }
+
+    /**
+     * Parses a Retry-After header given in whole seconds (the form Supabase uses).
+     *
+     * Precondition: None
+     * Postcondition: Returns the hint in ms, or -1 if the header is missing or not a number.
+     */
+    public static long parseRetryAfterMs(String header) {
+        if (header == null) return -1;
+        try {
+            return Long.parseLong(header.trim()) * 1000L;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.smartfarmapp;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+/**
+ * SensorChartView
+ * ────────────────
+ * A time-series chart of one sensor metric (temperature, ground humidity or
+ * air humidity) that can be panned with one finger and zoomed with two, from
+ * an hour up to two years on screen.
+ *
+ * Behind the line, the active Vegetation's allowed range is shaded – green
+ * between the day min/max, blue between the night min/max – so readings that
+ * leave the band stand out.
+ *
+ * WHERE THE POINTS COME FROM (picked by how much time is on screen):
+ *   ≤ 2 days    raw readings          FarmReadingBuffer (the last week)
+ *   ≤ 60 days   hourly averages       FarmRollups.hourly() (90 days)
+ *   more        daily averages        FarmRollups.daily()  (2 years)
+ * For rollups the hour's / day's min–max is drawn as a light vertical bar.
+ *
+ * WHY IT STAYS SMOOTH:
+ *   • Only the visible window is looked at – found by binary search.
+ *   • That window is reduced with Lttb to about one point per 2 px, so a frame
+ *     draws a few hundred segments however much data is behind it.
+ *   • onDraw() allocates nothing: the index / line arrays are sized in
+ *     onSizeChanged() and reused, Paints are created once.
+ */
+public class SensorChartView extends View {
+
+    private static final long  HOUR_MS      = TimeBucketRollup.HOUR_MS;
+    private static final long  DAY_MS       = TimeBucketRollup.DAY_MS;
+    private static final long  MIN_SPAN_MS  = HOUR_MS;
+    private static final long  MAX_SPAN_MS  = 2 * 365 * DAY_MS;
+    private static final float PX_PER_POINT = 2f;
+
+    // ── Data ─────────────────────────────────────────────────────────────────
+    private FarmReadingBuffer readings;
+    private FarmRollups       rollups;
+    private Vegetation        vegetation;
+    private int               metric = RangeCheck.TEMP;
+
+    private final RawSource    rawSource    = new RawSource();
+    private final RollupSource hourlySource = new RollupSource();
+    private final RollupSource dailySource  = new RollupSource();
+
+    // ── Viewport (epoch millis) ──────────────────────────────────────────────
+    private long viewStart;
+    private long viewEnd;
+
+    // ── Scratch, reused every frame ──────────────────────────────────────────
+    private int[]   kept     = new int[0];
+    private float[] lines    = new float[0];
+    private float[] envelope = new float[0];
+
+    // ── Drawing ──────────────────────────────────────────────────────────────
+    private final Paint linePaint     = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint envelopePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dayBandPaint  = new Paint();
+    private final Paint nightBandPaint = new Paint();
+    private final Paint textPaint     = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float labelHeight;
+
+    // Labels are rebuilt only when the text would change, not every frame
+    private long   labelStartKey = Long.MIN_VALUE, labelEndKey = Long.MIN_VALUE;
+    private String labelStart = "", labelEnd = "";
+    private int    labelMinKey = Integer.MIN_VALUE, labelMaxKey = Integer.MIN_VALUE;
+    private String labelMin = "", labelMax = "";
+
+    // ── Gestures ─────────────────────────────────────────────────────────────
+    private final GestureDetector      panDetector;
+    private final ScaleGestureDetector zoomDetector;
+
+    public SensorChartView(Context context) {
+        this(context, null);
+    }
+
+    public SensorChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+
+        linePaint.setColor(Color.rgb(0x00, 0x79, 0x6B));          // teal_700
+        linePaint.setStrokeWidth(2 * density);
+        envelopePaint.setColor(Color.argb(0x55, 0x00, 0x96, 0x88));
+        envelopePaint.setStrokeWidth(2 * density);
+        dayBandPaint.setColor(Color.argb(0x33, 0x4C, 0xAF, 0x50));  // green, translucent
+        nightBandPaint.setColor(Color.argb(0x33, 0x21, 0x96, 0xF3)); // blue, translucent
+        textPaint.setColor(Color.DKGRAY);
+        textPaint.setTextSize(11 * density);
+        labelHeight = textPaint.getTextSize() + 4 * density;
+
+        panDetector  = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) { return true; }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float dx, float dy) {
+                panBy(dx);
+                return true;
+            }
+        });
+        zoomDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomBy(detector.getScaleFactor(), detector.getFocusX());
+                return true;
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        viewStart = now - DAY_MS;
+        viewEnd   = now;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Public API
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: Called on the main thread; either argument may be null.
+     * Postcondition: The chart draws from these stores (not copies – call
+     * invalidate() after they change).
+     */
+    public void setData(FarmReadingBuffer readings, FarmRollups rollups) {
+        this.readings = readings;
+        this.rollups  = rollups;
+        rawSource.buffer = readings;
+        hourlySource.rollup = rollups == null ? null : rollups.hourly();
+        dailySource.rollup  = rollups == null ? null : rollups.daily();
+        invalidate();
+    }
+
+    // Precondition: vegetation may be null (no bands are drawn then)
+    // Postcondition: The day/night bands follow this vegetation's thresholds
+    public void setVegetation(Vegetation vegetation) {
+        this.vegetation = vegetation;
+        invalidate();
+    }
+
+    // Precondition: metric is RangeCheck.TEMP, GROUND_HUMID or AIR_HUMID
+    // Postcondition: The chart shows that metric
+    public void setMetric(int metric) {
+        this.metric = metric;
+        rawSource.metric = metric;
+        hourlySource.metric = metric;
+        dailySource.metric  = metric;
+        invalidate();
+    }
+
+    /**
+     * Precondition: spanMillis > 0
+     * Postcondition: The window shows the spanMillis before the newest data point
+     * (or before now, if there is no data).
+     */
+    public void showLast(long spanMillis) {
+        long end = newestTime();
+        if (end == Long.MIN_VALUE) end = System.currentTimeMillis();
+        long span = clamp(spanMillis, MIN_SPAN_MS, MAX_SPAN_MS);
+        viewEnd   = end + span / 50;   // a little room on the right
+        viewStart = viewEnd - span;
+        invalidate();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Gestures
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = zoomDetector.onTouchEvent(event);
+        if (!zoomDetector.isInProgress()) handled |= panDetector.onTouchEvent(event);
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);   // keep the dialog from scrolling
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    private void panBy(float dxPixels) {
+        if (getWidth() == 0) return;
+        long span  = viewEnd - viewStart;
+        long shift = (long) ((double) dxPixels * span / getWidth());
+        viewStart += shift;
+        viewEnd   += shift;
+        keepWithinData();
+        postInvalidateOnAnimation();
+    }
+
+    private void zoomBy(float factor, float focusX) {
+        if (getWidth() == 0 || factor <= 0) return;
+        long   span    = viewEnd - viewStart;
+        double focus   = focusX / getWidth();
+        long   focusT  = viewStart + (long) (focus * span);
+        long   newSpan = clamp((long) (span / factor), MIN_SPAN_MS, MAX_SPAN_MS);
+        viewStart = focusT - (long) (focus * newSpan);
+        viewEnd   = viewStart + newSpan;
+        keepWithinData();
+        postInvalidateOnAnimation();
+    }
+
+    // Stops panning past either end of the data, leaving half a window of slack
+    private void keepWithinData() {
+        long newest = newestTime(), oldest = oldestTime();
+        if (newest == Long.MIN_VALUE) return;
+        long span = viewEnd - viewStart;
+        if (viewStart > newest - span / 2) { viewStart = newest - span / 2; viewEnd = viewStart + span; }
+        if (viewEnd   < oldest + span / 2) { viewEnd = oldest + span / 2;   viewStart = viewEnd - span; }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Drawing
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        int maxPoints = (int) (w / PX_PER_POINT) + 3;
+        kept     = new int[maxPoints];
+        lines    = new float[maxPoints * 4];
+        envelope = new float[maxPoints * 4];
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float left = 0, right = getWidth();
+        float top = labelHeight, bottom = getHeight() - labelHeight;
+        if (right <= left || bottom <= top) return;
+        long span = viewEnd - viewStart;
+
+        // 1. Pick the series for this zoom level and find the visible slice (+1 point each side)
+        ChartSource src = pickSource(span);
+        int from = 0, to = 0;
+        if (src != null) {
+            int n = src.size();
+            from = Math.max(0, Lttb.lowerBound(src, 0, n, viewStart) - 1);
+            to   = Math.min(n, Lttb.lowerBound(src, from, n, viewEnd) + 1);
+        }
+
+        // 2. Value range: visible data plus the vegetation's thresholds, with 5% padding
+        float yMin = Float.MAX_VALUE, yMax = -Float.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            yMin = Math.min(yMin, src.low(i));
+            yMax = Math.max(yMax, src.high(i));
+        }
+        if (vegetation != null) {
+            yMin = Math.min(yMin, Math.min(RangeCheck.min(vegetation, metric, true), RangeCheck.min(vegetation, metric, false)));
+            yMax = Math.max(yMax, Math.max(RangeCheck.max(vegetation, metric, true), RangeCheck.max(vegetation, metric, false)));
+        }
+        if (yMin > yMax) { yMin = 0; yMax = 100; }
+        float pad = Math.max(1f, (yMax - yMin) * 0.05f);
+        yMin -= pad;
+        yMax += pad;
+        float yScale = (bottom - top) / (yMax - yMin);
+        double xScale = (right - left) / (double) span;
+
+        // 3. Day / night threshold bands
+        if (vegetation != null) drawBands(canvas, left, right, top, bottom, yMin, yScale, xScale);
+
+        // 4. Downsample the visible slice to the screen and draw it
+        if (src != null && to - from > 0) {
+            int count = Lttb.downsample(src, from, to, kept.length, kept);
+            long gap = src.gapMillis();
+            int segs = 0, bars = 0;
+            for (int k = 0; k < count; k++) {
+                int   i = kept[k];
+                float x = (float) (left + (src.x(i) - viewStart) * xScale);
+                if (src.hasEnvelope()) {
+                    envelope[bars * 4]     = x;
+                    envelope[bars * 4 + 1] = bottom - (src.low(i) - yMin) * yScale;
+                    envelope[bars * 4 + 2] = x;
+                    envelope[bars * 4 + 3] = bottom - (src.high(i) - yMin) * yScale;
+                    bars++;
+                }
+                if (k + 1 < count && src.x(kept[k + 1]) - src.x(i) <= gap) {   // no line across outages
+                    int   j  = kept[k + 1];
+                    lines[segs * 4]     = x;
+                    lines[segs * 4 + 1] = bottom - (src.y(i) - yMin) * yScale;
+                    lines[segs * 4 + 2] = (float) (left + (src.x(j) - viewStart) * xScale);
+                    lines[segs * 4 + 3] = bottom - (src.y(j) - yMin) * yScale;
+                    segs++;
+                }
+            }
+            if (bars > 0) canvas.drawLines(envelope, 0, bars * 4, envelopePaint);
+            if (segs > 0) canvas.drawLines(lines, 0, segs * 4, linePaint);
+        }
+
+        // 5. Labels: value range on the left, time range along the bottom
+        updateLabels(yMin + pad, yMax - pad);
+        canvas.drawText(labelMax, left + 4, top - 4, textPaint);
+        canvas.drawText(labelMin, left + 4, bottom + labelHeight - 4, textPaint);
+        canvas.drawText(labelStart, left + 4 + textPaint.measureText(labelMin) + 16, bottom + labelHeight - 4, textPaint);
+        canvas.drawText(labelEnd, right - textPaint.measureText(labelEnd) - 4, bottom + labelHeight - 4, textPaint);
+    }
+
+    // Alternating day (sunrise–sunset) and night segments
+    private void drawBands(Canvas canvas, float left, float right, float top, float bottom,
+                           float yMin, float yScale, double xScale) {
+        float dayTop     = bottom - (RangeCheck.max(vegetation, metric, true)  - yMin) * yScale;
+        float dayBottom  = bottom - (RangeCheck.min(vegetation, metric, true)  - yMin) * yScale;
+        float nightTop   = bottom - (RangeCheck.max(vegetation, metric, false) - yMin) * yScale;
+        float nightBottom = bottom - (RangeCheck.min(vegetation, metric, false) - yMin) * yScale;
+
+        long halfDay = 12 * HOUR_MS;
+        if (halfDay * xScale < 2) {
+            // Zoomed out too far to tell day from night: one band for the day range
+            canvas.drawRect(left, clampY(dayTop, top, bottom), right, clampY(dayBottom, top, bottom), dayBandPaint);
+            return;
+        }
+        long t = viewStart;
+        while (t < viewEnd) {
+            boolean day  = FarmTime.isDayTime(t);
+            long    next = Math.min(FarmTime.nextDayNightChange(t), viewEnd);
+            float x0 = (float) (left + (t - viewStart) * xScale);
+            float x1 = (float) (left + (next - viewStart) * xScale);
+            if (day) canvas.drawRect(x0, clampY(dayTop, top, bottom),   x1, clampY(dayBottom, top, bottom),   dayBandPaint);
+            else     canvas.drawRect(x0, clampY(nightTop, top, bottom), x1, clampY(nightBottom, top, bottom), nightBandPaint);
+            t = next;
+        }
+    }
+
+    private void updateLabels(float minValue, float maxValue) {
+        String unit = metric == RangeCheck.TEMP ? "°C" : "%";
+        int minKey = Math.round(minValue), maxKey = Math.round(maxValue);
+        if (minKey != labelMinKey) { labelMinKey = minKey; labelMin = minKey + unit; }
+        if (maxKey != labelMaxKey) { labelMaxKey = maxKey; labelMax = maxKey + unit; }
+        long startKey = viewStart / 60_000, endKey = viewEnd / 60_000;   // minute resolution
+        if (startKey != labelStartKey) { labelStartKey = startKey; labelStart = FarmTime.formatDate(viewStart); }
+        if (endKey != labelEndKey)     { labelEndKey = endKey;     labelEnd   = FarmTime.formatDate(viewEnd); }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Sources
+    // ═════════════════════════════════════════════════════════════════════════
+
+    private ChartSource pickSource(long span) {
+        // The finest series for the zoom level, unless it starts after the window
+        // does and a coarser one fills it better
+        if (span <= 2 * DAY_MS && rawSource.size() > 0
+                && (rawSource.covers(viewStart) || !hourlySource.covers(viewStart))) return rawSource;
+        if (span <= 60 * DAY_MS && hourlySource.size() > 0
+                && (hourlySource.covers(viewStart) || !dailySource.covers(viewStart))) return hourlySource;
+        if (dailySource.size() > 0)  return dailySource;
+        if (hourlySource.size() > 0) return hourlySource;
+        return rawSource.size() > 0 ? rawSource : null;
+    }
+
+    private long newestTime() {
+        long t = Long.MIN_VALUE;
+        if (rawSource.size() > 0)    t = Math.max(t, rawSource.x(rawSource.size() - 1));
+        if (hourlySource.size() > 0) t = Math.max(t, hourlySource.x(hourlySource.size() - 1));
+        return t;
+    }
+
+    private long oldestTime() {
+        long t = Long.MAX_VALUE;
+        if (dailySource.size() > 0)  t = Math.min(t, dailySource.x(0));
+        if (hourlySource.size() > 0) t = Math.min(t, hourlySource.x(0));
+        if (rawSource.size() > 0)    t = Math.min(t, rawSource.x(0));
+        return t;
+    }
+
+    /** Lttb.Source plus what the chart needs for ranges, envelopes and gaps. */
+    private abstract static class ChartSource implements Lttb.Source {
+        abstract int     size();
+        abstract float   low(int index);
+        abstract float   high(int index);
+        abstract long    gapMillis();        // points further apart than this are not joined
+        abstract boolean hasEnvelope();
+
+        // True if the series reaches back to start (all series end at the newest reading)
+        boolean covers(long start) {
+            return size() > 0 && x(0) <= start;
+        }
+    }
+
+    private static final class RawSource extends ChartSource {
+        FarmReadingBuffer buffer;
+        int metric = RangeCheck.TEMP;
+
+        @Override int     size()           { return buffer == null ? 0 : buffer.size(); }
+        @Override public long  x(int i)    { return buffer.epochMillis(i); }
+        @Override public float y(int i)    { return buffer.value(i, metric); }
+        @Override float   low(int i)       { return y(i); }
+        @Override float   high(int i)      { return y(i); }
+        @Override long    gapMillis()      { return 15 * 60_000L; }
+        @Override boolean hasEnvelope()    { return false; }
+    }
+
+    private static final class RollupSource extends ChartSource {
+        TimeBucketRollup rollup;
+        int metric = RangeCheck.TEMP;
+
+        @Override int     size()           { return rollup == null ? 0 : rollup.size(); }
+        @Override public long  x(int i)    { return rollup.startMillis(i) + rollup.bucketMillis() / 2; }
+        @Override public float y(int i)    { return rollup.avg(i, metric); }
+        @Override float   low(int i)       { return rollup.min(i, metric); }
+        @Override float   high(int i)      { return rollup.max(i, metric); }
+        @Override long    gapMillis()      { return 3 * rollup.bucketMillis(); }
+        @Override boolean hasEnvelope()    { return true; }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static long clamp(long v, long lo, long hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    private static float clampY(float y, float top, float bottom) {
+        return Math.max(top, Math.min(bottom, y));
+    }
+}
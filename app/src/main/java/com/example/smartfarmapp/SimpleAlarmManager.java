@@ -128,6 +128,21 @@ public class SimpleAlarmManager {
                     pendingIntent // Our "permission slip" to trigger the receiver
             );
 
+            // STEP 4: A second, earlier alarm lets the receiver prepare the overnight
+            // digest (MorningDigestJob) so the 8:00 notification can show it at once.
+            // It doesn't need to be exact: setWindow lets Android fire it any time
+            // between prepareAt and 8:00, together with whatever else is waking the
+            // phone then, instead of forcing a wake-up of its own. If the phone is in
+            // Doze and it comes after 8:00, the receiver skips it (the reminder has
+            // gone out with its plain text). If prepareAt has already passed
+            // (reminder switched on at 7:55), the same happens this once.
+            long reminderAt = calendar.getTimeInMillis();
+            long prepareAt  = reminderAt - MorningDigestJob.PREPARE_MINUTES * 60_000L;
+            if (prepareAt > System.currentTimeMillis()) {
+                alarmManager.setWindow(AlarmManager.RTC_WAKEUP, prepareAt, reminderAt - prepareAt,
+                        preparePendingIntent(context, reminderAt));
+            }
+
             return true;
         } catch (Exception e) {
             Log.e(TAG, "Error scheduling alarm", e);
@@ -156,8 +171,32 @@ public class SimpleAlarmManager {
             alarmManager.cancel(pendingIntent);
             // Also cancel the pending intent itself to free up memory.
             pendingIntent.cancel();
+
+            // The same for the digest-preparing alarm
+            PendingIntent prepareIntent = preparePendingIntent(context, 0L);
+            alarmManager.cancel(prepareIntent);
+            prepareIntent.cancel();
         } catch (Exception e) {
             Log.e(TAG, "Error cancelling alarm", e);
         }
     }
+
+    /**
+     * preparePendingIntent() - The "permission slip" for the digest-preparing alarm.
+     * Its own request code (1) and action keep it apart from the 8:00 alarm's slip,
+     * so setting or cancelling one never replaces the other. It carries the time of
+     * the 8:00 alarm it prepares for (extras don't matter for matching, so
+     * cancelling with any value works).
+     */
+    private static PendingIntent preparePendingIntent(Context context, long reminderAt) {
+        Intent intent = new Intent(context, DailyReminderReceiver.class)
+                .setAction(DailyReminderReceiver.ACTION_PREPARE_DIGEST)
+                .putExtra(DailyReminderReceiver.EXTRA_REMINDER_AT, reminderAt);
+        return PendingIntent.getBroadcast(
+                context,
+                1,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
 }
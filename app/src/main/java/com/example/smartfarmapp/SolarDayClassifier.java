@@ -0,0 +1,187 @@
+package com.example.smartfarmapp;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SolarDayClassifier
+ * ───────────────────
+ * "Is it day?" by the actual sunrise and sunset at the farm, instead of a fixed
+ * 06:00–18:00. In Israel the real day runs from about 10 h (December) to
+ * 14 h (June), so the fixed rule used night ranges for summer mornings and
+ * day ranges for winter evenings.
+ *
+ * HOW IT IS FAST:
+ * Sunrise and sunset are worked out once per day (the sunrise equation –
+ * NOAA's simplified solar position formulas, accurate to about a minute) and
+ * kept in a table. Days are numbered in local MEAN SOLAR time (UTC shifted by
+ * longitude), so a whole day of light falls inside one day number and no
+ * time-zone lookup is needed. Classifying a reading is then:
+ *
+ *     day number → table row → sunrise <= t < sunset
+ *
+ * The table is filled in blocks of 512 days (8 KB each), built on first use and
+ * never changed afterwards, so any thread may read it without locking.
+ *
+ * Polar day / night (no sunrise) are handled: the whole day is day or night.
+ * Pure Java (no Android classes).
+ */
+public final class SolarDayClassifier {
+
+    /** Central Israel – the default until the farm's own location is configured. */
+    public static final double DEFAULT_LATITUDE  = 31.8;
+    public static final double DEFAULT_LONGITUDE = 34.9;
+
+    private static final long   DAY_MS     = 24L * 60 * 60 * 1000;
+    private static final int    BLOCK_BITS = 9;                 // 512 days per block
+    private static final int    BLOCK_DAYS = 1 << BLOCK_BITS;
+    private static final double J1970      = 2440587.5;         // Julian date of the epoch
+    private static final double J2000      = 2451545.0;
+
+    private final double latitude;
+    private final double longitude;
+    private final long   solarOffsetMillis;   // local mean solar time − UTC
+
+    /** Sunrise / sunset epoch millis for BLOCK_DAYS consecutive solar days. Immutable once built. */
+    private static final class Block {
+        final long   index;
+        final long[] sunrise = new long[BLOCK_DAYS];
+        final long[] sunset  = new long[BLOCK_DAYS];
+
+        Block(long index) { this.index = index; }
+    }
+
+    private final ConcurrentHashMap<Long, Block> blocks = new ConcurrentHashMap<>();
+    private volatile Block last;   // almost every lookup hits the same block as the one before
+
+    // Precondition: -90 <= latitude <= 90, -180 <= longitude <= 180 (east positive)
+    // Postcondition: A classifier for that location is created (nothing computed yet)
+    public SolarDayClassifier(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("bad location " + latitude + ", " + longitude);
+        }
+        this.latitude          = latitude;
+        this.longitude         = longitude;
+        this.solarOffsetMillis = Math.round(longitude / 360.0 * DAY_MS);
+    }
+
+    public double latitude()  { return latitude; }
+    public double longitude() { return longitude; }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Queries
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns true if the sun is up at epochMillis (sunrise inclusive,
+     * sunset exclusive).
+     */
+    public boolean isDay(long epochMillis) {
+        long  day   = solarDay(epochMillis);
+        Block block = block(day >> BLOCK_BITS);
+        int   row   = (int) (day & (BLOCK_DAYS - 1));
+        return epochMillis >= block.sunrise[row] && epochMillis < block.sunset[row];
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the epoch millis of sunrise on the solar day containing epochMillis
+    // (the day's start if the sun never rises, the day's end if it never sets)
+    public long sunrise(long epochMillis) {
+        long day = solarDay(epochMillis);
+        return block(day >> BLOCK_BITS).sunrise[(int) (day & (BLOCK_DAYS - 1))];
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the epoch millis of sunset on the solar day containing epochMillis
+    public long sunset(long epochMillis) {
+        long day = solarDay(epochMillis);
+        return block(day >> BLOCK_BITS).sunset[(int) (day & (BLOCK_DAYS - 1))];
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the first epoch millis after epochMillis at which
+     * isDay() changes its answer – the next sunrise or sunset (at most a few days
+     * ahead; during a polar day or night, the end of the search window).
+     */
+    public long nextChange(long epochMillis) {
+        boolean now = isDay(epochMillis);
+        long day = solarDay(epochMillis);
+        for (long d = day; d < day + 3; d++) {
+            Block block = block(d >> BLOCK_BITS);
+            int   row   = (int) (d & (BLOCK_DAYS - 1));
+            long  rise  = block.sunrise[row], set = block.sunset[row];
+            if (rise == set) continue;                              // polar night: no change today
+            if (!now && rise > epochMillis) return rise;
+            if (now && set > epochMillis && set != dayStart(d + 1)) return set;
+        }
+        return dayStart(day + 3);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Table
+    // ═════════════════════════════════════════════════════════════════════════
+
+    private long solarDay(long epochMillis) {
+        return Math.floorDiv(epochMillis + solarOffsetMillis, DAY_MS);
+    }
+
+    private long dayStart(long solarDay) {
+        return solarDay * DAY_MS - solarOffsetMillis;
+    }
+
+    private Block block(long index) {
+        Block b = last;
+        if (b != null && b.index == index) return b;
+        b = blocks.computeIfAbsent(index, this::build);
+        last = b;
+        return b;
+    }
+
+    private Block build(long index) {
+        Block block = new Block(index);
+        long first = index << BLOCK_BITS;
+        for (int row = 0; row < BLOCK_DAYS; row++) fill(block, row, first + row);
+        return block;
+    }
+
+    // The sunrise equation for one solar day (angles in degrees until the trig calls)
+    private void fill(Block block, int row, long solarDay) {
+        long start = dayStart(solarDay);
+        double meanNoon = J1970 + solarDay + 0.5 - longitude / 360.0 - J2000;   // days since J2000
+
+        double m       = normalize(357.5291 + 0.98560028 * meanNoon);           // mean anomaly
+        double mRad    = Math.toRadians(m);
+        double center  = 1.9148 * Math.sin(mRad) + 0.0200 * Math.sin(2 * mRad) + 0.0003 * Math.sin(3 * mRad);
+        double lambda  = Math.toRadians(normalize(m + center + 180 + 102.9372)); // ecliptic longitude
+        double transit = meanNoon + 0.0053 * Math.sin(mRad) - 0.0069 * Math.sin(2 * lambda);
+        double sinDecl = Math.sin(lambda) * Math.sin(Math.toRadians(23.4397));
+        double cosDecl = Math.cos(Math.asin(sinDecl));
+        double phi     = Math.toRadians(latitude);
+
+        // −0.833°: refraction plus the sun's radius – "sunrise" is the top edge appearing
+        double cosHour = (Math.sin(Math.toRadians(-0.833)) - Math.sin(phi) * sinDecl)
+                / (Math.cos(phi) * cosDecl);
+
+        if (cosHour >= 1) {                 // polar night
+            block.sunrise[row] = start;
+            block.sunset[row]  = start;
+        } else if (cosHour <= -1) {         // polar day
+            block.sunrise[row] = start;
+            block.sunset[row]  = start + DAY_MS;
+        } else {
+            double halfDay = Math.toDegrees(Math.acos(cosHour)) / 360.0;         // in days
+            block.sunrise[row] = toEpochMillis(transit - halfDay);
+            block.sunset[row]  = toEpochMillis(transit + halfDay);
+        }
+    }
+
+    private static double normalize(double degrees) {
+        double d = degrees % 360;
+        return d < 0 ? d + 360 : d;
+    }
+
+    private static long toEpochMillis(double daysSinceJ2000) {
+        return Math.round((daysSinceJ2000 + J2000 - J1970) * DAY_MS);
+    }
+}
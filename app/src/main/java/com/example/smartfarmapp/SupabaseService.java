@@ -1,10 +1,5 @@
 package com.example.smartfarmapp;
 
-import android.util.Log;
-
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
 import java.util.List;
 
 /**
@@ -18,6 +13,17 @@ public class SupabaseService extends BaseRepo {
     private static final String TAG      = "SupabaseService";
     private static final String FARM_URL = SUPABASE_URL + "/rest/v1/Farm";
 
+    // The Farm table is polled by MainFragment (every second) and by
+    // FarmMonitoringService, so it gets its own, tighter budget:
+    // bursts of 6, then one request every 5 seconds on average.
+    static {
+        RateLimiter.configure(endpointOf(FARM_URL), 6, 12);
+    }
+
+    // Every column Farm.java maps – anything else the table grows is not fetched.
+    private static final String[] FARM_COLUMNS =
+            {"id", "UserID", "temp", "groundHumid", "airHumid", "dateTime"};
+
     // ── Callback interface ────────────────────────────────────────────────────
     public interface FarmCallback extends RepoCallBack<List<Farm>> {}
 
@@ -30,22 +36,24 @@ public class SupabaseService extends BaseRepo {
      * Postcondition: Calls callback.onSuccess with the list of farm readings for the user, or callback.onFailure on error.
      */
     public void fetchFarms(int userId, FarmCallback callback) {
-        String url = FARM_URL + "?UserID=eq." + userId + "&order=id.desc";
-        Log.d(TAG, "fetchFarms URL: " + url);
+        String url = PostgrestQuery.from(FARM_URL)
+                .select(FARM_COLUMNS)
+                .eq("UserID", userId)
+                .order("id", false)
+                .build();
+        AppLog.d(TAG, "fetchFarms URL: ", url);
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Log.d(TAG, "Farm JSON: " + json);
-                Type listType = new TypeToken<List<Farm>>() {}.getType();
-                List<Farm> farms = gson.fromJson(json, listType);
-                Log.d(TAG, "Parsed farms: " + farms);
+                List<Farm> farms = gson.fromJson(json, ModelJson.FARM_LIST);
+                AppLog.d(TAG, "Parsed farms: ", farms.size());
                 callback.onSuccess(farms);
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "fetchFarms failed", e);
+                AppLog.e(TAG, "fetchFarms failed", e);
                 callback.onFailure(e);
             }
         });
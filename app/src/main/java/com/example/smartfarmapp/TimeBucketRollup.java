@@ -0,0 +1,241 @@
+package com.example.smartfarmapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * TimeBucketRollup
+ * ─────────────────
+ * min / max / sum / count of temp, ground humidity and air humidity per fixed
+ * time bucket (an hour, a day…), for the most recent {@code capacity} buckets.
+ *
+ * Buckets follow local wall-clock time (so a "day" is midnight to midnight
+ * where the farm is) and are identified by their key:
+ *     key = localMillis / bucketMillis
+ *
+ * Adding a reading is O(1) when it falls in the newest bucket or opens a new
+ * one – the normal case, since readings arrive in time order. A late reading
+ * for an older bucket is found by binary search; one older than every held
+ * bucket is dropped.
+ *
+ * Storage is column-oriented like FarmReadingBuffer: one primitive array per
+ * field, allocated once, index 0 = oldest bucket.
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class TimeBucketRollup {
+
+    public static final long HOUR_MS = 60L * 60 * 1000;
+    public static final long DAY_MS  = 24 * HOUR_MS;
+
+    private static final int METRICS = RangeCheck.METRIC_COUNT;
+
+    private final long   bucketMillis;
+    private final int    capacity;
+    private final long[] key;
+    private final int[]  count;
+    private final int[]  min;     // [slot * METRICS + metric]
+    private final int[]  max;
+    private final long[] sum;
+
+    private int next;   // slot the next new bucket goes to
+    private int size;
+
+    // Precondition: bucketMillis >= 1, capacity >= 1
+    // Postcondition: An empty rollup is created with all arrays allocated
+    public TimeBucketRollup(long bucketMillis, int capacity) {
+        if (bucketMillis < 1 || capacity < 1) throw new IllegalArgumentException("bucketMillis and capacity must be >= 1");
+        this.bucketMillis = bucketMillis;
+        this.capacity     = capacity;
+        this.key   = new long[capacity];
+        this.count = new int[capacity];
+        this.min   = new int[capacity * METRICS];
+        this.max   = new int[capacity * METRICS];
+        this.sum   = new long[capacity * METRICS];
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Ingest
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: epochMillis is a real time (not FarmTime.NO_TIME).
+     * Postcondition: The reading is counted in its bucket. Returns false (and
+     * changes nothing) if that bucket is older than every bucket still held.
+     */
+    public boolean add(long epochMillis, int temp, int groundHumid, int airHumid) {
+        long k = Math.floorDiv(FarmTime.toLocalMillis(epochMillis), bucketMillis);
+        int slot;
+        if (size > 0 && key[newestSlot()] == k) {
+            slot = newestSlot();                       // same bucket as last time – the common case
+        } else if (size == 0 || k > key[newestSlot()]) {
+            slot = openBucket(k);                      // time moved on
+        } else {
+            int index = indexOf(k);                    // late reading
+            if (index < 0) {
+                if (size == capacity && k < key[slot(0)]) return false;
+                index = insertAt(-index - 1, k);
+            }
+            slot = slot(index);
+        }
+        accumulate(slot, temp, groundHumid, airHumid);
+        return true;
+    }
+
+    // Precondition: None
+    // Postcondition: All buckets are dropped
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading – index 0 = oldest bucket, size() - 1 = newest
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public int  size()         { return size; }
+    public int  capacity()     { return capacity; }
+    public long bucketMillis() { return bucketMillis; }
+
+    // Precondition: 0 <= index < size()
+    public long key(int index)   { return key[slot(index)]; }
+    public int  count(int index) { return count[slot(index)]; }
+
+    // Precondition: 0 <= index < size()
+    // Postcondition: Returns the bucket's start as epoch millis
+    public long startMillis(int index) {
+        return FarmTime.fromLocalMillis(key[slot(index)] * bucketMillis);
+    }
+
+    // Precondition: 0 <= index < size(), metric is one of RangeCheck's metrics
+    public int min(int index, int metric) { return min[slot(index) * METRICS + metric]; }
+    public int max(int index, int metric) { return max[slot(index) * METRICS + metric]; }
+
+    // Precondition: 0 <= index < size(), metric is one of RangeCheck's metrics
+    // Postcondition: Returns the mean of the bucket's readings for that metric
+    public float avg(int index, int metric) {
+        int s = slot(index);
+        return (float) sum[s * METRICS + metric] / count[s];
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the index of the bucket with this key, or
+     * (-(insertion index) - 1) if there is none – like Arrays.binarySearch.
+     */
+    public int indexOf(long bucketKey) {
+        int lo = 0, hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = key[slot(mid)];
+            if (k < bucketKey) lo = mid + 1;
+            else if (k > bucketKey) hi = mid - 1;
+            else return mid;
+        }
+        return -lo - 1;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Persistence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: out is open
+    // Postcondition: The buckets are written oldest first
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(bucketMillis);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            int s = slot(i);
+            out.writeLong(key[s]);
+            out.writeInt(count[s]);
+            for (int m = 0; m < METRICS; m++) {
+                out.writeInt(min[s * METRICS + m]);
+                out.writeInt(max[s * METRICS + m]);
+                out.writeLong(sum[s * METRICS + m]);
+            }
+        }
+    }
+
+    /**
+     * Precondition: in is positioned at data written by writeTo().
+     * Postcondition: This rollup holds the newest min(capacity, stored) buckets.
+     * Throws IOException if the stored bucket width doesn't match this rollup's.
+     */
+    void readFrom(DataInputStream in) throws IOException {
+        long storedWidth = in.readLong();
+        if (storedWidth != bucketMillis) throw new IOException("bucket width " + storedWidth + " != " + bucketMillis);
+        clear();
+        int stored = in.readInt();
+        for (int i = 0; i < stored; i++) {
+            int s = openBucket(in.readLong());
+            count[s] = in.readInt();
+            for (int m = 0; m < METRICS; m++) {
+                min[s * METRICS + m] = in.readInt();
+                max[s * METRICS + m] = in.readInt();
+                sum[s * METRICS + m] = in.readLong();
+            }
+        }
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    private void accumulate(int s, int temp, int groundHumid, int airHumid) {
+        int base = s * METRICS;
+        boolean first = count[s] == 0;
+        count[s]++;
+        put(base + RangeCheck.TEMP,         temp,        first);
+        put(base + RangeCheck.GROUND_HUMID, groundHumid, first);
+        put(base + RangeCheck.AIR_HUMID,    airHumid,    first);
+    }
+
+    private void put(int i, int v, boolean first) {
+        if (first || v < min[i]) min[i] = v;
+        if (first || v > max[i]) max[i] = v;
+        sum[i] = first ? v : sum[i] + v;
+    }
+
+    // Appends an empty bucket as the newest, dropping the oldest when full
+    private int openBucket(long k) {
+        int s = next;
+        key[s]   = k;
+        count[s] = 0;
+        next = s + 1 == capacity ? 0 : s + 1;
+        if (size < capacity) size++;
+        return s;
+    }
+
+    // Inserts an empty bucket at logical index (rare: a late reading for a missing
+    // hour). Shifts newer buckets up by one; when full, the oldest is dropped.
+    private int insertAt(int index, long k) {
+        if (size == capacity) {
+            // Drop the oldest bucket; everything moves down one index
+            size--;
+            index--;
+        }
+        openBucket(0);   // grows size by one at the newest end
+        for (int i = size - 1; i > index; i--) copyBucket(slot(i - 1), slot(i));
+        int s = slot(index);
+        key[s]   = k;
+        count[s] = 0;
+        return index;
+    }
+
+    private void copyBucket(int from, int to) {
+        key[to]   = key[from];
+        count[to] = count[from];
+        System.arraycopy(min, from * METRICS, min, to * METRICS, METRICS);
+        System.arraycopy(max, from * METRICS, max, to * METRICS, METRICS);
+        System.arraycopy(sum, from * METRICS, sum, to * METRICS, METRICS);
+    }
+
+    private int newestSlot() {
+        return next == 0 ? capacity - 1 : next - 1;
+    }
+
+    private int slot(int index) {
+        int s = next - size + index;
+        if (s < 0) s += capacity;
+        return s < capacity ? s : s - capacity;
+    }
+}
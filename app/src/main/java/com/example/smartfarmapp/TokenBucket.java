@@ -0,0 +1,70 @@
+package com.example.smartfarmapp;
+
+/**
+ * TokenBucket
+ * ────────────
+ * Classic token-bucket rate limiter.
+ *
+ * The bucket holds at most {@code capacity} tokens and refills continuously at
+ * {@code refillPerMinute}. Every request takes one token; when the bucket is
+ * empty the request is refused. A full bucket lets a short burst through
+ * (e.g. opening the app fires several GETs at once) while the refill rate
+ * caps the long-term average.
+ */
+public class TokenBucket {
+
+    private final int    capacity;
+    private final double refillPerMs;
+
+    private double tokens;
+    private long   lastRefillMs;
+
+    // Precondition: capacity >= 1, refillPerMinute > 0
+    // Postcondition: A new, full bucket is created
+    public TokenBucket(int capacity, double refillPerMinute) {
+        this.capacity     = capacity;
+        this.refillPerMs  = refillPerMinute / 60_000.0;
+        this.tokens       = capacity;
+        this.lastRefillMs = now();
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns true and removes one token if one is available, false otherwise.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the number of whole tokens currently available
+    public synchronized int available() {
+        refill();
+        return (int) tokens;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the maximum number of tokens the bucket holds
+    public int getCapacity() { return capacity; }
+
+    // Precondition: None
+    // Postcondition: Returns the refill rate in tokens per minute
+    public double getRefillPerMinute() { return refillPerMs * 60_000.0; }
+
+    // Precondition: None
+    // Postcondition: tokens is topped up for the time elapsed since the last refill, capped at capacity
+    private void refill() {
+        long nowMs = now();
+        tokens       = Math.min(capacity, tokens + (nowMs - lastRefillMs) * refillPerMs);
+        lastRefillMs = nowMs;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
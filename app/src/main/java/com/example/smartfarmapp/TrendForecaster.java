@@ -0,0 +1,209 @@
+package com.example.smartfarmapp;
+
+import java.util.Arrays;
+
+/**
+ * TrendForecaster
+ * ────────────────
+ * Early warnings: "ground humidity will drop below its minimum in about 3 h"
+ * while the reading is still in range, so there is time to irrigate before
+ * the crop is stressed.
+ *
+ * HOW IT PREDICTS – Holt's linear smoothing, per metric:
+ *   level  – a smoothed current value   (alpha: how fast it follows readings)
+ *   trend  – a smoothed change/minute   (beta:  how fast the slope adapts)
+ * Both are updated once per reading in O(1); nothing else is kept. Readings
+ * need not be evenly spaced: the smoothing factors are scaled to the time
+ * since the previous reading.
+ *
+ * TIME TO BREACH: the straight line level + trend × t is followed to the
+ * allowed min (falling) or max (rising). If the line reaches the next sunrise
+ * or sunset first, the rest of it is checked against the other period's range –
+ * so the normal evening cool-down is not mistaken for a day-minimum breach.
+ *
+ * A warning is raised for a metric when the predicted breach stays within the
+ * horizon for `confirm` readings in a row; it is raised once, and can be raised
+ * again only after the prediction has moved beyond twice the horizon (or the
+ * value has left the range – from then on AlertStateMachine is in charge).
+ *
+ * Not thread-safe. Pure Java (no Android classes).
+ */
+public final class TrendForecaster {
+
+    /**
+     * Tuning. Immutable; start from defaults() and change what you need with the
+     * with… methods.
+     */
+    public static final class Config {
+        final double alpha;
+        final double beta;
+        final long   horizonMillis;
+        final int    warmUp;
+        final int    confirm;
+        final long   maxGapMillis;
+
+        private Config(double alpha, double beta, long horizonMillis, int warmUp, int confirm, long maxGapMillis) {
+            this.alpha         = alpha;
+            this.beta          = beta;
+            this.horizonMillis = horizonMillis;
+            this.warmUp        = warmUp;
+            this.confirm       = confirm;
+            this.maxGapMillis  = maxGapMillis;
+        }
+
+        /**
+         * alpha 0.1 and beta 0.02 per one-minute step, warn 4 hours ahead, after
+         * 30 readings of warm-up and 5 agreeing predictions; a gap over 30 minutes
+         * starts the trend afresh.
+         */
+        public static Config defaults() {
+            return new Config(0.1, 0.02, 4 * 60 * 60_000L, 30, 5, 30 * 60_000L);
+        }
+
+        // Precondition: 0 < alpha <= 1, 0 < beta <= 1
+        public Config withSmoothing(double alpha, double beta) {
+            return new Config(alpha, beta, horizonMillis, warmUp, confirm, maxGapMillis);
+        }
+
+        // Precondition: horizonMillis > 0 and under 12 hours
+        public Config withHorizon(long horizonMillis) {
+            return new Config(alpha, beta, horizonMillis, warmUp, confirm, maxGapMillis);
+        }
+
+        // Precondition: warmUp >= 2, confirm >= 1
+        public Config withWarmUp(int warmUp, int confirm) {
+            return new Config(alpha, beta, horizonMillis, warmUp, confirm, maxGapMillis);
+        }
+    }
+
+    /** Stands for "no breach predicted" in minutesToBreach(). */
+    public static final double NEVER = Double.POSITIVE_INFINITY;
+
+    private static final int    METRICS   = RangeCheck.METRIC_COUNT;
+    private static final double MINUTE_MS = 60_000.0;
+
+    private final Config config;
+
+    // Per metric
+    private final double[]  level     = new double[METRICS];
+    private final double[]  trend     = new double[METRICS];   // per minute
+    private final double[]  toBreach  = new double[METRICS];   // minutes, NEVER if none
+    private final int[]     streak    = new int[METRICS];      // predictions within the horizon in a row
+    private final boolean[] warned    = new boolean[METRICS];
+
+    private int  count;
+    private long lastEpochMillis = Long.MIN_VALUE;
+
+    // Precondition: config is not null
+    // Postcondition: An empty forecaster (nothing learnt yet) is created
+    public TrendForecaster(Config config) {
+        this.config = config;
+        Arrays.fill(toBreach, NEVER);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Evaluate
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * O(1) per reading, no allocation.
+     *
+     * Precondition: veg is not null; readings arrive oldest first.
+     * Postcondition: Returns a mask with bit (1 << metric) set for each metric whose
+     * early warning fires with this reading (0 for a reading not newer than the last).
+     */
+    public int evaluate(long epochMillis, int temp, int groundHumid, int airHumid, Vegetation veg) {
+        if (epochMillis == FarmTime.NO_TIME || epochMillis <= lastEpochMillis) return 0;
+        boolean restart = count == 0 || epochMillis - lastEpochMillis > config.maxGapMillis;
+        double  minutes = restart ? 0 : (epochMillis - lastEpochMillis) / MINUTE_MS;
+        lastEpochMillis = epochMillis;
+        count = restart ? 1 : count + 1;
+
+        boolean isDay    = FarmTime.isDayTime(epochMillis);
+        double  toChange = (FarmTime.nextDayNightChange(epochMillis) - epochMillis) / MINUTE_MS;
+
+        int fired = 0;
+        fired |= step(RangeCheck.TEMP,         temp,        minutes, restart, veg, isDay, toChange);
+        fired |= step(RangeCheck.GROUND_HUMID, groundHumid, minutes, restart, veg, isDay, toChange);
+        fired |= step(RangeCheck.AIR_HUMID,    airHumid,    minutes, restart, veg, isDay, toChange);
+        return fired;
+    }
+
+    private int step(int m, int value, double minutes, boolean restart,
+                     Vegetation veg, boolean isDay, double toChange) {
+        if (restart) {
+            level[m]    = value;
+            trend[m]    = 0;
+            toBreach[m] = NEVER;
+            streak[m]   = 0;
+            return 0;
+        }
+
+        // Holt update, with the factors scaled to the step length
+        double a = 1 - Math.pow(1 - config.alpha, minutes);
+        double b = 1 - Math.pow(1 - config.beta,  minutes);
+        double predicted = level[m] + trend[m] * minutes;
+        double newLevel  = predicted + a * (value - predicted);
+        trend[m] += b * ((newLevel - level[m]) / minutes - trend[m]);
+        level[m]  = newLevel;
+
+        // Already out of range: that's an alert, not a forecast
+        if (!RangeCheck.inRange(value, veg, m, isDay)) {
+            toBreach[m] = NEVER;
+            streak[m]   = 0;
+            warned[m]   = false;
+            return 0;
+        }
+
+        toBreach[m] = count < config.warmUp ? NEVER : minutesToBreach(m, veg, isDay, toChange);
+        double horizon = config.horizonMillis / MINUTE_MS;
+        if (toBreach[m] > 2 * horizon) warned[m] = false;
+        streak[m] = toBreach[m] <= horizon ? streak[m] + 1 : 0;
+
+        if (!warned[m] && streak[m] >= config.confirm) {
+            warned[m] = true;
+            return 1 << m;
+        }
+        return 0;
+    }
+
+    // Follows level + trend × t through the current period and, if needed, the next
+    private double minutesToBreach(int m, Vegetation veg, boolean isDay, double toChange) {
+        double first = crossing(level[m], trend[m], RangeCheck.min(veg, m, isDay), RangeCheck.max(veg, m, isDay));
+        if (first <= toChange) return first;
+        double atChange = level[m] + trend[m] * toChange;
+        double second = crossing(atChange, trend[m], RangeCheck.min(veg, m, !isDay), RangeCheck.max(veg, m, !isDay));
+        return second == NEVER ? NEVER : toChange + second;
+    }
+
+    // Minutes until a line starting at `from` with slope `slope` leaves [lo, hi]
+    private static double crossing(double from, double slope, double lo, double hi) {
+        if (slope < 0) return from <= lo ? 0 : (from - lo) / -slope;
+        if (slope > 0) return from >= hi ? 0 : (hi - from) / slope;
+        return NEVER;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Reading
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the predicted minutes until the value leaves its range, or NEVER
+    public double minutesToBreach(int metric) { return toBreach[metric]; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns true if the predicted breach is above the max (false = below the min)
+    public boolean isRising(int metric) { return trend[metric] > 0; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the smoothed current value
+    public double level(int metric) { return level[metric]; }
+
+    // Precondition: metric is a RangeCheck metric
+    // Postcondition: Returns the smoothed change per hour
+    public double trendPerHour(int metric) { return trend[metric] * 60; }
+
+    // Precondition: None
+    // Postcondition: Returns the newest reading time evaluated (Long.MIN_VALUE if none)
+    public long lastEpochMillis() { return lastEpochMillis; }
+}
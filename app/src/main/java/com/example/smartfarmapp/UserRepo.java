@@ -1,10 +1,5 @@
 package com.example.smartfarmapp;
 
-import android.util.Log;
-
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
 import java.util.List;
 
 public class UserRepo extends BaseRepo {
@@ -26,14 +21,18 @@ public class UserRepo extends BaseRepo {
      * Postcondition: Calls callback.onSuccess with User if found, or callback.onFailure if not found or on error.
      */
     public void getUser(String email, String password, GetUserCallback callback) {
-        String url = USER_URL + "?email=eq." + email + "&password=eq." + password + "&select=*";
+        // Values are URL-encoded by PostgrestQuery, so emails like "a+b@x.com" work.
+        String url = PostgrestQuery.from(USER_URL)
+                .eq("email", email)
+                .eq("password", password)
+                .limit(1)
+                .build();
 
         // executeGet handles: building auth headers, async enqueue, main-thread delivery
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Type listType = new TypeToken<List<User>>() {}.getType();
-                List<User> users = gson.fromJson(json, listType);
+                List<User> users = gson.fromJson(json, ModelJson.USER_LIST);
 
                 if (users != null && !users.isEmpty()) {
                     callback.onSuccess(users.get(0)); // User found, login succeeds
@@ -44,7 +43,7 @@ public class UserRepo extends BaseRepo {
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "getUser failed", e);
+                AppLog.e(TAG, "getUser failed", e);
                 callback.onFailure(e);
             }
         });
@@ -1,11 +1,7 @@
 package com.example.smartfarmapp;
 
-import android.util.Log;
-
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
 
 /**
  * UserVegetationRepo
@@ -21,12 +17,18 @@ import java.util.List;
  * "deactivate old, activate new" sequence in setActiveVegetation() can never
  * leave two rows active even if a step fails midway — the DB will reject
  * a duplicate active row outright.
+ *
+ * The row's date is when the vegetation was linked, and is never changed.
+ * Every activation is also appended to UserVegetationActivation (one row per
+ * "Set Active", never updated), so switching A → B → A keeps all three
+ * periods; buildTimeline() turns that history into a ProfileTimeline.
  */
 public class UserVegetationRepo extends BaseRepo {
 
     private static final String TAG            = "UserVegetationRepo";
     private static final String USER_VEG_URL   = SUPABASE_URL + "/rest/v1/UserVegetation";
     private static final String VEGETATION_URL = SUPABASE_URL + "/rest/v1/Vegetationtbl";
+    private static final String ACTIVATION_URL = SUPABASE_URL + "/rest/v1/UserVegetationActivation";
 
     // ── Inner model ───────────────────────────────────────────────────────────
     /**
@@ -49,6 +51,24 @@ public class UserVegetationRepo extends BaseRepo {
         }
     }
 
+    /**
+     * Mirrors the UserVegetationActivation table: one row per activation, in the
+     * order they happened. VegetationID is null once the profile is deleted.
+     */
+    public static class ActivationRow {
+        public Long   ActivationID;
+        public Long   UserID;
+        public Long   VegetationID;
+        public String activatedAt;
+
+        public ActivationRow() {}
+
+        public ActivationRow(Long userID, Long vegetationID) {
+            this.UserID       = userID;
+            this.VegetationID = vegetationID;
+        }
+    }
+
     // ── Callback interfaces ───────────────────────────────────────────────────
     public interface ActiveVegetationCallback {
         /** Called with the Vegetation object, or {@code null} if none is active for this user. */
@@ -62,6 +82,12 @@ public class UserVegetationRepo extends BaseRepo {
         void onFailure(Exception e);
     }
 
+    public interface ActivationListCallback {
+        /** Called with this user's activations, oldest first (may be empty). */
+        void onSuccess(List<ActivationRow> rows);
+        void onFailure(Exception e);
+    }
+
     public interface AddLinkCallback extends RepoCallBack<Void> {}
     public interface SetActiveCallback extends RepoCallBack<Void> {}
 
@@ -78,30 +104,33 @@ public class UserVegetationRepo extends BaseRepo {
      * full Vegetation object, and calls callback.
      */
     public void fetchActiveVegetation(int userId, ActiveVegetationCallback callback) {
-        String url = USER_VEG_URL + "?UserID=eq." + userId + "&isActive=eq.true&limit=1";
-        Log.d(TAG, "Fetching active UserVegetation: " + url);
+        String url = PostgrestQuery.from(USER_VEG_URL)
+                .select("UserVegID", "VegetationID")
+                .eq("UserID", userId)
+                .eq("isActive", true)
+                .limit(1)
+                .build();
+        AppLog.d(TAG, "Fetching active UserVegetation: ", url);
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Log.d(TAG, "UserVegetation JSON: " + json);
-                Type listType = new TypeToken<List<UserVegetationRow>>() {}.getType();
-                List<UserVegetationRow> rows = gson.fromJson(json, listType);
+                List<UserVegetationRow> rows = gson.fromJson(json, ModelJson.USER_VEGETATION_LIST);
 
                 if (rows == null || rows.isEmpty()) {
-                    Log.d(TAG, "No active UserVegetation row for userId=" + userId);
+                    AppLog.d(TAG, "No active UserVegetation row for userId=", userId);
                     callback.onSuccess(null);
                     return;
                 }
 
                 long vegId = rows.get(0).VegetationID;
-                Log.d(TAG, "Found active VegetationID=" + vegId + ", fetching full record…");
+                AppLog.d(TAG, "Found active VegetationID, fetching full record: ", vegId);
                 fetchVegetationById(vegId, callback);
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "Active UserVegetation fetch failed", e);
+                AppLog.e(TAG, "Active UserVegetation fetch failed", e);
                 callback.onFailure(e);
             }
         });
@@ -115,25 +144,83 @@ public class UserVegetationRepo extends BaseRepo {
      * or callback.onFailure on error.
      */
     public void fetchUserVegetationRows(int userId, UserVegetationListCallback callback) {
-        String url = USER_VEG_URL + "?UserID=eq." + userId + "&order=date.desc";
-        Log.d(TAG, "Fetching all UserVegetation rows: " + url);
+        String url = PostgrestQuery.from(USER_VEG_URL)
+                .eq("UserID", userId)
+                .order("date", false)
+                .build();
+        AppLog.d(TAG, "Fetching all UserVegetation rows: ", url);
+
+        executeGet(TAG, url, new RawCallback() {
+            @Override
+            public void onSuccess(String json) {
+                List<UserVegetationRow> rows = gson.fromJson(json, ModelJson.USER_VEGETATION_LIST);
+                callback.onSuccess(rows);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                AppLog.e(TAG, "fetchUserVegetationRows failed", e);
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Fetches the user's activation history (UserVegetationActivation), oldest first.
+     *
+     * Precondition: userId is valid and callback is not null.
+     * Postcondition: Calls callback.onSuccess with the activations (ties in time
+     * keep the order they were recorded in), or callback.onFailure on error.
+     */
+    public void fetchActivations(int userId, ActivationListCallback callback) {
+        String url = PostgrestQuery.from(ACTIVATION_URL)
+                .select("ActivationID", "VegetationID", "activatedAt")
+                .eq("UserID", userId)
+                .order("activatedAt", true)
+                .order("ActivationID", true)
+                .build();
+        AppLog.d(TAG, "Fetching activation history: ", url);
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Type listType = new TypeToken<List<UserVegetationRow>>() {}.getType();
-                List<UserVegetationRow> rows = gson.fromJson(json, listType);
+                List<ActivationRow> rows = gson.fromJson(json, ModelJson.ACTIVATION_LIST);
                 callback.onSuccess(rows);
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "fetchUserVegetationRows failed", e);
+                AppLog.e(TAG, "fetchActivations failed", e);
                 callback.onFailure(e);
             }
         });
     }
 
+    /**
+     * Turns the user's activations into "which profile was active when".
+     *
+     * Each activation starts a period that lasts until the next one; the last
+     * is the current profile. The same vegetation may appear any number of
+     * times (A → B → A is three periods).
+     *
+     * Precondition: rows is not null and in the order they were recorded;
+     * vegetationsById maps VegetationID to the full Vegetation (a missing id is
+     * a deleted profile – its period gets null).
+     * Postcondition: Returns the timeline; rows without a readable time are skipped.
+     */
+    public static ProfileTimeline buildTimeline(List<ActivationRow> rows, Map<Long, Vegetation> vegetationsById) {
+        int used = 0;
+        ProfileTimeline.Builder builder = new ProfileTimeline.Builder();
+        for (ActivationRow row : rows) {
+            long at = FarmTime.instantToEpochMillis(row.activatedAt);   // timestamptz: keep its offset
+            if (at == FarmTime.NO_TIME) continue;
+            builder.add(at, row.VegetationID == null ? null : vegetationsById.get(row.VegetationID));
+            used++;
+        }
+        AppLog.d(TAG, "Profile timeline rows used: ", used);
+        return builder.build();
+    }
+
     // ── Private step 2 of fetchActiveVegetation ─────────────────────────────
 
     /**
@@ -141,28 +228,29 @@ public class UserVegetationRepo extends BaseRepo {
      * Postcondition: Fetches full Vegetation data from Supabase and calls callback.onSuccess with the object or callback.onFailure on error.
      */
     private void fetchVegetationById(long vegetationId, ActiveVegetationCallback callback) {
-        String url = VEGETATION_URL + "?id=eq." + vegetationId;
+        String url = PostgrestQuery.from(VEGETATION_URL)
+                .eq("id", vegetationId)
+                .limit(1)
+                .build();
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Log.d(TAG, "Vegetation JSON: " + json);
-                Type listType = new TypeToken<List<Vegetation>>() {}.getType();
-                List<Vegetation> list = gson.fromJson(json, listType);
+                List<Vegetation> list = gson.fromJson(json, ModelJson.VEGETATION_LIST);
 
                 if (list == null || list.isEmpty()) {
-                    Log.w(TAG, "No Vegetation found for id=" + vegetationId);
+                    AppLog.w(TAG, "No Vegetation found for id=" + vegetationId);
                     callback.onSuccess(null);
                 } else {
                     Vegetation veg = list.get(0);
-                    Log.d(TAG, "Active vegetation: " + veg.getName());
+                    AppLog.d(TAG, "Active vegetation: ", veg.getName());
                     callback.onSuccess(veg);
                 }
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "Vegetation by ID fetch failed", e);
+                AppLog.e(TAG, "Vegetation by ID fetch failed", e);
                 callback.onFailure(e);
             }
         });
@@ -185,45 +273,84 @@ public class UserVegetationRepo extends BaseRepo {
     public void addUserVegetation(long userId, long vegetationId, AddLinkCallback callback) {
         UserVegetationRow row = new UserVegetationRow(userId, vegetationId, false);
         String jsonBody = gson.toJson(row);
-        Log.d(TAG, "Linking vegetation to user: " + jsonBody);
+        AppLog.dBody(TAG, "Linking vegetation to user: ", jsonBody);
         // preferMinimal = true → we only need a 201 confirmation
         executePost(TAG, USER_VEG_URL, jsonBody, true, callback);
     }
 
     /**
      * Sets the given vegetation as the active one for this user, deactivating
-     * any previously active vegetation first. Two-step sequence:
+     * any previously active vegetation first. Three-step sequence:
      *   1. PATCH all of this user's rows to isActive=false
-     *   2. PATCH the target row to isActive=true
-     * Step 2 only runs if step 1 succeeds. The database's partial unique index
+     *   2. PATCH the target row to isActive=true (its link date is left alone)
+     *   3. POST a new UserVegetationActivation row – the history ProfileTimeline
+     *      is built from. Appended, never updated, so earlier periods survive.
+     * Each step only runs if the one before succeeds. The database's partial unique index
      * (uq_one_active_vegetation_per_user) guarantees step 2 can never result in
      * two active rows, even if this method is called concurrently from two places.
+     * If step 3 fails the profile is active but its period is missing from the
+     * history, so the failure is reported and the user can simply set it again.
      *
      * Precondition: userId is valid, userVegId is the UserVegID of the row to activate
-     * (NOT the VegetationID), callback is not null.
+     * (NOT the VegetationID) and vegetationId is that row's VegetationID, callback is not null.
      * Postcondition: Exactly one UserVegetation row for this user has isActive=true
-     * on success. Calls callback.onSuccess(null) or callback.onFailure on error.
+     * and the activation is recorded on success. Calls callback.onSuccess(null) or
+     * callback.onFailure on error.
      */
-    public void setActiveVegetation(long userId, long userVegId, SetActiveCallback callback) {
-        String deactivateUrl = USER_VEG_URL + "?UserID=eq." + userId;
+    public void setActiveVegetation(long userId, long userVegId, long vegetationId, SetActiveCallback callback) {
+        String deactivateUrl = PostgrestQuery.from(USER_VEG_URL).eq("UserID", userId).build();
         String deactivateBody = "{\"isActive\": false}";
 
-        Log.d(TAG, "Deactivating all UserVegetation rows for userId=" + userId);
+        AppLog.d(TAG, "Deactivating all UserVegetation rows for userId=", userId);
         executePatch(TAG, deactivateUrl, deactivateBody, new RepoCallBack<Void>() {
             @Override
             public void onSuccess(Void unused) {
-                String activateUrl  = USER_VEG_URL + "?UserVegID=eq." + userVegId;
+                String activateUrl  = PostgrestQuery.from(USER_VEG_URL).eq("UserVegID", userVegId).build();
                 String activateBody = "{\"isActive\": true}";
 
-                Log.d(TAG, "Activating UserVegID=" + userVegId);
-                executePatch(TAG, activateUrl, activateBody, callback);
+                AppLog.d(TAG, "Activating UserVegID=", userVegId);
+                executePatch(TAG, activateUrl, activateBody, new RepoCallBack<Void>() {
+                    @Override
+                    public void onSuccess(Void unused) {
+                        recordActivation(userId, vegetationId, callback);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                AppLog.e(TAG, "Failed to deactivate existing active vegetation", e);
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    // ── Private step 3 of setActiveVegetation ───────────────────────────────
+
+    /**
+     * Precondition: userId and vegetationId are valid IDs, callback is not null.
+     * Postcondition: Inserts one UserVegetationActivation row (activatedAt comes
+     * from the database clock) and calls callback.
+     */
+    private void recordActivation(long userId, long vegetationId, SetActiveCallback callback) {
+        String jsonBody = gson.toJson(new ActivationRow(userId, vegetationId));
+        AppLog.dBody(TAG, "Recording activation: ", jsonBody);
+        executePost(TAG, ACTIVATION_URL, jsonBody, true, new RepoCallBack<Void>() {
+            @Override
+            public void onSuccess(Void unused) {
+                callback.onSuccess(null);
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "Failed to deactivate existing active vegetation", e);
+                AppLog.e(TAG, "Profile activated, but the activation was not recorded", e);
                 callback.onFailure(e);
             }
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * UserVegetationRowTypeAdapter
+ * ─────────────────────────────
+ * Streaming Gson adapter for UserVegetationRepo.UserVegetationRow
+ * (columns UserVegID, UserID, VegetationID, date, isActive).
+ * Null fields are not written, so a new link row gets its UserVegID and
+ * date from the database.
+ */
+public class UserVegetationRowTypeAdapter extends TypeAdapter<UserVegetationRepo.UserVegetationRow> {
+
+    // Precondition: out is a valid JsonWriter
+    // Postcondition: Writes the row as a JSON object without its null fields (or JSON null)
+    @Override
+    public void write(JsonWriter out, UserVegetationRepo.UserVegetationRow row) throws IOException {
+        if (row == null) { out.nullValue(); return; }
+        out.beginObject();
+        if (row.UserVegID != null)    out.name("UserVegID").value(row.UserVegID);
+        if (row.UserID != null)       out.name("UserID").value(row.UserID);
+        if (row.VegetationID != null) out.name("VegetationID").value(row.VegetationID);
+        if (row.date != null)         out.name("date").value(row.date);
+        if (row.isActive != null)     out.name("isActive").value(row.isActive);
+        out.endObject();
+    }
+
+    // Precondition: in is positioned at a JSON object or null
+    // Postcondition: Returns the parsed row, or null for JSON null
+    @Override
+    public UserVegetationRepo.UserVegetationRow read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        UserVegetationRepo.UserVegetationRow row = new UserVegetationRepo.UserVegetationRow();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "UserVegID":    row.UserVegID    = JsonValues.nextLongOrNull(in);    break;
+                case "UserID":       row.UserID       = JsonValues.nextLongOrNull(in);    break;
+                case "VegetationID": row.VegetationID = JsonValues.nextLongOrNull(in);    break;
+                case "date":         row.date         = JsonValues.nextStringOrNull(in);  break;
+                case "isActive":     row.isActive     = JsonValues.nextBooleanOrNull(in); break;
+                default:             in.skipValue();
+            }
+        }
+        in.endObject();
+        return row;
+    }
+}
@@ -31,6 +31,21 @@ public class Vegetation {
     private float nightAirHumidMin;
     private float nightAirHumidMax;
 
+    // Optional limits on the derived metrics (see DerivedMetrics, GrowingDegreeDays),
+    // set in the profile dialog; the Supabase columns come from
+    // supabase/migrations/20261019000000_vegetation_derived_limits.sql.
+    // Float, not float: null means "not set". The service alerts on the VPD and
+    // dew point limits (as rules, AlertRules.textFor()); GDD is shown on the label.
+    private Float vpdMin;        // kPa
+    private Float vpdMax;        // kPa
+    private Float dewPointMax;   // °C
+    private Float gddBase;       // °C – growing degree days are counted above this
+    private Float gddTarget;     // degree-days from planting to harvest
+
+    // Optional compound alert rules, one per line, e.g.
+    // "Fungus risk: airHumid > 85 and temp < 18 for 30m" – see AlertRules for the syntax.
+    private String rules;
+
     // A no-argument constructor is required for Gson and your MainFragment.
     // Precondition: None
     // Postcondition: A new empty Vegetation object is created
@@ -216,4 +231,78 @@ public class Vegetation {
     public float getNightAirHumidMax() {
         return nightAirHumidMax;
     }
-}
\ No newline at end of file
+
+    // ── Derived-metric limits (null = not set) ────────────────────────────────
+
+    // Precondition: None
+    // Postcondition: Returns the lowest allowed VPD in kPa, or null
+    public Float getVpdMin() {
+        return vpdMin;
+    }
+
+    // Precondition: vpdMin is null or >= 0
+    // Postcondition: The vegetation's vpdMin is updated
+    public void setVpdMin(Float vpdMin) {
+        this.vpdMin = vpdMin;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the highest allowed VPD in kPa, or null
+    public Float getVpdMax() {
+        return vpdMax;
+    }
+
+    // Precondition: vpdMax is null or >= 0
+    // Postcondition: The vegetation's vpdMax is updated
+    public void setVpdMax(Float vpdMax) {
+        this.vpdMax = vpdMax;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the highest allowed dew point in °C, or null
+    public Float getDewPointMax() {
+        return dewPointMax;
+    }
+
+    // Precondition: None
+    // Postcondition: The vegetation's dewPointMax is updated
+    public void setDewPointMax(Float dewPointMax) {
+        this.dewPointMax = dewPointMax;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the growing-degree-day base temperature in °C, or null
+    public Float getGddBase() {
+        return gddBase;
+    }
+
+    // Precondition: None
+    // Postcondition: The vegetation's gddBase is updated
+    public void setGddBase(Float gddBase) {
+        this.gddBase = gddBase;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the degree-days needed to reach harvest, or null
+    public Float getGddTarget() {
+        return gddTarget;
+    }
+
+    // Precondition: gddTarget is null or > 0
+    // Postcondition: The vegetation's gddTarget is updated
+    public void setGddTarget(Float gddTarget) {
+        this.gddTarget = gddTarget;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the compound alert rules text, or null if there are none
+    public String getRules() {
+        return rules;
+    }
+
+    // Precondition: rules is null or compiles with AlertRules.compile()
+    // Postcondition: The vegetation's rules are updated
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+}
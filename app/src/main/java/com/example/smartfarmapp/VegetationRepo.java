@@ -1,10 +1,5 @@
 package com.example.smartfarmapp;
 
-import android.util.Log;
-
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
 import java.util.List;
 
 /**
@@ -24,6 +19,7 @@ public class VegetationRepo extends BaseRepo {
 
     // ── Callback interfaces ───────────────────────────────────────────────────
     public interface FetchVegetationsCallback extends RepoCallBack<List<Vegetation>> {}
+    public interface FetchVegetationCallback  extends RepoCallBack<Vegetation> {}
     public interface AddVegetationCallback    extends RepoCallBack<Void> {}
     public interface UpdateVegetationCallback extends RepoCallBack<Void> {}
     public interface DeleteVegetationCallback extends RepoCallBack<Void> {}
@@ -39,21 +35,80 @@ public class VegetationRepo extends BaseRepo {
      * or callback.onFailure on error.
      */
     public void fetchVegetationsForUser(long userId, FetchVegetationsCallback callback) {
-        String url = VEGETATION_URL + "?UserID=eq." + userId + "&select=*";
+        String url = PostgrestQuery.from(VEGETATION_URL)
+                .eq("UserID", userId)
+                .build();
 
         executeGet(TAG, url, new RawCallback() {
             @Override
             public void onSuccess(String json) {
-                Log.d(TAG, "Vegetation JSON: " + json);
-                Type listType = new TypeToken<List<Vegetation>>() {}.getType();
-                List<Vegetation> vegetations = gson.fromJson(json, listType);
-                Log.d(TAG, "Parsed vegetations: " + vegetations);
+                List<Vegetation> vegetations = gson.fromJson(json, ModelJson.VEGETATION_LIST);
+                AppLog.d(TAG, "Parsed vegetations: ", vegetations.size());
                 callback.onSuccess(vegetations);
             }
 
             @Override
             public void onFailure(Exception e) {
-                Log.e(TAG, "fetchVegetationsForUser failed", e);
+                AppLog.e(TAG, "fetchVegetationsForUser failed", e);
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Lightweight version of fetchVegetationsForUser() for pickers: only
+     * {@code id} and {@code name} are fetched, every threshold stays 0.
+     * Load the full row with fetchVegetationById() once one is chosen.
+     *
+     * Precondition: userId is valid and callback is not null.
+     * Postcondition: Calls callback.onSuccess with this user's vegetations (id + name only),
+     * ordered by id, or callback.onFailure on error.
+     */
+    public void fetchVegetationSummariesForUser(long userId, FetchVegetationsCallback callback) {
+        String url = PostgrestQuery.from(VEGETATION_URL)
+                .select("id", "name")
+                .eq("UserID", userId)
+                .order("id", true)
+                .build();
+
+        executeGet(TAG, url, new RawCallback() {
+            @Override
+            public void onSuccess(String json) {
+                List<Vegetation> summaries = gson.fromJson(json, ModelJson.VEGETATION_LIST);
+                callback.onSuccess(summaries);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                AppLog.e(TAG, "fetchVegetationSummariesForUser failed", e);
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Fetches one complete Vegetation row (all thresholds).
+     *
+     * Precondition: vegetationId is a valid ID and callback is not null.
+     * Postcondition: Calls callback.onSuccess with the Vegetation, or with null if no
+     * such row exists, or callback.onFailure on error.
+     */
+    public void fetchVegetationById(long vegetationId, FetchVegetationCallback callback) {
+        String url = PostgrestQuery.from(VEGETATION_URL)
+                .eq("id", vegetationId)
+                .limit(1)
+                .build();
+
+        executeGet(TAG, url, new RawCallback() {
+            @Override
+            public void onSuccess(String json) {
+                List<Vegetation> list = gson.fromJson(json, ModelJson.VEGETATION_LIST);
+                callback.onSuccess(list == null || list.isEmpty() ? null : list.get(0));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                AppLog.e(TAG, "fetchVegetationById failed", e);
                 callback.onFailure(e);
             }
         });
@@ -73,13 +128,13 @@ public class VegetationRepo extends BaseRepo {
      */
     public void addVegetation(Vegetation vegetation, AddVegetationCallback callback) {
         if (vegetation.getUserID() == null) {
-            Log.e(TAG, "addVegetation called without UserID set – aborting to avoid an orphaned row");
+            AppLog.e(TAG, "addVegetation called without UserID set – aborting to avoid an orphaned row");
             callback.onFailure(new IllegalArgumentException(
                     "Vegetation.UserID must be set before calling addVegetation()"));
             return;
         }
         String jsonBody = gson.toJson(vegetation);
-        Log.d(TAG, "Adding Vegetation JSON: " + jsonBody);
+        AppLog.dBody(TAG, "Adding Vegetation JSON: ", jsonBody);
         // preferMinimal = false → Supabase will echo the created row (useful for getting the new id)
         executePost(TAG, VEGETATION_URL, jsonBody, false, callback);
     }
@@ -94,9 +149,9 @@ public class VegetationRepo extends BaseRepo {
      * Postcondition: Calls callback.onSuccess(null) if update is successful, or callback.onFailure on error.
      */
     public void updateVegetation(Vegetation vegetation, UpdateVegetationCallback callback) {
-        String url      = VEGETATION_URL + "?id=eq." + vegetation.getId();
+        String url      = PostgrestQuery.from(VEGETATION_URL).eq("id", vegetation.getId()).build();
         String jsonBody = gson.toJson(vegetation);
-        Log.d(TAG, "Updating Vegetation JSON: " + jsonBody);
+        AppLog.dBody(TAG, "Updating Vegetation JSON: ", jsonBody);
         executePatch(TAG, url, jsonBody, callback);
     }
 
@@ -107,8 +162,8 @@ public class VegetationRepo extends BaseRepo {
      * Postcondition: Calls callback.onSuccess(null) if delete is successful, or callback.onFailure on error.
      */
     public void deleteVegetation(long vegetationId, DeleteVegetationCallback callback) {
-        String url = VEGETATION_URL + "?id=eq." + vegetationId;
-        Log.d(TAG, "Deleting Vegetation ID: " + vegetationId);
+        String url = PostgrestQuery.from(VEGETATION_URL).eq("id", vegetationId).build();
+        AppLog.d(TAG, "Deleting Vegetation ID: ", vegetationId);
         executeDelete(TAG, url, callback);
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * VegetationTypeAdapter
+ * ──────────────────────
+ * Streaming Gson adapter for Vegetation rows: id, UserID, name, the twelve
+ * day/night min/max thresholds and the optional derived-metric limits
+ * (vpdMin, vpdMax, dewPointMax, gddBase, gddTarget) and compound rules text.
+ *
+ * id, UserID, name and the optional fields are left out when null, exactly
+ * like reflective Gson – addVegetation() depends on that so Supabase generates
+ * the new id. The one exception: an unset derived limit of an existing row
+ * (id set) is written as JSON null, so clearing it in the profile dialog
+ * clears the column on update (the columns come from
+ * supabase/migrations/…_vegetation_derived_limits.sql).
+ * Floats are written as Float (not double) so 0.1f stays "0.1" in the JSON.
+ */
+public class VegetationTypeAdapter extends TypeAdapter<Vegetation> {
+
+    // Precondition: out is a valid JsonWriter; all thresholds are finite
+    // Postcondition: Writes the vegetation as a JSON object (or JSON null)
+    @Override
+    public void write(JsonWriter out, Vegetation veg) throws IOException {
+        if (veg == null) { out.nullValue(); return; }
+        out.beginObject();
+        if (veg.getId() != null)     out.name("id").value(veg.getId());
+        if (veg.getUserID() != null) out.name("UserID").value(veg.getUserID());
+        if (veg.getName() != null)   out.name("name").value(veg.getName());
+        out.name("dayTempMin").value(Float.valueOf(veg.getDayTempMin()));
+        out.name("dayTempMax").value(Float.valueOf(veg.getDayTempMax()));
+        out.name("nightTempMin").value(Float.valueOf(veg.getNightTempMin()));
+        out.name("nightTempMax").value(Float.valueOf(veg.getNightTempMax()));
+        out.name("dayGroundHumidMin").value(Float.valueOf(veg.getDayGroundHumidMin()));
+        out.name("dayGroundHumidMax").value(Float.valueOf(veg.getDayGroundHumidMax()));
+        out.name("nightGroundHumidMin").value(Float.valueOf(veg.getNightGroundHumidMin()));
+        out.name("nightGroundHumidMax").value(Float.valueOf(veg.getNightGroundHumidMax()));
+        out.name("dayAirHumidMin").value(Float.valueOf(veg.getDayAirHumidMin()));
+        out.name("dayAirHumidMax").value(Float.valueOf(veg.getDayAirHumidMax()));
+        out.name("nightAirHumidMin").value(Float.valueOf(veg.getNightAirHumidMin()));
+        out.name("nightAirHumidMax").value(Float.valueOf(veg.getNightAirHumidMax()));
+        boolean update = veg.getId() != null;
+        writeLimit(out, "vpdMin",      veg.getVpdMin(),      update);
+        writeLimit(out, "vpdMax",      veg.getVpdMax(),      update);
+        writeLimit(out, "dewPointMax", veg.getDewPointMax(), update);
+        writeLimit(out, "gddBase",     veg.getGddBase(),     update);
+        writeLimit(out, "gddTarget",   veg.getGddTarget(),   update);
+        if (veg.getRules() != null)       out.name("rules").value(veg.getRules());
+        out.endObject();
+    }
+
+    // Precondition: out is inside an object
+    // Postcondition: name: value is written; a null value only if writeNull (as JSON null)
+    private static void writeLimit(JsonWriter out, String name, Float value, boolean writeNull) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        } else if (writeNull) {
+            boolean serializeNulls = out.getSerializeNulls();
+            out.setSerializeNulls(true);   // Gson's writer drops nulls otherwise
+            out.name(name).nullValue();
+            out.setSerializeNulls(serializeNulls);
+        }
+    }
+
+    // Precondition: in is positioned at a JSON object or null
+    // Postcondition: Returns the parsed Vegetation, or null for JSON null.
+    // Columns missing from a projected select (e.g. id,name only) stay 0 / null.
+    @Override
+    public Vegetation read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        Vegetation veg = new Vegetation();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":                  veg.setId(JsonValues.nextLongOrNull(in));                 break;
+                case "UserID":              veg.setUserID(JsonValues.nextLongOrNull(in));             break;
+                case "name":                veg.setName(JsonValues.nextStringOrNull(in));             break;
+                case "dayTempMin":          veg.setDayTempMin(JsonValues.nextFloat(in, 0f));          break;
+                case "dayTempMax":          veg.setDayTempMax(JsonValues.nextFloat(in, 0f));          break;
+                case "nightTempMin":        veg.setNightTempMin(JsonValues.nextFloat(in, 0f));        break;
+                case "nightTempMax":        veg.setNightTempMax(JsonValues.nextFloat(in, 0f));        break;
+                case "dayGroundHumidMin":   veg.setDayGroundHumidMin(JsonValues.nextFloat(in, 0f));   break;
+                case "dayGroundHumidMax":   veg.setDayGroundHumidMax(JsonValues.nextFloat(in, 0f));   break;
+                case "nightGroundHumidMin": veg.setNightGroundHumidMin(JsonValues.nextFloat(in, 0f)); break;
+                case "nightGroundHumidMax": veg.setNightGroundHumidMax(JsonValues.nextFloat(in, 0f)); break;
+                case "dayAirHumidMin":      veg.setDayAirHumidMin(JsonValues.nextFloat(in, 0f));      break;
+                case "dayAirHumidMax":      veg.setDayAirHumidMax(JsonValues.nextFloat(in, 0f));      break;
+                case "nightAirHumidMin":    veg.setNightAirHumidMin(JsonValues.nextFloat(in, 0f));    break;
+                case "nightAirHumidMax":    veg.setNightAirHumidMax(JsonValues.nextFloat(in, 0f));    break;
+                case "vpdMin":              veg.setVpdMin(JsonValues.nextFloatOrNull(in));            break;
+                case "vpdMax":              veg.setVpdMax(JsonValues.nextFloatOrNull(in));            break;
+                case "dewPointMax":         veg.setDewPointMax(JsonValues.nextFloatOrNull(in));       break;
+                case "gddBase":             veg.setGddBase(JsonValues.nextFloatOrNull(in));           break;
+                case "gddTarget":           veg.setGddTarget(JsonValues.nextFloatOrNull(in));         break;
+                case "rules":               veg.setRules(JsonValues.nextStringOrNull(in));            break;
+                default:                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return veg;
+    }
+}
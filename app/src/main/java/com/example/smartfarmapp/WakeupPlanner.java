@@ -0,0 +1,282 @@
+package com.example.smartfarmapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WakeupPlanner
+ * ──────────────
+ * The bookkeeping behind WakeupScheduler: when the shared timer should tick
+ * next, and which periodic jobs run then. Pure Java with the clock passed in, so it
+ * can be tested without Android.
+ *
+ * SHARED GRID: the timer only ticks on a fixed grid (every Config.windowMillis
+ * since the epoch). A job runs at the first grid point at or after it is due,
+ * so jobs whose times are close end up running together, one right after the
+ * other – one burst of work and, for network jobs, one radio burst instead of
+ * several. A job asking for less than a window between runs runs once per
+ * window. A tick is not a device wake-up: WakeupScheduler's timer only fires
+ * while the phone is awake anyway.
+ *
+ * FLEX: a job may also run up to flexMillis early, to join a wake-up that is
+ * happening anyway (another job's tick, or an alarm's – see runDue's external flag).
+ * After running, a job is next due one period later, counted from that run, so
+ * jobs that ran together once tend to stay together.
+ *
+ * RADIO: RadioMeter estimates how long the mobile radio was kept powered by the
+ * app's requests, for checking the savings on a device.
+ *
+ * Not thread-safe except RadioMeter: WakeupScheduler only touches the planner
+ * on the main thread.
+ */
+public final class WakeupPlanner {
+
+    /**
+     * Tuning. Immutable; start from defaults() and change what you need with the
+     * with… methods.
+     */
+    public static final class Config {
+        final long windowMillis;
+
+        private Config(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        /** Timer ticks on a 15 second grid. */
+        public static Config defaults() {
+            return new Config(15_000L);
+        }
+
+        // Precondition: windowMillis >= 1
+        public Config withWindow(long windowMillis) {
+            return new Config(windowMillis);
+        }
+    }
+
+    private final Config    config;
+    private final List<Job> jobs = new ArrayList<>();
+    private int nextId = 1;
+
+    // Counters since the planner was created (or resetCounters())
+    private long timerTicks;       // grid ticks of the planner's own timer that ran a job
+    private long externalWakeups;  // wake-ups caused by something else (an alarm) that the planner used
+    private long jobRuns;
+    private long sharedRuns;       // runs that used a tick or wake-up another job or an alarm also used
+    private long networkBursts;    // ticks and wake-ups that ran at least one network job
+
+    // Precondition: config is not null
+    // Postcondition: A planner without jobs is created
+    public WakeupPlanner(Config config) {
+        this.config = config;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Jobs
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: name is not null, periodMillis >= 1, 0 <= flexMillis < periodMillis.
+     * Postcondition: Returns the new job's id; it is first due one period after nowMillis
+     * (callers that need a first run straight away do it themselves).
+     */
+    public int register(String name, long periodMillis, long flexMillis, boolean network, long nowMillis) {
+        Job job = new Job(nextId++, name, periodMillis, flexMillis, network);
+        job.dueMillis = nowMillis + periodMillis;
+        jobs.add(job);
+        return job.id;
+    }
+
+    // Precondition: None
+    // Postcondition: The job with this id (if any) will not run again
+    public void unregister(int id) {
+        for (int i = 0; i < jobs.size(); i++) {
+            if (jobs.get(i).id == id) {
+                jobs.remove(i);
+                return;
+            }
+        }
+    }
+
+    public int jobCount() { return jobs.size(); }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Waking
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the grid time of the next tick the planner needs
+     * (Long.MAX_VALUE if there are no jobs).
+     */
+    public long nextWakeMillis() {
+        long next = Long.MAX_VALUE;
+        for (Job job : jobs) next = Math.min(next, job.dueMillis);
+        return next == Long.MAX_VALUE ? next : alignUp(next);
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the ids of the jobs to run now, in registration order:
+     * every job due by nowMillis + its flex. Each is next due one period after
+     * nowMillis. external = the device is awake for another reason (an alarm),
+     * so this is counted as a used alarm wake-up, not a timer tick.
+     */
+    public int[] runDue(long nowMillis, boolean external) {
+        int count = 0;
+        boolean network = false;
+        int[] ids = new int[jobs.size()];
+        for (Job job : jobs) {
+            if (job.dueMillis - job.flexMillis > nowMillis) continue;
+            ids[count++] = job.id;
+            network |= job.network;
+            job.dueMillis = nowMillis + job.periodMillis;
+            job.runs++;
+        }
+        if (count > 0) {
+            if (external) externalWakeups++; else timerTicks++;
+            jobRuns += count;
+            if (count > 1 || external) sharedRuns += count;
+            if (network) networkBursts++;
+        }
+        int[] out = new int[count];
+        System.arraycopy(ids, 0, out, 0, count);
+        return out;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns t rounded up to the wake grid
+    long alignUp(long t) {
+        long window = config.windowMillis;
+        return Math.floorDiv(t + window - 1, window) * window;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Counters
+    // ═════════════════════════════════════════════════════════════════════════
+
+    public long timerTicks()      { return timerTicks; }
+    public long externalWakeups() { return externalWakeups; }
+    public long jobRuns()         { return jobRuns; }
+    public long sharedRuns()      { return sharedRuns; }
+    public long networkBursts()   { return networkBursts; }
+
+    // Precondition: None
+    // Postcondition: All counters are zero (jobs and their schedule are kept)
+    public void resetCounters() {
+        timerTicks = externalWakeups = jobRuns = sharedRuns = networkBursts = 0;
+        for (Job job : jobs) job.runs = 0;
+    }
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns one line of totals, then one line per job:
+     * name, period, flex, network or not, runs
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("timer-ticks=").append(timerTicks)
+          .append(" alarm-wakes-used=").append(externalWakeups)
+          .append(" job-runs=").append(jobRuns)
+          .append(" shared=").append(sharedRuns)
+          .append(" network-bursts=").append(networkBursts).append('\n');
+        for (Job job : jobs) {
+            sb.append("  ").append(job.name)
+              .append("  every ").append(job.periodMillis / 1000).append("s")
+              .append(" (up to ").append(job.flexMillis / 1000).append("s early)")
+              .append(job.network ? "  network" : "")
+              .append("  runs=").append(job.runs).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    private static final class Job {
+        final int     id;
+        final String  name;
+        final long    periodMillis;
+        final long    flexMillis;
+        final boolean network;
+        long dueMillis;
+        long runs;
+
+        Job(int id, String name, long periodMillis, long flexMillis, boolean network) {
+            this.id           = id;
+            this.name         = name;
+            this.periodMillis = periodMillis;
+            this.flexMillis   = flexMillis;
+            this.network      = network;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Radio
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Estimated radio-on time. A mobile radio stays powered for a "tail" after
+     * the last byte (several seconds on LTE), so requests close together share
+     * one burst, and the same requests spread out cost one tail each:
+     *
+     *     spread:   ▇▇░░░░░      ▇▇░░░░░      ▇▇░░░░░     3 bursts
+     *     grouped:  ▇▇▇▇▇▇░░░░░                           1 burst
+     *               (▇ request, ░ tail)
+     *
+     * Requests should be recorded roughly in the order they start; overlapping
+     * ones (from different threads) are merged. Thread-safe.
+     */
+    public static final class RadioMeter {
+        public static final long DEFAULT_TAIL_MILLIS = 10_000L;
+
+        private final long tailMillis;
+        private long activeUntil = Long.MIN_VALUE;
+        private long activeMillis;
+        private long bursts;
+        private long requests;
+
+        // Precondition: tailMillis >= 0
+        // Postcondition: A meter with nothing recorded is created
+        public RadioMeter(long tailMillis) {
+            this.tailMillis = tailMillis;
+        }
+
+        /**
+         * Precondition: startMillis <= endMillis
+         * Postcondition: The request's time plus the tail is added to the active
+         * time, except the part already covered; a new burst is counted if the
+         * radio had gone idle before startMillis.
+         */
+        public synchronized void record(long startMillis, long endMillis) {
+            requests++;
+            long until = endMillis + tailMillis;
+            if (startMillis > activeUntil) {
+                bursts++;
+                activeMillis += until - startMillis;
+                activeUntil   = until;
+            } else if (until > activeUntil) {
+                activeMillis += until - activeUntil;
+                activeUntil   = until;
+            }
+        }
+
+        public synchronized long activeMillis() { return activeMillis; }
+        public synchronized long bursts()       { return bursts; }
+        public synchronized long requests()     { return requests; }
+
+        // Precondition: None
+        // Postcondition: Nothing is recorded
+        public synchronized void reset() {
+            activeUntil  = Long.MIN_VALUE;
+            activeMillis = 0;
+            bursts       = 0;
+            requests     = 0;
+        }
+
+        // Precondition: None
+        // Postcondition: Returns e.g. "radio-active=312s bursts=40 requests=95"
+        @Override
+        public synchronized String toString() {
+            return "radio-active=" + activeMillis / 1000 + "s bursts=" + bursts + " requests=" + requests;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.smartfarmapp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════
+ * WAKEUP SCHEDULER - ONE CLOCK FOR EVERY PERIODIC JOB IN THE APP
+ * ═══════════════════════════════════════════════════════════════════════════
+ *
+ * WHY?
+ * FarmMonitoringService had its own 2-minute Handler loop, MainFragment its own
+ * 1-second Timer, and the daily alarms woke the phone at their own times. While
+ * the phone was awake, each loop ran its work (and, for fetches, powered the
+ * radio) on its own schedule, so on an always-on field tablet the radio hardly
+ * ever got to sleep. (The Handler and Timer loops never woke a sleeping phone;
+ * only the alarms do.)
+ *
+ * WHAT IT DOES:
+ * - Jobs register here instead of keeping their own timers.
+ * - WakeupPlanner lines them up on a shared 15-second grid: jobs due close
+ *   together run one after the other on the same timer tick, so their network
+ *   requests go out in one radio burst (identical GETs are even merged into
+ *   one request by BaseRepo).
+ * - onExternalWake(): the alarm receivers call it when the phone is awake
+ *   anyway, and any job close enough to due runs then instead of waking the
+ *   phone again a little later.
+ * - Counters (describe()) – timer ticks, alarm wake-ups used, job runs, shared
+ *   runs, network bursts
+ *   and the estimated radio-on time of every request (radio(), fed by
+ *   MetricsInterceptor) – show up in the network metrics dialog.
+ *
+ * Everything runs on the main thread, like the loops it replaces. The timer is
+ * Handler.postDelayed, which counts uptime: it does not wake a sleeping phone,
+ * and while the phone sleeps the next tick simply waits. A "timer tick" in the
+ * counters is therefore a run of the grid, not a device wake-up.
+ * ═══════════════════════════════════════════════════════════════════════════
+ */
+public final class WakeupScheduler {
+
+    private static WakeupScheduler instance;
+    private static final WakeupPlanner.RadioMeter RADIO =
+            new WakeupPlanner.RadioMeter(WakeupPlanner.RadioMeter.DEFAULT_TAIL_MILLIS);
+
+    private final Handler             handler = new Handler(Looper.getMainLooper());
+    private final WakeupPlanner       planner = new WakeupPlanner(WakeupPlanner.Config.defaults());
+    private final SparseArray<Runnable> tasks = new SparseArray<>();
+    private final Runnable            tick    = () -> wake(false);
+
+    /**
+     * Precondition: None
+     * Postcondition: Returns the app-wide scheduler
+     */
+    public static synchronized WakeupScheduler get() {
+        if (instance == null) instance = new WakeupScheduler();
+        return instance;
+    }
+
+    private WakeupScheduler() {}
+
+    /**
+     * Precondition: Main thread; periodMillis >= 1, 0 <= flexMillis < periodMillis.
+     * Postcondition: task runs about every periodMillis (on a timer tick shared with
+     * other jobs, up to flexMillis early), first one period from now. Returns an
+     * id for unregister().
+     */
+    public int register(String name, long periodMillis, long flexMillis, boolean network, Runnable task) {
+        int id = planner.register(name, periodMillis, flexMillis, network, System.currentTimeMillis());
+        tasks.put(id, task);
+        reschedule();
+        return id;
+    }
+
+    // Precondition: Main thread
+    // Postcondition: The job no longer runs; unknown ids are ignored
+    public void unregister(int id) {
+        planner.unregister(id);
+        tasks.remove(id);
+        reschedule();
+    }
+
+    /**
+     * The phone is awake for another reason (an alarm went off): run whatever is
+     * nearly due now rather than waking it again soon.
+     *
+     * Precondition: Main thread
+     * Postcondition: Jobs within their flex of being due have run
+     */
+    public void onExternalWake() {
+        wake(true);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // COUNTERS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    // Precondition: None
+    // Postcondition: Returns the radio meter every HTTP request is recorded in (any thread)
+    public static WakeupPlanner.RadioMeter radio() {
+        return RADIO;
+    }
+
+    // Precondition: Main thread
+    // Postcondition: Returns the planner's counters and jobs, then the radio estimate
+    public String describe() {
+        return planner.describe() + RADIO + "\n";
+    }
+
+    // Precondition: Main thread
+    // Postcondition: Timer, wake-up and radio counters are zero
+    public void resetCounters() {
+        planner.resetCounters();
+        RADIO.reset();
+    }
+
+    // ── Internal ─────────────────────────────────────────────────────────────
+
+    private void wake(boolean external) {
+        for (int id : planner.runDue(System.currentTimeMillis(), external)) {
+            Runnable task = tasks.get(id);
+            if (task != null) task.run();
+        }
+        reschedule();
+    }
+
+    private void reschedule() {
+        handler.removeCallbacks(tick);
+        long next = planner.nextWakeMillis();
+        if (next == Long.MAX_VALUE) return;
+        handler.postDelayed(tick, Math.max(0, next - System.currentTimeMillis()));
+    }
+}
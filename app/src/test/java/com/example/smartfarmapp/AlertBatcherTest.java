@@ -0,0 +1,74 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * AlertBatcher: events within the window are merged per kind, the per-channel
+ * token bucket holds flushes back without losing events, and lines are capped.
+ */
+public class AlertBatcherTest {
+
+    private static final String CHANNEL = "FarmAlerts";
+    private static final long   T0      = 1_750_000_000_000L;
+    private static final long   SEC     = 1_000L;
+
+    private final AlertBatcher.Config config = AlertBatcher.Config.defaults()
+            .withWindow(10 * SEC).withRate(2, 60 * SEC).withMaxLines(3);
+
+    @Test
+    public void eventsInOneWindow_becomeOneBatchPerKind() {
+        AlertBatcher batcher = new AlertBatcher(config);
+        batcher.offer(CHANNEL, AlertBatcher.ALERT,   "Out of range", "Temperature 35°C", T0);
+        batcher.offer(CHANNEL, AlertBatcher.ANOMALY, "Unusual",      "Air humidity stuck", T0 + 2 * SEC);
+        batcher.offer(CHANNEL, AlertBatcher.ALERT,   "Out of range", "Ground humidity 12%", T0 + 4 * SEC);
+
+        assertTrue(batcher.drain(T0 + 9 * SEC).isEmpty());   // window still open
+        assertEquals(T0 + 10 * SEC, batcher.nextDueMillis());
+
+        List<AlertBatcher.Batch> batches = batcher.drain(T0 + 10 * SEC);
+        assertEquals(2, batches.size());
+        assertEquals(AlertBatcher.ALERT, batches.get(0).kind);
+        assertEquals(List.of("Temperature 35°C", "Ground humidity 12%"), batches.get(0).lines);
+        assertEquals(T0 + 4 * SEC, batches.get(0).lastMillis);
+        assertEquals(AlertBatcher.ANOMALY, batches.get(1).kind);
+        assertEquals(Long.MAX_VALUE, batcher.nextDueMillis());
+    }
+
+    @Test
+    public void emptyBucket_holdsEventsBack_thenFlushesThemMerged() {
+        AlertBatcher batcher = new AlertBatcher(config);
+        long now = T0;
+        for (int flush = 0; flush < 2; flush++) {          // the burst of 2
+            batcher.offer(CHANNEL, AlertBatcher.RULE, "Rule", "fired " + flush, now);
+            now += 10 * SEC;
+            assertEquals(1, batcher.drain(now).size());
+        }
+
+        batcher.offer(CHANNEL, AlertBatcher.RULE, "Rule", "fired 2", now);
+        batcher.offer(CHANNEL, AlertBatcher.RULE, "Rule", "fired 3", now + 5 * SEC);
+        now += 10 * SEC;
+        assertTrue(batcher.drain(now).isEmpty());           // no token left
+        long due = batcher.nextDueMillis();
+        assertTrue(due > now && due <= now + 60 * SEC);
+
+        List<AlertBatcher.Batch> late = batcher.drain(due);
+        assertEquals(1, late.size());
+        assertEquals(List.of("fired 2", "fired 3"), late.get(0).lines);
+    }
+
+    @Test
+    public void manyEvents_keepTheNewestLines_andCountTheRest() {
+        AlertBatcher batcher = new AlertBatcher(config);
+        for (int i = 0; i < 10; i++) batcher.offer(CHANNEL, AlertBatcher.FORECAST, "Early " + i, "line " + i, T0 + i);
+
+        AlertBatcher.Batch batch = batcher.drain(T0 + 10 * SEC).get(0);
+
+        assertEquals(List.of("line 7", "line 8", "line 9"), batch.lines);
+        assertEquals(10, batch.events);
+        assertEquals("Early 9", batch.title);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.smartfarmapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * AlertJournal: time-range and metric queries page newest first, the indexes
+ * are rebuilt on reopen, a half-written last record is dropped, and the oldest
+ * entries go once the journal is full.
+ */
+public class AlertJournalTest {
+
+    private static final long T0  = 1_750_000_000_000L;
+    private static final long MIN = 60_000L;
+
+    private final List<AlertJournal> opened = new ArrayList<>();
+    private File dir;
+
+    @After
+    public void tearDown() throws Exception {
+        for (AlertJournal journal : opened) journal.close();
+        if (dir == null) return;
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    private File newFile() throws Exception {
+        dir = Files.createTempDirectory("alert-journal").toFile();
+        return new File(dir, "journal.bin");
+    }
+
+    private AlertJournal open(File file, int maxRecords) throws Exception {
+        AlertJournal journal = AlertJournal.open(file, maxRecords);
+        opened.add(journal);
+        return journal;
+    }
+
+    // One entry per minute, metrics in turn TEMP, GROUND, AIR, then a rule (NO_METRIC)
+    private static List<AlertJournal.Entry> minutes(int from, int count) {
+        List<AlertJournal.Entry> entries = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            int metric = i % 4 == 3 ? AlertJournal.NO_METRIC : i % 4;
+            entries.add(new AlertJournal.Entry(T0 + i * MIN, T0 + i * MIN + 500,
+                    metric == AlertJournal.NO_METRIC ? AlertBatcher.RULE : AlertBatcher.ALERT,
+                    metric, i % 2 == 0, 20 + i % 10, 40, 60, 7L, "Tomatoes", "entry " + i));
+        }
+        return entries;
+    }
+
+    @Test
+    public void queries_filterByTimeAndMetric_newestFirstInPages() throws Exception {
+        AlertJournal journal = open(newFile(), AlertJournal.MAX_RECORDS);
+        journal.append(minutes(0, 200));
+
+        assertEquals(200, journal.size());
+        assertEquals(100, journal.count(T0 + 100 * MIN, Long.MAX_VALUE, AlertJournal.ANY_METRIC));
+        assertEquals(25, journal.count(T0 + 100 * MIN, Long.MAX_VALUE, RangeCheck.GROUND_HUMID));
+        assertEquals(10, journal.count(T0, T0 + 40 * MIN, AlertJournal.NO_METRIC));
+
+        List<AlertJournal.Entry> page = journal.newestFirst(T0, T0 + 100 * MIN, AlertJournal.ANY_METRIC, 10, 5);
+        assertEquals(5, page.size());
+        assertEquals("entry 89", page.get(0).label);
+        assertEquals("entry 85", page.get(4).label);
+
+        List<AlertJournal.Entry> air = journal.newestFirst(Long.MIN_VALUE, Long.MAX_VALUE, RangeCheck.AIR_HUMID, 0, 3);
+        assertEquals("entry 198", air.get(0).label);
+        assertEquals("entry 194", air.get(1).label);
+        AlertJournal.Entry e = air.get(0);
+        assertEquals(T0 + 198 * MIN, e.epochMillis);
+        assertEquals(T0 + 198 * MIN + 500, e.loggedMillis);
+        assertEquals(AlertBatcher.ALERT, e.kind);
+        assertTrue(e.high);
+        assertEquals(28, e.temp);
+        assertEquals(7L, e.profileId);
+        assertEquals("Tomatoes", e.profileName);
+
+        assertTrue(journal.newestFirst(T0, T0 + 100 * MIN, AlertJournal.ANY_METRIC, 100, 5).isEmpty());
+    }
+
+    @Test
+    public void reopen_rebuildsIndexes_andDropsAHalfWrittenRecord() throws Exception {
+        File file = newFile();
+        AlertJournal journal = open(file, AlertJournal.MAX_RECORDS);
+        journal.append(minutes(0, 50));
+        journal.append(minutes(50, 10));
+        journal.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {   // crash in the middle of a write
+            raf.setLength(raf.length() + AlertJournal.RECORD_BYTES / 2);
+        }
+
+        AlertJournal reopened = open(file, AlertJournal.MAX_RECORDS);
+        assertEquals(60, reopened.size());
+        assertEquals(15, reopened.count(Long.MIN_VALUE, Long.MAX_VALUE, RangeCheck.TEMP));
+        assertEquals(AlertJournal.HEADER_BYTES + 60L * AlertJournal.RECORD_BYTES, file.length());
+
+        reopened.append(minutes(60, 1));
+        assertEquals("entry 60", reopened.newestFirst(Long.MIN_VALUE, Long.MAX_VALUE,
+                AlertJournal.ANY_METRIC, 0, 1).get(0).label);
+    }
+
+    @Test
+    public void fullJournal_dropsItsOldestQuarter() throws Exception {
+        AlertJournal journal = open(newFile(), 400);
+        journal.append(minutes(0, 400));
+        journal.append(minutes(400, 1));
+
+        assertEquals(300, journal.size());
+        List<AlertJournal.Entry> oldest = journal.newestFirst(Long.MIN_VALUE, Long.MAX_VALUE,
+                AlertJournal.ANY_METRIC, 299, 1);
+        assertEquals("entry 101", oldest.get(0).label);
+        assertEquals(75, journal.count(Long.MIN_VALUE, Long.MAX_VALUE, RangeCheck.TEMP));
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void otherFile_isRejected() throws Exception {
+        File file = newFile();
+        Files.write(file.toPath(), "not a journal at all".getBytes());
+        open(file, AlertJournal.MAX_RECORDS);
+    }
+}
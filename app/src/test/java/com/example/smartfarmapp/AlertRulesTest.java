@@ -0,0 +1,113 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+
+import static org.junit.Assert.*;
+
+/**
+ * AlertRules: precedence and arithmetic, the "for" window (fires once, resets
+ * when false or after a gap, survives toBytes()/restore()), derived metrics,
+ * and compile errors.
+ */
+public class AlertRulesTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0     = 1_700_000_000_000L;
+
+    @Test
+    public void precedence_andBindsTighterThanOr() throws Exception {
+        AlertRules rules = AlertRules.compile("temp > 30 or airHumid > 80 and temp < 10");
+        assertEquals("Rule 1", rules.name(0));
+        assertEquals(1, rules.evaluate(T0,          35, 50, 50, true));
+        assertEquals(0, rules.evaluate(T0 + MINUTE, 20, 50, 90, true));   // "(… or …) and …" would fire
+
+        rules = AlertRules.compile("b: not (temp > 30 or groundHumid <= 20) and day; c: temp - 5 >= groundHumid + 1");
+        assertEquals(2, rules.count());
+        assertEquals("b", rules.name(0));
+        assertEquals(0b01, rules.evaluate(T0,          20, 50, 50, true));
+        assertEquals(0b10, rules.evaluate(T0 + MINUTE, 26, 20, 50, false));
+    }
+
+    @Test
+    public void forWindow_firesOnceAfterDuration() throws Exception {
+        AlertRules rules = AlertRules.compile("Fungus risk: airHumid > 85 AND temp < 18 for 30m");
+        assertEquals(30 * MINUTE, rules.durationMillis(0));
+
+        long t = T0;
+        for (int m = 0; m < 30; m++, t += MINUTE) assertEquals(0, rules.evaluate(t, 15, 50, 90, false));
+        assertEquals(1, rules.evaluate(t, 15, 50, 90, false));          // held for 30 minutes
+        assertTrue(rules.isActive(0));
+        t += MINUTE;
+        assertEquals(0, rules.evaluate(t, 15, 50, 90, false));          // not again while it holds
+
+        t += MINUTE;
+        assertEquals(0, rules.evaluate(t, 20, 50, 90, false));          // false: window restarts
+        assertFalse(rules.isActive(0));
+        for (int m = 0; m < 20; m++) assertEquals(0, rules.evaluate(t += MINUTE, 15, 50, 90, false));
+
+        // A gap longer than MAX_GAP restarts the window even if the condition is true on both sides
+        t += AlertRules.MAX_GAP_MILLIS + MINUTE;
+        for (int m = 0; m < 30; m++, t += MINUTE) assertEquals(0, rules.evaluate(t, 15, 50, 90, false));
+        assertEquals(1, rules.evaluate(t, 15, 50, 90, false));
+        assertEquals(0, rules.evaluate(t, 15, 50, 90, false));          // same time again is ignored
+    }
+
+    @Test
+    public void windowState_survivesRestore_butNotForOtherRules() throws Exception {
+        String text = "Fungus risk: airHumid > 85 AND temp < 18 for 30m";
+        AlertRules rules = AlertRules.compile(text);
+        long t = T0;
+        for (int m = 0; m <= 30; m++, t += MINUTE) rules.evaluate(t, 15, 50, 90, false);
+        assertTrue(rules.isActive(0));
+
+        AlertRules restarted = AlertRules.compile(text);
+        restarted.restore(rules.toBytes());
+        assertTrue(restarted.isActive(0));
+        assertEquals(rules.lastEpochMillis(), restarted.lastEpochMillis());
+        for (int m = 0; m < 40; m++, t += MINUTE) {
+            assertEquals(0, restarted.evaluate(t, 15, 50, 90, false));   // still the same stretch
+        }
+
+        AlertRules edited = AlertRules.compile(text.replace("30m", "20m"));
+        try {
+            edited.restore(rules.toBytes());
+            fail("restored another text's state");
+        } catch (java.io.IOException expected) {
+            assertFalse(edited.isActive(0));
+            assertEquals(Long.MIN_VALUE, edited.lastEpochMillis());
+        }
+    }
+
+    @Test
+    public void derivedMetrics_andNight() throws Exception {
+        // 18 °C at 90 % → dew point ≈ 16.4 °C, VPD ≈ 0.21 kPa
+        AlertRules rules = AlertRules.compile("# comment line\nCondensation: night and temp - dewPoint < 2 # wet leaves\nvpd < 0.3 for 0h");
+        assertEquals(2, rules.count());
+        assertEquals("night and temp - dewPoint < 2", rules.source(0));
+        assertEquals(0b10, rules.evaluate(T0,          18, 50, 90, true));
+        assertEquals(0b01, rules.evaluate(T0 + MINUTE, 18, 50, 90, false));
+    }
+
+    @Test
+    public void compileErrors_pointAtTheProblem() {
+        assertError("temp >", 6);
+        assertError("leafWetness > 3", 0);
+        assertError("x: (temp > 3", 12);
+        assertError("temp > 3 for 10", 13);
+        assertError("temp > 3 banana", 9);
+        StringBuilder many = new StringBuilder();
+        for (int i = 0; i <= AlertRules.MAX_RULES; i++) many.append("temp > ").append(i).append('\n');
+        assertError(many.toString(), many.indexOf("temp > 32"));
+    }
+
+    private static void assertError(String text, int offset) {
+        try {
+            AlertRules.compile(text);
+            fail("compiled: " + text);
+        } catch (ParseException e) {
+            assertEquals(text + " → " + e.getMessage(), offset, e.getErrorOffset());
+        }
+    }
+}
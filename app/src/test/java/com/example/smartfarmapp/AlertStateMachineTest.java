@@ -0,0 +1,118 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * AlertStateMachine: flapping, dwell, hysteresis, cooldown, duplicate readings
+ * and the saved state. Temperature only, day range 18–30 °C; the humidities
+ * are held in range throughout.
+ */
+public class AlertStateMachineTest {
+
+    private static final long MIN = 60_000L;
+    private static final long T0  = 1_750_000_000_000L;
+
+    private final List<String> events = new ArrayList<>();
+    private final AlertStateMachine.Listener recorder = new AlertStateMachine.Listener() {
+        @Override public void onRaised(int metric, boolean high, int value, long epochMillis) {
+            events.add("raise " + (high ? "high " : "low ") + value + " @" + (epochMillis - T0) / MIN);
+        }
+        @Override public void onCleared(int metric, int value, long epochMillis) {
+            events.add("clear " + value + " @" + (epochMillis - T0) / MIN);
+        }
+    };
+
+    @Test
+    public void flappingOnTheThreshold_neverAlerts() {
+        AlertStateMachine machine = new AlertStateMachine(AlertStateMachine.Config.defaults());
+        // 31, 30, 31, 30 … each minute for an hour: out, in, out, in
+        for (int minute = 0; minute < 60; minute++) feed(machine, minute, minute % 2 == 0 ? 31 : 30);
+        assertTrue(events.isEmpty());   // never out for 5 minutes straight
+
+        for (int minute = 60; minute < 120; minute++) feed(machine, minute, minute % 3 == 0 ? 30 : 31);
+        assertTrue(events.isEmpty());     // dips back in keep restarting the dwell
+
+        for (int minute = 120; minute < 200; minute++) feed(machine, minute, 31 - (minute % 2));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void dwellThenHysteresis_raisesAndClearsOnce() {
+        AlertStateMachine machine = new AlertStateMachine(AlertStateMachine.Config.defaults());
+        for (int minute = 0; minute < 10; minute++)  feed(machine, minute, 25);
+        for (int minute = 10; minute < 30; minute++) feed(machine, minute, 33);
+        // Back to 30 (in range, but inside the 1 °C hysteresis): still alerting
+        for (int minute = 30; minute < 60; minute++) feed(machine, minute, 30);
+        assertEquals(AlertStateMachine.ALERT, machine.state(RangeCheck.TEMP));
+        // Comfortably inside for 10 minutes: cleared
+        for (int minute = 60; minute < 80; minute++) feed(machine, minute, 26);
+
+        assertEquals(List.of("raise high 33 @15", "clear 26 @70"), events);
+        assertEquals(0, machine.activeMask());
+    }
+
+    @Test
+    public void cooldown_suppressesARepeat_thenReportsIfStillOut() {
+        AlertStateMachine machine = new AlertStateMachine(AlertStateMachine.Config.defaults()
+                .withDwell(0, 0));
+        feed(machine, 0, 35);                  // raise
+        feed(machine, 1, 25);                  // clear
+        feed(machine, 2, 35);                  // within 30 min: state ALERT, not reported
+        assertEquals(AlertStateMachine.ALERT, machine.state(RangeCheck.TEMP));
+        feed(machine, 20, 35);
+        feed(machine, 31, 36);                 // cooldown over, still out: reported now
+
+        assertEquals(List.of("raise high 35 @0", "clear 25 @1", "raise high 36 @31"), events);
+    }
+
+    @Test
+    public void duplicatesAndOldReadings_areIgnored() {
+        AlertStateMachine machine = new AlertStateMachine(AlertStateMachine.Config.defaults().withDwell(0, 0));
+        assertTrue(feed(machine, 5, 10));
+        assertFalse(feed(machine, 5, 10));
+        assertFalse(feed(machine, 4, 10));
+        assertEquals(List.of("raise low 10 @5"), events);
+    }
+
+    @Test
+    public void savedState_doesNotReAlertAfterRestart() throws Exception {
+        AlertStateMachine before = new AlertStateMachine(AlertStateMachine.Config.defaults());
+        for (int minute = 0; minute < 10; minute++) feed(before, minute, 35);
+        assertEquals(1, events.size());
+
+        AlertStateMachine after = new AlertStateMachine(AlertStateMachine.Config.defaults());
+        after.restore(before.toBytes());
+        assertArrayEquals(before.toBytes(), after.toBytes());
+        for (int minute = 0; minute < 20; minute++) feed(after, minute, 35);   // refetched + new rows
+        assertEquals(1, events.size());
+
+        try {
+            after.restore(new byte[] {0, 1, 2});
+            fail("garbage must be rejected");
+        } catch (java.io.IOException expected) {
+            assertEquals(AlertStateMachine.NORMAL, after.state(RangeCheck.TEMP));
+        }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private boolean feed(AlertStateMachine machine, int minute, int temp) {
+        return machine.evaluate(T0 + minute * MIN, temp, 60, 65, VEG, true, recorder);
+    }
+
+    private static final Vegetation VEG = new Vegetation();
+    static {
+        VEG.setId(1L);
+        VEG.setDayTempMin(18);          VEG.setDayTempMax(30);
+        VEG.setNightTempMin(14);        VEG.setNightTempMax(22);
+        VEG.setDayGroundHumidMin(40);   VEG.setDayGroundHumidMax(80);
+        VEG.setNightGroundHumidMin(45); VEG.setNightGroundHumidMax(85);
+        VEG.setDayAirHumidMin(50);      VEG.setDayAirHumidMax(80);
+        VEG.setNightAirHumidMin(55);    VEG.setNightAirHumidMax(90);
+    }
+}
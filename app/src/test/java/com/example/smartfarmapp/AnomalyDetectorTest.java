@@ -0,0 +1,102 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * AnomalyDetector on the synthetic stream: quiet on normal days, and catches
+ * an in-range jump, a too-fast change and a stuck sensor.
+ */
+public class AnomalyDetectorTest {
+
+    private static final long MIN = 60_000L;
+    private static final long T0  = 1_750_000_000_000L;
+
+    @Test
+    public void normalWeek_flagsOnlyTheIrrigationEvents() throws Exception {
+        AnomalyDetector detector = new AnomalyDetector(AnomalyDetector.Config.defaults());
+        int[] flagged = new int[AnomalyDetector.KINDS];
+        int[] offSchedule = new int[1];   // flags that are not a soil-moisture jump at watering time
+        FarmStreamGenerator generator = new FarmStreamGenerator(FarmStreamGenerator.Config.defaults());
+        generator.feed(batch -> {
+            for (Farm f : batch) {
+                int flags = detector.evaluate(FarmTime.toEpochMillis(f.getDateTime()),
+                        f.getTemp(), f.getGroundHumid(), f.getAirHumid());
+                for (int m = 0; m < RangeCheck.METRIC_COUNT; m++) {
+                    for (int k = 0; k < AnomalyDetector.KINDS; k++) {
+                        if (!AnomalyDetector.has(flags, m, k)) continue;
+                        flagged[k]++;
+                        if (m != RangeCheck.GROUND_HUMID || !atIrrigation(f.getDateTime())) offSchedule[0]++;
+                    }
+                }
+            }
+        }, 7 * 24 * 60);
+
+        // Irrigation (06:00 and 18:00) is a real sudden change: at most one spike and
+        // one rate flag each, and nothing else
+        long irrigations = generator.irrigations();
+        assertTrue(irrigations >= 14);
+        assertTrue(flagged[AnomalyDetector.SPIKE] <= irrigations);
+        assertTrue(flagged[AnomalyDetector.RATE]  <= irrigations);
+        assertEquals(0, offSchedule[0]);
+        assertEquals(0, flagged[AnomalyDetector.FLATLINE]);
+    }
+
+    // The generator waters at 06:00 and 18:00 (Config.defaults()); when the sensor was
+    // silent then, the jump shows up at the first reading later in that hour
+    private static boolean atIrrigation(String dateTime) {
+        String hour = dateTime.substring(11, 13);
+        return hour.equals("06") || hour.equals("18");
+    }
+
+    @Test
+    public void inRangeJump_isASpikeAndARateViolation() {
+        AnomalyDetector detector = new AnomalyDetector(AnomalyDetector.Config.defaults());
+        for (int minute = 0; minute < 60; minute++) {
+            assertEquals(0, detector.evaluate(T0 + minute * MIN, 20 + minute % 2, 60, 65));
+        }
+        int flags = detector.evaluate(T0 + 60 * MIN, 29, 60, 65);   // +8 °C in a minute, still "in range"
+
+        assertTrue(AnomalyDetector.has(flags, RangeCheck.TEMP, AnomalyDetector.SPIKE));
+        assertTrue(AnomalyDetector.has(flags, RangeCheck.TEMP, AnomalyDetector.RATE));
+        assertFalse(AnomalyDetector.has(flags, RangeCheck.AIR_HUMID, AnomalyDetector.SPIKE));
+        assertEquals(8, detector.lastChange(RangeCheck.TEMP));
+        assertEquals(20.5, detector.mean(RangeCheck.TEMP), 1.0);   // the spike barely moved the baseline
+    }
+
+    @Test
+    public void slowChangeAfterAGap_isNotARateViolation() {
+        AnomalyDetector detector = new AnomalyDetector(AnomalyDetector.Config.defaults().withWarmUp(1_000));
+        detector.evaluate(T0, 20, 60, 65);
+        assertFalse(AnomalyDetector.has(detector.evaluate(T0 + 5 * MIN, 28, 60, 65), RangeCheck.TEMP, AnomalyDetector.RATE));
+        assertEquals(0, detector.evaluate(T0 + 60 * MIN, 10, 60, 65));   // past maxGap: not checked
+    }
+
+    @Test
+    public void stuckSensor_isReportedOnce() {
+        AnomalyDetector detector = new AnomalyDetector(AnomalyDetector.Config.defaults());
+        int reports = 0;
+        for (int minute = 0; minute < 8 * 60; minute++) {
+            int ground = minute < 60 ? 55 + minute % 3 : 56;   // stuck from minute 60
+            int flags  = detector.evaluate(T0 + minute * MIN, 20 + (minute / 30) % 2, ground, 65 + minute % 2);
+            if (AnomalyDetector.has(flags, RangeCheck.GROUND_HUMID, AnomalyDetector.FLATLINE)) {
+                reports++;
+                assertEquals(60 + 180, minute);
+            }
+            assertFalse(AnomalyDetector.has(flags, RangeCheck.AIR_HUMID, AnomalyDetector.FLATLINE));
+        }
+        assertEquals(1, reports);
+        assertFalse(AnomalyDetector.has(detector.evaluate(T0 + 9 * 60 * MIN, 20, 58, 65),
+                RangeCheck.GROUND_HUMID, AnomalyDetector.FLATLINE));
+    }
+
+    @Test
+    public void duplicates_areIgnored() {
+        AnomalyDetector detector = new AnomalyDetector(AnomalyDetector.Config.defaults());
+        detector.evaluate(T0, 20, 60, 65);
+        detector.evaluate(T0 + MIN, 21, 60, 65);
+        assertEquals(0, detector.evaluate(T0 + MIN, 40, 60, 65));
+        assertEquals(2, detector.count());
+    }
+}
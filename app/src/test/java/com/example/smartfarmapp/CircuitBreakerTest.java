@@ -0,0 +1,62 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * CircuitBreaker: opens after the failure streak, lets exactly one trial through
+ * after the cool-down, doubles the cool-down when the trial fails, and gives the
+ * trial slot back when the caller never sends it.
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void opensAfterTheStreak_andOneTrialClosesIt() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("/t", 2, 50, 400);
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());                 // the trial
+        assertFalse(breaker.allowRequest());                // only one
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedTrial_doublesTheCoolDown() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("/t", 1, 50, 400);
+        breaker.recordFailure();
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();                            // trial failed: open for 100 ms now
+
+        Thread.sleep(60);
+        assertFalse(breaker.allowRequest());
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void releasedTrial_letsTheNextCallerTry() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("/t", 1, 50, 400);
+        breaker.recordFailure();
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        breaker.releaseTrial();                             // e.g. refused by the rate limiter
+
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.releaseTrial();                             // no effect outside HALF_OPEN
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * DerivedMetrics formulas against published reference values, the derived
+ * columns of FarmReadingBuffer, Vegetation limits (checked and as alert rules),
+ * and GrowingDegreeDays (incremental total == rebuild from the daily rollup).
+ */
+public class DerivedMetricsTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long DAY    = TimeBucketRollup.DAY_MS;
+
+    @Test
+    public void formulas_matchReferenceTables() {
+        assertEquals(3.168, DerivedMetrics.saturationKpa(25), 0.005);
+        assertEquals(1.584, DerivedMetrics.vpdKpa(25, 50), 0.005);
+        assertEquals(0.0,   DerivedMetrics.vpdKpa(25, 100), 1e-9);
+        assertEquals(13.9,  DerivedMetrics.dewPointC(25, 50), 0.1);
+        assertEquals(20.0,  DerivedMetrics.dewPointC(20, 100), 1e-6);
+        assertTrue(Double.isNaN(DerivedMetrics.dewPointC(20, 0)));
+    }
+
+    @Test
+    public void buffer_storesDerivedColumnsAtAppend() {
+        FarmReadingBuffer buffer = new FarmReadingBuffer(3);
+        long t0 = FarmTime.fromLocalMillis(20_000 * DAY + 12 * 60 * MINUTE);
+        buffer.append(1, t0,              25, 40, 50);
+        buffer.append(2, t0 + MINUTE,     25, 40, 50);   // same raw values – copied
+        buffer.append(3, t0 + 2 * MINUTE, 30, 40, 80);
+        buffer.append(4, t0 + 3 * MINUTE, 30, 40, 80);   // wraps over the first slot
+
+        for (int i = 0; i < buffer.size(); i++) {
+            assertEquals(DerivedMetrics.vpdKpa(buffer.temp(i), buffer.airHumid(i)),
+                    buffer.derived(i, DerivedMetrics.VPD_COLUMN), 1e-5);
+            assertEquals(DerivedMetrics.dewPointC(buffer.temp(i), buffer.airHumid(i)),
+                    buffer.derived(i, DerivedMetrics.DEW_POINT_COLUMN), 1e-4);
+        }
+        FarmReadingBuffer.View view = buffer.latest(1);
+        assertEquals(buffer.derived(2, DerivedMetrics.VPD_COLUMN), view.derived(0, DerivedMetrics.VPD_COLUMN), 0f);
+    }
+
+    @Test
+    public void vegetationLimits_onlyCheckedWhenSet() {
+        FarmReadingBuffer buffer = new FarmReadingBuffer(2);
+        buffer.append(1, FarmTime.NO_TIME, 30, 40, 30);   // VPD ≈ 2.97 kPa, dew point ≈ 10.5 °C
+        Vegetation veg = new Vegetation();
+        assertEquals(0, buffer.derivedOutOfRangeMask(0, veg));
+
+        veg.setVpdMax(1.6f);
+        assertEquals(1 << DerivedMetrics.VPD_COLUMN, buffer.derivedOutOfRangeMask(0, veg));
+
+        veg.setVpdMax(null);
+        veg.setDewPointMax(8f);
+        assertEquals(1 << DerivedMetrics.DEW_POINT_COLUMN, buffer.derivedOutOfRangeMask(0, veg));
+    }
+
+    @Test
+    public void vegetationLimits_runAsAlertRules_andClearOnUpdate() throws Exception {
+        Vegetation veg = new Vegetation();
+        veg.setRules("Hot: temp > 35");
+        assertEquals("Hot: temp > 35", AlertRules.textFor(veg));
+
+        veg.setVpdMax(1.6f);
+        veg.setDewPointMax(8f);
+        AlertRules rules = AlertRules.compile(AlertRules.textFor(veg));
+        assertEquals(3, rules.count());
+        assertEquals("VPD too high", rules.name(1));
+        assertEquals("dewPoint > 8 for 5m", rules.source(2));
+
+        // VPD ≈ 2.97 kPa, dew point ≈ 10.5 °C: both fire once past the limit for LIMIT_DWELL (5 min)
+        long t = 1_700_000_000_000L;
+        assertEquals(0, rules.evaluate(t, 30, 40, 30, true));
+        assertEquals(1 << 1 | 1 << 2, rules.evaluate(t + 5 * MINUTE, 30, 40, 30, true));
+
+        // Saving an edited row sends cleared limits as null; a new row leaves them out
+        veg.setVpdMax(null);
+        veg.setId(4L);
+        assertTrue(ModelJson.GSON.toJson(veg).contains("\"vpdMax\":null"));
+        veg.setId(null);
+        assertFalse(ModelJson.GSON.toJson(veg).contains("vpdMax"));
+    }
+
+    @Test
+    public void growingDegreeDays_incrementalMatchesRebuild() {
+        long start = FarmTime.fromLocalMillis(20_000 * DAY);
+        FarmRollups rollups = new FarmRollups();
+        rollups.trackGrowingDegreeDays(10f, start + DAY);   // the first day is before the season
+
+        double expected = 0;
+        int id = 0;
+        for (int d = 0; d < 5; d++) {
+            int low = 8 + d, high = 24 + 2 * d;
+            for (int m = 0; m < 24 * 60; m += 10) {
+                int temp = m < 12 * 60 ? low + (high - low) * m / (12 * 60) : high - (high - low) * (m - 12 * 60) / (12 * 60);
+                rollups.ingest(++id, start + d * DAY + m * MINUTE, temp, 40, 60);
+            }
+            if (d > 0) expected += Math.max(0, (low + high) / 2.0 - 10);
+        }
+        GrowingDegreeDays gdd = rollups.growingDegreeDays();
+        assertEquals(4, gdd.days());
+        assertEquals(expected, gdd.total(), 1e-9);
+
+        // A different base is rebuilt from the daily buckets, not the raw rows
+        GrowingDegreeDays rebuilt = new GrowingDegreeDays(10f, start + DAY);
+        rebuilt.seedFrom(rollups.daily());
+        assertEquals(gdd.total(), rebuilt.total(), 1e-9);
+        assertEquals(gdd.today(), rebuilt.today(), 1e-9);
+
+        // A reading for a closed day is ignored; today keeps growing
+        assertFalse(gdd.add(start + 2 * DAY, 40));
+        assertTrue(gdd.add(start + 4 * DAY + 23 * 60 * MINUTE, 40));
+        assertTrue(gdd.total() > expected);
+    }
+}
@@ -0,0 +1,519 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * FakeSupabaseServer
+ * ───────────────────
+ * A local, in-memory stand-in for the Supabase project the repos talk to,
+ * built on OkHttp's MockWebServer. Point the repos at it with
+ * {@code BaseRepo.useBaseUrl(server.start())}.
+ *
+ * Serves the PostgREST subset the app uses:
+ *   • /rest/v1/{Farm, Vegetationtbl, UserVegetation, UserVegetationActivation,
+ *               FarmGallery, User}
+ *       GET    – filters eq/neq/gt/gte/lt/lte/is/in, select=, order=, limit=, offset=
+ *       POST   – insert (object or array), ids generated, Prefer: return=minimal honoured
+ *       PATCH  – update the filtered rows
+ *       DELETE – delete the filtered rows
+ *     plus the one-active-vegetation-per-user unique index (409 on violation).
+ *   • /storage/v1/object/{bucket}/{path}          POST upload
+ *   • /storage/v1/object/public/{bucket}/{path}   GET download
+ *
+ * Network conditions come from a {@link Profile}: headers latency (+ jitter),
+ * a random error rate and a bandwidth cap. {@link #failNext} injects an exact
+ * number of errors, and {@link #dropNextMidBody} cut connections, for
+ * deterministic retry / circuit-breaker tests.
+ */
+public class FakeSupabaseServer implements Closeable {
+
+    /** Simulated network conditions. Immutable; use the factories and with* copies. */
+    public static final class Profile {
+        final long   latencyMs;
+        final long   jitterMs;
+        final double errorRate;
+        final int    errorStatus;
+        final long   bytesPerSecond;   // 0 = unlimited
+
+        private Profile(long latencyMs, long jitterMs, double errorRate, int errorStatus, long bytesPerSecond) {
+            this.latencyMs      = latencyMs;
+            this.jitterMs       = jitterMs;
+            this.errorRate      = errorRate;
+            this.errorStatus    = errorStatus;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        /** No latency, no errors, no bandwidth cap. */
+        public static Profile instant() { return new Profile(0, 0, 0, 503, 0); }
+
+        /** A decent LTE link: ~60 ms ± 30 ms, 2 MB/s. */
+        public static Profile lte() { return new Profile(60, 30, 0, 503, 2_000_000); }
+
+        /** A farm at the edge of coverage: ~400 ms ± 300 ms, 40 KB/s. */
+        public static Profile edge() { return new Profile(400, 300, 0, 503, 40_000); }
+
+        public Profile withLatency(long latencyMs, long jitterMs) {
+            return new Profile(latencyMs, jitterMs, errorRate, errorStatus, bytesPerSecond);
+        }
+
+        public Profile withErrors(double rate, int status) {
+            return new Profile(latencyMs, jitterMs, rate, status, bytesPerSecond);
+        }
+
+        public Profile withBandwidth(long bytesPerSecond) {
+            return new Profile(latencyMs, jitterMs, errorRate, errorStatus, bytesPerSecond);
+        }
+    }
+
+    /** One table: rows in insertion order plus its primary-key sequence. */
+    private static final class Table {
+        final String          idColumn;
+        final List<JsonObject> rows   = new ArrayList<>();
+        final AtomicLong      nextId = new AtomicLong(1);
+
+        Table(String idColumn) { this.idColumn = idColumn; }
+    }
+
+    private final MockWebServer      server   = new MockWebServer();
+    private final Map<String, Table> tables   = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> storage = new ConcurrentHashMap<>();
+    private final Random             random;
+    private final AtomicInteger      requests       = new AtomicInteger();
+    private final AtomicInteger      pendingFailures = new AtomicInteger();
+    private volatile int             pendingFailureStatus = 503;
+    private final AtomicInteger      pendingDrops = new AtomicInteger();
+    private volatile Profile         profile = Profile.instant();
+
+    // Precondition: None
+    // Postcondition: A server with the app's (empty) tables is created; call start() to listen
+    public FakeSupabaseServer(long seed) {
+        this.random = new Random(seed);
+        tables.put("Farm",           new Table("id"));
+        tables.put("Vegetationtbl",  new Table("id"));
+        tables.put("UserVegetation", new Table("UserVegID"));
+        tables.put("UserVegetationActivation", new Table("ActivationID"));
+        tables.put("FarmGallery",    new Table("id"));
+        tables.put("User",           new Table("id"));
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Control
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Precondition: Not started yet
+    // Postcondition: The server listens on localhost; returns its base URL (no trailing slash)
+    public String start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handle(request);
+            }
+        });
+        server.start();
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    // Precondition: profile is not null
+    // Postcondition: Every following response is shaped by profile
+    public void setProfile(Profile profile) { this.profile = profile; }
+
+    // Precondition: count >= 0
+    // Postcondition: The next count requests are answered with the given status
+    public void failNext(int count, int status) {
+        pendingFailureStatus = status;
+        pendingFailures.set(count);
+    }
+
+    // Precondition: count >= 0
+    // Postcondition: The next count responses send their headers and half the
+    // body, then the connection is dropped (a reset mid-body)
+    public void dropNextMidBody(int count) {
+        pendingDrops.set(count);
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the number of requests received so far
+    public int requestCount() { return requests.get(); }
+
+    // Precondition: table is one of the served tables; row serialises to a JSON object
+    // Postcondition: The row is stored (with a generated id if it had none); returns the stored copy
+    public JsonObject insert(String table, Object row) {
+        JsonObject json = ModelJson.GSON.toJsonTree(row).getAsJsonObject();
+        Table t = table(table);
+        synchronized (t) {
+            return insertLocked(table, t, json).deepCopy();
+        }
+    }
+
+    // Precondition: table is one of the served tables; every row serialises to a JSON object
+    // Postcondition: All rows are stored under one lock (cheap for large seed/soak batches)
+    public void insertAll(String table, List<?> rows) {
+        Table t = table(table);
+        synchronized (t) {
+            for (Object row : rows) insertLocked(table, t, ModelJson.GSON.toJsonTree(row).getAsJsonObject());
+        }
+    }
+
+    // Precondition: table is one of the served tables
+    // Postcondition: Returns a snapshot of the table's rows
+    public List<JsonObject> rows(String table) {
+        Table t = table(table);
+        synchronized (t) {
+            List<JsonObject> copy = new ArrayList<>();
+            for (JsonObject row : t.rows) copy.add(row.deepCopy());
+            return copy;
+        }
+    }
+
+    // Precondition: table is one of the served tables
+    // Postcondition: Returns how many rows the table holds (no copying)
+    public int rowCount(String table) {
+        Table t = table(table);
+        synchronized (t) {
+            return t.rows.size();
+        }
+    }
+
+    // Precondition: None
+    // Postcondition: Returns the stored object at bucket/path, or null
+    public byte[] storedObject(String bucket, String path) { return storage.get(bucket + "/" + path); }
+
+    @Override
+    public void close() throws IOException { server.shutdown(); }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Dispatch
+    // ═════════════════════════════════════════════════════════════════════════
+
+    private MockResponse handle(RecordedRequest request) {
+        requests.incrementAndGet();
+        MockResponse response;
+        if (pendingFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            response = error(pendingFailureStatus, "injected failure");
+        } else if (profile.errorRate > 0 && nextDouble() < profile.errorRate) {
+            response = error(profile.errorStatus, "injected failure");
+        } else {
+            try {
+                response = route(request);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                response = error(400, e.getMessage());
+            }
+        }
+        if (pendingDrops.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+        }
+        return shape(response);
+    }
+
+    private MockResponse route(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        List<String> segments = url.pathSegments();
+        String method = request.getMethod();
+
+        if (segments.size() == 3 && "rest".equals(segments.get(0))) {
+            String name = segments.get(2);
+            if (!tables.containsKey(name)) return error(404, "relation \"" + name + "\" does not exist");
+            switch (method) {
+                case "GET":    return select(name, url);
+                case "POST":   return insertFromRequest(name, request);
+                case "PATCH":  return update(name, url, request);
+                case "DELETE": return delete(name, url);
+                default:       return error(405, method);
+            }
+        }
+        if (segments.size() >= 4 && "storage".equals(segments.get(0))) {
+            boolean isPublic = "public".equals(segments.get(3));
+            int from = isPublic ? 4 : 3;
+            String key = String.join("/", segments.subList(from, segments.size()));
+            if ("POST".equals(method) && !isPublic) {
+                storage.put(key, request.getBody().readByteArray());
+                return new MockResponse().setResponseCode(200)
+                        .setBody("{\"Key\":\"" + key + "\"}");
+            }
+            if ("GET".equals(method) && isPublic) {
+                byte[] bytes = storage.get(key);
+                if (bytes == null) return error(404, "Object not found");
+                return new MockResponse().setResponseCode(200).setBody(new okio.Buffer().write(bytes));
+            }
+        }
+        return error(404, "no route for " + method + " " + url.encodedPath());
+    }
+
+    // ── PostgREST verbs ──────────────────────────────────────────────────────
+
+    private MockResponse select(String name, HttpUrl url) {
+        Table t = table(name);
+        List<JsonObject> matched = new ArrayList<>();
+        synchronized (t) {
+            for (JsonObject row : t.rows) if (matches(row, url)) matched.add(row.deepCopy());
+        }
+
+        String order = url.queryParameter("order");
+        if (order != null) matched.sort(comparator(order));
+
+        int offset = parseInt(url.queryParameter("offset"), 0);
+        int limit  = parseInt(url.queryParameter("limit"), Integer.MAX_VALUE);
+        int end    = (int) Math.min(matched.size(), (long) offset + limit);
+        List<JsonObject> page = offset >= matched.size() ? new ArrayList<>() : matched.subList(offset, end);
+
+        String select = url.queryParameter("select");
+        JsonArray out = new JsonArray();
+        for (JsonObject row : page) out.add(project(row, select));
+        return json(200, out);
+    }
+
+    private MockResponse insertFromRequest(String name, RecordedRequest request) {
+        JsonElement body = JsonParser.parseString(request.getBody().readUtf8());
+        List<JsonObject> incoming = new ArrayList<>();
+        if (body.isJsonArray()) {
+            for (JsonElement e : body.getAsJsonArray()) incoming.add(e.getAsJsonObject());
+        } else {
+            incoming.add(body.getAsJsonObject());
+        }
+
+        Table t = table(name);
+        JsonArray created = new JsonArray();
+        synchronized (t) {
+            for (JsonObject row : incoming) {
+                if (violatesOneActivePerUser(name, t, row, null)) return error(409, "duplicate key value violates unique constraint \"uq_one_active_vegetation_per_user\"");
+                created.add(insertLocked(name, t, row).deepCopy());
+            }
+        }
+        String prefer = request.getHeader("Prefer");
+        if (prefer != null && prefer.contains("return=minimal")) return new MockResponse().setResponseCode(201);
+        return json(201, created);
+    }
+
+    private MockResponse update(String name, HttpUrl url, RecordedRequest request) {
+        JsonObject patch = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject();
+        Table t = table(name);
+        synchronized (t) {
+            List<JsonObject> targets = new ArrayList<>();
+            for (JsonObject row : t.rows) if (matches(row, url)) targets.add(row);
+            for (JsonObject row : targets) {
+                JsonObject after = row.deepCopy();
+                for (Map.Entry<String, JsonElement> e : patch.entrySet()) after.add(e.getKey(), e.getValue());
+                if (violatesOneActivePerUser(name, t, after, row)) return error(409, "duplicate key value violates unique constraint \"uq_one_active_vegetation_per_user\"");
+            }
+            for (JsonObject row : targets) {
+                for (Map.Entry<String, JsonElement> e : patch.entrySet()) row.add(e.getKey(), e.getValue());
+            }
+        }
+        return new MockResponse().setResponseCode(204);
+    }
+
+    private MockResponse delete(String name, HttpUrl url) {
+        Table t = table(name);
+        synchronized (t) {
+            t.rows.removeIf(row -> matches(row, url));
+        }
+        return new MockResponse().setResponseCode(204);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private Table table(String name) {
+        Table t = tables.get(name);
+        if (t == null) throw new IllegalArgumentException("unknown table " + name);
+        return t;
+    }
+
+    // Takes ownership of row; returns the stored object itself (callers copy before handing it out)
+    private JsonObject insertLocked(String name, Table t, JsonObject row) {
+        JsonObject stored = row;
+        JsonElement id = stored.get(t.idColumn);
+        if (id == null || id.isJsonNull() || id.getAsLong() == 0) {
+            stored.addProperty(t.idColumn, t.nextId.getAndIncrement());
+        } else {
+            t.nextId.accumulateAndGet(id.getAsLong() + 1, Math::max);
+        }
+        if (("UserVegetation".equals(name) || "FarmGallery".equals(name)) && !stored.has("date")) {
+            stored.addProperty("date", now());
+        }
+        if ("UserVegetationActivation".equals(name) && !stored.has("activatedAt")) {
+            stored.addProperty("activatedAt", nowWithZone());   // timestamptz, as PostgREST sends it
+        }
+        t.rows.add(stored);
+        return stored;
+    }
+
+    /** Mirrors the partial unique index on UserVegetation(UserID) WHERE isActive. */
+    private static boolean violatesOneActivePerUser(String name, Table t, JsonObject candidate, JsonObject self) {
+        if (!"UserVegetation".equals(name)) return false;
+        JsonElement active = candidate.get("isActive");
+        if (active == null || active.isJsonNull() || !active.getAsBoolean()) return false;
+        for (JsonObject row : t.rows) {
+            if (row == self) continue;
+            JsonElement other = row.get("isActive");
+            if (other != null && !other.isJsonNull() && other.getAsBoolean()
+                    && row.get("UserID").equals(candidate.get("UserID"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(JsonObject row, HttpUrl url) {
+        for (int i = 0; i < url.querySize(); i++) {
+            String column = url.queryParameterName(i);
+            if ("select".equals(column) || "order".equals(column)
+                    || "limit".equals(column) || "offset".equals(column)) continue;
+            String filter = url.queryParameterValue(i);
+            int dot = filter == null ? -1 : filter.indexOf('.');
+            if (dot < 0) throw new IllegalArgumentException("bad filter " + column + "=" + filter);
+            if (!test(row.get(column), filter.substring(0, dot), filter.substring(dot + 1))) return false;
+        }
+        return true;
+    }
+
+    private static boolean test(JsonElement value, String op, String operand) {
+        boolean isNull = value == null || value.isJsonNull();
+        switch (op) {
+            case "is":
+                if ("null".equals(operand)) return isNull;
+                return !isNull && value.getAsString().equalsIgnoreCase(operand);
+            case "in":
+                if (isNull) return false;
+                for (String item : parseList(operand)) if (compare(value, item) == 0) return true;
+                return false;
+            default:
+                if (isNull) return false;
+                int c = compare(value, operand);
+                switch (op) {
+                    case "eq":  return c == 0;
+                    case "neq": return c != 0;
+                    case "gt":  return c > 0;
+                    case "gte": return c >= 0;
+                    case "lt":  return c < 0;
+                    case "lte": return c <= 0;
+                    default:    throw new IllegalArgumentException("unsupported operator " + op);
+                }
+        }
+    }
+
+    private static int compare(JsonElement value, String operand) {
+        JsonPrimitive p = value.getAsJsonPrimitive();
+        if (p.isNumber())  return Double.compare(p.getAsDouble(), Double.parseDouble(operand));
+        if (p.isBoolean()) return Boolean.compare(p.getAsBoolean(), Boolean.parseBoolean(operand));
+        return p.getAsString().compareTo(operand);
+    }
+
+    // "(\"a\",\"b,c\",3)" → [a, b,c, 3]
+    private static List<String> parseList(String operand) {
+        List<String> items = new ArrayList<>();
+        String inner = operand.substring(1, operand.length() - 1);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < inner.length(); i++) {
+            char ch = inner.charAt(i);
+            if (ch == '\\' && quoted && i + 1 < inner.length()) { cur.append(inner.charAt(++i)); continue; }
+            if (ch == '"') { quoted = !quoted; continue; }
+            if (ch == ',' && !quoted) { items.add(cur.toString()); cur.setLength(0); continue; }
+            cur.append(ch);
+        }
+        items.add(cur.toString());
+        return items;
+    }
+
+    private static Comparator<JsonObject> comparator(String order) {
+        Comparator<JsonObject> result = null;
+        for (String term : order.split(",")) {
+            String[] parts = term.split("\\.");
+            String column = parts[0];
+            boolean desc = parts.length > 1 && "desc".equals(parts[1]);
+            Comparator<JsonObject> c = (a, b) -> compareValues(a.get(column), b.get(column));
+            if (desc) c = c.reversed();
+            result = result == null ? c : result.thenComparing(c);
+        }
+        return result;
+    }
+
+    private static int compareValues(JsonElement a, JsonElement b) {
+        boolean aNull = a == null || a.isJsonNull(), bNull = b == null || b.isJsonNull();
+        if (aNull || bNull) return Boolean.compare(aNull, bNull);   // nulls last, like PostgREST asc
+        JsonPrimitive pa = a.getAsJsonPrimitive(), pb = b.getAsJsonPrimitive();
+        if (pa.isNumber() && pb.isNumber()) return Double.compare(pa.getAsDouble(), pb.getAsDouble());
+        return pa.getAsString().compareTo(pb.getAsString());
+    }
+
+    private static JsonObject project(JsonObject row, String select) {
+        if (select == null || "*".equals(select)) return row;
+        JsonObject out = new JsonObject();
+        for (String column : select.split(",")) {
+            JsonElement v = row.get(column.trim());
+            out.add(column.trim(), v == null ? com.google.gson.JsonNull.INSTANCE : v);
+        }
+        return out;
+    }
+
+    private MockResponse shape(MockResponse response) {
+        Profile p = profile;
+        long delay = p.latencyMs + (p.jitterMs > 0 ? (long) (nextDouble() * p.jitterMs) : 0);
+        if (delay > 0) response.setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        if (p.bytesPerSecond > 0) {
+            // MockWebServer sleeps one period per chunk, so use small (10 ms) chunks –
+            // otherwise a 1 KB body would pay a whole second at any bandwidth
+            response.throttleBody(Math.max(1, p.bytesPerSecond / 100), 10, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private synchronized double nextDouble() { return random.nextDouble(); }
+
+    private static MockResponse json(int code, JsonElement body) {
+        return new MockResponse().setResponseCode(code)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body.toString());
+    }
+
+    private static MockResponse error(int code, String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("message", message);
+        return json(code, body);
+    }
+
+    private static int parseInt(String value, int fallback) {
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+
+    // Postcondition: Returns the current time like a timestamptz column, e.g. "2025-06-01T08:00:00.123456+00:00"
+    private static String nowWithZone() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'456+00:00'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date());
+    }
+
+    private static String now() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date());
+    }
+}
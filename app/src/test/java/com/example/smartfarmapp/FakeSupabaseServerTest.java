@@ -0,0 +1,408 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the real repos end-to-end against FakeSupabaseServer: round trips,
+ * injected failures (retry + circuit breaker) and a small load run whose
+ * throughput / p50 / p99 are printed to stdout.
+ *
+ * Run with: ./gradlew :app:testDebugUnitTest --tests "*FakeSupabaseServerTest*" -i
+ */
+public class FakeSupabaseServerTest {
+
+    private FakeSupabaseServer server;
+    private ScheduledExecutorService callbackThread;
+
+    private SupabaseService    farms;
+    private VegetationRepo     vegetations;
+    private UserVegetationRepo links;
+    private FarmGalleryRepo    gallery;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeSupabaseServer(7);
+        String baseUrl = server.start();
+
+        // One thread plays the role of the main thread: callbacks run in order on it
+        callbackThread = Executors.newSingleThreadScheduledExecutor();
+        BaseRepo.useCallbackDispatcher(new BaseRepo.CallbackDispatcher() {
+            @Override public void post(Runnable task) { callbackThread.execute(task); }
+            @Override public void postDelayed(Runnable task, long delayMs) {
+                callbackThread.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+            }
+        });
+        BaseRepo.useBaseUrl(baseUrl);
+        BaseRepo.resetResilienceState();
+
+        farms       = new SupabaseService();   // its static init installs the Farm budget…
+        vegetations = new VegetationRepo();
+        links       = new UserVegetationRepo();
+        gallery     = new FarmGalleryRepo();
+        // …which a load test would exhaust in a few calls, so lift every budget
+        for (String table : new String[] {"Farm", "Vegetationtbl", "UserVegetation", "FarmGallery"}) {
+            RateLimiter.configure("/rest/v1/" + table, 1_000_000, 1_000_000);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        BaseRepo.useBaseUrl(null);
+        BaseRepo.useCallbackDispatcher(null);
+        BaseRepo.resetResilienceState();
+        callbackThread.shutdownNow();
+        server.close();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Round trips
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void fetchFarms_returnsOnlyTheUsersRows_newestFirst_projected() throws Exception {
+        server.insert("Farm", new Farm(0, 1, 20, 50, 60, "2025-06-01T08:00:00"));
+        server.insert("Farm", new Farm(0, 2, 99, 99, 99, "2025-06-01T09:00:00"));
+        server.insert("Farm", new Farm(0, 1, 22, 55, 65, "2025-06-01T10:00:00"));
+
+        Result<List<Farm>> result = new Result<>();
+        farms.fetchFarms(1, new SupabaseService.FarmCallback() {
+            @Override public void onSuccess(List<Farm> r) { result.ok(r); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+        List<Farm> rows = result.get();
+
+        assertEquals(2, rows.size());
+        assertEquals("2025-06-01T10:00:00", rows.get(0).getDateTime());
+        assertEquals(22, rows.get(0).getTemp());
+        assertEquals(1, rows.get(1).getUserID());
+    }
+
+    @Test
+    public void vegetation_addFetchUpdateDelete() throws Exception {
+        Vegetation veg = new Vegetation();
+        veg.setUserID(3L);
+        veg.setName("Basil");
+        veg.setDayTempMin(18f);
+        veg.setDayTempMax(30f);
+
+        Result<Void> added = new Result<>();
+        vegetations.addVegetation(veg, new VegetationRepo.AddVegetationCallback() {
+            @Override public void onSuccess(Void r) { added.ok(r); }
+            @Override public void onFailure(Exception e) { added.fail(e); }
+        });
+        added.get();
+
+        Result<List<Vegetation>> summaries = new Result<>();
+        vegetations.fetchVegetationSummariesForUser(3L, new VegetationRepo.FetchVegetationsCallback() {
+            @Override public void onSuccess(List<Vegetation> r) { summaries.ok(r); }
+            @Override public void onFailure(Exception e) { summaries.fail(e); }
+        });
+        Vegetation summary = summaries.get().get(0);
+        assertEquals("Basil", summary.getName());
+        assertEquals(0f, summary.getDayTempMax(), 0f);   // not in the summary projection
+
+        Result<Vegetation> full = new Result<>();
+        vegetations.fetchVegetationById(summary.getId(), new VegetationRepo.FetchVegetationCallback() {
+            @Override public void onSuccess(Vegetation r) { full.ok(r); }
+            @Override public void onFailure(Exception e) { full.fail(e); }
+        });
+        Vegetation loaded = full.get();
+        assertEquals(30f, loaded.getDayTempMax(), 0f);
+
+        loaded.setDayTempMax(28f);
+        Result<Void> updated = new Result<>();
+        vegetations.updateVegetation(loaded, new VegetationRepo.UpdateVegetationCallback() {
+            @Override public void onSuccess(Void r) { updated.ok(r); }
+            @Override public void onFailure(Exception e) { updated.fail(e); }
+        });
+        updated.get();
+        assertEquals(28f, server.rows("Vegetationtbl").get(0).get("dayTempMax").getAsFloat(), 0f);
+
+        Result<Void> deleted = new Result<>();
+        vegetations.deleteVegetation(loaded.getId(), new VegetationRepo.DeleteVegetationCallback() {
+            @Override public void onSuccess(Void r) { deleted.ok(r); }
+            @Override public void onFailure(Exception e) { deleted.fail(e); }
+        });
+        deleted.get();
+        assertTrue(server.rows("Vegetationtbl").isEmpty());
+    }
+
+    @Test
+    public void setActiveVegetation_leavesExactlyOneActiveRow() throws Exception {
+        server.insert("UserVegetation", new UserVegetationRepo.UserVegetationRow(5L, 10L, true));
+        JsonObject second = server.insert("UserVegetation", new UserVegetationRepo.UserVegetationRow(5L, 11L, false));
+
+        activate(5L, second.get("UserVegID").getAsLong(), 11L);
+
+        int active = 0;
+        for (JsonObject row : server.rows("UserVegetation")) {
+            if (row.get("isActive").getAsBoolean()) {
+                active++;
+                assertEquals(11L, row.get("VegetationID").getAsLong());
+            }
+        }
+        assertEquals(1, active);
+    }
+
+    @Test
+    public void setActiveVegetation_appendsHistory_andKeepsLinkDates() throws Exception {
+        UserVegetationRepo.UserVegetationRow a = new UserVegetationRepo.UserVegetationRow(5L, 10L, false);
+        a.date = "2024-03-01T00:00:00";
+        UserVegetationRepo.UserVegetationRow b = new UserVegetationRepo.UserVegetationRow(5L, 11L, false);
+        b.date = "2024-04-01T00:00:00";
+        long idA = server.insert("UserVegetation", a).get("UserVegID").getAsLong();
+        long idB = server.insert("UserVegetation", b).get("UserVegID").getAsLong();
+
+        activate(5L, idA, 10L);          // A → B → A
+        activate(5L, idB, 11L);
+        activate(5L, idA, 10L);
+
+        for (JsonObject row : server.rows("UserVegetation")) {
+            String linked = row.get("VegetationID").getAsLong() == 10L ? a.date : b.date;
+            assertEquals(linked, row.get("date").getAsString());
+        }
+
+        Result<List<UserVegetationRepo.ActivationRow>> history = new Result<>();
+        links.fetchActivations(5, new UserVegetationRepo.ActivationListCallback() {
+            @Override public void onSuccess(List<UserVegetationRepo.ActivationRow> rows) { history.ok(rows); }
+            @Override public void onFailure(Exception e) { history.fail(e); }
+        });
+        List<UserVegetationRepo.ActivationRow> rows = history.get();
+        assertEquals(3, rows.size());
+        assertEquals(Long.valueOf(10L), rows.get(0).VegetationID);
+        assertEquals(Long.valueOf(11L), rows.get(1).VegetationID);
+        assertEquals(Long.valueOf(10L), rows.get(2).VegetationID);
+        assertNotNull(rows.get(2).activatedAt);
+    }
+
+    @Test
+    public void galleryUpload_storesBytesAndInsertsRow() throws Exception {
+        byte[] photo = new byte[20_000];
+        new java.util.Random(1).nextBytes(photo);
+
+        Result<String> result = new Result<>();
+        gallery.uploadBytesAndSave(photo, "image/jpeg", 9L, new FarmGalleryRepo.UploadCallback() {
+            @Override public void onSuccess(String publicUrl) { result.ok(publicUrl); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+        String publicUrl = result.get();
+
+        String path = publicUrl.substring(publicUrl.lastIndexOf('/') + 1);
+        assertArrayEquals(photo, server.storedObject("farm-gallery", path));
+        List<JsonObject> rows = server.rows("FarmGallery");
+        assertEquals(1, rows.size());
+        assertEquals(9L, rows.get(0).get("UserID").getAsLong());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Fault injection
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void transient503_isRetried() throws Exception {
+        server.insert("Farm", new Farm(0, 1, 20, 50, 60, "2025-06-01T08:00:00"));
+        server.failNext(2, 503);
+
+        Result<List<Farm>> result = new Result<>();
+        farms.fetchFarms(1, new SupabaseService.FarmCallback() {
+            @Override public void onSuccess(List<Farm> r) { result.ok(r); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+
+        assertEquals(1, result.get().size());
+        assertEquals(3, server.requestCount());   // 2 failures + the successful retry
+    }
+
+    @Test
+    public void persistentFailures_openTheBreaker_andStopHittingTheServer() throws Exception {
+        server.setProfile(FakeSupabaseServer.Profile.instant().withErrors(1.0, 500));
+
+        // Each fetch makes 3 attempts; the breaker opens after 5 consecutive failures
+        for (int i = 0; i < 2; i++) {
+            Result<List<Farm>> result = new Result<>();
+            farms.fetchFarms(1, new SupabaseService.FarmCallback() {
+                @Override public void onSuccess(List<Farm> r) { result.ok(r); }
+                @Override public void onFailure(Exception e) { result.fail(e); }
+            });
+            assertNotNull(result.failure());
+        }
+        int before = server.requestCount();
+
+        Result<List<Farm>> blocked = new Result<>();
+        farms.fetchFarms(1, new SupabaseService.FarmCallback() {
+            @Override public void onSuccess(List<Farm> r) { blocked.ok(r); }
+            @Override public void onFailure(Exception e) { blocked.fail(e); }
+        });
+        assertTrue(blocked.failure() instanceof CircuitOpenException);
+        assertEquals(before, server.requestCount());
+    }
+
+    @Test
+    public void successfulWrite_dropsTheTablesCachedGets() throws Exception {
+        Vegetation veg = new Vegetation();
+        veg.setUserID(3L);
+        veg.setName("Basil");
+        server.insert("Vegetationtbl", veg);
+        assertEquals("Basil", fetchVegetations().get().get(0).getName());
+
+        // Breaker opens on one failure: the outage is bridged with the cached list
+        BaseRepo.useBreaker(new CircuitBreaker("/rest/v1/Vegetationtbl", 1, 60_000, 60_000));
+        server.failNext(1, 503);
+        assertEquals("Basil", fetchVegetations().get().get(0).getName());
+
+        BaseRepo.useBreaker(CircuitBreaker.withDefaults("/rest/v1/Vegetationtbl"));
+        Vegetation renamed = fetchVegetations().get().get(0);
+        renamed.setName("Mint");
+        Result<Void> updated = new Result<>();
+        vegetations.updateVegetation(renamed, new VegetationRepo.UpdateVegetationCallback() {
+            @Override public void onSuccess(Void r) { updated.ok(r); }
+            @Override public void onFailure(Exception e) { updated.fail(e); }
+        });
+        updated.get();
+
+        // Same outage after the rename: "Basil" must not come back
+        BaseRepo.useBreaker(new CircuitBreaker("/rest/v1/Vegetationtbl", 1, 60_000, 60_000));
+        server.failNext(1, 503);
+        assertTrue(fetchVegetations().failure() instanceof CircuitOpenException);
+    }
+
+    @Test
+    public void trialRefusedByTheRateLimiter_doesNotWedgeTheBreaker() throws Exception {
+        server.insert("Farm", new Farm(0, 1, 20, 50, 60, "2025-06-01T00:00:00"));
+        CircuitBreaker breaker = new CircuitBreaker("/rest/v1/Farm", 1, 1_000, 2_000);
+        BaseRepo.useBreaker(breaker);
+
+        server.failNext(1, 503);                                   // opens the breaker (threshold 1)
+        assertTrue(fetchFarms().failure() instanceof CircuitOpenException);
+
+        RateLimiter.configure("/rest/v1/Farm", 1, 0.001);          // one token, practically no refill…
+        assertTrue(RateLimiter.tryAcquire("/rest/v1/Farm"));       // …and it is spent
+        Thread.sleep(1_100);                                       // cool-down over: next call is the trial
+        assertTrue(fetchFarms().failure() instanceof RateLimitedException);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        RateLimiter.configure("/rest/v1/Farm", 1_000_000, 1_000_000);
+        assertEquals(1, fetchFarms().get().size());                // the trial slot was given back
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void resetMidBody_duringHalfOpenTrial_reopensTheBreaker_andItRecovers() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            server.insert("Farm", new Farm(0, 1, 20, 50, 60,
+                    String.format(java.util.Locale.US, "2025-06-01T%02d:%02d:00", i / 60, i % 60)));
+        }
+        // Cool-downs longer than the first retry delay (≤ 500 ms), so the retry is refused
+        CircuitBreaker breaker = new CircuitBreaker("/rest/v1/Farm", 1, 1_000, 2_000);
+        BaseRepo.useBreaker(breaker);
+
+        server.failNext(1, 503);                                   // opens the breaker (threshold 1)
+        assertTrue(fetchFarms().failure() instanceof CircuitOpenException);
+        Thread.sleep(1_100);                                       // cool-down over: next call is the trial
+
+        server.dropNextMidBody(1);
+        assertNotNull(fetchFarms().failure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());   // not stuck in HALF_OPEN
+
+        Thread.sleep(2_100);
+        assertEquals(50, fetchFarms().get().size());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Load (only "no errors" is asserted; the report is in the failure message)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void load_fetchFarms_overLte() throws Exception {
+        for (int user = 0; user < 50; user++) {
+            for (int i = 0; i < 20; i++) {
+                server.insert("Farm", new Farm(0, user, 20 + i % 10, 50, 60,
+                        String.format(java.util.Locale.US, "2025-06-01T%02d:00:00", i)));
+            }
+        }
+        server.setProfile(FakeSupabaseServer.Profile.lte());
+
+        LoadTestHarness.Report report = LoadTestHarness.run(400, 16, (i, done) ->
+                farms.fetchFarms(i % 50, new SupabaseService.FarmCallback() {
+                    @Override public void onSuccess(List<Farm> r) { done.success(); }
+                    @Override public void onFailure(Exception e) { done.failure(e); }
+                }));
+
+        assertEquals(report + ", first error: " + report.firstError, 0, report.errors);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Helpers
+    // ═════════════════════════════════════════════════════════════════════════
+
+    // Postcondition: Returns the result of fetchFarms(1)
+    private Result<List<Farm>> fetchFarms() {
+        Result<List<Farm>> result = new Result<>();
+        farms.fetchFarms(1, new SupabaseService.FarmCallback() {
+            @Override public void onSuccess(List<Farm> r) { result.ok(r); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+        return result;
+    }
+
+    // Postcondition: Returns the result of fetchVegetationSummariesForUser(3)
+    private Result<List<Vegetation>> fetchVegetations() {
+        Result<List<Vegetation>> result = new Result<>();
+        vegetations.fetchVegetationSummariesForUser(3L, new VegetationRepo.FetchVegetationsCallback() {
+            @Override public void onSuccess(List<Vegetation> r) { result.ok(r); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+        return result;
+    }
+
+    // Postcondition: userVegId is the user's active row and the activation is recorded
+    private void activate(long userId, long userVegId, long vegetationId) throws Exception {
+        Result<Void> result = new Result<>();
+        links.setActiveVegetation(userId, userVegId, vegetationId, new UserVegetationRepo.SetActiveCallback() {
+            @Override public void onSuccess(Void r) { result.ok(r); }
+            @Override public void onFailure(Exception e) { result.fail(e); }
+        });
+        result.get();
+    }
+
+    /** Bridges a repo callback to the test thread. */
+    private static final class Result<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        void ok(T value)        { future.complete(value); }
+        void fail(Exception e)  { future.completeExceptionally(e); }
+
+        // Postcondition: Returns the delivered value, or throws the delivered failure
+        T get() throws Exception {
+            try {
+                return future.get(20, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+
+        // Postcondition: Returns the delivered failure, or null if the call succeeded
+        Exception failure() throws Exception {
+            try {
+                future.get(20, TimeUnit.SECONDS);
+                return null;
+            } catch (ExecutionException e) {
+                return (Exception) e.getCause();
+            }
+        }
+    }
+}
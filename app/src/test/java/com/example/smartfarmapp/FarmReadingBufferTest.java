@@ -0,0 +1,108 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ring-buffer bookkeeping of FarmReadingBuffer: wrap-around, views that
+ * survive (or don't) later appends, time search, and that its range check
+ * agrees with RangeCheck on Farm objects.
+ */
+public class FarmReadingBufferTest {
+
+    @Test
+    public void append_wrapsAround_keepingTheNewest() {
+        FarmReadingBuffer buffer = new FarmReadingBuffer(4);
+        for (int i = 1; i <= 6; i++) buffer.append(i, i * 1000L, 10 + i, 20 + i, 30 + i);
+
+        assertEquals(4, buffer.size());
+        assertEquals(3, buffer.id(0));          // oldest kept
+        assertEquals(6, buffer.id(3));          // newest
+        assertEquals(16, buffer.temp(3));
+        assertEquals(25, buffer.value(2, RangeCheck.GROUND_HUMID));
+    }
+
+    @Test
+    public void views_readTheSameArrays_andGoStaleWhenOverwritten() {
+        FarmReadingBuffer buffer = new FarmReadingBuffer(5);
+        for (int i = 1; i <= 3; i++) buffer.append(i, i * 1000L, i, i, i);
+
+        FarmReadingBuffer.View last2 = buffer.latest(2);
+        assertEquals(2, last2.size());
+        assertEquals(2, last2.id(0));
+        assertEquals(3, last2.id(1));
+
+        // Two more appends fill the buffer; nothing the view covers is overwritten yet
+        buffer.append(4, 4000L, 4, 4, 4);
+        buffer.append(5, 5000L, 5, 5, 5);
+        assertTrue(last2.isValid());
+        assertEquals(2, last2.id(0));
+
+        // Two more overwrite readings 1 and 2 – reading 2 was in the view
+        buffer.append(6, 6000L, 6, 6, 6);
+        buffer.append(7, 7000L, 7, 7, 7);
+        assertFalse(last2.isValid());
+
+        FarmReadingBuffer.View fresh = buffer.view();
+        buffer.clear();
+        assertFalse(fresh.isValid());
+    }
+
+    @Test
+    public void since_findsTheFirstReadingAtOrAfter() {
+        FarmReadingBuffer buffer = new FarmReadingBuffer(8);
+        for (int i = 0; i < 12; i++) buffer.append(i, i * 60_000L, i, i, i);   // holds minutes 4..11
+
+        assertEquals(0, buffer.indexAtOrAfter(0));
+        assertEquals(3, buffer.indexAtOrAfter(7 * 60_000L));
+        assertEquals(3, buffer.indexAtOrAfter(6 * 60_000L + 1));
+        assertEquals(8, buffer.indexAtOrAfter(99 * 60_000L));
+
+        FarmReadingBuffer.View since = buffer.since(9 * 60_000L);
+        assertEquals(3, since.size());
+        assertEquals(9, since.id(0));
+    }
+
+    @Test
+    public void replaceWithNewestFirst_keepsTheNewestRows_oldestFirst() {
+        List<Farm> newestFirst = new ArrayList<>();
+        for (int i = 10; i >= 1; i--) {
+            newestFirst.add(new Farm(i, 1, i, i, i, String.format("2025-06-01T%02d:00:00", i)));
+        }
+        FarmReadingBuffer buffer = new FarmReadingBuffer(4);
+        buffer.replaceWithNewestFirst(newestFirst);
+
+        assertEquals(4, buffer.size());
+        assertEquals(7, buffer.id(0));
+        assertEquals(10, buffer.id(3));
+        assertEquals("2025-06-01T10:00:00", buffer.toFarm(3).getDateTime());
+    }
+
+    @Test
+    public void outOfRangeMask_matchesRangeCheckOnFarm() throws Exception {
+        Vegetation veg = new Vegetation();
+        veg.setDayTempMin(18);          veg.setDayTempMax(30);
+        veg.setNightTempMin(14);        veg.setNightTempMax(22);
+        veg.setDayGroundHumidMin(40);   veg.setDayGroundHumidMax(80);
+        veg.setNightGroundHumidMin(45); veg.setNightGroundHumidMax(85);
+        veg.setDayAirHumidMin(50);      veg.setDayAirHumidMax(80);
+        veg.setNightAirHumidMin(55);    veg.setNightAirHumidMax(90);
+
+        FarmReadingBuffer buffer = new FarmReadingBuffer(2_000);
+        List<Farm> farms = new ArrayList<>();
+        new FarmStreamGenerator(FarmStreamGenerator.Config.defaults()).feed(batch -> {
+            for (Farm f : batch) { buffer.append(f); farms.add(f); }
+        }, 2_000);
+
+        FarmReadingBuffer.View all = buffer.view();
+        for (int i = 0; i < farms.size(); i++) {
+            Farm f = farms.get(i);
+            int expected = RangeCheck.outOfRangeMask(f, veg, FarmTime.isDayTime(f.getDateTime()));
+            assertEquals("reading " + i, expected, all.outOfRangeMask(i, veg));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * FarmRollups against a brute-force recomputation over the raw rows, plus
+ * de-duplication, late readings, capacity and the file round trip.
+ */
+public class FarmRollupsTest {
+
+    @Test
+    public void hourlyAndDaily_matchBruteForce() throws Exception {
+        List<Farm> rows = generate(20 * 24 * 60, 1);
+        FarmRollups rollups = new FarmRollups();
+        for (Farm f : rows) rollups.ingest(f);
+
+        assertMatches(rows, rollups.hourly());
+        assertMatches(rows, rollups.daily());
+        assertEquals(20, rollups.daily().size(), 1);
+    }
+
+    @Test
+    public void ingestNewestFirst_countsEachRowOnce() throws Exception {
+        List<Farm> rows = generate(3_000, 2);
+        FarmRollups rollups = new FarmRollups();
+
+        // The fragment hands in the whole (growing) list on every refresh
+        for (int end = 1_000; end <= rows.size(); end += 1_000) {
+            List<Farm> newestFirst = new ArrayList<>(rows.subList(0, end));
+            Collections.reverse(newestFirst);
+            int ingested = rollups.ingestNewestFirst(newestFirst);
+            assertEquals(1_000, ingested);
+            assertEquals(0, rollups.ingestNewestFirst(newestFirst));
+        }
+        long total = 0;
+        for (int i = 0; i < rollups.hourly().size(); i++) total += rollups.hourly().count(i);
+        assertEquals(rows.size(), total);
+    }
+
+    @Test
+    public void lateReading_landsInItsOwnHour() {
+        TimeBucketRollup hourly = new TimeBucketRollup(TimeBucketRollup.HOUR_MS, 10);
+        long t0 = FarmTime.fromLocalMillis(1_000 * TimeBucketRollup.HOUR_MS);
+        hourly.add(t0,                                   10, 50, 60);
+        hourly.add(t0 + 3 * TimeBucketRollup.HOUR_MS,    30, 50, 60);
+        hourly.add(t0 + 1 * TimeBucketRollup.HOUR_MS,    20, 50, 60);   // late, missing hour
+        hourly.add(t0 + 30 * 60_000L,                    14, 50, 60);   // late, existing hour
+
+        assertEquals(3, hourly.size());
+        assertEquals(1_000, hourly.key(0));
+        assertEquals(1_001, hourly.key(1));
+        assertEquals(1_003, hourly.key(2));
+        assertEquals(12f, hourly.avg(0, RangeCheck.TEMP), 0f);
+        assertEquals(20, hourly.max(1, RangeCheck.TEMP));
+        assertEquals(t0, hourly.startMillis(0));
+    }
+
+    @Test
+    public void full_dropsTheOldest_andRejectsOlderLateReadings() {
+        TimeBucketRollup hourly = new TimeBucketRollup(TimeBucketRollup.HOUR_MS, 3);
+        long t0 = FarmTime.fromLocalMillis(500 * TimeBucketRollup.HOUR_MS);
+        for (int h = 0; h < 5; h++) hourly.add(t0 + h * TimeBucketRollup.HOUR_MS, h, h, h);
+
+        assertEquals(3, hourly.size());
+        assertEquals(502, hourly.key(0));
+        assertFalse(hourly.add(t0, 1, 1, 1));
+    }
+
+    @Test
+    public void bytes_roundTrip() throws Exception {
+        FarmRollups rollups = new FarmRollups();
+        for (Farm f : generate(5 * 24 * 60, 3)) rollups.ingest(f);
+
+        FarmRollups restored = new FarmRollups();
+        restored.restore(rollups.toBytes());
+
+        assertEquals(rollups.lastIngestedId(), restored.lastIngestedId());
+        assertArrayEquals(rollups.toBytes(), restored.toBytes());
+
+        try {
+            restored.restore(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+            fail("garbage must be rejected");
+        } catch (java.io.IOException expected) {
+            assertEquals(0, restored.hourly().size());
+        }
+    }
+
+    @Test
+    public void suggestRanges_readsPercentilesFromTheSketches() throws Exception {
+        List<Farm> rows = generate(10 * 24 * 60, 4);
+        FarmRollups rollups = new FarmRollups();
+        assertNull(rollups.suggestRanges(0.05, 0.95, FarmRollups.SUGGEST_MIN_READINGS));
+        for (Farm f : rows) rollups.ingest(f);
+
+        Vegetation suggested = rollups.suggestRanges(0.05, 0.95, FarmRollups.SUGGEST_MIN_READINGS);
+
+        List<Integer> dayTemps = new ArrayList<>();
+        for (Farm f : rows) if (FarmTime.isDayTime(f.getDateTime())) dayTemps.add(f.getTemp());
+        Collections.sort(dayTemps);
+        assertEquals(dayTemps.get(dayTemps.size() * 5 / 100), suggested.getDayTempMin(), 1);
+        assertEquals(dayTemps.get(dayTemps.size() * 95 / 100), suggested.getDayTempMax(), 1);
+        assertTrue(suggested.getNightGroundHumidMin() <= suggested.getNightGroundHumidMax());
+        assertNull(suggested.getId());
+    }
+
+    @Test
+    public void versionOneFile_isStillRead_withEmptySketches() throws Exception {
+        FarmRollups rollups = new FarmRollups();
+        for (Farm f : generate(2 * 24 * 60, 5)) rollups.ingest(f);
+        byte[] current = rollups.toBytes();
+
+        // Version 1 = the same header and rollups, without the trailing sketches
+        java.io.ByteArrayOutputStream sketchBytes = new java.io.ByteArrayOutputStream();
+        java.io.DataOutputStream out = new java.io.DataOutputStream(sketchBytes);
+        for (int m = 0; m < RangeCheck.METRIC_COUNT; m++) {
+            rollups.sketch(m, true).writeTo(out);
+            rollups.sketch(m, false).writeTo(out);
+        }
+        byte[] v1 = java.util.Arrays.copyOf(current, current.length - sketchBytes.size());
+        v1[7] = 1;
+
+        FarmRollups restored = new FarmRollups();
+        restored.restore(v1);
+
+        assertEquals(rollups.hourly().size(), restored.hourly().size());
+        assertTrue(restored.sketch(RangeCheck.TEMP, true).isEmpty());
+    }
+
+    @Test
+    public void yearOfMinutes_ingestCost() throws Exception {
+        FarmRollups rollups = new FarmRollups();
+        FarmStreamGenerator generator = new FarmStreamGenerator(FarmStreamGenerator.Config.defaults());
+        long[] nanos = new long[1];
+        generator.feed(batch -> {
+            long start = System.nanoTime();
+            for (Farm f : batch) rollups.ingest(f);
+            nanos[0] += System.nanoTime() - start;
+        }, 365 * 24 * 60);
+
+        assertEquals(FarmRollups.HOURLY_BUCKETS, rollups.hourly().size());
+        assertTrue(rollups.toBytes().length < 200 * 1024);   // "about 170 KB" for a full year
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(nanos[0]) < 30);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static List<Farm> generate(int count, long seed) throws Exception {
+        List<Farm> rows = new ArrayList<>(count);
+        new FarmStreamGenerator(FarmStreamGenerator.Config.defaults().withSeed(seed)).feed(rows::addAll, count);
+        return rows;
+    }
+
+    private static void assertMatches(List<Farm> rows, TimeBucketRollup rollup) {
+        TreeMap<Long, int[]> expected = new TreeMap<>();   // key → count, then min/max/sum per metric
+        for (Farm f : rows) {
+            long key = Math.floorDiv(FarmTime.toLocalMillis(FarmTime.toEpochMillis(f.getDateTime())),
+                    rollup.bucketMillis());
+            int[] agg = expected.computeIfAbsent(key, k -> new int[] {0,
+                    Integer.MAX_VALUE, Integer.MIN_VALUE, 0,
+                    Integer.MAX_VALUE, Integer.MIN_VALUE, 0,
+                    Integer.MAX_VALUE, Integer.MIN_VALUE, 0});
+            agg[0]++;
+            for (int m = 0; m < RangeCheck.METRIC_COUNT; m++) {
+                int v = RangeCheck.value(f, m);
+                agg[1 + m * 3] = Math.min(agg[1 + m * 3], v);
+                agg[2 + m * 3] = Math.max(agg[2 + m * 3], v);
+                agg[3 + m * 3] += v;
+            }
+        }
+        assertEquals(expected.size(), rollup.size());
+        int i = 0;
+        for (java.util.Map.Entry<Long, int[]> e : expected.entrySet()) {
+            int[] agg = e.getValue();
+            assertEquals((long) e.getKey(), rollup.key(i));
+            assertEquals(agg[0], rollup.count(i));
+            for (int m = 0; m < RangeCheck.METRIC_COUNT; m++) {
+                assertEquals(agg[1 + m * 3], rollup.min(i, m));
+                assertEquals(agg[2 + m * 3], rollup.max(i, m));
+                assertEquals((float) agg[3 + m * 3] / agg[0], rollup.avg(i, m), 1e-4f);
+            }
+            i++;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.smartfarmapp;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FarmStreamGenerator
+ * ────────────────────
+ * Produces realistic Farm rows for soak tests – as many as you like, in time
+ * order, fully determined by the seed.
+ *
+ * What the rows look like:
+ *   • Temperature follows a daily curve (coolest ~05:00, warmest ~15:00) plus
+ *     a slowly drifting weather offset and per-reading noise.
+ *   • Air humidity moves against temperature (warm afternoons are dry).
+ *   • Ground humidity dries out through the day and jumps back up at each
+ *     irrigation time.
+ *   • Sensor outages: the sensor stops reporting for a while – a gap in dateTime.
+ *   • Link outages: readings keep being taken but are held on the device and
+ *     delivered as one large batch when it reconnects – a bursty insert.
+ *
+ * Rows reach a {@link Sink} in batches. Normally a batch is one reading; after a
+ * link outage it is the whole backlog. {@link #feed} pushes batches as fast as the
+ * sink takes them; {@link #play} paces them in real time at a target rate.
+ */
+final class FarmStreamGenerator {
+
+    /** Receives delivered batches, oldest reading first. */
+    interface Sink {
+        void accept(List<Farm> batch) throws Exception;
+    }
+
+    /** Generator settings. Immutable; start from defaults() and use the with* copies. */
+    static final class Config {
+        final int    userId;
+        final long   startMillis;          // UTC millis of the first reading
+        final int    intervalSeconds;      // nominal spacing between readings
+        final double sensorOutagePerDay;   // expected sensor outages per day
+        final double linkOutagePerDay;     // expected link outages per day
+        final int    maxOutageMinutes;
+        final int[]  irrigationHours;
+        final long   seed;
+
+        private Config(int userId, long startMillis, int intervalSeconds, double sensorOutagePerDay,
+                       double linkOutagePerDay, int maxOutageMinutes, int[] irrigationHours, long seed) {
+            this.userId             = userId;
+            this.startMillis        = startMillis;
+            this.intervalSeconds    = intervalSeconds;
+            this.sensorOutagePerDay = sensorOutagePerDay;
+            this.linkOutagePerDay   = linkOutagePerDay;
+            this.maxOutageMinutes   = maxOutageMinutes;
+            this.irrigationHours    = irrigationHours;
+            this.seed               = seed;
+        }
+
+        /** User 1, from 2025-01-01 00:00 UTC, one reading a minute, ~1 outage of each kind a day. */
+        static Config defaults() {
+            return new Config(1, 1_735_689_600_000L, 60, 1.0, 1.0, 90, new int[] {6, 18}, 42);
+        }
+
+        Config withUser(int userId) {
+            return new Config(userId, startMillis, intervalSeconds, sensorOutagePerDay,
+                    linkOutagePerDay, maxOutageMinutes, irrigationHours, seed);
+        }
+
+        Config withInterval(int seconds) {
+            return new Config(userId, startMillis, seconds, sensorOutagePerDay,
+                    linkOutagePerDay, maxOutageMinutes, irrigationHours, seed);
+        }
+
+        Config withOutages(double sensorPerDay, double linkPerDay, int maxMinutes) {
+            return new Config(userId, startMillis, intervalSeconds, sensorPerDay,
+                    linkPerDay, maxMinutes, irrigationHours, seed);
+        }
+
+        Config withSeed(long seed) {
+            return new Config(userId, startMillis, intervalSeconds, sensorOutagePerDay,
+                    linkOutagePerDay, maxOutageMinutes, irrigationHours, seed);
+        }
+    }
+
+    private final Config   config;
+    private final Random   random;
+    private final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"), Locale.US);
+
+    private long   nextId = 1;
+    private long   clockMillis;
+    private double weatherOffset;        // slow random walk, °C
+    private double groundHumid = 70;
+    private int    lastIrrigationDay = -1;
+    private int    lastIrrigationHour = -1;
+    private long   linkDownUntilMillis;  // readings before this are held back
+    private final List<Farm> backlog = new ArrayList<>();
+
+    private long delivered;
+    private long batches;
+    private long largestBatch;
+    private long gaps;
+    private long irrigations;
+
+    // Precondition: config is not null
+    // Postcondition: A generator positioned at config.startMillis is created
+    FarmStreamGenerator(Config config) {
+        this.config      = config;
+        this.random      = new Random(config.seed);
+        this.clockMillis = config.startMillis;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Driving a sink
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: rows >= 1, sink is not null.
+     * Postcondition: rows readings were generated and all of them were delivered
+     * (an open link outage is flushed at the end); returns the number delivered.
+     */
+    long feed(Sink sink, long rows) throws Exception {
+        long before = delivered;
+        for (long i = 0; i < rows; i++) {
+            List<Farm> batch = step();
+            if (batch != null) deliver(sink, batch);
+        }
+        flush(sink);
+        return delivered - before;
+    }
+
+    /**
+     * Same as feed(), but paced: batches are delivered at about batchesPerSecond,
+     * so a real-time consumer (sync loop, list, alert checker) sees a live stream.
+     *
+     * Precondition: rows >= 1, batchesPerSecond > 0, sink is not null.
+     * Postcondition: As feed(); takes roughly (number of batches / batchesPerSecond) seconds.
+     */
+    long play(Sink sink, long rows, double batchesPerSecond) throws Exception {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / batchesPerSecond);
+        long next   = System.nanoTime();
+        long before = delivered;
+        for (long i = 0; i < rows; i++) {
+            List<Farm> batch = step();
+            if (batch == null) continue;
+            long wait = next - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            deliver(sink, batch);
+            next += periodNanos;
+        }
+        flush(sink);
+        return delivered - before;
+    }
+
+    /** Convenience sink: inserts every row into the stand-in server's Farm table. */
+    static Sink into(FakeSupabaseServer server) {
+        return batch -> server.insertAll("Farm", batch);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Statistics (for soak-test reports)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    long deliveredRows()  { return delivered; }
+    long batchCount()     { return batches; }
+    long largestBatch()   { return largestBatch; }
+    long sensorGaps()     { return gaps; }
+    long irrigations()    { return irrigations; }   // watering events generated so far
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d rows in %d batches (largest %d), %d sensor gaps",
+                delivered, batches, largestBatch, gaps);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Generation
+    // ═════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Precondition: None
+     * Postcondition: Takes one reading and advances the clock. Returns the batch that
+     * becomes deliverable now, or null if the reading is held back by a link outage.
+     */
+    private List<Farm> step() {
+        double perReading = config.intervalSeconds / 86_400.0;
+
+        // A sensor outage skips time without producing readings
+        if (random.nextDouble() < config.sensorOutagePerDay * perReading) {
+            clockMillis += outageMillis();
+            gaps++;
+        }
+        // A link outage starts: readings from now on are held back
+        if (clockMillis >= linkDownUntilMillis
+                && random.nextDouble() < config.linkOutagePerDay * perReading) {
+            linkDownUntilMillis = clockMillis + outageMillis();
+        }
+
+        Farm reading = read();
+        clockMillis += config.intervalSeconds * 1000L;
+
+        if (clockMillis < linkDownUntilMillis) {
+            backlog.add(reading);
+            return null;
+        }
+        if (!backlog.isEmpty()) {
+            backlog.add(reading);
+            List<Farm> burst = new ArrayList<>(backlog);
+            backlog.clear();
+            return burst;
+        }
+        List<Farm> single = new ArrayList<>(1);
+        single.add(reading);
+        return single;
+    }
+
+    private Farm read() {
+        calendar.setTimeInMillis(clockMillis);
+        int    day  = calendar.get(Calendar.DAY_OF_YEAR);
+        int    hour = calendar.get(Calendar.HOUR_OF_DAY);
+        double hourOfDay = hour + calendar.get(Calendar.MINUTE) / 60.0;
+
+        // Weather drifts a little every reading and is pulled back towards 0
+        weatherOffset += random.nextGaussian() * 0.02 - weatherOffset * 0.0005;
+
+        // Coolest around 05:00, warmest around 15:00 (cosine with a 15:00 peak)
+        double diurnal = Math.cos(2 * Math.PI * (hourOfDay - 15) / 24);
+        double temp    = 22 + 7 * diurnal + weatherOffset + random.nextGaussian() * 0.4;
+        double air     = 65 - 15 * diurnal - 1.5 * weatherOffset + random.nextGaussian() * 1.5;
+
+        // Soil dries faster while it's warm, and is watered at the irrigation hours
+        for (int h : config.irrigationHours) {
+            if (hour == h && (day != lastIrrigationDay || hour != lastIrrigationHour)) {
+                groundHumid = Math.min(90, groundHumid + 25);
+                lastIrrigationDay  = day;
+                lastIrrigationHour = hour;
+                irrigations++;
+            }
+        }
+        groundHumid -= (0.02 + 0.02 * Math.max(0, diurnal)) * config.intervalSeconds / 60.0;
+        groundHumid  = Math.max(15, groundHumid);
+        double ground = groundHumid + random.nextGaussian() * 0.8;
+
+        return new Farm((int) nextId++, config.userId,
+                (int) Math.round(temp),
+                clampPercent(ground),
+                clampPercent(air),
+                isoUtc(calendar));
+    }
+
+    private long outageMillis() {
+        return (1 + random.nextInt(Math.max(1, config.maxOutageMinutes))) * 60_000L;
+    }
+
+    private void deliver(Sink sink, List<Farm> batch) throws Exception {
+        sink.accept(batch);
+        delivered += batch.size();
+        batches++;
+        largestBatch = Math.max(largestBatch, batch.size());
+    }
+
+    private void flush(Sink sink) throws Exception {
+        if (backlog.isEmpty()) return;
+        List<Farm> burst = new ArrayList<>(backlog);
+        backlog.clear();
+        linkDownUntilMillis = 0;
+        deliver(sink, burst);
+    }
+
+    private static int clampPercent(double v) {
+        return (int) Math.round(Math.max(0, Math.min(100, v)));
+    }
+
+    // Same shape as the Farm table's dateTime column: "yyyy-MM-ddTHH:mm:ss"
+    private static String isoUtc(Calendar c) {
+        char[] out = "0000-00-00T00:00:00".toCharArray();
+        put(out, 0, c.get(Calendar.YEAR), 4);
+        put(out, 5, c.get(Calendar.MONTH) + 1, 2);
+        put(out, 8, c.get(Calendar.DAY_OF_MONTH), 2);
+        put(out, 11, c.get(Calendar.HOUR_OF_DAY), 2);
+        put(out, 14, c.get(Calendar.MINUTE), 2);
+        put(out, 17, c.get(Calendar.SECOND), 2);
+        return new String(out);
+    }
+
+    private static void put(char[] out, int at, int value, int digits) {
+        for (int i = at + digits - 1; i >= at; i--, value /= 10) out[i] = (char) ('0' + value % 10);
+    }
+}
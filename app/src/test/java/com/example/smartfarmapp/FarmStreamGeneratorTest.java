@@ -0,0 +1,144 @@
+package com.example.smartfarmapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that FarmStreamGenerator produces believable data, then soak-tests
+ * alert evaluation over a million rows and a full fetch of a large Farm table
+ * from FakeSupabaseServer. Timings are printed, not asserted.
+ *
+ * Run with: ./gradlew :app:testDebugUnitTest --tests "*FarmStreamGeneratorTest*" -i
+ */
+public class FarmStreamGeneratorTest {
+
+    private FakeSupabaseServer server;
+    private ScheduledExecutorService callbackThread;
+
+    @After
+    public void tearDown() throws Exception {
+        if (server == null) return;
+        BaseRepo.useBaseUrl(null);
+        BaseRepo.useCallbackDispatcher(null);
+        BaseRepo.resetResilienceState();
+        callbackThread.shutdownNow();
+        server.close();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Shape of the data
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void sameSeed_sameStream() throws Exception {
+        List<Farm> a = new ArrayList<>();
+        List<Farm> b = new ArrayList<>();
+        new FarmStreamGenerator(FarmStreamGenerator.Config.defaults()).feed(a::addAll, 5_000);
+        new FarmStreamGenerator(FarmStreamGenerator.Config.defaults()).feed(b::addAll, 5_000);
+
+        assertEquals(ModelJson.GSON.toJson(a), ModelJson.GSON.toJson(b));
+    }
+
+    @Test
+    public void week_hasDailyCycle_gaps_andBursts() throws Exception {
+        FarmStreamGenerator generator = new FarmStreamGenerator(FarmStreamGenerator.Config.defaults());
+        List<Farm> rows = new ArrayList<>();
+        long delivered = generator.feed(rows::addAll, 7 * 24 * 60);
+
+        assertEquals(7 * 24 * 60, delivered);
+        assertEquals(delivered, rows.size());
+
+        double[] tempSum = new double[24], airSum = new double[24];
+        int[] count = new int[24];
+        String previous = "";
+        for (Farm f : rows) {
+            int hour = Integer.parseInt(f.getDateTime().substring(11, 13));
+            tempSum[hour] += f.getTemp();
+            airSum[hour]  += f.getAirHumid();
+            count[hour]++;
+            assertTrue("rows must arrive in time order", f.getDateTime().compareTo(previous) > 0);
+            previous = f.getDateTime();
+        }
+        double afternoonTemp = tempSum[15] / count[15], nightTemp = tempSum[4] / count[4];
+        double afternoonAir  = airSum[15] / count[15],  nightAir  = airSum[4] / count[4];
+        assertTrue("afternoon warmer than night", afternoonTemp - nightTemp > 8);
+        assertTrue("afternoon drier than night", nightAir - afternoonAir > 15);
+
+        assertTrue("sensor outages leave gaps", generator.sensorGaps() > 0);
+        assertTrue("link outages deliver bursts", generator.largestBatch() > 1);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Soak
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void soak_alertEvaluation_millionRows() throws Exception {
+        Vegetation veg = tomato();
+        long[] outOfRange = new long[RangeCheck.METRIC_COUNT];
+        FarmStreamGenerator generator = new FarmStreamGenerator(
+                FarmStreamGenerator.Config.defaults().withSeed(7));
+
+        generator.feed(batch -> {
+            for (Farm f : batch) {
+                int mask = RangeCheck.outOfRangeMask(f, veg, FarmTime.isDayTime(f.getDateTime()));
+                for (int m = 0; m < RangeCheck.METRIC_COUNT; m++) {
+                    if ((mask & (1 << m)) != 0) outOfRange[m]++;
+                }
+            }
+        }, 1_000_000);
+
+        assertEquals(1_000_000, generator.deliveredRows());
+        assertTrue("the tomato profile is exceeded sometimes", outOfRange[RangeCheck.TEMP] > 0);
+    }
+
+    @Test
+    public void soak_fetchLargeFarmTable_fromStandInServer() throws Exception {
+        server = new FakeSupabaseServer(3);
+        String baseUrl = server.start();
+        callbackThread = Executors.newSingleThreadScheduledExecutor();
+        BaseRepo.useCallbackDispatcher(new BaseRepo.CallbackDispatcher() {
+            @Override public void post(Runnable task) { callbackThread.execute(task); }
+            @Override public void postDelayed(Runnable task, long delayMs) {
+                callbackThread.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+            }
+        });
+        BaseRepo.useBaseUrl(baseUrl);
+        BaseRepo.resetResilienceState();
+
+        FarmStreamGenerator generator = new FarmStreamGenerator(
+                FarmStreamGenerator.Config.defaults().withInterval(300));   // ~6 months at one reading / 5 min
+        generator.feed(FarmStreamGenerator.into(server), 50_000);
+        assertEquals(50_000, server.rowCount("Farm"));
+
+        CompletableFuture<List<Farm>> result = new CompletableFuture<>();
+        new SupabaseService().fetchFarms(1, new SupabaseService.FarmCallback() {
+            @Override public void onSuccess(List<Farm> farms) { result.complete(farms); }
+            @Override public void onFailure(Exception e) { result.completeExceptionally(e); }
+        });
+        List<Farm> farms = result.get(60, TimeUnit.SECONDS);
+
+        assertEquals(50_000, farms.size());
+        assertTrue(farms.get(0).getId() > farms.get(1).getId());   // newest first
+    }
+
+    private static Vegetation tomato() {
+        Vegetation veg = new Vegetation();
+        veg.setDayTempMin(18);          veg.setDayTempMax(30);
+        veg.setNightTempMin(14);        veg.setNightTempMax(22);
+        veg.setDayGroundHumidMin(40);   veg.setDayGroundHumidMax(80);
+        veg.setNightGroundHumidMin(45); veg.setNightGroundHumidMax(85);
+        veg.setDayAirHumidMin(45);      veg.setDayAirHumidMax(80);
+        veg.setNightAirHumidMin(55);    veg.setNightAirHumidMax(90);
+        return veg;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.smartfarmapp;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LoadTestHarness
+ * ────────────────
+ * Drives an asynchronous repo call a fixed number of times with at most
+ * {@code concurrency} calls outstanding, and records each call's end-to-end
+ * latency (request → callback) in a LatencyHistogram.
+ *
+ * Typical use, against a FakeSupabaseServer:
+ * <pre>
+ *   LoadTestHarness.Report report = LoadTestHarness.run(2_000, 16, (i, done) ->
+ *           service.fetchFarms(i % 50, new SupabaseService.FarmCallback() {
+ *               public void onSuccess(List&lt;Farm&gt; farms) { done.success(); }
+ *               public void onFailure(Exception e)       { done.failure(e); }
+ *           }));
+ *   System.out.println(report);
+ * </pre>
+ */
+final class LoadTestHarness {
+
+    /** One unit of work; must call exactly one method of {@code done}, on any thread. */
+    interface Operation {
+        void run(int index, Completion done);
+    }
+
+    interface Completion {
+        void success();
+        void failure(Exception e);
+    }
+
+    /** What a run measured. */
+    static final class Report {
+        final int              operations;
+        final int              errors;
+        final long             elapsedMs;
+        final LatencyHistogram latency;
+        final Exception        firstError;
+
+        Report(int operations, int errors, long elapsedMs, LatencyHistogram latency, Exception firstError) {
+            this.operations = operations;
+            this.errors     = errors;
+            this.elapsedMs  = elapsedMs;
+            this.latency    = latency;
+            this.firstError = firstError;
+        }
+
+        // Precondition: None
+        // Postcondition: Returns completed operations per second over the whole run
+        double throughputPerSecond() {
+            return elapsedMs == 0 ? operations : operations * 1000.0 / elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d ops in %d ms (%.1f ops/s), %d errors, latency %s",
+                    operations, elapsedMs, throughputPerSecond(), errors, latency.summary());
+        }
+    }
+
+    private LoadTestHarness() {}
+
+    /**
+     * Precondition: totalOps >= 1, concurrency >= 1, operation is not null.
+     * Postcondition: Every operation has completed (or the 2-minute safety timeout hit,
+     * which throws IllegalStateException); returns throughput, error count and latencies.
+     */
+    static Report run(int totalOps, int concurrency, Operation operation) throws InterruptedException {
+        Semaphore        slots    = new Semaphore(concurrency);
+        CountDownLatch   finished = new CountDownLatch(totalOps);
+        LatencyHistogram latency  = new LatencyHistogram();
+        AtomicInteger    errors   = new AtomicInteger();
+        AtomicReference<Exception> first = new AtomicReference<>();
+
+        long runStart = System.nanoTime();
+        for (int i = 0; i < totalOps; i++) {
+            slots.acquire();
+            long start = System.nanoTime();
+            AtomicInteger calls = new AtomicInteger();
+            operation.run(i, new Completion() {
+                @Override
+                public void success() { complete(null); }
+
+                @Override
+                public void failure(Exception e) { complete(e); }
+
+                private void complete(Exception e) {
+                    if (calls.getAndIncrement() > 0) return;   // guard against double callbacks
+                    latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (e != null) { errors.incrementAndGet(); first.compareAndSet(null, e); }
+                    slots.release();
+                    finished.countDown();
+                }
+            });
+        }
+        if (!finished.await(2, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(finished.getCount() + " operations never completed");
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart);
+        return new Report(totalOps, errors.get(), elapsedMs, latency, first.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lttb downsampling: shape-preserving picks, bounds and the binary search the
+ * chart uses to find its visible window.
+ */
+public class LttbTest {
+
+    @Test
+    public void keepsEndpoints_andReturnsThresholdAscendingIndexes() {
+        Series s = noisy(10_000, 1);
+        int[] out = new int[500];
+        int count = Lttb.downsample(s, 0, s.size(), 500, out);
+
+        assertEquals(500, count);
+        assertEquals(0, out[0]);
+        assertEquals(9_999, out[count - 1]);
+        for (int k = 1; k < count; k++) assertTrue(out[k] > out[k - 1]);
+    }
+
+    @Test
+    public void singleSpike_survives() {
+        Series s = new Series(5_000);
+        for (int i = 0; i < s.size(); i++) s.set(i, i * 60_000L, 20f);
+        s.set(3_217, 3_217 * 60_000L, 45f);   // one hot reading in a flat day
+
+        int[] out = new int[100];
+        int count = Lttb.downsample(s, 0, s.size(), 100, out);
+
+        boolean found = false;
+        for (int k = 0; k < count; k++) found |= out[k] == 3_217;
+        assertTrue(found);
+    }
+
+    @Test
+    public void subRange_andSmallInputs() {
+        Series s = noisy(1_000, 2);
+        int[] out = new int[50];
+
+        int count = Lttb.downsample(s, 200, 700, 50, out);
+        assertEquals(50, count);
+        assertEquals(200, out[0]);
+        assertEquals(699, out[49]);
+
+        assertEquals(10, Lttb.downsample(s, 10, 20, 50, out));   // fewer points than threshold: all kept
+        assertEquals(19, out[9]);
+        assertEquals(0, Lttb.downsample(s, 5, 5, 50, out));
+    }
+
+    @Test
+    public void lowerBound_findsFirstAtOrAfter() {
+        Series s = noisy(100, 3);   // x = i * 60 s
+        assertEquals(0,   Lttb.lowerBound(s, 0, 100, Long.MIN_VALUE));
+        assertEquals(10,  Lttb.lowerBound(s, 0, 100, 10 * 60_000L));
+        assertEquals(11,  Lttb.lowerBound(s, 0, 100, 10 * 60_000L + 1));
+        assertEquals(100, Lttb.lowerBound(s, 0, 100, Long.MAX_VALUE));
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static Series noisy(int n, long seed) {
+        Random random = new Random(seed);
+        Series s = new Series(n);
+        for (int i = 0; i < n; i++) s.set(i, i * 60_000L, (float) (20 + 5 * Math.sin(i / 200.0) + random.nextGaussian()));
+        return s;
+    }
+
+    private static final class Series implements Lttb.Source {
+        private final long[]  xs;
+        private final float[] ys;
+
+        Series(int n) { xs = new long[n]; ys = new float[n]; }
+
+        void set(int i, long x, float y) { xs[i] = x; ys[i] = y; }
+        int size() { return xs.length; }
+
+        @Override public long  x(int index) { return xs[index]; }
+        @Override public float y(int index) { return ys[index]; }
+    }
+}
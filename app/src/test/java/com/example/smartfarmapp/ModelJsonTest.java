@@ -0,0 +1,95 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the hand-written TypeAdapters in ModelJson read and write exactly
+ * what reflective Gson does. The speed-up is measured by the JMH suite
+ * (benchmark/…/GsonParseBenchmark), not here.
+ */
+public class ModelJsonTest {
+
+    private final Gson reflective = new Gson();
+
+    // ═════════════════════════════════════════════════════════════════════════
+    //  Equivalence
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void farmList_parsesLikeReflectiveGson() {
+        String json = farmPayload(1_000, 1);
+        List<Farm> expected = reflective.fromJson(json, ModelJson.FARM_LIST);
+        List<Farm> actual   = ModelJson.GSON.fromJson(json, ModelJson.FARM_LIST);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(reflective.toJson(expected.get(i)), ModelJson.GSON.toJson(actual.get(i)));
+        }
+    }
+
+    @Test
+    public void farm_skipsUnknownColumnsAndNulls() {
+        String json = "[{\"id\":5,\"extra\":{\"a\":[1,2]},\"temp\":null,\"airHumid\":40,\"dateTime\":null}]";
+        Farm farm = ModelJson.GSON.<List<Farm>>fromJson(json, ModelJson.FARM_LIST).get(0);
+
+        assertEquals(5, farm.getId());
+        assertEquals(0, farm.getTemp());
+        assertEquals(40, farm.getAirHumid());
+        assertNull(farm.getDateTime());
+    }
+
+    @Test
+    public void vegetation_writesLikeReflectiveGson_andOmitsNullId() {
+        Vegetation veg = new Vegetation();
+        veg.setName("Tomato");
+        veg.setUserID(7L);
+        veg.setDayTempMin(18.5f);
+        veg.setDayTempMax(0.1f);
+        veg.setNightAirHumidMax(95f);
+
+        String json = ModelJson.GSON.toJson(veg);
+        assertEquals(reflective.toJson(veg), json);
+        assertFalse(json.contains("\"id\""));
+
+        Vegetation back = ModelJson.GSON.fromJson(json, Vegetation.class);
+        assertEquals(json, ModelJson.GSON.toJson(back));
+    }
+
+    @Test
+    public void galleryAndLinkRows_writeLikeReflectiveGson() {
+        FarmGallery item = new FarmGallery(3L, "https://x/y.jpg");
+        assertEquals(reflective.toJson(item), ModelJson.GSON.toJson(item));
+
+        UserVegetationRepo.UserVegetationRow row = new UserVegetationRepo.UserVegetationRow(3L, 9L, false);
+        assertEquals(reflective.toJson(row), ModelJson.GSON.toJson(row));
+
+        String json = "[{\"UserVegID\":1,\"UserID\":3,\"VegetationID\":9,\"date\":\"2025-01-01\",\"isActive\":true}]";
+        UserVegetationRepo.UserVegetationRow parsed =
+                ModelJson.GSON.<List<UserVegetationRepo.UserVegetationRow>>fromJson(json, ModelJson.USER_VEGETATION_LIST).get(0);
+        assertEquals(Long.valueOf(9), parsed.VegetationID);
+        assertTrue(parsed.isActive);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    // Rows shaped like the real Farm table, newest first
+    private String farmPayload(int rows, long seed) {
+        Random random = new Random(seed);
+        List<Farm> farms = new ArrayList<>(rows);
+        for (int i = rows; i > 0; i--) {
+            farms.add(new Farm(i, 1, 15 + random.nextInt(20), 30 + random.nextInt(60),
+                    40 + random.nextInt(50),
+                    String.format(Locale.US, "2025-06-%02dT%02d:%02d:00", 1 + i % 28, i % 24, i % 60)));
+        }
+        return reflective.toJson(farms);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * MorningDigest: nights run 20:00–08:00 local time, time out of range is
+ * integrated between readings with long gaps capped, a new night starts
+ * afresh, and the state survives toBytes()/fromBytes().
+ */
+public class MorningDigestTest {
+
+    private static final long DAY  = TimeBucketRollup.DAY_MS;
+    private static final long HOUR = TimeBucketRollup.HOUR_MS;
+    private static final long MIN  = 60_000L;
+    private static final long LOCAL_DAY = 20_000 * DAY;   // a local midnight in October 2024
+
+    // Local wall-clock time on LOCAL_DAY (hour >= 24 is the next day)
+    private static long at(int hour, int minute) {
+        return FarmTime.fromLocalMillis(LOCAL_DAY + hour * HOUR + minute * MIN);
+    }
+
+    @Test
+    public void nights_runFromEveningToMorning() {
+        long night = at(20, 0);
+        assertEquals(night, MorningDigest.nightStart(at(20, 0)));
+        assertEquals(night, MorningDigest.nightStart(at(23, 59)));
+        assertEquals(night, MorningDigest.nightStart(at(24 + 7, 59)));
+        assertEquals(FarmTime.NO_TIME, MorningDigest.nightStart(at(24 + 8, 0)));
+        assertEquals(FarmTime.NO_TIME, MorningDigest.nightStart(at(12, 0)));
+
+        assertEquals(night, MorningDigest.lastNightStart(at(24 + 7, 45)));   // the prepare alarm
+        assertEquals(night, MorningDigest.lastNightStart(at(24 + 8, 0)));    // the reminder
+        assertEquals(night, MorningDigest.lastNightStart(at(24 + 19, 0)));
+    }
+
+    @Test
+    public void outOfRangeTime_isSummedBetweenReadings_withGapsCapped() {
+        MorningDigest digest = new MorningDigest();
+        assertFalse(digest.add(at(19, 50), 40, 60, 65, SAME_DAY_AND_NIGHT));   // before the night
+        for (int m = 0; m < 60; m += 5) {                    // 22:00–22:55: hot for the first half hour
+            digest.add(at(22, m), m < 30 ? 35 : 25, 60, 65, SAME_DAY_AND_NIGHT);
+        }
+        digest.add(at(24 + 2, 0), 20, 60, 40, SAME_DAY_AND_NIGHT);    // 3 h later, air too dry
+        digest.add(at(24 + 5, 0), 20, 60, 65, SAME_DAY_AND_NIGHT);    // 3 h gap counts 15 min
+
+        assertEquals(14, digest.readings());
+        assertEquals(30 * MIN, digest.outOfRangeMillis(RangeCheck.TEMP));
+        assertEquals(MorningDigest.MAX_GAP_MILLIS, digest.outOfRangeMillis(RangeCheck.AIR_HUMID));
+        assertEquals(0, digest.outOfRangeMillis(RangeCheck.GROUND_HUMID));
+        assertEquals(20, digest.min(RangeCheck.TEMP));
+        assertEquals(35, digest.max(RangeCheck.TEMP));
+        assertEquals(40, digest.min(RangeCheck.AIR_HUMID));
+        assertEquals(65, digest.latest(RangeCheck.AIR_HUMID));
+        assertEquals("Out of range overnight: temperature 30 min, air humidity 15 min", digest.summary());
+        assertTrue(digest.details().contains("🌡️ Temperature 20–35°C · out of range 30 min"));
+    }
+
+    @Test
+    public void nextNight_startsAfresh_andStateRoundTrips() throws Exception {
+        MorningDigest digest = new MorningDigest();
+        digest.add(at(21, 0), 35, 60, 65, SAME_DAY_AND_NIGHT);
+        digest.add(at(21, 10), 35, 60, 65, SAME_DAY_AND_NIGHT);
+        digest.add(at(24 + 21, 0), 25, 55, 60, SAME_DAY_AND_NIGHT);   // the following evening
+
+        assertEquals(at(24 + 20, 0), digest.nightStart());
+        assertEquals(1, digest.readings());
+        assertEquals(0, digest.outOfRangeMillis(RangeCheck.TEMP));
+        assertFalse(digest.add(at(23, 0), 30, 60, 65, SAME_DAY_AND_NIGHT));   // belongs to the old night
+
+        MorningDigest restored = MorningDigest.fromBytes(digest.toBytes());
+        assertEquals(digest.nightStart(), restored.nightStart());
+        assertEquals(digest.summary(), restored.summary());
+        assertEquals(digest.details(), restored.details());
+        assertEquals("All night in range · now 25°C, 55%, 60%", restored.summary());
+    }
+
+    @Test
+    public void fromHourly_usesTheNightsBuckets_andIsMarkedApproximate() {
+        TimeBucketRollup hourly = new TimeBucketRollup(HOUR, 48);
+        for (int h = 18; h < 24 + 10; h++) {
+            for (int m = 0; m < 60; m += 10) hourly.add(at(h, m), h == 23 ? 40 : 20, 60, 65);
+        }
+
+        MorningDigest digest = MorningDigest.fromHourly(hourly, at(20, 0), SAME_DAY_AND_NIGHT);
+
+        assertTrue(digest.isApproximate());
+        assertEquals(12 * 6, digest.readings());
+        assertEquals(40, digest.max(RangeCheck.TEMP));
+        assertEquals(HOUR, digest.outOfRangeMillis(RangeCheck.TEMP));
+        assertEquals(at(24 + 7, 0), digest.latestMillis());
+        assertTrue(digest.details().endsWith("(from hourly averages)"));
+    }
+
+    // Same ranges by day and night, so the sunrise/sunset times don't matter
+    private static final Vegetation SAME_DAY_AND_NIGHT = new Vegetation();
+    static {
+        SAME_DAY_AND_NIGHT.setDayTempMin(18);          SAME_DAY_AND_NIGHT.setDayTempMax(30);
+        SAME_DAY_AND_NIGHT.setNightTempMin(18);        SAME_DAY_AND_NIGHT.setNightTempMax(30);
+        SAME_DAY_AND_NIGHT.setDayGroundHumidMin(40);   SAME_DAY_AND_NIGHT.setDayGroundHumidMax(80);
+        SAME_DAY_AND_NIGHT.setNightGroundHumidMin(40); SAME_DAY_AND_NIGHT.setNightGroundHumidMax(80);
+        SAME_DAY_AND_NIGHT.setDayAirHumidMin(50);      SAME_DAY_AND_NIGHT.setDayAirHumidMax(80);
+        SAME_DAY_AND_NIGHT.setNightAirHumidMin(50);    SAME_DAY_AND_NIGHT.setNightAirHumidMax(80);
+    }
+}
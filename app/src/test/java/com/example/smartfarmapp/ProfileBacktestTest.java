@@ -0,0 +1,154 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProfileBacktest: the parallel replay must give exactly what one sequential
+ * AlertStateMachine gives, including alerts that straddle a chunk boundary, and
+ * stay well inside a second for ~300k readings.
+ */
+public class ProfileBacktestTest {
+
+    private static final long MIN = 60_000L;
+    private static final long T0  = 1_750_000_000_000L;
+
+    @Test
+    public void parallelReplay_matchesSequentialReplay() {
+        ProfileBacktest.History history = randomWalk(200_000, 42);
+        AlertStateMachine.Config config = AlertStateMachine.Config.defaults();
+
+        ProfileBacktest.Result result = ProfileBacktest.run(history, VEG, config, ForkJoinPool.commonPool());
+
+        assertTrue(result.chunks > 1);
+        assertEquals(sequentialAlerts(history, VEG, config), describe(result));
+        assertArrayEquals(sequentialViolations(history), result.violations);
+    }
+
+    @Test
+    public void alertHeldByHysteresisAcrossABoundary_isReplayedFromTheRealState() {
+        // 10 minutes too hot six hours before the first chunk boundary, then 30 °C –
+        // in range, but inside the 1 °C hysteresis band, so the real alert never clears
+        int n = ProfileBacktest.LEAF_READINGS * 2;
+        long[] t = new long[n];
+        int[] temp = new int[n], ground = new int[n], air = new int[n];
+        int hotFrom = ProfileBacktest.LEAF_READINGS - 6 * 60;
+        for (int i = 0; i < n; i++) {
+            t[i]      = T0 + i * MIN;
+            temp[i]   = i < hotFrom ? 20 : i < hotFrom + 10 ? 40 : i < hotFrom + 8 * 60 ? 30 : 20;
+            ground[i] = 60;
+            air[i]    = 65;
+        }
+        ProfileBacktest.History history = new ProfileBacktest.History(t, temp, ground, air);
+        AlertStateMachine.Config config = AlertStateMachine.Config.defaults();
+
+        ProfileBacktest.Result result = ProfileBacktest.run(history, SAME_DAY_AND_NIGHT, config, ForkJoinPool.commonPool());
+
+        // The second chunk's lead-in only sees 30 °C and guesses "normal"; the real
+        // state is still alerting, so that chunk is redone
+        assertEquals(2, result.chunks);
+        assertEquals(1, result.replayedChunks);
+        assertEquals(1, result.alerts(RangeCheck.TEMP));
+        assertEquals(sequentialAlerts(history, SAME_DAY_AND_NIGHT, config), describe(result));
+    }
+
+    @Test
+    public void threeHundredThousandReadings_finishWellUnderASecond() {
+        ProfileBacktest.History history = randomWalk(300_000, 7);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int warm = 0; warm < 3; warm++) ProfileBacktest.run(history, VEG, AlertStateMachine.Config.defaults(), pool);
+
+        ProfileBacktest.Result result = ProfileBacktest.run(history, VEG, AlertStateMachine.Config.defaults(), pool);
+
+        assertEquals(300_000, result.readings);
+        assertTrue("took " + result.elapsedNanos / 1_000_000 + " ms", result.elapsedNanos < 1_000_000_000L);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    // Per-minute readings drifting in and out of range, with an occasional 1–3 hour gap
+    private static ProfileBacktest.History randomWalk(int n, long seed) {
+        Random random = new Random(seed);
+        long[] t = new long[n];
+        int[] temp = new int[n], ground = new int[n], air = new int[n];
+        long now = T0;
+        int tp = 24, g = 60, a = 65;
+        for (int i = 0; i < n; i++) {
+            now += random.nextInt(2000) == 0 ? (60 + random.nextInt(120)) * MIN : MIN;
+            tp = clamp(tp + random.nextInt(3) - 1, 5, 45);
+            g  = clamp(g + random.nextInt(3) - 1, 20, 100);
+            a  = clamp(a + random.nextInt(3) - 1, 30, 100);
+            t[i] = now;
+            temp[i] = tp;
+            ground[i] = g;
+            air[i] = a;
+        }
+        return new ProfileBacktest.History(t, temp, ground, air);
+    }
+
+    private static int clamp(int v, int lo, int hi) { return Math.max(lo, Math.min(hi, v)); }
+
+    private static List<String> sequentialAlerts(ProfileBacktest.History h, Vegetation veg,
+                                                 AlertStateMachine.Config config) {
+        List<String> alerts = new ArrayList<>();
+        AlertStateMachine machine = new AlertStateMachine(config);
+        AlertStateMachine.Listener listener = new AlertStateMachine.Listener() {
+            @Override public void onRaised(int metric, boolean high, int value, long epochMillis) {
+                alerts.add(metric + (high ? " high @" : " low @") + epochMillis);
+            }
+            @Override public void onCleared(int metric, int value, long epochMillis) {}
+        };
+        for (int i = 0; i < h.size(); i++) {
+            machine.evaluate(h.epochMillis[i], h.temp[i], h.groundHumid[i], h.airHumid[i],
+                    veg, FarmTime.isDayTime(h.epochMillis[i]), listener);
+        }
+        return alerts;
+    }
+
+    private static int[] sequentialViolations(ProfileBacktest.History h) {
+        int[] counts = new int[RangeCheck.METRIC_COUNT];
+        for (int i = 0; i < h.size(); i++) {
+            int mask = RangeCheck.outOfRangeMask(h.temp[i], h.groundHumid[i], h.airHumid[i],
+                    VEG, FarmTime.isDayTime(h.epochMillis[i]));
+            for (int m = 0; m < counts.length; m++) if ((mask & (1 << m)) != 0) counts[m]++;
+        }
+        return counts;
+    }
+
+    private static List<String> describe(ProfileBacktest.Result result) {
+        List<String> alerts = new ArrayList<>();
+        for (int i = 0; i < result.alerts(); i++) {
+            alerts.add(result.alertMetric[i] + (result.alertHigh[i] ? " high @" : " low @") + result.alertMillis[i]);
+        }
+        return alerts;
+    }
+
+    private static final Vegetation VEG = new Vegetation();
+    static {
+        VEG.setId(1L);
+        VEG.setDayTempMin(18);          VEG.setDayTempMax(30);
+        VEG.setNightTempMin(14);        VEG.setNightTempMax(22);
+        VEG.setDayGroundHumidMin(40);   VEG.setDayGroundHumidMax(80);
+        VEG.setNightGroundHumidMin(45); VEG.setNightGroundHumidMax(85);
+        VEG.setDayAirHumidMin(50);      VEG.setDayAirHumidMax(80);
+        VEG.setNightAirHumidMin(55);    VEG.setNightAirHumidMax(90);
+    }
+
+    // Same ranges by day and night, so the sunrise/sunset times don't matter
+    private static final Vegetation SAME_DAY_AND_NIGHT = new Vegetation();
+    static {
+        SAME_DAY_AND_NIGHT.setId(2L);
+        SAME_DAY_AND_NIGHT.setDayTempMin(18);          SAME_DAY_AND_NIGHT.setDayTempMax(30);
+        SAME_DAY_AND_NIGHT.setNightTempMin(18);        SAME_DAY_AND_NIGHT.setNightTempMax(30);
+        SAME_DAY_AND_NIGHT.setDayGroundHumidMin(40);   SAME_DAY_AND_NIGHT.setDayGroundHumidMax(80);
+        SAME_DAY_AND_NIGHT.setNightGroundHumidMin(40); SAME_DAY_AND_NIGHT.setNightGroundHumidMax(80);
+        SAME_DAY_AND_NIGHT.setDayAirHumidMin(50);      SAME_DAY_AND_NIGHT.setDayAirHumidMax(80);
+        SAME_DAY_AND_NIGHT.setNightAirHumidMin(50);    SAME_DAY_AND_NIGHT.setNightAirHumidMax(80);
+    }
+}
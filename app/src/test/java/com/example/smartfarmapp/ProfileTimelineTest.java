@@ -0,0 +1,122 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProfileTimeline lookups (interval edges, before the first activation, the
+ * remembered interval) and UserVegetationRepo.buildTimeline over the activation history.
+ */
+public class ProfileTimelineTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long T0  = 1_700_000_000_000L;
+
+    @Test
+    public void lookup_findsTheIntervalOfEachTime() {
+        Vegetation tomato = veg(1, "Tomato"), lettuce = veg(2, "Lettuce"), pepper = veg(3, "Pepper");
+        ProfileTimeline timeline = new ProfileTimeline.Builder()
+                .add(T0 + 100 * DAY, pepper)          // out of order on purpose
+                .add(T0, tomato)
+                .add(T0 + 40 * DAY, lettuce)
+                .build();
+
+        assertEquals(3, timeline.size());
+        assertNull(timeline.at(T0 - 1));
+        assertNull(timeline.at(FarmTime.NO_TIME));
+        assertSame(tomato,  timeline.at(T0));
+        assertSame(tomato,  timeline.at(T0 + 40 * DAY - 1));
+        assertSame(lettuce, timeline.at(T0 + 40 * DAY));
+        assertSame(pepper,  timeline.at(T0 + 1000 * DAY));
+        assertTrue(timeline.isCurrent(timeline.indexAt(T0 + 100 * DAY)));
+        assertFalse(timeline.isCurrent(timeline.indexAt(T0)));
+
+        // Scrolling back and forth: the remembered interval must never give a stale answer
+        long[] times = {T0 + 50 * DAY, T0 + 51 * DAY, T0 + 5 * DAY, T0 + 39 * DAY, T0 + 200 * DAY, T0 - DAY, T0 + 45 * DAY};
+        Vegetation[] expected = {lettuce, lettuce, tomato, tomato, pepper, null, lettuce};
+        for (int i = 0; i < times.length; i++) assertSame(expected[i], timeline.at(times[i]));
+    }
+
+    @Test
+    public void sameTime_laterAddWins() {
+        Vegetation a = veg(1, "A"), b = veg(2, "B");
+        ProfileTimeline timeline = new ProfileTimeline.Builder().add(T0, a).add(T0, b).build();
+        assertEquals(1, timeline.size());
+        assertSame(b, timeline.at(T0 + DAY));
+    }
+
+    @Test
+    public void buildTimeline_givesEachActivationItsOwnPeriod() {
+        Vegetation tomato = veg(1, "Tomato"), lettuce = veg(2, "Lettuce");
+        Map<Long, Vegetation> byId = new HashMap<>();
+        byId.put(1L, tomato);
+        byId.put(2L, lettuce);
+
+        ProfileTimeline timeline = UserVegetationRepo.buildTimeline(Arrays.asList(
+                activation(9L, "2024-01-01T00:00:00"),                   // since deleted
+                activation(1L, "2024-03-01T00:00:00"),
+                activation(2L, "2024-09-15T08:00:00.123+00:00"),
+                activation(1L, null),                                     // unreadable: skipped
+                activation(1L, "2024-11-01T00:00:00")), byId);           // back to tomato
+
+        assertEquals(4, timeline.size());
+        assertNull(timeline.at(FarmTime.toEpochMillis("2024-02-01T00:00:00")));   // deleted profile's period
+        assertSame(tomato,  timeline.at(FarmTime.toEpochMillis("2024-06-01T12:00:00")));
+        assertSame(lettuce, timeline.at(FarmTime.toEpochMillis("2024-10-01T12:00:00")));
+        assertSame(tomato,  timeline.at(FarmTime.toEpochMillis("2024-12-01T12:00:00")));
+        assertTrue(timeline.isCurrent(timeline.indexAt(FarmTime.toEpochMillis("2024-12-01T12:00:00"))));
+    }
+
+    @Test
+    public void buildTimeline_keepsTheActivationOffset_inAnyPhoneZone() throws Exception {
+        Vegetation tomato = veg(1, "Tomato"), lettuce = veg(2, "Lettuce");
+        Map<Long, Vegetation> byId = new HashMap<>();
+        byId.put(1L, tomato);
+        byId.put(2L, lettuce);
+
+        TimeZone saved = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            // A fresh thread: FarmTime's per-thread parsers pick up the zone set above
+            Vegetation[] seen = new Vegetation[4];
+            Thread phone = new Thread(() -> {
+                ProfileTimeline timeline = UserVegetationRepo.buildTimeline(Arrays.asList(
+                        activation(1L, "2024-09-01T00:00:00+00:00"),
+                        activation(2L, "2024-09-15T08:00:00.123456+00:00"),
+                        activation(1L, "2024-09-20T10:30:00+03:00")), byId);   // 07:30 UTC
+                seen[0] = timeline.at(Instant.parse("2024-09-15T07:55:00Z").toEpochMilli());
+                seen[1] = timeline.at(Instant.parse("2024-09-15T08:05:00Z").toEpochMilli());
+                seen[2] = timeline.at(Instant.parse("2024-09-20T07:25:00Z").toEpochMilli());
+                seen[3] = timeline.at(Instant.parse("2024-09-20T07:35:00Z").toEpochMilli());
+            });
+            phone.start();
+            phone.join();
+            assertSame(tomato,  seen[0]);
+            assertSame(lettuce, seen[1]);
+            assertSame(lettuce, seen[2]);
+            assertSame(tomato,  seen[3]);
+        } finally {
+            TimeZone.setDefault(saved);
+        }
+    }
+
+    private static Vegetation veg(long id, String name) {
+        Vegetation veg = new Vegetation();
+        veg.setId(id);
+        veg.setName(name);
+        return veg;
+    }
+
+    private static UserVegetationRepo.ActivationRow activation(Long vegetationId, String activatedAt) {
+        UserVegetationRepo.ActivationRow row = new UserVegetationRepo.ActivationRow(7L, vegetationId);
+        row.activatedAt = activatedAt;
+        return row;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * QuantileSketch against exact percentiles of the same data: rank error, bounded
+ * memory, merging and the byte round trip.
+ */
+public class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    @Test
+    public void millionValues_withinOnePercentRank_inBoundedMemory() {
+        float[] values = gaussian(1_000_000, 1);
+        QuantileSketch sketch = new QuantileSketch();
+        for (float v : values) sketch.add(v);
+
+        assertEquals(values.length, sketch.count());
+        assertTrue("retained " + sketch.retained(), sketch.retained() < 4 * QuantileSketch.DEFAULT_K);
+        assertRanks(values, sketch, 0.01);
+        assertEquals(min(values), sketch.quantile(0), 0);
+        assertEquals(max(values), sketch.quantile(1), 0);
+    }
+
+    @Test
+    public void merge_matchesOneSketchOverEverything() {
+        float[] values = gaussian(400_000, 2);
+        QuantileSketch merged = new QuantileSketch();
+        for (int part = 0; part < 4; part++) {
+            QuantileSketch piece = new QuantileSketch();
+            for (int i = part * 100_000; i < (part + 1) * 100_000; i++) piece.add(values[i]);
+            merged.merge(piece);
+        }
+
+        assertEquals(values.length, merged.count());
+        assertRanks(values, merged, 0.015);
+    }
+
+    @Test
+    public void smallInput_isExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int v = 1; v <= 100; v++) sketch.add(v);
+        assertEquals(50, sketch.quantile(0.5), 0);
+        assertEquals(95, sketch.quantile(0.95), 0);
+        assertTrue(Float.isNaN(new QuantileSketch().quantile(0.5)));
+    }
+
+    @Test
+    public void bytes_roundTrip() throws Exception {
+        QuantileSketch sketch = new QuantileSketch();
+        for (float v : gaussian(50_000, 3)) sketch.add(v);
+
+        QuantileSketch restored = new QuantileSketch();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytesOf(sketch))));
+
+        assertArrayEquals(bytesOf(sketch), bytesOf(restored));
+        // Same coin-flip state too: both keep evolving identically
+        for (int v = 0; v < 10_000; v++) { sketch.add(v); restored.add(v); }
+        assertArrayEquals(bytesOf(sketch), bytesOf(restored));
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static void assertRanks(float[] values, QuantileSketch sketch, double tolerance) {
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            float estimate = sketch.quantile(q);
+            double rank = (double) lowerBound(sorted, estimate) / sorted.length;
+            assertEquals("q=" + q, q, rank, tolerance);
+        }
+    }
+
+    private static int lowerBound(float[] sorted, float value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static float[] gaussian(int n, long seed) {
+        Random random = new Random(seed);
+        float[] values = new float[n];
+        for (int i = 0; i < n; i++) values[i] = (float) (22 + 6 * random.nextGaussian());
+        return values;
+    }
+
+    private static float min(float[] values) {
+        float m = values[0];
+        for (float v : values) m = Math.min(m, v);
+        return m;
+    }
+
+    private static float max(float[] values) {
+        float m = values[0];
+        for (float v : values) m = Math.max(m, v);
+        return m;
+    }
+
+    private static byte[] bytesOf(QuantileSketch sketch) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        sketch.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * RetryPolicy: attempt limit, which status codes are retried, the jittered
+ * back-off window and the Retry-After hint.
+ */
+public class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, 500, 2_000);
+
+    @Test
+    public void attemptsAndStatusCodes() {
+        assertTrue(policy.canRetry(1));
+        assertTrue(policy.canRetry(2));
+        assertFalse(policy.canRetry(3));
+
+        assertTrue(RetryPolicy.isRetryableStatus(408));
+        assertTrue(RetryPolicy.isRetryableStatus(429));
+        assertTrue(RetryPolicy.isRetryableStatus(503));
+        assertFalse(RetryPolicy.isRetryableStatus(404));
+        assertFalse(RetryPolicy.isRetryableStatus(409));
+    }
+
+    @Test
+    public void backOff_staysInItsWindow_andHonoursRetryAfter() {
+        for (int i = 0; i < 200; i++) {
+            long first = policy.nextDelayMs(1, -1);
+            assertTrue(first >= 250 && first <= 500);
+            long capped = policy.nextDelayMs(10, -1);       // 500 * 2^9, capped at 2 s
+            assertTrue(capped >= 1_000 && capped <= 2_000);
+        }
+        assertTrue(policy.nextDelayMs(1, 1_500) >= 1_500);
+        assertEquals(2_000, policy.nextDelayMs(1, 60_000));   // a hint above the ceiling is capped
+
+        assertEquals(3_000, RetryPolicy.parseRetryAfterMs(" 3 "));
+        assertEquals(-1, RetryPolicy.parseRetryAfterMs("Wed, 21 Oct 2026 07:28:00 GMT"));
+        assertEquals(-1, RetryPolicy.parseRetryAfterMs(null));
+    }
+}
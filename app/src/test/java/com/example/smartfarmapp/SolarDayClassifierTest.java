@@ -0,0 +1,84 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.junit.Assert.*;
+
+/**
+ * SolarDayClassifier against published sunrise/sunset times, polar days and
+ * nights, and nextChange() agreeing with isDay().
+ */
+public class SolarDayClassifierTest {
+
+    private static final long MIN = 60_000L;
+
+    // Jerusalem
+    private final SolarDayClassifier jerusalem = new SolarDayClassifier(31.7683, 35.2137);
+
+    @Test
+    public void jerusalem_matchesPublishedTimes() {
+        // 21 Jun 2025: sunrise 05:33 IDT, sunset 19:47 IDT (UTC+3)
+        long june = millis("2025-06-21T09:00:00Z");
+        assertNear(millis("2025-06-21T02:33:00Z"), jerusalem.sunrise(june));
+        assertNear(millis("2025-06-21T16:47:00Z"), jerusalem.sunset(june));
+
+        // 21 Dec 2025: sunrise 06:36 IST, sunset 16:38 IST (UTC+2)
+        long december = millis("2025-12-21T09:00:00Z");
+        assertNear(millis("2025-12-21T04:36:00Z"), jerusalem.sunrise(december));
+        assertNear(millis("2025-12-21T14:38:00Z"), jerusalem.sunset(december));
+
+        // 06:00 local is day in June and night in December – the old fixed rule got one wrong
+        assertTrue(jerusalem.isDay(millis("2025-06-21T03:00:00Z")));
+        assertFalse(jerusalem.isDay(millis("2025-12-21T04:00:00Z")));
+        assertFalse(jerusalem.isDay(millis("2025-12-21T15:30:00Z")));   // 17:30 local
+    }
+
+    @Test
+    public void polarDayAndNight() {
+        SolarDayClassifier tromso = new SolarDayClassifier(69.65, 18.96);
+        for (int hour = 0; hour < 24; hour++) {
+            assertTrue(tromso.isDay(millis("2025-06-21T00:00:00Z") + hour * 60 * MIN));
+            assertFalse(tromso.isDay(millis("2025-12-21T00:00:00Z") + hour * 60 * MIN));
+        }
+        long midwinter = millis("2025-12-21T12:00:00Z");
+        assertTrue(tromso.nextChange(midwinter) > midwinter);
+    }
+
+    @Test
+    public void nextChange_isWhereIsDayFlips() {
+        long t = millis("2025-03-01T00:00:00Z");
+        for (int step = 0; step < 40; step++) {
+            boolean now  = jerusalem.isDay(t);
+            long    next = jerusalem.nextChange(t);
+            assertTrue(next > t && next - t < 24 * 60 * MIN);
+            assertEquals(now, jerusalem.isDay(next - 1));
+            assertEquals(!now, jerusalem.isDay(next));
+            t = next;
+        }
+    }
+
+    @Test
+    public void manyYears_classifyQuickly() {
+        long start = millis("2020-01-01T00:00:00Z");
+        long t0 = System.nanoTime();
+        int days = 0;
+        for (long t = start; t < start + 10L * 365 * 24 * 60 * MIN; t += MIN) {
+            if (jerusalem.isDay(t)) days++;
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        assertEquals(0.5, days / (10.0 * 365 * 24 * 60), 0.03);
+        assertTrue("took " + ms + " ms", ms < 10_000);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static long millis(String iso) {
+        return Instant.parse(iso).toEpochMilli();
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue("off by " + (actual - expected) / 1000 + " s", Math.abs(actual - expected) <= 3 * MIN);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TokenBucket and RateLimiter: a full bucket allows a burst of capacity
+ * requests, then refills at its rate; an endpoint's budget and counters are
+ * its own.
+ */
+public class TokenBucketTest {
+
+    @Test
+    public void burstOfCapacity_thenRefills() throws Exception {
+        TokenBucket bucket = new TokenBucket(3, 60_000);   // one token per millisecond
+        for (int i = 0; i < 3; i++) assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        Thread.sleep(20);
+        assertTrue(bucket.tryAcquire());
+        assertEquals(3, bucket.getCapacity());
+        assertTrue(bucket.available() <= 3);               // never above capacity
+    }
+
+    @Test
+    public void rateLimiter_keepsEndpointsApart() {
+        RateLimiter.configure("/test/a", 1, 0.001);
+        RateLimiter.configure("/test/b", 1, 0.001);
+        long allowedBefore = RateLimiter.countersFor("/test/a").allowed.get();
+
+        assertTrue(RateLimiter.tryAcquire("/test/a"));
+        assertFalse(RateLimiter.tryAcquire("/test/a"));
+        assertTrue(RateLimiter.tryAcquire("/test/b"));     // a's empty bucket is not b's
+        assertEquals(allowedBefore + 1, RateLimiter.countersFor("/test/a").allowed.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TrendForecaster: warns ahead of a steady decline, stays quiet on noise, and
+ * doesn't mistake the evening cool-down (toward a lower night minimum) for a
+ * day-minimum breach.
+ */
+public class TrendForecasterTest {
+
+    private static final long MIN = 60_000L;
+    private static final long DAY = TimeBucketRollup.DAY_MS;
+    private static final long HOUR = TimeBucketRollup.HOUR_MS;
+
+    @Test
+    public void dryingSoil_warnsWithinTheHorizon_once() {
+        TrendForecaster forecaster = new TrendForecaster(TrendForecaster.Config.defaults());
+        Random random = new Random(1);
+        long t0 = localTime(20_000, 0);   // midnight; day and night ground ranges are equal
+        int warnings = 0, firstWarning = -1;
+
+        // 60 % falling 3 %/h → below 40 % after ~6.7 h
+        for (int minute = 0; minute < 6 * 60; minute++) {
+            int ground = (int) Math.round(60 - 3.0 * minute / 60 + random.nextGaussian() * 0.8);
+            int mask = forecaster.evaluate(t0 + minute * MIN, 22, ground, 65, VEG);
+            if ((mask & (1 << RangeCheck.GROUND_HUMID)) != 0) {
+                warnings++;
+                if (firstWarning < 0) firstWarning = minute;
+                assertFalse(forecaster.isRising(RangeCheck.GROUND_HUMID));
+                assertEquals(4 * 60, forecaster.minutesToBreach(RangeCheck.GROUND_HUMID), 60);
+            }
+            assertEquals(0, mask & ~(1 << RangeCheck.GROUND_HUMID));
+        }
+        assertEquals(1, warnings);
+        assertTrue("warned at minute " + firstWarning, firstWarning > 120 && firstWarning < 210);
+        assertEquals(-3.0, forecaster.trendPerHour(RangeCheck.GROUND_HUMID), 0.6);
+    }
+
+    @Test
+    public void noisyButFlat_neverWarns() {
+        TrendForecaster forecaster = new TrendForecaster(TrendForecaster.Config.defaults());
+        Random random = new Random(2);
+        long t0 = localTime(20_000, 0);
+        for (int minute = 0; minute < 3 * 24 * 60; minute++) {
+            int ground = (int) Math.round(55 + random.nextGaussian() * 1.5);
+            int air    = (int) Math.round(65 + random.nextGaussian() * 1.5);
+            assertEquals(0, forecaster.evaluate(t0 + minute * MIN, 22, ground, air, VEG));
+        }
+    }
+
+    @Test
+    public void eveningCoolDown_isJudgedAgainstTheNightRange() {
+        TrendForecaster forecaster = new TrendForecaster(TrendForecaster.Config.defaults());
+        long t0 = localTime(20_000, 14);
+        // 23 °C at 14:00 falling 1 °C/h: crosses the day minimum (18) only at 19:00, after
+        // night begins; the night minimum (12) is hours further away
+        for (int minute = 0; minute < 4 * 60; minute++) {
+            int temp = (int) Math.round(23 - minute / 60.0);
+            assertEquals(0, forecaster.evaluate(t0 + minute * MIN, temp, 55, 65, VEG));
+        }
+        assertTrue(forecaster.minutesToBreach(RangeCheck.TEMP) > 5 * 60);   // ~6 h: beyond the horizon
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static long localTime(long day, int hour) {
+        return FarmTime.fromLocalMillis(day * DAY + hour * HOUR);
+    }
+
+    private static final Vegetation VEG = new Vegetation();
+    static {
+        VEG.setId(1L);
+        VEG.setDayTempMin(18);          VEG.setDayTempMax(30);
+        VEG.setNightTempMin(12);        VEG.setNightTempMax(22);
+        VEG.setDayGroundHumidMin(40);   VEG.setDayGroundHumidMax(80);
+        VEG.setNightGroundHumidMin(40); VEG.setNightGroundHumidMax(80);
+        VEG.setDayAirHumidMin(50);      VEG.setDayAirHumidMax(80);
+        VEG.setNightAirHumidMin(50);    VEG.setNightAirHumidMax(80);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.smartfarmapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * WakeupPlanner: jobs on different schedules share grid ticks, a job with a
+ * shorter period than the window runs once per window, an alarm's wake-up is
+ * used by jobs within their flex, and RadioMeter merges requests inside one tail.
+ */
+public class WakeupPlannerTest {
+
+    private static final long SEC    = 1_000L;
+    private static final long WINDOW = 15 * SEC;
+    private static final long T0     = 1_750_000_005_000L;   // a multiple of WINDOW
+
+    private final WakeupPlanner.Config config = WakeupPlanner.Config.defaults().withWindow(WINDOW);
+
+    // Runs the planner's own timer ticks until endMillis
+    private static void runUntil(WakeupPlanner planner, long endMillis) {
+        for (long t = planner.nextWakeMillis(); t <= endMillis; t = planner.nextWakeMillis()) {
+            planner.runDue(t, false);
+        }
+    }
+
+    @Test
+    public void jobsOnDifferentPhases_shareTimerTicks() {
+        WakeupPlanner planner = new WakeupPlanner(config);
+        int monitor = planner.register("monitor", 120 * SEC, 30 * SEC, true, T0 + 3 * SEC);
+        planner.register("refresh", 60 * SEC, 20 * SEC, true, T0 + 41 * SEC);
+
+        long first = planner.nextWakeMillis();
+        assertEquals(0, first % WINDOW);
+        assertEquals(T0 + 105 * SEC, first);                    // refresh due at 101 s → grid 105 s
+        int[] ran = planner.runDue(first, false);
+        assertEquals(2, ran.length);                            // monitor (due 123 s) pulled forward
+        assertEquals(monitor, ran[0]);
+
+        runUntil(planner, T0 + 3_600 * SEC);
+        // Independently: 30 monitor + 60 refresh ticks per hour
+        assertTrue("ticks " + planner.timerTicks(), planner.timerTicks() <= 62);
+        assertTrue(planner.sharedRuns() >= 2 * 28);
+        assertEquals(planner.timerTicks(), planner.networkBursts());
+    }
+
+    @Test
+    public void periodShorterThanTheWindow_runsOncePerWindow() {
+        WakeupPlanner planner = new WakeupPlanner(config);
+        planner.register("ui", SEC, 0, true, T0);
+
+        runUntil(planner, T0 + 60 * SEC);
+
+        assertEquals(4, planner.jobRuns());                     // 15, 30, 45, 60 s
+        assertEquals(T0 + 75 * SEC, planner.nextWakeMillis());
+    }
+
+    @Test
+    public void externalWake_runsOnlyJobsWithinTheirFlex() {
+        WakeupPlanner planner = new WakeupPlanner(config);
+        int near = planner.register("near", 120 * SEC, 30 * SEC, true, T0);
+        planner.register("far", 120 * SEC, 30 * SEC, true, T0 + 60 * SEC);
+
+        int[] ran = planner.runDue(T0 + 100 * SEC, true);       // alarm: near due in 20 s, far in 80 s
+
+        assertArrayEquals(new int[] {near}, ran);
+        assertEquals(1, planner.externalWakeups());
+        assertEquals(0, planner.timerTicks());
+        assertEquals(T0 + 180 * SEC, planner.nextWakeMillis()); // far keeps its own time
+
+        planner.unregister(near);
+        assertEquals(1, planner.jobCount());
+        assertEquals(0, planner.runDue(T0 + 101 * SEC, false).length);
+    }
+
+    @Test
+    public void radioMeter_requestsWithinTheTail_shareOneBurst() {
+        WakeupPlanner.RadioMeter radio = new WakeupPlanner.RadioMeter(10 * SEC);
+
+        radio.record(T0, T0 + SEC);                             // grouped: 3 requests in one burst
+        radio.record(T0 + 500, T0 + 2 * SEC);
+        radio.record(T0 + 3 * SEC, T0 + 4 * SEC);
+        assertEquals(1, radio.bursts());
+        assertEquals(14 * SEC, radio.activeMillis());
+
+        radio.record(T0 + 60 * SEC, T0 + 61 * SEC);             // spread out: a tail each
+        radio.record(T0 + 120 * SEC, T0 + 121 * SEC);
+        assertEquals(3, radio.bursts());
+        assertEquals(5, radio.requests());
+        assertEquals(36 * SEC, radio.activeMillis());
+    }
+}
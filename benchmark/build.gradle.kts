@@ -0,0 +1,61 @@
+// JVM-only JMH benchmarks for the app's hot paths (parsing, dates, range checks).
+//
+//   ./gradlew :benchmark:jmh                          run everything
+//   ./gradlew :benchmark:jmh -PjmhInclude=FarmTime    run one suite (regex)
+//
+// Results are written as JSON to benchmark/build/results/jmh/results.json so a
+// CI job can archive them and compare builds.
+//
+// Android classes can't run on a desktop JVM, so instead of a copy the
+// pure-Java app sources listed below are compiled straight from :app.
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The app sources contain °, →, ≤ … – don't depend on the platform's default charset
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/smartfarmapp/Farm.java",
+                "com/example/smartfarmapp/Vegetation.java",
+                "com/example/smartfarmapp/FarmGallery.java",
+                "com/example/smartfarmapp/JsonValues.java",
+                "com/example/smartfarmapp/FarmTypeAdapter.java",
+                "com/example/smartfarmapp/VegetationTypeAdapter.java",
+                "com/example/smartfarmapp/FarmTime.java",
+                "com/example/smartfarmapp/SolarDayClassifier.java",
+                "com/example/smartfarmapp/RangeCheck.java",
+                "com/example/smartfarmapp/FarmReadingBuffer.java",
+                "com/example/smartfarmapp/DerivedMetric.java",
+                "com/example/smartfarmapp/DerivedMetrics.java",
+                "com/example/smartfarmapp/Lttb.java",
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation("com.google.code.gson:gson:2.10.1")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    (project.findProperty("jmhInclude") as String?)?.let { includes.add(it) }
+}
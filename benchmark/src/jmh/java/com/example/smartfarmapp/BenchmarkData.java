@@ -0,0 +1,45 @@
+package com.example.smartfarmapp;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic sample data for the JMH suites, shaped like the real tables:
+ * one Farm row per minute (newest first) and a handful of vegetation profiles.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    // Precondition: count > 0
+    // Postcondition: Returns count readings one minute apart, ending 2025-06-30 23:59
+    static Farm[] farms(int count, long seed) {
+        Random random = new Random(seed);
+        Farm[] farms = new Farm[count];
+        long minute = 30L * 24 * 60;
+        for (int i = 0; i < count; i++, minute--) {
+            long m = Math.floorMod(minute, 30L * 24 * 60);
+            String dateTime = String.format(Locale.US, "2025-06-%02dT%02d:%02d:00",
+                    1 + m / (24 * 60), (m / 60) % 24, m % 60);
+            farms[i] = new Farm(count - i, 1, 12 + random.nextInt(25),
+                    20 + random.nextInt(70), 30 + random.nextInt(65), dateTime);
+        }
+        return farms;
+    }
+
+    // Precondition: None
+    // Postcondition: Returns a complete tomato-like profile
+    static Vegetation vegetation(long id) {
+        Vegetation veg = new Vegetation();
+        veg.setId(id);
+        veg.setUserID(1L);
+        veg.setName("Profile " + id);
+        veg.setDayTempMin(18);         veg.setDayTempMax(30);
+        veg.setNightTempMin(14);       veg.setNightTempMax(22);
+        veg.setDayGroundHumidMin(40);  veg.setDayGroundHumidMax(80);
+        veg.setNightGroundHumidMin(45); veg.setNightGroundHumidMax(85);
+        veg.setDayAirHumidMin(50);     veg.setDayAirHumidMax(80);
+        veg.setNightAirHumidMin(55);   veg.setNightAirHumidMax(90);
+        return veg;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.smartfarmapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FarmGallery.isVideo(), called for every gallery cell bind, over public
+ * storage URLs like the ones FarmGalleryRepo stores (3 photos : 1 video).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FarmGalleryBenchmark {
+
+    private static final int ITEMS = 256;   // power of two → cheap index wrap
+
+    private final FarmGallery[] items = new FarmGallery[ITEMS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEMS; i++) {
+            String uri = "https://lqdbdpnqapcrgwdapbba.supabase.co/storage/v1/object/public/farm-gallery/"
+                    + UUID.nameUUIDFromBytes(new byte[]{(byte) i}) + (i % 4 == 0 ? ".mp4" : ".jpg");
+            items[i] = new FarmGallery(1L, uri);
+        }
+    }
+
+    @Benchmark
+    public boolean isVideo() {
+        return items[next++ & (ITEMS - 1)].isVideo();
+    }
+}
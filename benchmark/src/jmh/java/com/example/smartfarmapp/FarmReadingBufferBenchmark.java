@@ -0,0 +1,87 @@
+package com.example.smartfarmapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A week of per-minute readings held as List&lt;Farm&gt; (what MainFragment used
+ * to keep) versus FarmReadingBuffer. Scores are per reading.
+ *
+ *   alertScan*  – day/night + range check over every reading
+ *   sumTemp*    – one metric over every reading (what a chart or rollup does)
+ *   append      – steady-state append into a full buffer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FarmReadingBufferBenchmark {
+
+    private static final int READINGS = FarmReadingBuffer.ONE_WEEK_PER_MINUTE;
+
+    private List<Farm>        list;
+    private FarmReadingBuffer buffer;
+    private Vegetation        vegetation;
+    private int               nextId;
+
+    @Setup
+    public void setUp() {
+        Farm[] farms = BenchmarkData.farms(READINGS, 5);
+        list   = new ArrayList<>(READINGS);
+        buffer = new FarmReadingBuffer(READINGS);
+        // BenchmarkData is newest first; both stores keep oldest first
+        for (int i = READINGS - 1; i >= 0; i--) {
+            list.add(farms[i]);
+            buffer.append(farms[i]);
+        }
+        vegetation = BenchmarkData.vegetation(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public void alertScan_list(Blackhole bh) {
+        for (Farm farm : list) {
+            boolean day = FarmTime.isDayTime(farm.getDateTime());
+            bh.consume(RangeCheck.outOfRangeMask(farm, vegetation, day));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public void alertScan_buffer(Blackhole bh) {
+        FarmReadingBuffer.View all = buffer.view();
+        for (int i = 0; i < all.size(); i++) bh.consume(all.outOfRangeMask(i, vegetation));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public long sumTemp_list() {
+        long sum = 0;
+        for (Farm farm : list) sum += farm.getTemp();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public long sumTemp_buffer() {
+        long sum = 0;
+        FarmReadingBuffer.View all = buffer.view();
+        for (int i = 0; i < all.size(); i++) sum += all.temp(i);
+        return sum;
+    }
+
+    @Benchmark
+    public void append() {
+        buffer.append(nextId++, 1_750_000_000_000L + nextId * 60_000L, 20, 50, 60);
+    }
+}
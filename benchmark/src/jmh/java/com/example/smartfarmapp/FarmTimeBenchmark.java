@@ -0,0 +1,79 @@
+package com.example.smartfarmapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FarmAdapter.isDayTime / formatDate (now FarmTime), called once per bound row.
+ * The *NewFormatter variants are the previous implementation – two
+ * SimpleDateFormat instances per call – kept as the reference point.
+ * isDayTimeEpoch is the sunrise/sunset table lookup for an already-parsed time
+ * (FarmReadingBuffer, rollups, the alert machines).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FarmTimeBenchmark {
+
+    private static final int SAMPLES = 1024;   // power of two → cheap index wrap
+
+    private final String[] timestamps = new String[SAMPLES];
+    private final long[]   epochs     = new long[SAMPLES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Farm[] farms = BenchmarkData.farms(SAMPLES, 7);
+        for (int i = 0; i < SAMPLES; i++) {
+            timestamps[i] = farms[i].getDateTime();
+            epochs[i]     = FarmTime.toEpochMillis(timestamps[i]);
+        }
+    }
+
+    private String nextTimestamp() {
+        return timestamps[next++ & (SAMPLES - 1)];
+    }
+
+    @Benchmark
+    public boolean isDayTime() {
+        return FarmTime.isDayTime(nextTimestamp());
+    }
+
+    @Benchmark
+    public boolean isDayTimeEpoch() {
+        return FarmTime.isDayTime(epochs[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return FarmTime.formatDate(nextTimestamp());
+    }
+
+    @Benchmark
+    public boolean isDayTimeNewFormatter() throws Exception {
+        SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        Date date = parser.parse(nextTimestamp().substring(0, 19));
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        int hour = cal.get(Calendar.HOUR_OF_DAY);
+        return hour >= 6 && hour < 18;
+    }
+
+    @Benchmark
+    public String formatDateNewFormatter() throws Exception {
+        SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        Date date = parser.parse(nextTimestamp().substring(0, 19));
+        return new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.US).format(date);
+    }
+}
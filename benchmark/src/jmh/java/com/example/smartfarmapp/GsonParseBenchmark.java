@@ -0,0 +1,79 @@
+package com.example.smartfarmapp;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the Farm and Vegetationtbl JSON arrays, reflective Gson vs the
+ * streaming TypeAdapters the app registers in ModelJson.
+ *
+ * rows: 100 (a day of hourly rows), 1 440 (a day per minute), 10 080 (a week per minute).
+ * ModelJson itself pulls in an Android repo class, so the same adapters are
+ * registered on a local Gson here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonParseBenchmark {
+
+    private static final Type FARM_LIST       = TypeToken.getParameterized(List.class, Farm.class).getType();
+    private static final Type VEGETATION_LIST = TypeToken.getParameterized(List.class, Vegetation.class).getType();
+
+    @Param({"100", "1440", "10080"})
+    public int rows;
+
+    private final Gson reflective = new Gson();
+    private final Gson adapters   = new GsonBuilder()
+            .registerTypeAdapter(Farm.class,       new FarmTypeAdapter())
+            .registerTypeAdapter(Vegetation.class, new VegetationTypeAdapter())
+            .create();
+
+    private String farmJson;
+    private String vegetationJson;
+
+    @Setup
+    public void setUp() {
+        farmJson = reflective.toJson(Arrays.asList(BenchmarkData.farms(rows, 42)));
+
+        // A user has a handful of profiles; scale with rows only to keep the numbers measurable
+        List<Vegetation> profiles = new ArrayList<>();
+        for (int i = 1; i <= Math.max(10, rows / 100); i++) profiles.add(BenchmarkData.vegetation(i));
+        vegetationJson = reflective.toJson(profiles);
+    }
+
+    @Benchmark
+    public List<Farm> farmsReflective() {
+        return reflective.fromJson(farmJson, FARM_LIST);
+    }
+
+    @Benchmark
+    public List<Farm> farmsTypeAdapter() {
+        return adapters.fromJson(farmJson, FARM_LIST);
+    }
+
+    @Benchmark
+    public List<Vegetation> vegetationsReflective() {
+        return reflective.fromJson(vegetationJson, VEGETATION_LIST);
+    }
+
+    @Benchmark
+    public List<Vegetation> vegetationsTypeAdapter() {
+        return adapters.fromJson(vegetationJson, VEGETATION_LIST);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.smartfarmapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What SensorChartView does per frame: find the visible window in a week of
+ * per-minute readings and reduce it to one point per 2 px of a 1080 px wide
+ * chart. Scores are per frame; a 60 fps frame has ~16,000 µs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LttbBenchmark {
+
+    private static final int POINTS = 1080 / 2;
+
+    /** Minutes on screen: one day, two days (the raw-data limit), the whole week. */
+    @Param({"1440", "2880", "10080"})
+    public int windowMinutes;
+
+    private FarmReadingBuffer buffer;
+    private Lttb.Source       temps;
+    private final int[]       kept = new int[POINTS];
+
+    @Setup
+    public void setUp() {
+        Farm[] farms = BenchmarkData.farms(FarmReadingBuffer.ONE_WEEK_PER_MINUTE, 7);
+        buffer = new FarmReadingBuffer(FarmReadingBuffer.ONE_WEEK_PER_MINUTE);
+        // Oldest first; farms[0] is skipped because its date wraps round to the 1st of the month
+        for (int i = farms.length - 1; i >= 1; i--) buffer.append(farms[i]);
+        temps = new Lttb.Source() {
+            @Override public long  x(int index) { return buffer.epochMillis(index); }
+            @Override public float y(int index) { return buffer.temp(index); }
+        };
+    }
+
+    @Benchmark
+    public int frame() {
+        int  n     = buffer.size();
+        long end   = buffer.epochMillis(n - 1);
+        int  from  = Lttb.lowerBound(temps, 0, n, end - windowMinutes * 60_000L);
+        return Lttb.downsample(temps, from, n, POINTS, kept);
+    }
+}
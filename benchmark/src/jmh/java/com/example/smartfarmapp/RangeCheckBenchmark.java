@@ -0,0 +1,57 @@
+package com.example.smartfarmapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The threshold checks behind FarmMonitoringService.checkAndNotifyIfOutOfRange
+ * and the FarmAdapter row colours, over a day of per-minute readings.
+ * Scores are per reading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RangeCheckBenchmark {
+
+    private static final int READINGS = 1440;
+
+    private Farm[]     farms;
+    private boolean[]  isDay;
+    private Vegetation vegetation;
+
+    @Setup
+    public void setUp() {
+        farms      = BenchmarkData.farms(READINGS, 3);
+        vegetation = BenchmarkData.vegetation(1);
+        isDay      = new boolean[READINGS];
+        for (int i = 0; i < READINGS; i++) isDay[i] = FarmTime.isDayTime(farms[i].getDateTime());
+    }
+
+    /** Range check only, day/night already known. */
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public void outOfRangeMask(Blackhole bh) {
+        for (int i = 0; i < READINGS; i++) {
+            bh.consume(RangeCheck.outOfRangeMask(farms[i], vegetation, isDay[i]));
+        }
+    }
+
+    /** What the service does per reading: classify day/night, then check. */
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public void dayNightAndRangeCheck(Blackhole bh) {
+        for (Farm farm : farms) {
+            boolean day = FarmTime.isDayTime(farm.getDateTime());
+            bh.consume(RangeCheck.outOfRangeMask(farm, vegetation, day));
+        }
+    }
+}
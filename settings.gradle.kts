@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "SmartFarmApp"
 include(":app")
+include(":benchmark")
  
\ No newline at end of file
@@ -0,0 +1,21 @@
+-- Optional per-profile limits for the derived metrics (see DerivedMetrics,
+-- GrowingDegreeDays) and the compound alert rules text (see AlertRules).
+-- All nullable: a profile without them keeps working as before.
+-- Column names are camelCase like the existing threshold columns, so they are quoted.
+
+alter table public."Vegetationtbl"
+    add column if not exists "vpdMin"      real,   -- kPa
+    add column if not exists "vpdMax"      real,   -- kPa
+    add column if not exists "dewPointMax" real,   -- °C
+    add column if not exists "gddBase"     real,   -- °C
+    add column if not exists "gddTarget"   real,   -- degree-days from planting to harvest
+    add column if not exists "rules"       text;
+
+-- Dropped first so the migration can be run again (add constraint has no "if not exists").
+alter table public."Vegetationtbl"
+    drop constraint if exists "Vegetationtbl_vpd_range",
+    drop constraint if exists "Vegetationtbl_gdd_target_positive",
+    add constraint "Vegetationtbl_vpd_range"
+        check ("vpdMin" is null or "vpdMax" is null or "vpdMin" <= "vpdMax"),
+    add constraint "Vegetationtbl_gdd_target_positive"
+        check ("gddTarget" is null or "gddTarget" > 0);
@@ -0,0 +1,28 @@
+-- Append-only history of profile activations (see UserVegetationRepo,
+-- ProfileTimeline). One row per "Set Active"; rows are never updated, so a
+-- user switching A → B → A keeps all three periods. UserVegetation."date"
+-- stays the date the vegetation was linked.
+
+create table if not exists public."UserVegetationActivation" (
+    "ActivationID" bigint generated by default as identity primary key,
+    "UserID"       bigint      not null references public."User"("id") on delete cascade,
+    "VegetationID" bigint      references public."Vegetationtbl"("id") on delete set null,
+    "activatedAt"  timestamptz not null default now()
+);
+
+create index if not exists "UserVegetationActivation_user_time"
+    on public."UserVegetationActivation" ("UserID", "activatedAt", "ActivationID");
+
+-- Seed from the old scheme, where activating a row overwrote its date: a row
+-- dated up to the active row's date was active from that date (the active row
+-- is inserted last, so it wins a tie). Later-dated rows were never activated.
+insert into public."UserVegetationActivation" ("UserID", "VegetationID", "activatedAt")
+select uv."UserID", uv."VegetationID", uv."date"::timestamptz
+from public."UserVegetation" uv
+where uv."date" is not null
+  and uv."date"::timestamptz <= coalesce(
+        (select a."date"::timestamptz
+           from public."UserVegetation" a
+          where a."UserID" = uv."UserID" and a."isActive"),
+        'infinity'::timestamptz)
+order by uv."date"::timestamptz, uv."isActive";